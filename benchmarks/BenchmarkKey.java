@@ -0,0 +1,56 @@
+// Title: BenchmarkKey
+// Files: None
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+/**
+ * The key type used by every benchmark. The hash code is chosen when the key is created, so the
+ * same keys can be given well spread hash codes or made to collide on purpose, while equality and
+ * ordering always depend on the id alone.
+ * 
+ * @author Michael Goldstein
+ * @see MapBenchmark
+ */
+public class BenchmarkKey implements Comparable<BenchmarkKey> {
+  private final int id; // the value which identifies this key
+  private final int hash; // the hash code of this key
+
+  /**
+   * Constructor for BenchmarkKey
+   * 
+   * @param id   the value which identifies this key
+   * @param hash the hash code of this key
+   */
+  public BenchmarkKey(int id, int hash) {
+    this.id = id;
+    this.hash = hash;
+  }
+
+  /**
+   * Returns the value which identifies this key
+   * 
+   * @return the value which identifies this key
+   */
+  public int getId() {
+    return id;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof BenchmarkKey && ((BenchmarkKey) other).id == id;
+  }
+
+  @Override
+  public int compareTo(BenchmarkKey other) {
+    return Integer.compare(id, other.id);
+  }
+}
@@ -0,0 +1,51 @@
+// Title: BenchmarkTarget
+// Files: BenchmarkKey
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+/**
+ * A data structure which can be benchmarked by MapBenchmark. Each project has its own
+ * DataStructureADT and exception classes, so every data structure gets a small adapter class which
+ * implements this interface and is compiled together with only its own project.
+ * 
+ * @author Michael Goldstein
+ * @see MapBenchmark
+ */
+public interface BenchmarkTarget {
+
+  /**
+   * Replaces the data structure with a new, empty one
+   */
+  void reset();
+
+  /**
+   * Inserts a key value pair that is not yet in the data structure
+   * 
+   * @param key   the key to be inserted
+   * @param value the value to be inserted
+   * @throws Exception if the data structure throws an exception, which should not happen
+   */
+  void insert(BenchmarkKey key, Integer value) throws Exception;
+
+  /**
+   * Returns the value of a key that is in the data structure
+   * 
+   * @param key the key whose value is returned
+   * @return the value of the given key
+   * @throws Exception if the data structure throws an exception, which should not happen
+   */
+  Integer get(BenchmarkKey key) throws Exception;
+
+  /**
+   * Removes a key that is in the data structure
+   * 
+   * @param key the key to be removed
+   * @return true if the key was removed
+   * @throws Exception if the data structure throws an exception, which should not happen
+   */
+  boolean remove(BenchmarkKey key) throws Exception;
+}
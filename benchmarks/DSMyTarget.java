@@ -0,0 +1,38 @@
+// Title: DSMyTarget
+// Files: BenchmarkTarget, DS_My
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+/**
+ * Adapts the author's linked list DS_My (p1) to BenchmarkTarget
+ * 
+ * @author Michael Goldstein
+ * @see DS_My
+ */
+public class DSMyTarget implements BenchmarkTarget {
+  private DS_My<BenchmarkKey, Integer> structure; // the data structure being benchmarked
+
+  @Override
+  public void reset() {
+    structure = new DS_My<BenchmarkKey, Integer>();
+  }
+
+  @Override
+  public void insert(BenchmarkKey key, Integer value) throws Exception {
+    structure.insert(key, value);
+  }
+
+  @Override
+  public Integer get(BenchmarkKey key) throws Exception {
+    return structure.get(key);
+  }
+
+  @Override
+  public boolean remove(BenchmarkKey key) throws Exception {
+    return structure.remove(key);
+  }
+}
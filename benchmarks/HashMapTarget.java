@@ -0,0 +1,40 @@
+// Title: HashMapTarget
+// Files: BenchmarkTarget, HashMap
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+import java.util.HashMap;
+
+/**
+ * Adapts Java's HashMap to BenchmarkTarget, as a baseline for the author's hash table
+ * 
+ * @author Michael Goldstein
+ * @see HashMap
+ */
+public class HashMapTarget implements BenchmarkTarget {
+  private HashMap<BenchmarkKey, Integer> structure; // the data structure being benchmarked
+
+  @Override
+  public void reset() {
+    structure = new HashMap<BenchmarkKey, Integer>();
+  }
+
+  @Override
+  public void insert(BenchmarkKey key, Integer value) throws Exception {
+    structure.put(key, value);
+  }
+
+  @Override
+  public Integer get(BenchmarkKey key) throws Exception {
+    return structure.get(key);
+  }
+
+  @Override
+  public boolean remove(BenchmarkKey key) throws Exception {
+    return structure.remove(key) != null;
+  }
+}
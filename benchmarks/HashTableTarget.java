@@ -0,0 +1,38 @@
+// Title: HashTableTarget
+// Files: BenchmarkTarget, HashTable
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+/**
+ * Adapts the author's HashTable (p3b) to BenchmarkTarget
+ * 
+ * @author Michael Goldstein
+ * @see HashTable
+ */
+public class HashTableTarget implements BenchmarkTarget {
+  private HashTable<BenchmarkKey, Integer> structure; // the data structure being benchmarked
+
+  @Override
+  public void reset() {
+    structure = new HashTable<BenchmarkKey, Integer>();
+  }
+
+  @Override
+  public void insert(BenchmarkKey key, Integer value) throws Exception {
+    structure.insert(key, value);
+  }
+
+  @Override
+  public Integer get(BenchmarkKey key) throws Exception {
+    return structure.get(key);
+  }
+
+  @Override
+  public boolean remove(BenchmarkKey key) throws Exception {
+    return structure.remove(key);
+  }
+}
@@ -0,0 +1,535 @@
+// Title: MapBenchmark
+// Files: BenchmarkKey, BenchmarkTarget, HashTableTarget, HashTablePow2Target, HashMapTarget,
+// TreeMapTarget, BSTTarget, AVLTarget, DSMyTarget
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark harness for the author's data structures (HashTable, BST, AVL, DS_My) and Java's
+ * HashMap and TreeMap. Unlike MyProfiler, which times one cold run, every measurement is made in a
+ * fresh JVM after warmup iterations, is repeated for several iterations, and is reported as the
+ * average time per operation with an error bound. Results can be written to a JSON file in the
+ * same layout as JMH's JSON output, so runs can be compared to find regressions.
+ * 
+ * Every combination of the following is measured:
+ * <ul>
+ * <li>target: hashtable, hashtablepow2 (HashTable with power of two capacity), hashmap, treemap,
+ * bst, avl, dsmy</li>
+ * <li>size: the number of keys in the data structure</li>
+ * <li>distribution: sequential (0, 1, 2, ...), random (distinct random keys in random order),
+ * zipfian (random keys, but lookups are skewed towards a few popular keys), or colliding (keys
+ * whose hash codes only take 16 distinct values)</li>
+ * <li>mix: insert (fill an empty structure), get (look up keys), remove (empty a full structure),
+ * or mixed (90% lookups, 10% remove and reinsert)</li>
+ * </ul>
+ * 
+ * @author Michael Goldstein
+ * @see MyProfiler
+ */
+public class MapBenchmark {
+  // the name of each target on the command line and the BenchmarkTarget class that adapts it.
+  // Each target is compiled into its own directory, named after it, by the Makefile
+  private static final String[][] TARGETS = {{"hashtable", "HashTableTarget"},
+      {"hashtablepow2", "HashTablePow2Target"}, {"hashmap", "HashMapTarget"},
+      {"treemap", "TreeMapTarget"}, {"bst", "BSTTarget"}, {"avl", "AVLTarget"},
+      {"dsmy", "DSMyTarget"}};
+  private static final String[] DISTRIBUTIONS = {"sequential", "random", "zipfian", "colliding"};
+  private static final String[] MIXES = {"insert", "get", "remove", "mixed"};
+
+  private static final int COLLIDING_HASHES = 16; // distinct hash codes of colliding keys
+  private static final double ZIPF_EXPONENT = 0.99; // the skew of zipfian lookups
+  private static final int MIXED_WRITE_EVERY = 10; // every 10th mixed operation is a write
+  private static final double Z_999 = 3.291; // z score of a 99.9% two sided confidence interval
+
+  // results are written here so that the JIT compiler cannot remove lookups as dead code
+  public static volatile int sink;
+
+  /**
+   * The keys used by one benchmark and the orders in which they are inserted, looked up, and
+   * removed
+   * 
+   * @author Michael Goldstein
+   */
+  private static class Workload {
+    private BenchmarkKey[] inserts; // every key once, in the order they are inserted
+    private BenchmarkKey[] accesses; // the keys looked up, possibly with repeats
+    private BenchmarkKey[] removals; // every key once, in the order they are removed
+  }
+
+  /**
+   * Creates the keys of a workload with the given distribution
+   * 
+   * @param distribution sequential, random, zipfian, or colliding
+   * @param size         the number of distinct keys
+   * @param seed         the seed of the random number generator, so every run uses the same keys
+   * @return the workload
+   * @throws IllegalArgumentException if the distribution is unknown
+   */
+  private static Workload createWorkload(String distribution, int size, long seed) {
+    Random random = new Random(seed);
+    Workload workload = new Workload();
+    workload.inserts = new BenchmarkKey[size];
+
+    if (distribution.equals("sequential")) {
+      for (int index = 0; index < size; index++) {
+        workload.inserts[index] = new BenchmarkKey(index, Integer.hashCode(index));
+      }
+      // sequential keys are also looked up and removed in order
+      workload.accesses = workload.inserts.clone();
+      workload.removals = workload.inserts.clone();
+      return workload;
+    }
+
+    if (distribution.equals("random") || distribution.equals("zipfian")) {
+      // distinct non negative random ids, already in random order
+      HashSet<Integer> used = new HashSet<Integer>();
+      for (int index = 0; index < size; index++) {
+        int id = random.nextInt(Integer.MAX_VALUE);
+        while (!used.add(id)) {
+          id = random.nextInt(Integer.MAX_VALUE);
+        }
+        workload.inserts[index] = new BenchmarkKey(id, Integer.hashCode(id));
+      }
+    } else if (distribution.equals("colliding")) {
+      for (int index = 0; index < size; index++) {
+        workload.inserts[index] = new BenchmarkKey(index, index % COLLIDING_HASHES);
+      }
+      shuffle(workload.inserts, random);
+    } else {
+      throw new IllegalArgumentException("unknown distribution " + distribution);
+    }
+
+    workload.removals = workload.inserts.clone();
+    shuffle(workload.removals, random);
+    if (distribution.equals("zipfian")) {
+      workload.accesses = zipfianAccesses(workload.inserts, random);
+    } else {
+      workload.accesses = workload.inserts.clone();
+      shuffle(workload.accesses, random);
+    }
+    return workload;
+  }
+
+  /**
+   * Returns as many lookups as there are keys, where the key of rank r is looked up with
+   * probability proportional to 1 / r^ZIPF_EXPONENT. Keys are in random order, so a key's rank
+   * does not depend on its value
+   * 
+   * @param keys   the keys to be looked up, ranked by their position in the array
+   * @param random the random number generator to be used
+   * @return the keys to be looked up
+   */
+  private static BenchmarkKey[] zipfianAccesses(BenchmarkKey[] keys, Random random) {
+    double[] cumulative = new double[keys.length];
+    double total = 0;
+    for (int rank = 0; rank < keys.length; rank++) {
+      total += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+      cumulative[rank] = total;
+    }
+
+    BenchmarkKey[] accesses = new BenchmarkKey[keys.length];
+    for (int index = 0; index < accesses.length; index++) {
+      int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+      if (rank < 0) { // not an exact match, so converts the insertion point to a rank
+        rank = -rank - 1;
+      }
+      accesses[index] = keys[Math.min(rank, keys.length - 1)];
+    }
+    return accesses;
+  }
+
+  /**
+   * Shuffles the given keys in place (Fisher-Yates shuffle)
+   * 
+   * @param keys   the keys to be shuffled
+   * @param random the random number generator to be used
+   */
+  private static void shuffle(BenchmarkKey[] keys, Random random) {
+    for (int index = keys.length - 1; index > 0; index--) {
+      int other = random.nextInt(index + 1);
+      BenchmarkKey temp = keys[index];
+      keys[index] = keys[other];
+      keys[other] = temp;
+    }
+  }
+
+  /**
+   * Runs the operations of the given mix once over the whole workload
+   * 
+   * @param target   the data structure, already filled for every mix except insert
+   * @param workload the keys to be used
+   * @param mix      insert, get, remove, or mixed
+   * @return the number of operations run
+   * @throws Exception if the data structure throws an exception, which should not happen
+   */
+  private static long runOperations(BenchmarkTarget target, Workload workload, String mix)
+      throws Exception {
+    int sum = 0; // sums looked up values so that the lookups have a use
+    long operations = 0;
+    switch (mix) {
+      case "insert":
+        for (int index = 0; index < workload.inserts.length; index++) {
+          target.insert(workload.inserts[index], index);
+        }
+        operations = workload.inserts.length;
+        break;
+      case "get":
+        for (BenchmarkKey key : workload.accesses) {
+          sum += target.get(key);
+        }
+        operations = workload.accesses.length;
+        break;
+      case "remove":
+        for (BenchmarkKey key : workload.removals) {
+          if (!target.remove(key)) {
+            throw new IllegalStateException("key was not removed");
+          }
+        }
+        operations = workload.removals.length;
+        break;
+      case "mixed":
+        // removing and reinserting the same key keeps the number of keys constant
+        for (int index = 0; index < workload.accesses.length; index++) {
+          BenchmarkKey key = workload.accesses[index];
+          if (index % MIXED_WRITE_EVERY == 0) {
+            target.remove(key);
+            target.insert(key, index);
+            operations += 2;
+          } else {
+            sum += target.get(key);
+            operations++;
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown mix " + mix);
+    }
+    sink = sum;
+    return operations;
+  }
+
+  /**
+   * Runs one iteration: repeats the operations of the given mix until the given time has passed,
+   * and returns the average time of an operation. Filling the data structure between repeats is
+   * not timed, but counts towards the iteration time, so that a slow fill (such as a degenerate
+   * BST) cannot make an iteration run for much longer than asked
+   * 
+   * @param target         the data structure to be benchmarked
+   * @param workload       the keys to be used
+   * @param mix            insert, get, remove, or mixed
+   * @param iterationNanos the duration of the iteration in nanoseconds
+   * @return the average time of an operation in nanoseconds
+   * @throws Exception if the data structure throws an exception, which should not happen
+   */
+  private static double runIteration(BenchmarkTarget target, Workload workload, String mix,
+      long iterationNanos) throws Exception {
+    long elapsed = 0;
+    long operations = 0;
+    boolean filled = false;
+    long iterationStart = System.nanoTime();
+    while (operations == 0 || System.nanoTime() - iterationStart < iterationNanos) {
+      // insert and remove change the data structure, so it is rebuilt before every repeat
+      if (!filled || mix.equals("insert") || mix.equals("remove")) {
+        target.reset();
+        if (!mix.equals("insert")) {
+          for (int index = 0; index < workload.inserts.length; index++) {
+            target.insert(workload.inserts[index], index);
+          }
+        }
+        filled = true;
+      }
+      long start = System.nanoTime();
+      operations += runOperations(target, workload, mix);
+      elapsed += System.nanoTime() - start;
+    }
+    return (double) elapsed / operations;
+  }
+
+  /**
+   * Runs the warmup and measured iterations of one benchmark in this JVM. Called in a forked JVM
+   * whose class path only holds the classes of one target. The scores are printed on one line
+   * which starts with "RESULT" for the parent JVM to read
+   * 
+   * @param args the target class, size, distribution, mix, warmup iterations, measured iterations,
+   *             iteration time in milliseconds, and seed
+   * @throws Exception if the data structure throws an exception, which should not happen
+   */
+  private static void runFork(String[] args) throws Exception {
+    BenchmarkTarget target =
+        (BenchmarkTarget) Class.forName(args[0]).getDeclaredConstructor().newInstance();
+    int size = Integer.parseInt(args[1]);
+    String distribution = args[2];
+    String mix = args[3];
+    int warmups = Integer.parseInt(args[4]);
+    int iterations = Integer.parseInt(args[5]);
+    long iterationNanos = Long.parseLong(args[6]) * 1000000L;
+    Workload workload = createWorkload(distribution, size, Long.parseLong(args[7]));
+
+    for (int iteration = 0; iteration < warmups; iteration++) {
+      runIteration(target, workload, mix, iterationNanos); // warms up the JIT compiler
+    }
+    StringBuilder scores = new StringBuilder("RESULT ");
+    for (int iteration = 0; iteration < iterations; iteration++) {
+      if (iteration > 0) {
+        scores.append(',');
+      }
+      scores.append(runIteration(target, workload, mix, iterationNanos));
+    }
+    System.out.println(scores);
+  }
+
+  /**
+   * Runs one fork of a benchmark in a new JVM, so that the JIT compiler's profile of one target
+   * cannot affect the results of another
+   * 
+   * @param classPath the class path of the target
+   * @param forkArgs  the arguments of runFork
+   * @return the scores of the measured iterations
+   * @throws IOException          if the JVM cannot be started
+   * @throws InterruptedException if interrupted while waiting for the JVM
+   * @throws RuntimeException     with the JVM's last line of output if the fork failed
+   */
+  private static List<Double> fork(String classPath, String[] forkArgs)
+      throws IOException, InterruptedException {
+    List<String> command = new ArrayList<String>();
+    command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    command.add("-cp");
+    command.add(classPath);
+    command.add("MapBenchmark");
+    command.add("-fork");
+    command.addAll(Arrays.asList(forkArgs));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+    List<Double> scores = new ArrayList<Double>();
+    String lastLine = "no output";
+    try (BufferedReader output =
+        new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = output.readLine()) != null) {
+        if (line.startsWith("RESULT ")) {
+          for (String score : line.substring(7).split(",")) {
+            scores.add(Double.parseDouble(score));
+          }
+        } else if (!line.trim().isEmpty()) {
+          lastLine = line.trim();
+        }
+      }
+    }
+    if (process.waitFor() != 0 || scores.isEmpty()) {
+      throw new RuntimeException(lastLine);
+    }
+    return scores;
+  }
+
+  /**
+   * Returns the value of a command line option, or the given default if it was not given
+   * 
+   * @param args         the command line arguments
+   * @param name         the name of the option, without the leading dash
+   * @param defaultValue the value returned if the option was not given
+   * @return the value of the option
+   */
+  private static String option(String[] args, String name, String defaultValue) {
+    for (int index = 0; index + 1 < args.length; index += 2) {
+      if (args[index].equals("-" + name)) {
+        return args[index + 1];
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Returns the class name of the target with the given name
+   * 
+   * @param name the name of the target
+   * @return the name of the class which adapts the target
+   * @throws IllegalArgumentException if the target is unknown
+   */
+  private static String targetClass(String name) {
+    for (String[] target : TARGETS) {
+      if (target[0].equals(name)) {
+        return target[1];
+      }
+    }
+    throw new IllegalArgumentException("unknown target " + name);
+  }
+
+  /**
+   * Returns the names of all the given targets, distributions, or mixes, comma separated
+   * 
+   * @param names the names to be joined
+   * @return the names, comma separated
+   */
+  private static String join(String[] names) {
+    return String.join(",", names);
+  }
+
+  /**
+   * Driver method which runs every combination of the given targets, sizes, distributions, and
+   * mixes, prints the results, and writes them to a JSON file
+   * 
+   * @param args command line options, each followed by its value: -targets, -sizes,
+   *             -distributions, -mixes (comma separated lists, default all targets,
+   *             distributions, and mixes, and sizes 1000,10000), -warmups (default 3), -iterations
+   *             (default 5), -time (milliseconds per iteration, default 100), -forks (default 1),
+   *             -seed (default 42), -build (the directory with one class directory per target,
+   *             default build), and -json (the results file, default results.json, or none)
+   */
+  public static void main(String[] args) {
+    try {
+      if (args.length > 0 && args[0].equals("-fork")) {
+        runFork(Arrays.copyOfRange(args, 1, args.length));
+        return;
+      }
+
+      String[] targets = option(args, "targets", join(allTargets())).split(",");
+      String[] sizes = option(args, "sizes", "1000,10000").split(",");
+      String[] distributions = option(args, "distributions", join(DISTRIBUTIONS)).split(",");
+      String[] mixes = option(args, "mixes", join(MIXES)).split(",");
+      String warmups = option(args, "warmups", "3");
+      String iterations = option(args, "iterations", "5");
+      String time = option(args, "time", "100");
+      int forks = Integer.parseInt(option(args, "forks", "1"));
+      String seed = option(args, "seed", "42");
+      String build = option(args, "build", "build");
+      String json = option(args, "json", "results.json");
+
+      List<String> results = new ArrayList<String>();
+      System.out.println(String.format("%-13s %-7s %9s %-11s %14s   %s", "Target", "Mix", "Size",
+          "Keys", "Score", "Error (99.9%)"));
+      for (String target : targets) {
+        String classPath = build + File.separator + target;
+        for (String size : sizes) {
+          for (String distribution : distributions) {
+            for (String mix : mixes) {
+              String[] forkArgs = {targetClass(target), size, distribution, mix, warmups,
+                  iterations, time, seed};
+              results.add(runBenchmark(classPath, forkArgs, forks, target, Integer.parseInt(
+                  warmups), Integer.parseInt(iterations), Integer.parseInt(time)));
+            }
+          }
+        }
+      }
+
+      if (!json.equals("none")) {
+        try (PrintWriter writer = new PrintWriter(json)) {
+          writer.println("[");
+          writer.println(String.join(",\n", results));
+          writer.println("]");
+        }
+        System.out.println("Results written to " + json);
+      }
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java MapBenchmark [-option value]... failed! A(n) "
+          + e.getClass().getName() + " was thrown: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Returns the names of every target
+   * 
+   * @return the names of every target
+   */
+  private static String[] allTargets() {
+    String[] names = new String[TARGETS.length];
+    for (int index = 0; index < TARGETS.length; index++) {
+      names[index] = TARGETS[index][0];
+    }
+    return names;
+  }
+
+  /**
+   * Runs every fork of one benchmark, prints its score, and returns its result as a JSON object in
+   * the layout of JMH's JSON output. A benchmark whose fork fails (for example with a
+   * StackOverflowError) is reported with its error instead of a score
+   * 
+   * @param classPath  the class path of the target
+   * @param forkArgs   the arguments of runFork
+   * @param forks      the number of forks
+   * @param target     the name of the target
+   * @param warmups    the number of warmup iterations
+   * @param iterations the number of measured iterations
+   * @param time       the time of each iteration in milliseconds
+   * @return the result as a JSON object
+   * @throws IOException          if a JVM cannot be started
+   * @throws InterruptedException if interrupted while waiting for a JVM
+   */
+  private static String runBenchmark(String classPath, String[] forkArgs, int forks,
+      String target, int warmups, int iterations, int time)
+      throws IOException, InterruptedException {
+    String size = forkArgs[1];
+    String distribution = forkArgs[2];
+    String mix = forkArgs[3];
+    String header = String.format(
+        "  {\n    \"benchmark\" : \"MapBenchmark.%s.%s\",\n    \"mode\" : \"avgt\",\n"
+            + "    \"forks\" : %d,\n    \"warmupIterations\" : %d,\n"
+            + "    \"measurementIterations\" : %d,\n    \"measurementTime\" : \"%d ms\",\n"
+            + "    \"params\" : {\n      \"size\" : \"%s\",\n      \"distribution\" : \"%s\"\n"
+            + "    },\n",
+        target, mix, forks, warmups, iterations, time, size, distribution);
+
+    List<List<Double>> rawData = new ArrayList<List<Double>>();
+    try {
+      for (int run = 0; run < forks; run++) {
+        rawData.add(fork(classPath, forkArgs));
+      }
+    } catch (RuntimeException e) {
+      System.out.println(String.format("%-13s %-7s %9s %-11s %14s   %s", target, mix, size,
+          distribution, "FAILED", e.getMessage()));
+      return header + "    \"error\" : \"" + e.getMessage().replace("\\", "\\\\")
+          .replace("\"", "\\\"") + "\"\n  }";
+    }
+
+    // mean, and the half width of its 99.9% confidence interval (normal approximation)
+    List<Double> scores = new ArrayList<Double>();
+    for (List<Double> forkScores : rawData) {
+      scores.addAll(forkScores);
+    }
+    double mean = 0;
+    for (double score : scores) {
+      mean += score;
+    }
+    mean /= scores.size();
+    double variance = 0;
+    for (double score : scores) {
+      variance += (score - mean) * (score - mean);
+    }
+    double error = scores.size() > 1
+        ? Z_999 * Math.sqrt(variance / (scores.size() - 1)) / Math.sqrt(scores.size())
+        : Double.NaN;
+
+    System.out.println(String.format("%-13s %-7s %9s %-11s %14.2f +- %.2f ns/op", target, mix, size,
+        distribution, mean, error));
+
+    StringBuilder raw = new StringBuilder();
+    for (List<Double> forkScores : rawData) {
+      if (raw.length() > 0) {
+        raw.append(", ");
+      }
+      raw.append(forkScores.toString());
+    }
+    double halfWidth = Double.isNaN(error) ? 0 : error; // a single score has no error bound
+    return header + String.format(
+        "    \"primaryMetric\" : {\n      \"score\" : %s,\n      \"scoreError\" : %s,\n"
+            + "      \"scoreConfidence\" : [ %s, %s ],\n      \"scoreUnit\" : \"ns/op\",\n"
+            + "      \"rawData\" : [ %s ]\n    }\n  }",
+        mean, Double.isNaN(error) ? "\"NaN\"" : error, mean - halfWidth, mean + halfWidth, raw);
+  }
+}
@@ -11,106 +11,313 @@
 // Persons: None
 // Online Sources: None
 
+import java.util.Arrays; // used to clear the path
+
 /**
  * An AVL tree which extends BST. Automatically keeps tree in balance through rotations
  * 
  * @author Michael Goldstein
- *
+ * 
  * @param <K> The key type of nodes in the AVL tree
  * @param <V> The value type of the stored values in the AVL tree
  */
 public class AVL<K extends Comparable<K>, V> extends BST<K, V> {
+  // the height of an AVL tree of n keys is less than 1.45 * log2(n + 2), so 64 levels fits any tree
+  // of at most Integer.MAX_VALUE keys
+  private static final int MAX_HEIGHT = 64;
+
+  // nodes on the path from the root to the node being inserted or removed, reused by every insert
+  // and remove so that rebalancing needs neither recursion nor allocation
+  private BSTNode<K, V>[] path;
 
   /**
    * Constructor for AVL tree. Calls default constructor of superclass (BST)
    * 
    * @see BST#BST()
    */
+  @SuppressWarnings({"unchecked", "rawtypes"})
   public AVL() {
     super();
+    path = (BSTNode<K, V>[]) new BSTNode[MAX_HEIGHT];
   }
 
   /**
-   * Insert method for AVL tree. Runs insert method from BST (inserts a new node with the given key
-   * and values) then rebalances
+   * Insert method for AVL tree. Walks down from the root with a loop, recording the nodes passed in
+   * path, inserts a new node with the given key and value in place of the null child reached, then
+   * rebalances the nodes on the path from the new node's parent back up to the root
    * 
    * @throws IllegalNullKeyException if key is null
    * @throws DuplicateKeyException   if another node with the given key exists in the tree
    * 
-   * @see BST#insert(Comparable, Object)
-   * @see AVL#rebalance(BSTNode)
+   * @see AVL#rebalancePath(int)
    */
   @Override
   public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
-    super.insert(key, value);
-    root = rebalance(root);
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    int depth = 0; // number of nodes on the path
+    int comparison = 0; // comparison of the last node on the path's key to the given key
+    BSTNode<K, V> n = root;
+    while (n != null) {
+      comparison = n.key.compareTo(key);
+      if (comparison == 0) { // checks if node with given key exists in tree
+        clearPath(depth);
+        throw new DuplicateKeyException();
+      }
+      path[depth++] = n;
+      n = comparison > 0 ? n.left : n.right;
+    }
+
+    BSTNode<K, V> newNode = new BSTNode<K, V>(key, value);
+    if (depth == 0) {
+      root = newNode;
+    } else if (comparison > 0) {
+      path[depth - 1].left = newNode;
+    } else {
+      path[depth - 1].right = newNode;
+    }
+    numKeys++;
+    modCount++;
+    rebalancePath(depth);
   }
 
   /**
-   * Remove method for AVL tree. Runs remove method from BST (remove a node with the given key) then
-   * rebalances
+   * Remove method for AVL tree. Removes the node with the given key the same way BST does, giving
+   * a node with two children the key and value of its in order predecessor and removing that
+   * instead, while recording the nodes passed in path. Then rebalances the nodes on the path from
+   * the removed node's parent back up to the root
    * 
    * @throws IllegalNullKeyExcpetion if given key is null
    * @throws KeyNotFoundException    if node with given key is not found in tree
    * 
    * @see BST#remove(Comparable)
-   * @see AVL#rebalance(BSTNode)
+   * @see AVL#rebalancePath(int)
    */
   @Override
   public boolean remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
-    super.remove(key);
-    root = rebalance(root);
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    int depth = 0; // number of nodes on the path
+    int comparison;
+    BSTNode<K, V> n = root;
+    while (n != null && (comparison = n.key.compareTo(key)) != 0) {
+      path[depth++] = n;
+      n = comparison > 0 ? n.left : n.right;
+    }
+    if (n == null) { // the node with the given key would be here but is not in the tree
+      clearPath(depth);
+      throw new KeyNotFoundException();
+    }
+
+    if (n.left != null && n.right != null) {
+      // the path continues down to the in order predecessor, whose parent may be rebalanced
+      path[depth++] = n;
+      BSTNode<K, V> inOrderPredecessor = n.left;
+      while (inOrderPredecessor.right != null) {
+        path[depth++] = inOrderPredecessor;
+        inOrderPredecessor = inOrderPredecessor.right;
+      }
+      n.key = inOrderPredecessor.key;
+      n.value = inOrderPredecessor.value;
+      replaceChild(path[depth - 1], inOrderPredecessor, inOrderPredecessor.left);
+    } else {
+      BSTNode<K, V> parent = depth == 0 ? null : path[depth - 1];
+      replaceChild(parent, n, n.left == null ? n.right : n.left);
+    }
+    numKeys--;
+    modCount++;
+    rebalancePath(depth);
     return true;
   }
 
+  /**
+   * Rebalances each of the first depth nodes of path, starting from the deepest, and links the
+   * root of each rebalanced subtree back into its parent. Only the nodes on the path from the root
+   * to an inserted or removed node can become out of balance, so no other nodes need rebalancing,
+   * and once a subtree's height is unchanged only the sizes of its ancestors are updated. Clears
+   * the path afterwards so that it does not keep removed nodes alive
+   * 
+   * @param depth the number of nodes on the path
+   * @see AVL#rebalance(BSTNode)
+   */
+  private void rebalancePath(int depth) {
+    boolean rebalancing = true; // false once a subtree's shape and height are unchanged
+    for (int index = depth - 1; index >= 0; index--) {
+      BSTNode<K, V> n = path[index];
+      if (rebalancing) {
+        int oldHeight = n.height;
+        BSTNode<K, V> balanced = rebalance(n);
+        if (balanced != n) {
+          replaceChild(index == 0 ? null : path[index - 1], n, balanced);
+        } else if (n.height == oldHeight) {
+          // none of the ancestors can need rebalancing, but their sizes have still changed
+          rebalancing = false;
+        }
+      } else {
+        n.size = 1 + size(n.left) + size(n.right);
+      }
+      path[index] = null;
+    }
+  }
+
+  /**
+   * Clears the first depth nodes of path, used when an insert or remove fails part way down
+   * 
+   * @param depth the number of nodes on the path
+   */
+  private void clearPath(int depth) {
+    Arrays.fill(path, 0, depth, null);
+  }
+
+  /**
+   * Returns the height of this AVL tree, which is the stored height of its root, in constant time
+   * 
+   * @return the number of levels that contain keys in this AVL tree
+   */
+  @Override
+  public int getHeight() {
+    return height(root);
+  }
+
+  /**
+   * Returns the number of keys strictly less than the given key, in time proportional to the height
+   * of the tree. Walks down from the root, adding the size of the left subtree and one for every
+   * node passed whose key is less than the given key.
+   * 
+   * @param key the key to be ranked
+   * @return the number of keys < key
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public int rank(K key) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    int rank = 0;
+    BSTNode<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison < 0) { // n and its left subtree are all less than key
+        rank += size(n.left) + 1;
+        n = n.right;
+      } else if (comparison > 0) {
+        n = n.left;
+      } else { // only n's left subtree is less than key
+        return rank + size(n.left);
+      }
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the key at the given index of the keys in sorted order, in time proportional to the
+   * height of the tree. Uses the size of each left subtree to decide which way to go.
+   * 
+   * @param index the index of the key in sorted order
+   * @return the key at the index
+   * @throws IndexOutOfBoundsException if index is negative or not less than numKeys()
+   */
+  @Override
+  public K select(int index) {
+    if (index < 0 || index >= numKeys) {
+      throw new IndexOutOfBoundsException("index " + index + " with " + numKeys + " keys");
+    }
+
+    BSTNode<K, V> n = root;
+    while (true) {
+      int leftSize = size(n.left);
+      if (index < leftSize) { // the key is in the left subtree
+        n = n.left;
+      } else if (index == leftSize) {
+        return n.key;
+      } else { // the key is in the right subtree, after n and its left subtree
+        index -= leftSize + 1;
+        n = n.right;
+      }
+    }
+  }
+
+  /**
+   * Returns the stored height of the subtree with the given node as root, 0 if the node is null
+   * 
+   * @param n the root of the subtree
+   * @return the height of the subtree
+   */
+  private int height(BSTNode<K, V> n) {
+    return n == null ? 0 : n.height;
+  }
+
+  /**
+   * Returns the stored number of keys in the subtree with the given node as root, 0 if the node is
+   * null
+   * 
+   * @param n the root of the subtree
+   * @return the number of keys in the subtree
+   */
+  private int size(BSTNode<K, V> n) {
+    return n == null ? 0 : n.size;
+  }
+
+  /**
+   * Recomputes the stored height and size of the given node from the stored heights and sizes of
+   * its children, which must already be up to date
+   * 
+   * @param n the node whose height and size are to be updated
+   */
+  private void update(BSTNode<K, V> n) {
+    n.height = 1 + Math.max(height(n.left), height(n.right));
+    n.size = 1 + size(n.left) + size(n.right);
+  }
+
   /**
    * Calculates the balance factor (difference of heights of left and right subtrees) of a given
-   * node
+   * node from the stored heights of its children, in constant time
    * 
    * @param n the node whose balance factor is to be computed
    * @return the balance factor of the given node
    */
   private int balanceFactor(BSTNode<K, V> n) {
     if (n != null) {
-      return heightHelper(n.left) - heightHelper(n.right);
+      return height(n.left) - height(n.right);
     } else {
       throw new IllegalArgumentException();
     }
   }
 
   /**
-   * Rebalances subtree with n as root using the four rotations of an AVL tree
+   * Updates the height and size of n, then rebalances the subtree with n as root using the four
+   * rotations of an AVL tree, assuming the subtrees of n are already balanced and their heights and
+   * sizes up to date
    * 
    * @param n the root of the subtree to be rebalance
-   * @return the root of the subtree after all necessary rebalancings have been done
+   * @return the root of the subtree after any necessary rotation has been done
    * 
    * @see AVL#balanceFactor(BSTNode)
    */
   private BSTNode<K, V> rebalance(BSTNode<K, V> n) {
-    if (n != null) {
-      // calls rebalance on children before it runs on parent to make sure cascading does not
-      // break the tree
-      n.left = rebalance(n.left);
-      n.right = rebalance(n.right);
-
-      // calculates balance factor and calls the appropriate rotation if necessary
-      int balanceFactor = balanceFactor(n);
-      if (balanceFactor > 1) {
-        if (balanceFactor(n.left) > 0) { // should rotate right if n's BF>1 and n.left's BF>0
-          n = rightRotate(n);
-        } else { // should rotate right if n's BF>1 and n.left's BF<=0
-          n = leftRightRotate(n);
-        }
-      } else if (balanceFactor < -1) {
-        if (balanceFactor(n.right) > 0) { // should rotate right if n's BF<-1 and n.left's BF>0
-          n = rightLeftRotate(n);
-        } else { // should rotate right if n's BF><-1 and n.left's BF<=0
-          n = leftRotate(n);
-        }
+    update(n);
+
+    // calculates balance factor and calls the appropriate rotation if necessary
+    int balanceFactor = balanceFactor(n);
+    if (balanceFactor > 1) {
+      if (balanceFactor(n.left) >= 0) { // should rotate right if n's BF>1 and n.left's BF>=0
+        n = rightRotate(n);
+      } else { // should rotate left-right if n's BF>1 and n.left's BF<0
+        n = leftRightRotate(n);
+      }
+    } else if (balanceFactor < -1) {
+      if (balanceFactor(n.right) > 0) { // should rotate right-left if n's BF<-1 and n.right's BF>0
+        n = rightLeftRotate(n);
+      } else { // should rotate left if n's BF<-1 and n.right's BF<=0
+        n = leftRotate(n);
       }
-      return n;
     }
-    return null;
+    return n;
   }
 
   /**
@@ -127,6 +334,8 @@ public class AVL<K extends Comparable<K>, V> extends BST<K, V> {
 
     g.left = p.right; // sets the grandparent's left child to the parent's right child
     p.right = g; // sets the parent's right child to the grandparent
+    update(g); // g is now below p, so its height and size are updated first
+    update(p);
     return p;
   }
 
@@ -146,6 +355,9 @@ public class AVL<K extends Comparable<K>, V> extends BST<K, V> {
     g.left = k.right; // sets the grandparent's left child to the key's right child
     k.left = p; // sets the key's left child to the parent
     k.right = g; // sets the key's right child to the grandparent
+    update(p); // p and g are now below k, so their heights and sizes are updated first
+    update(g);
+    update(k);
     return k;
   }
 
@@ -165,6 +377,9 @@ public class AVL<K extends Comparable<K>, V> extends BST<K, V> {
     g.right = k.left; // sets the grandparent's right child to the key's left child
     k.left = g; // sets the key's left child to the grandparent
     k.right = p; // sets the key's right child to the parent
+    update(g); // g and p are now below k, so their heights and sizes are updated first
+    update(p);
+    update(k);
     return k;
   }
 
@@ -182,6 +397,8 @@ public class AVL<K extends Comparable<K>, V> extends BST<K, V> {
 
     g.right = p.left; // sets the grandparent's right child to the parent's left child
     p.left = g; // sets the parent's left child to the grandparent
+    update(g); // g is now below p, so its height and size are updated first
+    update(p);
     return p;
   }
 }
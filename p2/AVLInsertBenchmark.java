@@ -0,0 +1,98 @@
+// Title: AVLInsertBenchmark
+// Files: AVL, BST
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.Random; // used to shuffle the keys for the random order run
+
+/**
+ * Class which times inserting keys into a new AVL tree, once in sorted order and once in random
+ * order, and prints the insert throughput of each. Sorted order rebalances at almost every insert,
+ * so it shows the cost of rebalancing. Each run is repeated after a warmup so that the timings are
+ * not dominated by the JIT compiler.
+ * 
+ * @author Michael Goldstein
+ * @see AVL#insert(Comparable, Object)
+ */
+public class AVLInsertBenchmark {
+
+  /**
+   * Inserts the given keys into a new AVL tree in the order given and returns the elapsed time in
+   * nanoseconds
+   * 
+   * @param keys the keys to be inserted
+   * @return the time in nanoseconds the inserts took
+   * @throws Exception if the AVL tree throws an exception, which should not happen
+   */
+  private static long timeInserts(Integer[] keys) throws Exception {
+    long start = System.nanoTime();
+    AVL<Integer, Integer> avl = new AVL<Integer, Integer>();
+    for (Integer key : keys) {
+      avl.insert(key, key);
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Times the given keys over the given number of runs after one warmup run, and prints the best
+   * throughput
+   * 
+   * @param order the name of the order the keys are in
+   * @param keys  the keys to be inserted
+   * @param runs  the number of timed runs
+   * @throws Exception if the AVL tree throws an exception, which should not happen
+   */
+  private static void report(String order, Integer[] keys, int runs) throws Exception {
+    timeInserts(keys); // warms up the JIT compiler before any timed runs
+
+    // keeps the best time, as slower runs are slowed down by outside noise (such as GC)
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < runs; run++) {
+      best = Math.min(best, timeInserts(keys));
+    }
+    System.out.println(String.format("%d keys in %s order: %.1f ms, %,.0f inserts/sec (best of %d)",
+        keys.length, order, best / 1e6, keys.length / (best / 1e9), runs));
+  }
+
+  /**
+   * Driver method which runs the benchmark
+   * 
+   * @param args optional command line input: the number of keys (default 1000000) and the number
+   *             of timed runs (default 3)
+   */
+  public static void main(String[] args) {
+    try {
+      int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+      int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+      Integer[] keys = new Integer[numKeys];
+      for (int index = 0; index < numKeys; index++) {
+        keys[index] = index;
+      }
+      report("sorted", keys, runs);
+
+      // shuffles the keys with a fixed seed so that every run inserts the same order
+      Random random = new Random(42);
+      for (int index = numKeys - 1; index > 0; index--) {
+        int swap = random.nextInt(index + 1);
+        Integer temp = keys[index];
+        keys[index] = keys[swap];
+        keys[swap] = temp;
+      }
+      report("random", keys, runs);
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java AVLInsertBenchmark [numKeys] [runs] failed! A(n) "
+          + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
@@ -453,6 +453,78 @@ public class AVLTest extends BSTTest {
     }
   }
 
+  /**
+   * Checks that rank(), select(), and percentile() stay correct while inserts and removes rotate
+   * the tree, which moves nodes between subtrees and so changes the stored subtree sizes
+   * 
+   * @see AVL#rank(Comparable)
+   * @see AVL#select(int)
+   * @see SearchTreeADT#percentile(double)
+   */
+  @Test
+  void testAVL_011_rank_select_percentile_after_rotations() {
+    try {
+      // inserts the even keys 0 to 198 in sorted order, which rotates at almost every insert
+      for (int key = 0; key < 200; key += 2) {
+        avl2.insert(key, "" + key);
+      }
+      // removes the multiples of 6, which rotates again, leaving 66 keys
+      for (int key = 0; key < 200; key += 6) {
+        avl2.remove(key);
+      }
+
+      List<Integer> keys = avl2.getInOrderTraversal();
+      for (int index = 0; index < keys.size(); index++) {
+        if (!avl2.select(index).equals(keys.get(index)) || avl2.rank(keys.get(index)) != index) {
+          fail("select() and rank() do not match the in order traversal at index " + index);
+        }
+      }
+      if (avl2.rank(-1) != 0 || avl2.rank(7) != 2 || avl2.rank(1000) != keys.size()) {
+        fail("rank() of keys not in the tree should be the number of smaller keys");
+      }
+      if (avl2.percentile(0) != 2 || !avl2.percentile(50).equals(keys.get(32))
+          || avl2.percentile(100) != 196) {
+        fail("percentile() did not return the nearest-rank keys");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 011: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks percentile() against the nearest rank computed with integers, for every whole percent
+   * and up to 200 keys, including cases such as the 14th percentile of 50 keys, where computing
+   * percent / 100 first rounds up to the next key
+   * 
+   * @see SearchTreeADT#percentile(double)
+   */
+  @Test
+  void testAVL_012_percentile_nearest_rank() {
+    try {
+      AVL<Integer, String> avl = new AVL<Integer, String>();
+      for (int numKeys = 1; numKeys <= 200; numKeys++) {
+        avl.insert(numKeys - 1, "" + (numKeys - 1)); // the key at each index is the index itself
+        for (int percent = 0; percent <= 100; percent++) {
+          int expected = Math.max(0, (percent * numKeys + 99) / 100 - 1);
+          if (avl.percentile(percent) != expected) {
+            fail("percentile(" + percent + ") of " + numKeys + " keys should be key " + expected
+                + " but was " + avl.percentile(percent));
+          }
+        }
+        if (numKeys == 25 && avl.percentile(28) != 6) {
+          fail("the 28th percentile of 25 keys is the 7th key");
+        }
+        if (numKeys == 50 && avl.percentile(14) != 6) {
+          fail("the 14th percentile of 50 keys is the 7th key");
+        }
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 012: " + e.getMessage());
+    }
+  }
+
   // Tests below override tests from BSTTest that would fail if run on a BST because in BSTTest the
   // test assume the tree does not rebalance
 
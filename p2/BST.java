@@ -12,8 +12,13 @@
 // Online Sources: None
 
 import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque; // used as the stack or queue of the traversal iterators
 import java.util.ArrayList; // allowed for creating traversal lists
+import java.util.ConcurrentModificationException; // thrown by iterators if the BST is changed
+import java.util.Iterator; // returned by the lazy traversals
 import java.util.List; // required for returning List<K>
+import java.util.Map; // bulk inserts take key, value pairs as Map.Entry
+import java.util.NoSuchElementException; // thrown by iterators with no keys left
 import java.util.Queue; // Queue used for level-order printing
 import java.util.LinkedList; // Imported as it implements Queue and allows for simple queue usage
 
@@ -21,7 +26,7 @@ import java.util.LinkedList; // Imported as it implements Queue and allows for s
  * The author's implementation of a binary search tree. Implements BSTADT interface.
  * 
  * @author Michael Goldstein
- *
+ * 
  * @param <K> The key of each BST node. Used to determine which node goes where. Is Comparable
  * @param <V> The value each BST node stores.
  * @see BSTADT
@@ -30,6 +35,7 @@ public class BST<K extends Comparable<K>, V> implements BSTADT<K, V> {
   // Tip: Use protected fields so that they may be inherited by AVL
   protected BSTNode<K, V> root;
   protected int numKeys; // number of keys in BST
+  protected int modCount; // number of changes to the BST, used by iterators to detect changes
 
   /**
    * Constructor for BST class. Initializes instance variables.
@@ -37,267 +43,553 @@ public class BST<K extends Comparable<K>, V> implements BSTADT<K, V> {
   public BST() {
     root = null;
     numKeys = 0;
+    modCount = 0;
   }
 
   /**
-   * Returns a List containing the preorder traversal of the BST. Calls a recursive helper to do so.
-   * Returns an empty list if the tree is empty.
+   * Returns a List containing the preorder traversal of the BST. Returns an empty list if the tree
+   * is empty.
    * 
    * @return a List containing the preorder traversal of the BST.
-   * @see BST#preOrderTraversalHelper
+   * @see BST#preOrderIterator()
    */
   @Override
   public List<K> getPreOrderTraversal() {
-    ArrayList<K> preOrderTraversalList = new ArrayList<K>(); // list to contain all keys in tree
-    preOrderTraversalHelper(root, preOrderTraversalList);
-    return preOrderTraversalList;
+    return toList(preOrderIterator());
   }
 
   /**
-   * Recursive helper for getPreOrderTraversal
+   * Returns a List containing the postorder traversal of the BST. Returns an empty list if the tree
+   * is empty
    * 
-   * @param n    the current BSTNode the helper is called on.
-   * @param list the list the keys of the BSTNode's children and the BSTNode should be added to.
-   * @see BST#getPreOrderTraversal()
+   * @return a List containing the postorder traversal of the BST.
+   * @see BST#postOrderIterator()
    */
-  private void preOrderTraversalHelper(BSTNode<K, V> n, List<K> list) {
-    if (n != null) { // makes sure n is not null, as n==null is a base case where nothing happens
-      list.add(n.key); // before recursive process has run on children, adds current node's key
-      preOrderTraversalHelper(n.left, list); // calls helper on left child
-      preOrderTraversalHelper(n.right, list); // calls helper on right child
-    }
+  @Override
+  public List<K> getPostOrderTraversal() {
+    return toList(postOrderIterator());
   }
 
   /**
-   * Returns a List containing the postorder traversal of the BST. Calls a recursive helper to do
-   * so. Returns an empty list if the tree is empty
+   * Returns a List containing the level order traversal of the BST. Returns an empty list if the
+   * tree is empty
    * 
-   * @return a List containing the postorder traversal of the BST.
-   * @see BST#postOrderTraversalHelper
+   * @return a List containing the level order traversal of the BST.
+   * @see BST#levelOrderIterator()
    */
   @Override
-  public List<K> getPostOrderTraversal() {
-    ArrayList<K> postOrderTraversalList = new ArrayList<K>(); // list to contain all keys in tree
-    postOrderTraversalHelper(root, postOrderTraversalList);
-    return postOrderTraversalList;
+  public List<K> getLevelOrderTraversal() {
+    return toList(levelOrderIterator());
   }
 
   /**
-   * Recursive helper for getPostOrderTraversal.
+   * Returns a List containing the in order traversal of the BST. Returns an empty list if the tree
+   * is empty
    * 
-   * @param n    the current BSTNode the helper is called on.
-   * @param list the list the keys of the BSTNode's children and the BSTNode should be added to.
-   * @see BST#getPostOrderTraversal()
+   * @return a List containing the in order traversal of the BST.
+   * @see BST#inOrderIterator()
    */
-  private void postOrderTraversalHelper(BSTNode<K, V> n, List<K> list) {
-    if (n != null) { // makes sure n is not null, as n==null is a base case where nothing happens
-      postOrderTraversalHelper(n.left, list); // calls helper on left child
-      postOrderTraversalHelper(n.right, list); // calls helper on right child
-      list.add(n.key); // after recursive process has run on children, adds current node's key
-    }
+  @Override
+  public List<K> getInOrderTraversal() {
+    return toList(inOrderIterator());
   }
 
   /**
-   * Returns a List containing the level order traversal of the BST. Calls a recursive helper to do
-   * so. Returns an empty list if the tree is empty
+   * Returns a List of every key the given iterator has left, in the order it returns them
    * 
-   * @return a List containing the level order traversal of the BST.
-   * @see BST#levelOrderTraversalHelper
+   * @param iterator the iterator whose keys should be added to the list
+   * @return a List containing the keys of the iterator
+   */
+  private List<K> toList(Iterator<K> iterator) {
+    ArrayList<K> traversalList = new ArrayList<K>(numKeys); // list to contain all keys in tree
+    iterator.forEachRemaining(traversalList::add);
+    return traversalList;
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of the BST in sorted (L V R) order. It keeps only the
+   * path to the next node, so it uses O(height) memory and does no work for keys it never returns.
+   * 
+   * @return an iterator over the keys of the BST in order
    */
   @Override
-  public List<K> getLevelOrderTraversal() {
-    ArrayList<K> levelOrderTraversalList = new ArrayList<K>(); // list to contain all keys in tree
-    levelOrderTraversalHelper(root, levelOrderTraversalList);
-    return levelOrderTraversalList;
+  public Iterator<K> inOrderIterator() {
+    return new InOrderIterator();
   }
 
   /**
-   * Non-recursive, queue-based helper for getLevelOrderTraversal.
+   * Returns a lazy iterator over the keys of the BST in preorder (V L R). It keeps a stack of the
+   * right children passed on the way down, so it uses O(height) memory.
    * 
-   * @param n    the current BSTNode the helper is called on.
-   * @param list the list the keys of the BSTNode's children and the BSTNode should be added to.
-   * @see BST#getLevelOrderTraversal()
+   * @return an iterator over the keys of the BST in preorder
    */
-  private void levelOrderTraversalHelper(BSTNode<K, V> n, List<K> list) {
-    BSTNode<K, V> tempNode = n; // temporary node used to get key
-    Queue<BSTNode<K, V>> storageQueue = new LinkedList<BSTNode<K, V>>();
-    storageQueue.add(tempNode); // adds n to head of queue to start loop
+  @Override
+  public Iterator<K> preOrderIterator() {
+    return new PreOrderIterator();
+  }
 
-    // removes the head of queue, adds its key, adds its children to queue
-    while (storageQueue.size() > 0) {
-      tempNode = storageQueue.remove();
-      if (tempNode != null) { // makes sure node is not null, otherwise nullPointerExceptions occur
-        list.add(tempNode.key);
+  /**
+   * Returns a lazy iterator over the keys of the BST in postorder (L R V). It keeps the path to the
+   * next node, so it uses O(height) memory.
+   * 
+   * @return an iterator over the keys of the BST in postorder
+   */
+  @Override
+  public Iterator<K> postOrderIterator() {
+    return new PostOrderIterator();
+  }
 
-        if (tempNode.left != null) {
-          storageQueue.add(tempNode.left);
-        }
-        if (tempNode.right != null) {
-          storageQueue.add(tempNode.right);
-        }
+  /**
+   * Returns a lazy iterator over the keys of the BST in level order. It keeps a queue of the nodes
+   * of the next level, so it uses memory proportional to the width of the tree rather than its
+   * height.
+   * 
+   * @return an iterator over the keys of the BST in level order
+   */
+  @Override
+  public Iterator<K> levelOrderIterator() {
+    return new LevelOrderIterator();
+  }
+
+  /**
+   * Base class of the lazy traversal iterators. Holds the nodes still to be visited in a deque, and
+   * checks that the tree has not been changed since the iterator was created.
+   */
+  private abstract class TreeIterator implements Iterator<K> {
+    final ArrayDeque<BSTNode<K, V>> nodes = new ArrayDeque<BSTNode<K, V>>();
+    private final int expectedModCount = modCount; // modCount when the iterator was created
+
+    /**
+     * Removes and returns the next node of the traversal, adding the nodes after it to the deque
+     * 
+     * @return the next node of the traversal
+     */
+    abstract BSTNode<K, V> advance();
+
+    /**
+     * Pushes n onto the front of the deque if it is not null
+     * 
+     * @param n the node to be pushed
+     */
+    void push(BSTNode<K, V> n) {
+      if (n != null) {
+        nodes.push(n);
+      }
+    }
+
+    /**
+     * Pushes n and every left child below it onto the front of the deque
+     * 
+     * @param n the first node to be pushed
+     */
+    void pushLeftPath(BSTNode<K, V> n) {
+      while (n != null) {
+        nodes.push(n);
+        n = n.left;
       }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !nodes.isEmpty();
+    }
 
+    @Override
+    public K next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return advance().key;
     }
   }
 
   /**
-   * Returns a List containing the in order traversal of the BST. Calls a recursive helper to do so.
-   * Returns an empty list if the tree is empty
-   * 
-   * @return a List containing the in order traversal of the BST.
-   * @see BST#inOrderTraversalHelper
+   * Lazy in order (L V R) iterator. The stack holds the nodes whose keys are still to come on the
+   * path to the next node.
    */
-  @Override
-  public List<K> getInOrderTraversal() {
-    ArrayList<K> inOrderTraversalList = new ArrayList<K>(); // list to contain all keys in tree
-    inOrderTraversalHelper(root, inOrderTraversalList);
-    return inOrderTraversalList;
+  private class InOrderIterator extends TreeIterator {
+    /**
+     * Creates an iterator at the leftmost node, which has the smallest key
+     */
+    InOrderIterator() {
+      pushLeftPath(root);
+    }
+
+    @Override
+    BSTNode<K, V> advance() {
+      BSTNode<K, V> n = nodes.pop();
+      pushLeftPath(n.right); // the node after n is the leftmost node of its right subtree
+      return n;
+    }
   }
 
   /**
-   * Recursive helper for inPostOrderTraversal.
-   * 
-   * @param n    the current BSTNode the helper is called on.
-   * @param list the list the keys of the BSTNode's children and the BSTNode should be added to.
-   * @see BST#getPostOrderTraversal()
+   * Lazy preorder (V L R) iterator. The stack holds the roots of the subtrees still to be visited.
    */
-  private void inOrderTraversalHelper(BSTNode<K, V> n, List<K> list) {
-    if (n != null) { // makes sure n is not null, as n==null is a base case where nothing happens
-      inOrderTraversalHelper(n.left, list); // calls helper on left child
-      list.add(n.key); // after recursive process has run left child, adds current node's key
-      inOrderTraversalHelper(n.right, list); // calls helper on right child
+  private class PreOrderIterator extends TreeIterator {
+    /**
+     * Creates an iterator at the root
+     */
+    PreOrderIterator() {
+      push(root);
+    }
+
+    @Override
+    BSTNode<K, V> advance() {
+      BSTNode<K, V> n = nodes.pop();
+      push(n.right); // pushed first so that the left subtree is visited before it
+      push(n.left);
+      return n;
+    }
+  }
+
+  /**
+   * Lazy postorder (L R V) iterator. The stack holds the path from the root to the next node.
+   */
+  private class PostOrderIterator extends TreeIterator {
+    /**
+     * Creates an iterator at the first leaf reached by going left whenever possible
+     */
+    PostOrderIterator() {
+      pushFirstLeafPath(root);
+    }
+
+    @Override
+    BSTNode<K, V> advance() {
+      BSTNode<K, V> n = nodes.pop();
+      // after the left child of a node, the right subtree of that node comes next. After the right
+      // child, the node itself (now on top of the stack) comes next
+      if (!nodes.isEmpty() && nodes.peek().left == n) {
+        pushFirstLeafPath(nodes.peek().right);
+      }
+      return n;
+    }
+
+    /**
+     * Pushes the path from n to the first node of its subtree in postorder
+     * 
+     * @param n the root of the subtree
+     */
+    private void pushFirstLeafPath(BSTNode<K, V> n) {
+      while (n != null) {
+        nodes.push(n);
+        n = n.left != null ? n.left : n.right;
+      }
+    }
+  }
+
+  /**
+   * Lazy level order iterator. The deque is used as a queue of the nodes still to be visited, so it
+   * holds up to a level of the tree at a time.
+   */
+  private class LevelOrderIterator extends TreeIterator {
+    /**
+     * Creates an iterator at the root
+     */
+    LevelOrderIterator() {
+      push(root);
+    }
+
+    @Override
+    BSTNode<K, V> advance() {
+      BSTNode<K, V> n = nodes.removeLast(); // push adds to the front, so the oldest node is last
+      push(n.left);
+      push(n.right);
+      return n;
+    }
+  }
+
+  /**
+   * Lazy in order iterator over the keys from a starting key up to an optional last key. Like
+   * InOrderIterator, the stack holds the nodes still to come on the path to the next node.
+   */
+  private class RangeIterator extends TreeIterator {
+    private final K toKey; // greatest key that may be returned, or null if there is none
+
+    /**
+     * Creates an iterator at the first key after fromKey. Walks down from the root, pushing every
+     * node passed whose key is in the range and skipping the others along with their left subtrees,
+     * so that it takes time proportional to the height of the tree
+     * 
+     * @param fromKey   the key the iterator starts from
+     * @param inclusive whether fromKey itself may be returned
+     * @param toKey     the greatest key that may be returned, or null if there is none
+     */
+    RangeIterator(K fromKey, boolean inclusive, K toKey) {
+      this.toKey = toKey;
+      BSTNode<K, V> n = root;
+      while (n != null) {
+        int comparison = n.key.compareTo(fromKey);
+        if (comparison > 0 || (inclusive && comparison == 0)) {
+          nodes.push(n);
+          n = n.left;
+        } else {
+          n = n.right;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !nodes.isEmpty() && (toKey == null || nodes.peek().key.compareTo(toKey) <= 0);
+    }
+
+    @Override
+    BSTNode<K, V> advance() {
+      BSTNode<K, V> n = nodes.pop();
+      pushLeftPath(n.right); // the node after n is the leftmost node of its right subtree
+      return n;
     }
   }
 
   /**
    * Inserts a node with the given key and value into the BST. Throws IllegalNullKeyException if key
    * is null, throws DuplicateKeyExcpetion if there is a node with the given key already in the BST.
+   * Walks down from the root with a loop rather than recursion, so inserting keys in sorted order
+   * cannot overflow the stack however tall the tree becomes.
    * 
    * @param key the key of the node to be added to the BST
    * @param the value of the node to be added to the BST
    * @throws IllegalNullKeyException if key is null
    * @throws DuplicateKeyException   if another node with the given key exists in the tree
-   * @see BST#insertHelper()
    */
   @Override
   public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
     if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
       throw new IllegalNullKeyException();
-    } else {
-      root = insertHelper(key, value, root);
-      numKeys++;
     }
-  }
 
-  /**
-   * Recursive helper for insert method. Inserts a new node with the given key and value. Throws a
-   * DuplicateKeyException if a node with the given key already exists in the tree.
-   * 
-   * @param key   the key of the node to be inserted
-   * @param value the value of the new node to be inserted
-   * @param n     the current BSTNode the helper method is called on
-   * @return the current node the helper is called on.
-   * @throws DuplicateKeyException if a node with the given key alread exists in the tree
-   * @see BST#insert(Comparable, Object)
-   */
-  private BSTNode<K, V> insertHelper(K key, V value, BSTNode<K, V> n) throws DuplicateKeyException {
-    if (n == null) { // if n is null, assigns the new node to n and returns n
-      n = new BSTNode<K, V>(key, value);
-      return n;
+    if (root == null) { // the new node becomes the root of an empty tree
+      root = new BSTNode<K, V>(key, value);
+      numKeys++;
+      modCount++;
+      return;
     }
 
-    if (n.key.equals(key)) { // checks if node with given key exists in tree
-      throw new DuplicateKeyException(); // throws excpetion if it does
-    }
+    BSTNode<K, V> n = root; // the current node, moves down the tree until a null child is found
+    while (true) {
+      int comparison = n.key.compareTo(key);
+      if (comparison == 0) { // checks if node with given key exists in tree
+        throw new DuplicateKeyException(); // throws excpetion if it does
+      }
 
-    // if n is not null and does not have key equal to given key, insertHelper is recursively called
-    // on n's left child if the given key is smaller than n's key, or n's left child if the given
-    // key is larger than n's key.
-    if (n.key.compareTo(key) > 0) {
-      n.left = insertHelper(key, value, n.left);
-    } else {
-      n.right = insertHelper(key, value, n.right);
+      // goes left if the given key is smaller than n's key, right if it is larger, and attaches the
+      // new node in place of the first null child found
+      if (comparison > 0) {
+        if (n.left == null) {
+          n.left = new BSTNode<K, V>(key, value);
+          break;
+        }
+        n = n.left;
+      } else {
+        if (n.right == null) {
+          n.right = new BSTNode<K, V>(key, value);
+          break;
+        }
+        n = n.right;
+      }
     }
-    return n; // after above recursion is run, returns n
+    numKeys++;
+    modCount++;
   }
 
   /**
    * Removes a node from the tree with the given key. If the key is null, throws
    * IllegalNullKeyExcpetion. If a node with the given key is not found in tree, throws
-   * KeyNotFoundException. Returns true if node with given key is removed, false if not.
+   * KeyNotFoundException. Returns true if node with given key is removed, false if not. A node with
+   * two children is given the key and value of its in order predecessor, which is then removed in
+   * its place. Uses loops rather than recursion, so it works on trees of any height.
    * 
    * @param key the key of the node to be deleted
    * @return true if the node is successfully removed, false if not
    * @throws IllegalNullKeyExcpetion if given key is null
    * @throws KeyNotFoundException    if node with given key is not found in tree
-   * @see BST#removeHelper(Comparable, BSTNode)
+   * @see BST#replaceChild(BSTNode, BSTNode, BSTNode)
    */
   @Override
   public boolean remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
     if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
       throw new IllegalNullKeyException();
+    }
+
+    // finds the node to be removed and its parent
+    BSTNode<K, V> parent = null;
+    BSTNode<K, V> n = root;
+    int comparison;
+    while (n != null && (comparison = n.key.compareTo(key)) != 0) {
+      parent = n;
+      n = comparison > 0 ? n.left : n.right;
+    }
+    if (n == null) { // the node with the given key would be here but is not in the tree
+      throw new KeyNotFoundException();
+    }
+
+    if (n.left != null && n.right != null) {
+      // gives n the key and value of its in order predecessor (the maximum of its left subtree),
+      // then removes the predecessor, which has no right child
+      BSTNode<K, V> predecessorParent = n;
+      BSTNode<K, V> inOrderPredecessor = n.left;
+      while (inOrderPredecessor.right != null) {
+        predecessorParent = inOrderPredecessor;
+        inOrderPredecessor = inOrderPredecessor.right;
+      }
+      n.key = inOrderPredecessor.key;
+      n.value = inOrderPredecessor.value;
+      replaceChild(predecessorParent, inOrderPredecessor, inOrderPredecessor.left);
+    } else if (n.left == null) {
+      replaceChild(parent, n, n.right); // replaces n with its right child if it has no left child
     } else {
-      root = removeHelper(key, root);
-      numKeys--;
-      return true;
+      replaceChild(parent, n, n.left); // replaces n with its left child if it has no right child
     }
+    numKeys--;
+    modCount++;
+    return true;
   }
 
   /**
-   * Recursive helper method for remove(). Removes a node with the given key from the tree b either
-   * returning null, its inorder predecessor, or one of its children.
+   * Inserts every key, value pair of the given iterator, which must return them in ascending order
+   * of key, and rebuilds the tree perfectly balanced. This is a bulk load when the tree is empty
+   * and a bulk merge otherwise. The pairs are merged with the keys already in the tree in one pass
+   * and the tree is rebuilt without rotations, so it takes O(n + m) time for n keys in the tree and
+   * m pairs, rather than the O(m log(n + m)) of m inserts (or worse in an unbalanced BST). When the
+   * batch is small enough that inserting it one pair at a time is cheaper, it does that instead.
+   * 
+   * A key which is already in the tree, or repeated in the batch, is not inserted again and is
+   * returned instead, like insert() throwing DuplicateKeyException. If the iterator returns a null
+   * key or keys out of order, nothing is inserted.
    * 
-   * @param key the key of the node to be removed
-   * @param n   the current node the recursive method is on
-   * @return what the new node in place of the current node should be set to or the current node if
-   *         the current node is not the node to be removed
-   * @throws KeyNotFoundException if a node with the given key is not in the tree
-   * @see BST#remove(Comparable)
+   * @param sortedEntries the key, value pairs to be inserted, in ascending order of key
+   * @return the keys which were not inserted because they were already present
+   * @throws IllegalNullKeyException  if any key is null
+   * @throws IllegalArgumentException if the keys are not in ascending order
+   * @see BST#buildBalanced(List, int, int)
    */
-  private BSTNode<K, V> removeHelper(K key, BSTNode<K, V> n) throws KeyNotFoundException {
-    // checks if the method has traversed the tree to the point where the node with the given key
-    // would be and found nothing, which is what has happened if n is null.
-    if (n == null) {
-      throw new KeyNotFoundException();
+  public List<K> insertAllSorted(
+      Iterator<? extends Map.Entry<? extends K, ? extends V>> sortedEntries)
+      throws IllegalNullKeyException {
+    List<K> duplicates = new ArrayList<K>();
+
+    // reads the whole batch first, so that a null key or a key out of order changes nothing
+    List<BSTNode<K, V>> batch = new ArrayList<BSTNode<K, V>>();
+    while (sortedEntries.hasNext()) {
+      Map.Entry<? extends K, ? extends V> entry = sortedEntries.next();
+      K key = entry.getKey();
+      if (key == null) {
+        throw new IllegalNullKeyException();
+      }
+      int comparison = batch.isEmpty() ? 1 : key.compareTo(batch.get(batch.size() - 1).key);
+      if (comparison < 0) {
+        throw new IllegalArgumentException("keys are not in ascending order at " + key);
+      } else if (comparison == 0) { // a key repeated in the batch keeps its first value
+        duplicates.add(key);
+      } else {
+        batch.add(new BSTNode<K, V>(key, entry.getValue()));
+      }
     }
 
-    if (n.key.equals(key)) { // if the current node is the one to be removed
-      if (n.left != null && n.right != null) {
-        // gives n the key and value of its in order predecessor and returns n if n has two children
-        BSTNode<K, V> inOrderPredecessor = getInOrderPredecessor(n);
-        n.left = removeHelper(inOrderPredecessor.key, n.left);
-        n.key = inOrderPredecessor.key;
-        n.value = inOrderPredecessor.value;
-        return n;
-      } else if (n.left == null) {
-        return n.right; // returns right child if n has no left child
-      } else if (n.right == null) {
-        return n.left; // returns left child of n has no right child
-      } else {
-        return null; // returns null if n has no children
+    // inserts a batch that is small compared to the tree one pair at a time, which costs about
+    // m * log2(n) steps against the n + m steps of rebuilding the tree
+    int log2Keys = 32 - Integer.numberOfLeadingZeros(numKeys);
+    if ((long) batch.size() * log2Keys < numKeys) {
+      for (BSTNode<K, V> n : batch) {
+        try {
+          insert(n.key, n.value);
+        } catch (DuplicateKeyException e) {
+          duplicates.add(n.key);
+        }
       }
-    } else if (n.key.compareTo(key) > 0) {
-      // removes node with given key from n's left subtree if the given key is less than n's key
-      n.left = removeHelper(key, n.left);
+      return duplicates;
+    }
+
+    // merges the nodes of the tree, in order, with the nodes of the batch
+    List<BSTNode<K, V>> merged = new ArrayList<BSTNode<K, V>>(numKeys + batch.size());
+    InOrderIterator treeNodes = new InOrderIterator();
+    int batchIndex = 0;
+    while (treeNodes.hasNext()) {
+      BSTNode<K, V> n = treeNodes.advance();
+      while (batchIndex < batch.size() && batch.get(batchIndex).key.compareTo(n.key) < 0) {
+        merged.add(batch.get(batchIndex++));
+      }
+      if (batchIndex < batch.size() && batch.get(batchIndex).key.compareTo(n.key) == 0) {
+        duplicates.add(batch.get(batchIndex++).key); // the pair already in the tree is kept
+      }
+      merged.add(n);
+    }
+    while (batchIndex < batch.size()) {
+      merged.add(batch.get(batchIndex++));
+    }
+
+    root = buildBalanced(merged, 0, merged.size());
+    numKeys = merged.size();
+    modCount++;
+    return duplicates;
+  }
+
+  /**
+   * Links the given nodes, which are in ascending order of key, into a perfectly balanced tree by
+   * making the middle node the root of the subtrees built from the nodes before and after it. Also
+   * sets the height and size of each node, so that the tree can be used by AVL. The recursion is
+   * only as deep as the balanced tree is tall.
+   * 
+   * @param nodes the nodes in ascending order of key
+   * @param from  the index of the first node of the subtree
+   * @param to    the index after the last node of the subtree
+   * @return the root of the subtree, or null if it has no nodes
+   */
+  private BSTNode<K, V> buildBalanced(List<BSTNode<K, V>> nodes, int from, int to) {
+    if (from >= to) {
+      return null;
+    }
+
+    int middle = (from + to) >>> 1;
+    BSTNode<K, V> n = nodes.get(middle);
+    n.left = buildBalanced(nodes, from, middle);
+    n.right = buildBalanced(nodes, middle + 1, to);
+    // the left subtree has at least as many nodes as the right, so it is at least as tall
+    n.height = n.left == null ? 1 : n.left.height + 1;
+    n.size = to - from;
+    return n;
+  }
+
+  /**
+   * Replaces the given child of the given parent with a new node. If the parent is null, the child
+   * is the root, so the root is replaced instead.
+   * 
+   * @param parent   the parent of the child to be replaced, or null if the child is the root
+   * @param child    the node to be replaced
+   * @param newChild the node to take the place of child, may be null
+   */
+  protected void replaceChild(BSTNode<K, V> parent, BSTNode<K, V> child, BSTNode<K, V> newChild) {
+    if (parent == null) {
+      root = newChild;
+    } else if (parent.left == child) {
+      parent.left = newChild;
     } else {
-      // removes node with given key from n's right subtree if the given key is greater than n's key
-      n.right = removeHelper(key, n.right);
+      parent.right = newChild;
     }
-    return n; // returns current node
   }
 
   /**
-   * Returns the inorder predecessor of a given node.
+   * Returns the node with the given key, or null if there is no node with the given key in the
+   * BST. Walks down from the root with a loop, going left if the given key is less than the current
+   * node's key and right if it is greater.
    * 
-   * @param n the node whose in order predecessor should be found
-   * @return the inorder predecessor of the given node
+   * @param key the key of the node to be found, not null
+   * @return the node with the given key, or null if it is not in the tree
    */
-  private BSTNode<K, V> getInOrderPredecessor(BSTNode<K, V> n) {
-    BSTNode<K, V> tempNode = n.left; // gets root of left subtree of n
-    while (tempNode.right != null) {
-      tempNode = tempNode.right; // traverses to maximum vale of the left subtree
+  protected BSTNode<K, V> findNode(K key) {
+    BSTNode<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison == 0) { // if n's key matches the given key, n is the node
+        return n;
+      }
+      n = comparison > 0 ? n.left : n.right;
     }
-    return tempNode;
+    return null; // went past a leaf without finding the key
   }
 
   /**
@@ -309,47 +601,21 @@ public class BST<K extends Comparable<K>, V> implements BSTADT<K, V> {
    * @return the value of the node with the matching key
    * @throws IllegalNullKeyException if key is null
    * @throws KeyNotFoundException    if a node with the given key does not exist in the tree.
-   * @see BST#getHelper(Comparable, BSTNode)
+   * @see BST#findNode(Comparable)
    */
   @Override
   public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
     if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
       throw new IllegalNullKeyException();
-    } else {
-      return getHelper(key, root);
     }
-  }
 
-  /**
-   * Recursive helper method for get(). Checks if current node's key matches the given key. If it
-   * is, returns the current node's value. Else if the given key is greater than the current nodes
-   * key, calls recursive method on current node's right child, if the given key is less than the
-   * current node's key, calls recursive method on right child. If node is null, throws
-   * KeyNotFoundException()
-   * 
-   * @param key the key of the node whose value should be returned
-   * @param n   the current node in the tree
-   * @return the value of the node with the matching key
-   * @throws KeyNotFoundException if there is no node with the given key in the BST
-   * @see BST#get(Comparable)
-   */
-  private V getHelper(K key, BSTNode<K, V> n) throws KeyNotFoundException {
-    // checks if the method has traversed the tree to the point where the node with the given key
-    // would be and found nothing, which is what has happened if n is null.
+    BSTNode<K, V> n = findNode(key);
     if (n == null) {
       throw new KeyNotFoundException();
     }
-
-    if (n.key.equals(key)) { // if n's key matches the given key, return n's value
-      return n.value;
-    } else if (n.key.compareTo(key) > 0) { // if n's key is > than given key, call on left child
-      return getHelper(key, n.left);
-    } else {
-      return getHelper(key, n.right); // if n's key is < than given key, call on left child
-    }
+    return n.value;
   }
 
-
   /**
    * Searches for a node with the given key in the BST and returns true if it exists, false if it
    * does not. Throws IllegalNullKeyException if key is null.
@@ -357,43 +623,168 @@ public class BST<K extends Comparable<K>, V> implements BSTADT<K, V> {
    * @param key the key of the node to be searched for.
    * @return true if a node with the given key is found in the BST, false if not found.
    * @throws IllegalNullKeyException if key is null
-   * @see BST#containsHelper(Comparable, BSTNode)
+   * @see BST#findNode(Comparable)
    */
   @Override
   public boolean contains(K key) throws IllegalNullKeyException {
     if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
       throw new IllegalNullKeyException();
     } else {
-      return containsHelper(key, root);
+      return findNode(key) != null;
     }
   }
 
   /**
-   * Recursive helper method for contains(). Checks if current node's key matches the given key. If
-   * it is, returns true. Else if the given key is greater than the current nodes key, calls
-   * recursive method on current node's right child, if the given key is less than the current
-   * node's key, calls recursive method on right child. If node is null, throws return false as
-   * n=null means that the node with the given key was not found.
+   * Returns the greatest key less than or equal to the given key, or null if there is no such key.
+   * Takes time proportional to the height of the tree.
    * 
-   * @param key the key of the node to be searched for in the BST
-   * @param n   the current node in the tree
-   * @return true if a node with the given key is found in the BST, false if not found.
-   * @see BST#get(Comparable)
+   * @param key the key to be compared to
+   * @return the greatest key <= key, or null
+   * @throws IllegalNullKeyException if key is null
+   * @see BST#lowerKey(Comparable, boolean)
    */
-  private boolean containsHelper(K key, BSTNode<K, V> n) {
-    // checks if the method has traversed the tree to the point where the node with the given key
-    // would be and found nothing, which is what has happened if n is null.
-    if (n == null) {
-      return false;
+  @Override
+  public K floor(K key) throws IllegalNullKeyException {
+    return lowerKey(key, true);
+  }
+
+  /**
+   * Returns the greatest key strictly less than the given key, or null if there is no such key.
+   * Takes time proportional to the height of the tree.
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key < key, or null
+   * @throws IllegalNullKeyException if key is null
+   * @see BST#lowerKey(Comparable, boolean)
+   */
+  @Override
+  public K lower(K key) throws IllegalNullKeyException {
+    return lowerKey(key, false);
+  }
+
+  /**
+   * Returns the least key greater than or equal to the given key, or null if there is no such key.
+   * Takes time proportional to the height of the tree.
+   * 
+   * @param key the key to be compared to
+   * @return the least key >= key, or null
+   * @throws IllegalNullKeyException if key is null
+   * @see BST#higherKey(Comparable, boolean)
+   */
+  @Override
+  public K ceiling(K key) throws IllegalNullKeyException {
+    return higherKey(key, true);
+  }
+
+  /**
+   * Returns the least key strictly greater than the given key, or null if there is no such key.
+   * Takes time proportional to the height of the tree.
+   * 
+   * @param key the key to be compared to
+   * @return the least key > key, or null
+   * @throws IllegalNullKeyException if key is null
+   * @see BST#higherKey(Comparable, boolean)
+   */
+  @Override
+  public K higher(K key) throws IllegalNullKeyException {
+    return higherKey(key, false);
+  }
+
+  /**
+   * Helper for floor() and lower(). Walks down from the root, remembering the last key passed that
+   * is less than the given key (or equal to it, if inclusive) and going right from it to look for
+   * a greater one, or going left from keys that are too large.
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the greatest key less than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private K lowerKey(K key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
     }
 
-    if (n.key.equals(key)) { // if n's key matches the given key, return true
-      return true;
-    } else if (n.key.compareTo(key) > 0) { // if n's key is > than given key, call on left child
-      return containsHelper(key, n.left);
-    } else {
-      return containsHelper(key, n.right); // if n's key is < than given key, call on left child
+    K lowerKey = null; // greatest key found so far that is low enough
+    BSTNode<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison == 0 && inclusive) {
+        return n.key;
+      } else if (comparison < 0) {
+        lowerKey = n.key;
+        n = n.right;
+      } else {
+        n = n.left;
+      }
     }
+    return lowerKey;
+  }
+
+  /**
+   * Helper for ceiling() and higher(). Walks down from the root, remembering the last key passed
+   * that is greater than the given key (or equal to it, if inclusive) and going left from it to
+   * look for a smaller one, or going right from keys that are too small.
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the least key greater than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private K higherKey(K key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    K higherKey = null; // least key found so far that is high enough
+    BSTNode<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison == 0 && inclusive) {
+        return n.key;
+      } else if (comparison > 0) {
+        higherKey = n.key;
+        n = n.left;
+      } else {
+        n = n.right;
+      }
+    }
+    return higherKey;
+  }
+
+  /**
+   * Returns a lazy iterator over the keys from fromKey to toKey, both inclusive, in sorted order.
+   * Finding the first key takes time proportional to the height of the tree, and each key after it
+   * takes constant time on average, so reading k keys takes O(height + k) time.
+   * 
+   * @param fromKey the least key that may be returned
+   * @param toKey   the greatest key that may be returned
+   * @return an iterator over the keys in the range in order
+   * @throws IllegalNullKeyException if fromKey or toKey is null
+   */
+  @Override
+  public Iterator<K> rangeIterator(K fromKey, K toKey) throws IllegalNullKeyException {
+    if (fromKey == null || toKey == null) { // checks if keys are null, throws exception if so
+      throw new IllegalNullKeyException();
+    }
+    return new RangeIterator(fromKey, true, toKey);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys after fromKey in sorted order, starting with fromKey
+   * itself if inclusive is true and it is present. Reading k keys takes O(height + k) time.
+   * 
+   * @param fromKey   the key the iterator starts from
+   * @param inclusive whether fromKey itself may be returned
+   * @return an iterator over the keys after fromKey in order
+   * @throws IllegalNullKeyException if fromKey is null
+   */
+  @Override
+  public Iterator<K> tailIterator(K fromKey, boolean inclusive) throws IllegalNullKeyException {
+    if (fromKey == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return new RangeIterator(fromKey, inclusive, null);
   }
 
   /**
@@ -430,49 +821,19 @@ public class BST<K extends Comparable<K>, V> implements BSTADT<K, V> {
    * 
    * @throws IllegalNullKeyException if key argument is null
    * @throws KeyNotFoundException    if key is not found in this BST
-   * @see BST#getKeyOfLeftChildOfHelper(Comparable, BSTNode)
+   * @see BST#findNode(Comparable)
    */
   @Override
   public K getKeyOfLeftChildOf(K key) throws IllegalNullKeyException, KeyNotFoundException {
     if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
       throw new IllegalNullKeyException();
-    } else {
-      return getKeyOfLeftChildOfHelper(key, root);
     }
-  }
 
-  /**
-   * Recursive helper method for getKeyOfLeftChildOf(). Checks if current node's key matches the
-   * given key. If it is, returns the current node's left child's key, or null if the left child is
-   * null. Else if the given key is greater than the current nodes key, calls recursive method on
-   * current node's right child, if the given key is less than the current node's key, calls
-   * recursive method on right child. If node is null, throws KeyNotFoundException()
-   * 
-   * @param key the key of the node whose left child's key is to be returned
-   * @param n   the current node in the tree
-   * @return the node with the given key's left child's key, or null
-   * @throws KeyNotFoundException if there is no node with the given key in the BST
-   * @see BST#getKeyOfLeftChildOf(Comparable)
-   */
-  private K getKeyOfLeftChildOfHelper(K key, BSTNode<K, V> n) throws KeyNotFoundException {
-    // checks if the method has traversed the tree to the point where the node with the given key
-    // would be and found nothing, which is what has happened if n is null.
+    BSTNode<K, V> n = findNode(key);
     if (n == null) {
       throw new KeyNotFoundException();
     }
-
-    if (n.key.equals(key)) { // if n's key matches the given key, return n's left node's key
-      if (n.left == null) {
-        return null;
-      } else {
-        return n.left.key;
-      }
-    } else if (n.key.compareTo(key) > 0) { // if n's key is > than given key, call on left child
-      return getKeyOfLeftChildOfHelper(key, n.left);
-    } else {
-      // if n's key is < than given key, call on left child
-      return getKeyOfLeftChildOfHelper(key, n.right);
-    }
+    return n.left == null ? null : n.left.key;
   }
 
   /**
@@ -485,85 +846,51 @@ public class BST<K extends Comparable<K>, V> implements BSTADT<K, V> {
    * 
    * @throws IllegalNullKeyException if key is null
    * @throws KeyNotFoundException    if key is not found in this BST
-   * @see BST#getKeyOfRightChildOfHelper(Comparable, BSTNode)
+   * @see BST#findNode(Comparable)
    */
   @Override
   public K getKeyOfRightChildOf(K key) throws IllegalNullKeyException, KeyNotFoundException {
     if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
       throw new IllegalNullKeyException();
-    } else {
-      return getKeyOfRightChildOfHelper(key, root);
     }
-  }
 
-
-  /**
-   * Recursive helper method for getKeyOfRightChildOf(). Checks if current node's key matches the
-   * given key. If it is, returns the current node's right child's key, or null if the right child
-   * is null. Else if the given key is greater than the current nodes key, calls recursive method on
-   * current node's right child, if the given key is less than the current node's key, calls
-   * recursive method on right child. If node is null, throws KeyNotFoundException()
-   * 
-   * @param key the key of the node whose left child's key is to be returned
-   * @param n   the current node in the tree
-   * @return the node with the given key's left child's key, or null
-   * @throws KeyNotFoundException if there is no node with the given key in the BST
-   * @see BST#getKeyOfRightChildOf(Comparable)
-   */
-  private K getKeyOfRightChildOfHelper(K key, BSTNode<K, V> n) throws KeyNotFoundException {
-    // checks if the method has traversed the tree to the point where the node with the given key
-    // would be and found nothing, which is what has happened if n is null.
+    BSTNode<K, V> n = findNode(key);
     if (n == null) {
       throw new KeyNotFoundException();
     }
-
-    if (n.key.equals(key)) { // if n's key matches the given key, return n's right node's key
-      if (n.right == null) {
-        return null;
-      } else {
-        return n.right.key;
-      }
-    } else if (n.key.compareTo(key) > 0) { // if n's key is > than given key, call on left child
-      return getKeyOfRightChildOfHelper(key, n.left);
-    } else {
-      // if n's key is < than given key, call on left child
-      return getKeyOfRightChildOfHelper(key, n.right);
-    }
+    return n.right == null ? null : n.right.key;
   }
 
+
   /**
    * Returns the height of this BST. Height is defined as the number of levels in the tree.
    * 
+   * Counts the levels one at a time with a queue rather than recursion, so that it works on trees
+   * of any height.
+   * 
    * @return the number of levels that contain keys in this BST
-   * @see BST#heightHelper(BSTNode)
    */
   @Override
   public int getHeight() {
-    return heightHelper(root);
-  }
-
-  /**
-   * Recursive helper for height() method. Returns the height the tree with the given node as root.
-   * Returns 0 if n is null, else returns 1 + height of tallest subtree
-   * 
-   * @param n the current node the method is called on
-   * @return the height of the tree with the current node as the root
-   * @see BST#getHeight()
-   */
-  protected int heightHelper(BSTNode<K, V> n) {
-    if (n == null) { // checks if n is null. If so, height is 0
-      return 0;
+    int height = 0;
+    Queue<BSTNode<K, V>> level = new LinkedList<BSTNode<K, V>>(); // nodes of the current level
+    if (root != null) {
+      level.add(root);
     }
 
-    // recursively finds heights of subtrees
-    int heightLeftSubtree = heightHelper(n.left);
-    int heightRightSubtree = heightHelper(n.right);
-
-    // returns 1 + height of larger subtree as height
-    if (heightLeftSubtree > heightRightSubtree) {
-      return 1 + heightLeftSubtree;
-    } else {
-      return 1 + heightRightSubtree;
+    // replaces the nodes of each level with their children until a level has no nodes
+    while (level.size() > 0) {
+      height++;
+      for (int count = level.size(); count > 0; count--) {
+        BSTNode<K, V> n = level.remove();
+        if (n.left != null) {
+          level.add(n.left);
+        }
+        if (n.right != null) {
+          level.add(n.right);
+        }
+      }
     }
+    return height;
   }
 }
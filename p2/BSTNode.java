@@ -26,7 +26,7 @@
  * A class which is a node in a binary search tree.
  * 
  * @author Michael Goldstein (submitter, actually created by instructors_
- *
+ * 
  * @param <K> the type which the key of the BSTNode is.
  * @param <V> the type that the value of the BSTNode is storing
  */
@@ -36,6 +36,8 @@ class BSTNode<K, V> {
   V value; // the value of the BSTNode
   BSTNode<K, V> left; // the left child of the BSTNode
   BSTNode<K, V> right; // the right child of the BSTNode
+  int height; // height of the subtree with this node as root, only kept up to date by AVL
+  int size; // number of nodes in the subtree with this node as root, only kept up to date by AVL
 
   /**
    * Constructor for BSTNode. Initializes instance variables
@@ -50,6 +52,8 @@ class BSTNode<K, V> {
     this.value = value;
     this.left = leftChild;
     this.right = rightChild;
+    this.height = 1;
+    this.size = 1;
   }
 
   /**
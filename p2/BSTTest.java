@@ -12,8 +12,13 @@
 // Online Sources: None
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -1001,4 +1006,213 @@ public class BSTTest extends DataStructureADTTest {
       fail("incorrect exception thrown when key not in BST given as remove() parameter");
     }
   }
+
+  /**
+   * Tests that inserting many keys in sorted order, which makes a tree as tall as it has keys, does
+   * not overflow the stack, and that the keys can then be found and removed
+   * 
+   * @see BST#insert(Comparable, Object)
+   * @see BST#remove(Comparable)
+   */
+  @Test
+  void testBST_025_sorted_inserts_do_not_overflow_stack() {
+    try {
+      for (int key = 0; key < 30000; key++) {
+        bst2.insert(key, "" + key);
+      }
+      if (bst2.getHeight() < 15 || bst2.getHeight() > 30000) {
+        fail("getHeight() returned " + bst2.getHeight() + " for a tree of 30000 keys");
+      }
+      if (!bst2.contains(29999) || !bst2.get(29999).equals("29999") || bst2.contains(30000)) {
+        fail("the deepest key in the tree was not found correctly");
+      }
+      for (int key = 0; key < 30000; key++) {
+        bst2.remove(key);
+      }
+      if (bst2.numKeys() != 0) {
+        fail("numKeys() should have returned 0 but returned " + bst2.numKeys());
+      }
+    } catch (StackOverflowError e) {
+      fail("inserting keys in sorted order overflowed the stack");
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 025: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that the lazy iterators return the same keys as the traversal lists, that a stream can
+   * stop after the first keys, and that an iterator fails once the tree is changed
+   * 
+   * @see BST#inOrderIterator()
+   * @see BST#stream()
+   */
+  @Test
+  void testBST_026_lazy_iterators_and_stream() {
+    try {
+      // inserts 20, 10, 30, 5, 15, 25, 35 to create a perfect, height-balanced tree of height 3
+      int[] keys = {20, 10, 30, 5, 15, 25, 35};
+      for (int key : keys) {
+        bst2.insert(key, "" + key);
+      }
+
+      List<Integer> preOrder = new ArrayList<Integer>();
+      bst2.preOrderIterator().forEachRemaining(preOrder::add);
+      List<Integer> postOrder = new ArrayList<Integer>();
+      bst2.postOrderIterator().forEachRemaining(postOrder::add);
+      List<Integer> levelOrder = new ArrayList<Integer>();
+      bst2.levelOrderIterator().forEachRemaining(levelOrder::add);
+      List<Integer> inOrder = new ArrayList<Integer>();
+      for (Integer key : bst2) { // a BST can be used in a for-each loop in sorted order
+        inOrder.add(key);
+      }
+      assertEquals(bst2.getPreOrderTraversal(), preOrder);
+      assertEquals(bst2.getPostOrderTraversal(), postOrder);
+      assertEquals(bst2.getLevelOrderTraversal(), levelOrder);
+      assertEquals(bst2.getInOrderTraversal(), inOrder);
+
+      List<Integer> firstKeys = bst2.stream().limit(2).collect(Collectors.toList());
+      if (firstKeys.size() != 2 || firstKeys.get(0) != 5 || firstKeys.get(1) != 10) {
+        fail("stream().limit(2) should have returned [5, 10] but returned " + firstKeys);
+      }
+
+      Iterator<Integer> iterator = bst2.inOrderIterator();
+      iterator.next();
+      bst2.remove(35);
+      try {
+        iterator.next();
+        fail("an iterator should not continue after the tree is changed");
+      } catch (ConcurrentModificationException e) {
+        // this is expected
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 026: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Tests floor, ceiling, lower, higher, range scans, rank, and select on a tree of keys 5 to 35
+   * 
+   * @see BST#floor(Comparable)
+   * @see BST#rangeIterator(Comparable, Comparable)
+   */
+  @Test
+  void testBST_027_ordered_navigation_and_ranges() {
+    try {
+      // inserts 20, 10, 30, 5, 15, 25, 35 to create a perfect, height-balanced tree of height 3
+      int[] keys = {20, 10, 30, 5, 15, 25, 35};
+      for (int key : keys) {
+        bst2.insert(key, "" + key);
+      }
+
+      if (bst2.floor(17) != 15 || bst2.floor(15) != 15 || bst2.floor(4) != null) {
+        fail("floor() did not return the greatest key <= the given key");
+      }
+      if (bst2.ceiling(17) != 20 || bst2.ceiling(20) != 20 || bst2.ceiling(36) != null) {
+        fail("ceiling() did not return the least key >= the given key");
+      }
+      if (bst2.lower(15) != 10 || bst2.lower(5) != null || bst2.higher(15) != 20
+          || bst2.higher(35) != null) {
+        fail("lower() or higher() did not return the closest key strictly past the given key");
+      }
+
+      List<Integer> expectedRange = new ArrayList<Integer>();
+      expectedRange.add(10);
+      expectedRange.add(15);
+      expectedRange.add(20);
+      assertEquals(expectedRange, bst2.getRange(7, 20));
+      assertEquals(new ArrayList<Integer>(), bst2.getRange(21, 24));
+      assertEquals(new ArrayList<Integer>(), bst2.getRange(30, 10));
+
+      // the first two keys after 20
+      Iterator<Integer> after = bst2.tailIterator(20, false);
+      if (after.next() != 25 || after.next() != 30) {
+        fail("tailIterator() did not return the keys after 20 in order");
+      }
+
+      if (bst2.rank(5) != 0 || bst2.rank(17) != 3 || bst2.rank(40) != 7) {
+        fail("rank() did not return the number of smaller keys");
+      }
+      if (bst2.select(0) != 5 || bst2.select(3) != 20 || bst2.select(6) != 35) {
+        fail("select() did not return the key at the given index");
+      }
+      try {
+        bst2.select(7);
+        fail("select() should not accept an index past the last key");
+      } catch (IndexOutOfBoundsException e) {
+        // this is expected
+      }
+      try {
+        bst2.floor(null);
+        fail("floor() should not accept a null key");
+      } catch (IllegalNullKeyException e) {
+        // this is expected
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 027: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that insertAllSorted() builds a perfectly balanced tree from sorted pairs, merges a
+   * second sorted batch into it returning the keys already present, and rejects unsorted pairs
+   * without changing the tree
+   * 
+   * @see BST#insertAllSorted(Iterator)
+   */
+  @Test
+  void testBST_028_insert_all_sorted() {
+    try {
+      // the even keys 0 to 1998, which insert() would chain into a tree of height 1000
+      List<Map.Entry<Integer, String>> evens = new ArrayList<Map.Entry<Integer, String>>();
+      for (int key = 0; key < 2000; key += 2) {
+        evens.add(new AbstractMap.SimpleEntry<Integer, String>(key, "" + key));
+      }
+      if (!bst2.insertAllSorted(evens.iterator()).isEmpty()) {
+        fail("insertAllSorted() into an empty tree should not find any duplicates");
+      }
+      if (bst2.numKeys() != 1000 || bst2.getHeight() != 10) {
+        fail("1000 sorted keys should have been built into a tree of height 10, not "
+            + bst2.getHeight());
+      }
+
+      // merges the keys 1000 to 2999 in steps of 3, half of which are already present
+      List<Map.Entry<Integer, String>> batch = new ArrayList<Map.Entry<Integer, String>>();
+      for (int key = 1000; key < 3000; key += 3) {
+        batch.add(new AbstractMap.SimpleEntry<Integer, String>(key, "new"));
+      }
+      List<Integer> duplicates = bst2.insertAllSorted(batch.iterator());
+      if (duplicates.size() != 167 || bst2.numKeys() != 1500) {
+        fail("insertAllSorted() should have inserted 500 keys and returned 167 duplicates");
+      }
+      if (!bst2.get(1000).equals("1000") || !bst2.get(1003).equals("new")) {
+        fail("insertAllSorted() should keep the values of keys already in the tree");
+      }
+      List<Integer> keys = bst2.getInOrderTraversal();
+      for (int index = 1; index < keys.size(); index++) {
+        if (keys.get(index - 1) >= keys.get(index)) {
+          fail("the merged tree's keys are not in order at index " + index);
+        }
+      }
+      bst2.insert(-1, "still a search tree"); // the rebuilt tree can still be changed
+      bst2.remove(1998);
+
+      List<Map.Entry<Integer, String>> unsorted = new ArrayList<Map.Entry<Integer, String>>();
+      unsorted.add(new AbstractMap.SimpleEntry<Integer, String>(5000, "5000"));
+      unsorted.add(new AbstractMap.SimpleEntry<Integer, String>(4000, "4000"));
+      try {
+        bst2.insertAllSorted(unsorted.iterator());
+        fail("insertAllSorted() should not accept keys out of order");
+      } catch (IllegalArgumentException e) {
+        if (bst2.numKeys() != 1500 || bst2.contains(5000)) {
+          fail("insertAllSorted() changed the tree when given keys out of order");
+        }
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 028: " + e.getMessage());
+    }
+  }
 }
@@ -0,0 +1,809 @@
+// Title: BTree
+// Files: SearchTreeADT, DataStructureADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.ArrayDeque; // used as the queue of the level order traversal
+import java.util.ArrayList; // allowed for creating traversal lists
+import java.util.Arrays; // used to binary search the keys of a node
+import java.util.ConcurrentModificationException; // thrown by iterators when the tree changes
+import java.util.Iterator; // returned by the lazy traversals
+import java.util.List; // required for returning List<K>
+import java.util.NoSuchElementException; // thrown by iterators with no keys left
+
+/**
+ * A B-tree, which stores many keys in each node so that a search visits far fewer nodes than in a
+ * binary search tree. Each node keeps its keys and values in sorted arrays and is searched with a
+ * binary search, so a lookup touches O(log n / log fanout) nodes instead of O(log n), and reading
+ * the keys of a range reads mostly neighbouring array slots instead of following a pointer per key.
+ * 
+ * The fanout is the greatest number of children a node may have, so a node holds at most fanout - 1
+ * keys. Every node but the root holds at least (fanout - 1) / 2 keys, and every leaf is at the same
+ * depth. A node which gets too many keys is split in two around its middle key, which moves up into
+ * its parent, and a node which gets too few keys borrows a key from a sibling or is merged with it.
+ * 
+ * Each key is stored in exactly one node, so each traversal returns every key once. The pre order,
+ * post order, and level order traversals visit whole nodes: every key of a node is listed together,
+ * in order, where a binary tree would list the one key of that node.
+ * 
+ * @author Michael Goldstein
+ * 
+ * @param <K> The key type of nodes in the tree
+ * @param <V> The value type of the stored values in the tree
+ */
+public class BTree<K extends Comparable<K>, V> implements SearchTreeADT<K, V> {
+  /**
+   * An inner class which acts as a node of the tree. The first numKeys slots of keys and values
+   * hold the node's pairs in sorted order. An internal node has numKeys + 1 children, where
+   * children[i] holds the keys between keys[i - 1] and keys[i]; a leaf has no children array. Each
+   * array has one slot more than a node may keep, so that a node can hold one extra key until it is
+   * split.
+   * 
+   * @author Michael Goldstein
+   */
+  private class Node {
+    private K[] keys; // the keys of the Node in sorted order
+    private V[] values; // the value of each key, at the same index
+    private Node[] children; // the children of the Node, null if it is a leaf
+    private int numKeys; // the number of keys in the Node
+
+    /**
+     * Constructor for Node. Creates a node with no keys
+     * 
+     * @param leaf true if the Node is a leaf, false if it has children
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Node(boolean leaf) {
+      keys = (K[]) new Comparable[maxKeys + 1];
+      values = (V[]) new Object[maxKeys + 1];
+      children = leaf ? null : (Node[]) new BTree.Node[maxKeys + 2];
+      numKeys = 0;
+    }
+  }
+
+  public static final int DEFAULT_FANOUT = 64; // fanout used by the default constructor
+
+  private final int maxKeys; // the greatest number of keys a node may keep
+  private final int minKeys; // the least number of keys a node other than the root may keep
+  private Node root; // the root of the tree, null if it is empty
+  private int numKeys; // the number of keys in the tree
+  private int modCount; // number of changes to the tree, used by iterators to detect changes
+
+  /**
+   * Constructor for BTree. Creates an empty tree with a fanout of DEFAULT_FANOUT
+   */
+  public BTree() {
+    this(DEFAULT_FANOUT);
+  }
+
+  /**
+   * Constructor for BTree. Creates an empty tree with the given fanout
+   * 
+   * @param fanout the greatest number of children a node may have, at least 3
+   * @throws IllegalArgumentException if fanout is less than 3
+   */
+  public BTree(int fanout) {
+    if (fanout < 3) { // a node must be able to split into two nodes with a key each
+      throw new IllegalArgumentException("fanout must be at least 3: " + fanout);
+    }
+    maxKeys = fanout - 1;
+    minKeys = maxKeys / 2;
+    root = null;
+    numKeys = 0;
+    modCount = 0;
+  }
+
+  /**
+   * Returns the fanout of the tree, the greatest number of children a node may have
+   * 
+   * @return the fanout of the tree
+   */
+  public int getFanout() {
+    return maxKeys + 1;
+  }
+
+  /**
+   * Returns the index of the given key in the given node if it is there. If it is not, returns
+   * -(i + 1), where i is the index of the child whose subtree would hold the key.
+   * 
+   * @param n   the node to be searched
+   * @param key the key to be searched for
+   * @return the index of the key, or -(child index + 1) if it is not in the node
+   */
+  private int indexOf(Node n, K key) {
+    return Arrays.binarySearch(n.keys, 0, n.numKeys, key);
+  }
+
+  /**
+   * Inserts the given key and value into the tree. The key is added to a leaf, and any node that
+   * then has too many keys is split, up to the root. Splitting the root adds a level to the tree.
+   * 
+   * @param key   the key of the node to be added to the tree
+   * @param value the value of the node to be added to the tree
+   * @throws IllegalNullKeyException if key is null
+   * @throws DuplicateKeyException   if another node with the given key exists in the tree
+   */
+  @Override
+  public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    if (root == null) {
+      root = new Node(true);
+    }
+    insertHelper(root, key, value);
+    if (root.numKeys > maxKeys) { // splits the root under a new root
+      Node newRoot = new Node(false);
+      newRoot.children[0] = root;
+      split(newRoot, 0);
+      root = newRoot;
+    }
+    numKeys++;
+    modCount++;
+  }
+
+  /**
+   * Recursive helper for insert(). Inserts the given key and value into the subtree with n as
+   * root, splitting the child it was inserted into if that child has too many keys afterwards. The
+   * recursion is only as deep as the tree is tall.
+   * 
+   * @param n     the root of the subtree
+   * @param key   the key to be inserted
+   * @param value the value to be inserted
+   * @throws DuplicateKeyException if the key is already in the subtree
+   */
+  private void insertHelper(Node n, K key, V value) throws DuplicateKeyException {
+    int index = indexOf(n, key);
+    if (index >= 0) {
+      throw new DuplicateKeyException();
+    }
+    index = -index - 1;
+
+    if (n.children == null) {
+      insertAt(n, index, key, value, null);
+    } else {
+      insertHelper(n.children[index], key, value);
+      if (n.children[index].numKeys > maxKeys) {
+        split(n, index);
+      }
+    }
+  }
+
+  /**
+   * Inserts the given key and value into the given node at the given index, shifting the keys after
+   * it right by one. If the node is internal, the given child is inserted just after the key.
+   * 
+   * @param n          the node the key is inserted into
+   * @param index      the index the key is inserted at
+   * @param key        the key to be inserted
+   * @param value      the value to be inserted
+   * @param rightChild the child to the right of the key, or null if n is a leaf
+   */
+  private void insertAt(Node n, int index, K key, V value, Node rightChild) {
+    System.arraycopy(n.keys, index, n.keys, index + 1, n.numKeys - index);
+    System.arraycopy(n.values, index, n.values, index + 1, n.numKeys - index);
+    n.keys[index] = key;
+    n.values[index] = value;
+    if (n.children != null) {
+      System.arraycopy(n.children, index + 1, n.children, index + 2, n.numKeys - index);
+      n.children[index + 1] = rightChild;
+    }
+    n.numKeys++;
+  }
+
+  /**
+   * Splits the child at the given index of the given node, which has one key too many, in two. The
+   * child keeps the keys before its middle key, a new node gets the keys after it, and the middle
+   * key moves up into the parent between them.
+   * 
+   * @param parent the parent of the node to be split
+   * @param index  the index of the node to be split in the parent's children
+   */
+  private void split(Node parent, int index) {
+    Node left = parent.children[index];
+    Node right = new Node(left.children == null);
+    int middle = left.numKeys / 2;
+
+    right.numKeys = left.numKeys - middle - 1;
+    System.arraycopy(left.keys, middle + 1, right.keys, 0, right.numKeys);
+    System.arraycopy(left.values, middle + 1, right.values, 0, right.numKeys);
+    if (left.children != null) {
+      System.arraycopy(left.children, middle + 1, right.children, 0, right.numKeys + 1);
+      Arrays.fill(left.children, middle + 1, left.numKeys + 1, null);
+    }
+    insertAt(parent, index, left.keys[middle], left.values[middle], right);
+
+    // clears the moved slots so that the keys and values can be garbage collected once removed
+    Arrays.fill(left.keys, middle, left.numKeys, null);
+    Arrays.fill(left.values, middle, left.numKeys, null);
+    left.numKeys = middle;
+  }
+
+  /**
+   * Removes the node with the given key from the tree. A key in an internal node is replaced by its
+   * in order predecessor, which is then removed from its leaf. Any node that then has too few keys
+   * borrows one from a sibling or is merged with it, up to the root. Removing the last key of the
+   * root removes a level from the tree.
+   * 
+   * @param key the key of the node to be deleted
+   * @return true, as the node is always removed if no exception is thrown
+   * @throws IllegalNullKeyException if given key is null
+   * @throws KeyNotFoundException    if node with given key is not found in tree
+   */
+  @Override
+  public boolean remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    if (root == null) {
+      throw new KeyNotFoundException();
+    }
+
+    removeHelper(root, key);
+    if (root.numKeys == 0) { // replaces an empty root with its only child, or empties the tree
+      root = root.children == null ? null : root.children[0];
+    }
+    numKeys--;
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Recursive helper for remove(). Removes the given key from the subtree with n as root, fixing
+   * the child it was removed from if that child has too few keys afterwards. The recursion is only
+   * as deep as the tree is tall.
+   * 
+   * @param n   the root of the subtree
+   * @param key the key to be removed
+   * @throws KeyNotFoundException if the key is not in the subtree
+   */
+  private void removeHelper(Node n, K key) throws KeyNotFoundException {
+    int index = indexOf(n, key);
+    if (n.children == null) {
+      if (index < 0) {
+        throw new KeyNotFoundException();
+      }
+      removeAt(n, index);
+      return;
+    }
+
+    if (index >= 0) { // replaces the key with its in order predecessor from the left child
+      Node predecessor = n.children[index];
+      while (predecessor.children != null) {
+        predecessor = predecessor.children[predecessor.numKeys];
+      }
+      n.keys[index] = predecessor.keys[predecessor.numKeys - 1];
+      n.values[index] = predecessor.values[predecessor.numKeys - 1];
+      removeHelper(n.children[index], n.keys[index]);
+    } else {
+      index = -index - 1;
+      removeHelper(n.children[index], key);
+    }
+    if (n.children[index].numKeys < minKeys) {
+      fixUnderflow(n, index);
+    }
+  }
+
+  /**
+   * Removes the key at the given index of the given node, shifting the keys after it left by one.
+   * If the node is internal, the child just after the key is removed with it.
+   * 
+   * @param n     the node the key is removed from
+   * @param index the index of the key to be removed
+   */
+  private void removeAt(Node n, int index) {
+    System.arraycopy(n.keys, index + 1, n.keys, index, n.numKeys - index - 1);
+    System.arraycopy(n.values, index + 1, n.values, index, n.numKeys - index - 1);
+    if (n.children != null) {
+      System.arraycopy(n.children, index + 2, n.children, index + 1, n.numKeys - index - 1);
+      n.children[n.numKeys] = null;
+    }
+    n.numKeys--;
+    n.keys[n.numKeys] = null;
+    n.values[n.numKeys] = null;
+  }
+
+  /**
+   * Gives the child at the given index of the given node, which has one key too few, another key.
+   * Moves a key through the parent from a sibling with keys to spare if there is one, and otherwise
+   * merges the child with a sibling and the key between them.
+   * 
+   * @param parent the parent of the node with too few keys
+   * @param index  the index of the node with too few keys in the parent's children
+   */
+  private void fixUnderflow(Node parent, int index) {
+    Node child = parent.children[index];
+    if (index > 0 && parent.children[index - 1].numKeys > minKeys) { // borrows from the left
+      Node left = parent.children[index - 1];
+      Node leftLastChild = left.children == null ? null : left.children[left.numKeys];
+      // the parent's key moves down to the front of the child, with left's last child before it
+      System.arraycopy(child.keys, 0, child.keys, 1, child.numKeys);
+      System.arraycopy(child.values, 0, child.values, 1, child.numKeys);
+      if (child.children != null) {
+        System.arraycopy(child.children, 0, child.children, 1, child.numKeys + 1);
+        child.children[0] = leftLastChild;
+      }
+      child.keys[0] = parent.keys[index - 1];
+      child.values[0] = parent.values[index - 1];
+      child.numKeys++;
+      // left's last key moves up into the parent
+      parent.keys[index - 1] = left.keys[left.numKeys - 1];
+      parent.values[index - 1] = left.values[left.numKeys - 1];
+      if (left.children != null) {
+        left.children[left.numKeys] = null;
+      }
+      left.numKeys--;
+      left.keys[left.numKeys] = null;
+      left.values[left.numKeys] = null;
+    } else if (index < parent.numKeys && parent.children[index + 1].numKeys > minKeys) {
+      Node right = parent.children[index + 1]; // borrows from the right
+      // the parent's key moves down to the end of the child, with right's first child after it
+      child.keys[child.numKeys] = parent.keys[index];
+      child.values[child.numKeys] = parent.values[index];
+      if (child.children != null) {
+        child.children[child.numKeys + 1] = right.children[0];
+        System.arraycopy(right.children, 1, right.children, 0, right.numKeys);
+        right.children[right.numKeys] = null;
+      }
+      child.numKeys++;
+      // right's first key moves up into the parent
+      parent.keys[index] = right.keys[0];
+      parent.values[index] = right.values[0];
+      System.arraycopy(right.keys, 1, right.keys, 0, right.numKeys - 1);
+      System.arraycopy(right.values, 1, right.values, 0, right.numKeys - 1);
+      right.numKeys--;
+      right.keys[right.numKeys] = null;
+      right.values[right.numKeys] = null;
+    } else { // neither sibling has keys to spare, so merges the child with one of them
+      merge(parent, index > 0 ? index - 1 : index);
+    }
+  }
+
+  /**
+   * Merges the child at the given index of the given node with the child after it, with the key
+   * between them in the parent moved down between their keys. The merged node fits, as together
+   * the two children have too few keys to be split between them.
+   * 
+   * @param parent the parent of the nodes to be merged
+   * @param index  the index of the left node of the two in the parent's children
+   */
+  private void merge(Node parent, int index) {
+    Node left = parent.children[index];
+    Node right = parent.children[index + 1];
+
+    left.keys[left.numKeys] = parent.keys[index];
+    left.values[left.numKeys] = parent.values[index];
+    System.arraycopy(right.keys, 0, left.keys, left.numKeys + 1, right.numKeys);
+    System.arraycopy(right.values, 0, left.values, left.numKeys + 1, right.numKeys);
+    if (left.children != null) {
+      System.arraycopy(right.children, 0, left.children, left.numKeys + 1, right.numKeys + 1);
+    }
+    left.numKeys += right.numKeys + 1;
+    removeAt(parent, index); // also removes right from the parent's children
+  }
+
+  /**
+   * Returns the value of the node with the given key. Binary searches the keys of each node from
+   * the root down to the node with the key.
+   * 
+   * @param key the key of the node whose value is to be returned
+   * @return the value of the node with the matching key
+   * @throws IllegalNullKeyException if key is null
+   * @throws KeyNotFoundException    if a node with the given key does not exist in the tree
+   */
+  @Override
+  public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    Node n = root;
+    while (n != null) {
+      int index = indexOf(n, key);
+      if (index >= 0) {
+        return n.values[index];
+      }
+      n = n.children == null ? null : n.children[-index - 1];
+    }
+    throw new KeyNotFoundException();
+  }
+
+  /**
+   * Returns true if a node with the given key is in the tree, false if not
+   * 
+   * @param key the key of the node to be searched for
+   * @return true if a node with the given key is found in the tree, false if not found
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public boolean contains(K key) throws IllegalNullKeyException {
+    try {
+      get(key);
+      return true;
+    } catch (KeyNotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the number of keys in the tree
+   * 
+   * @return the number of keys in the tree
+   */
+  @Override
+  public int numKeys() {
+    return numKeys;
+  }
+
+  /**
+   * Returns the height of the tree, which is the number of levels of nodes. As every leaf is at
+   * the same depth, this is the number of nodes on the path from the root to any leaf.
+   * 
+   * @return the number of levels that contain keys in the tree, 0 if it is empty
+   */
+  public int getHeight() {
+    int height = 0;
+    for (Node n = root; n != null; n = n.children == null ? null : n.children[0]) {
+      height++;
+    }
+    return height;
+  }
+
+  /**
+   * Returns the first key of the root node. The keys of the root split the tree into its subtrees,
+   * and this is the key between the first and second of them.
+   * 
+   * @return the first key of the root node, or null if the tree is empty
+   */
+  public K getKeyAtRoot() {
+    return root == null ? null : root.keys[0];
+  }
+
+  /**
+   * Returns the keys of the root node in sorted order
+   * 
+   * @return a List of the keys of the root node, which is empty if the tree is empty
+   */
+  public List<K> getKeysAtRoot() {
+    List<K> list = new ArrayList<K>();
+    for (int index = 0; root != null && index < root.numKeys; index++) {
+      list.add(root.keys[index]);
+    }
+    return list;
+  }
+
+  /**
+   * Returns a List containing the in order traversal of the tree
+   * 
+   * @return a List containing the in order traversal of the tree
+   */
+  @Override
+  public List<K> getInOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    inOrderIterator().forEachRemaining(list::add);
+    return list;
+  }
+
+  /**
+   * Returns a List containing the preorder traversal of the tree. Lists all the keys of a node, in
+   * order, and then the preorder traversal of each of its children from left to right.
+   * 
+   * @return a List containing the preorder traversal of the tree
+   */
+  @Override
+  public List<K> getPreOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    preOrderTraversalHelper(root, list);
+    return list;
+  }
+
+  /**
+   * Recursive helper for getPreOrderTraversal. The recursion is only as deep as the tree is tall.
+   * 
+   * @param n    the current node the helper is called on
+   * @param list the list the keys of the node and its children should be added to
+   */
+  private void preOrderTraversalHelper(Node n, List<K> list) {
+    if (n != null) {
+      list.addAll(Arrays.asList(n.keys).subList(0, n.numKeys));
+      for (int index = 0; n.children != null && index <= n.numKeys; index++) {
+        preOrderTraversalHelper(n.children[index], list);
+      }
+    }
+  }
+
+  /**
+   * Returns a List containing the postorder traversal of the tree. Lists the postorder traversal of
+   * each child of a node from left to right, and then all the keys of the node, in order.
+   * 
+   * @return a List containing the postorder traversal of the tree
+   */
+  @Override
+  public List<K> getPostOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    postOrderTraversalHelper(root, list);
+    return list;
+  }
+
+  /**
+   * Recursive helper for getPostOrderTraversal. The recursion is only as deep as the tree is tall.
+   * 
+   * @param n    the current node the helper is called on
+   * @param list the list the keys of the node and its children should be added to
+   */
+  private void postOrderTraversalHelper(Node n, List<K> list) {
+    if (n != null) {
+      for (int index = 0; n.children != null && index <= n.numKeys; index++) {
+        postOrderTraversalHelper(n.children[index], list);
+      }
+      list.addAll(Arrays.asList(n.keys).subList(0, n.numKeys));
+    }
+  }
+
+  /**
+   * Returns a List containing the level order traversal of the tree. Lists the keys of each level
+   * from left to right, with all the keys of a node together, in order.
+   * 
+   * @return a List containing the level order traversal of the tree
+   */
+  @Override
+  public List<K> getLevelOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    ArrayDeque<Node> queue = new ArrayDeque<Node>();
+    if (root != null) {
+      queue.add(root);
+    }
+    while (!queue.isEmpty()) {
+      Node n = queue.remove();
+      list.addAll(Arrays.asList(n.keys).subList(0, n.numKeys));
+      for (int index = 0; n.children != null && index <= n.numKeys; index++) {
+        queue.add(n.children[index]);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of the tree in sorted order. The iterator throws a
+   * ConcurrentModificationException if the tree is changed while it is in use.
+   * 
+   * @return an iterator over the keys of the tree in order
+   */
+  @Override
+  public Iterator<K> inOrderIterator() {
+    return new InOrderIterator(null, true, null);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys from fromKey to toKey, both inclusive, in sorted order.
+   * Finding the first key takes O(log n) time, and the rest are read from the arrays of a few
+   * nodes each.
+   * 
+   * @param fromKey the least key that may be returned
+   * @param toKey   the greatest key that may be returned
+   * @return an iterator over the keys in the range in order
+   * @throws IllegalNullKeyException if fromKey or toKey is null
+   */
+  @Override
+  public Iterator<K> rangeIterator(K fromKey, K toKey) throws IllegalNullKeyException {
+    if (fromKey == null || toKey == null) { // checks if keys are null, throws exception if so
+      throw new IllegalNullKeyException();
+    }
+    return new InOrderIterator(fromKey, true, toKey);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys after fromKey in sorted order, starting with fromKey
+   * itself if inclusive is true and it is present
+   * 
+   * @param fromKey   the key the iterator starts from
+   * @param inclusive whether fromKey itself may be returned
+   * @return an iterator over the keys after fromKey in order
+   * @throws IllegalNullKeyException if fromKey is null
+   */
+  @Override
+  public Iterator<K> tailIterator(K fromKey, boolean inclusive) throws IllegalNullKeyException {
+    if (fromKey == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return new InOrderIterator(fromKey, inclusive, null);
+  }
+
+  /**
+   * Lazy in order iterator over the keys of the tree, from a starting key up to an optional last
+   * key. The stack holds one node of each level on the path to the next key, with the index of the
+   * next key to be returned from each, so it never holds more nodes than the tree is tall.
+   */
+  private class InOrderIterator implements Iterator<K> {
+    private final Node[] nodes; // the nodes on the path to the next key, from the root down
+    private final int[] indexes; // the index of the next key to be returned from each node
+    private int depth; // the number of nodes on the stack
+    private final K toKey; // greatest key that may be returned, or null if there is none
+    private final int expectedModCount = modCount; // modCount when the iterator was created
+
+    /**
+     * Creates an iterator at the first key after fromKey
+     * 
+     * @param fromKey   the key the iterator starts from, or null to start from the first key
+     * @param inclusive whether fromKey itself may be returned
+     * @param toKey     the greatest key that may be returned, or null if there is none
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    InOrderIterator(K fromKey, boolean inclusive, K toKey) {
+      int height = getHeight();
+      this.nodes = (Node[]) new BTree.Node[height];
+      this.indexes = new int[height];
+      this.depth = 0;
+      this.toKey = toKey;
+
+      // pushes each node on the path to fromKey, at its first key after fromKey
+      Node n = root;
+      while (n != null) {
+        int index = 0;
+        if (fromKey != null) {
+          index = indexOf(n, fromKey);
+          index = index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+        }
+        nodes[depth] = n;
+        indexes[depth] = index;
+        depth++;
+        n = n.children == null ? null : n.children[index];
+      }
+      popFinished();
+    }
+
+    /**
+     * Pops the nodes at the top of the stack which have no keys left to return
+     */
+    private void popFinished() {
+      while (depth > 0 && indexes[depth - 1] == nodes[depth - 1].numKeys) {
+        depth--;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return depth > 0
+          && (toKey == null || nodes[depth - 1].keys[indexes[depth - 1]].compareTo(toKey) <= 0);
+    }
+
+    @Override
+    public K next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      Node n = nodes[depth - 1];
+      int index = indexes[depth - 1]++;
+      // the key after keys[index] is the first key of the leftmost leaf of the child after it
+      for (Node child = n.children == null ? null : n.children[index + 1]; child != null;
+          child = child.children == null ? null : child.children[0]) {
+        nodes[depth] = child;
+        indexes[depth] = 0;
+        depth++;
+      }
+      popFinished();
+      return n.keys[index];
+    }
+  }
+
+  /**
+   * Returns the greatest key less than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key <= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K floor(K key) throws IllegalNullKeyException {
+    return lowerKey(key, true);
+  }
+
+  /**
+   * Returns the greatest key strictly less than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key < key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K lower(K key) throws IllegalNullKeyException {
+    return lowerKey(key, false);
+  }
+
+  /**
+   * Returns the least key greater than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key >= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K ceiling(K key) throws IllegalNullKeyException {
+    return higherKey(key, true);
+  }
+
+  /**
+   * Returns the least key strictly greater than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key > key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K higher(K key) throws IllegalNullKeyException {
+    return higherKey(key, false);
+  }
+
+  /**
+   * Helper for floor() and lower(). Walks down the tree, remembering the last key passed that is
+   * less than the given key (or equal to it, if inclusive).
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the greatest key less than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private K lowerKey(K key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    K lowerKey = null;
+    Node n = root;
+    while (n != null) {
+      int index = indexOf(n, key);
+      if (index >= 0 && inclusive) {
+        return n.keys[index];
+      }
+      int child = index >= 0 ? index : -index - 1; // keys before this index are less than key
+      if (child > 0) {
+        lowerKey = n.keys[child - 1];
+      }
+      n = n.children == null ? null : n.children[child];
+    }
+    return lowerKey;
+  }
+
+  /**
+   * Helper for ceiling() and higher(). Walks down the tree, remembering the last key passed that is
+   * greater than the given key (or equal to it, if inclusive).
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the least key greater than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private K higherKey(K key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    K higherKey = null;
+    Node n = root;
+    while (n != null) {
+      int index = indexOf(n, key);
+      if (index >= 0 && inclusive) {
+        return n.keys[index];
+      }
+      int child = index >= 0 ? index + 1 : -index - 1; // keys from this index are greater than key
+      if (child < n.numKeys) {
+        higherKey = n.keys[child];
+      }
+      n = n.children == null ? null : n.children[child];
+    }
+    return higherKey;
+  }
+}
@@ -0,0 +1,160 @@
+// Title: BTreeBenchmark
+// Files: BTree, AVL, SearchTreeADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.Iterator; // used to read the keys of each range scan
+import java.util.Random; // used to shuffle the keys and pick the keys looked up
+
+/**
+ * Class which compares an AVL tree with B-trees of several fanouts holding the same keys. It times
+ * random lookups, which in the AVL tree follow a pointer to a new node at every level, and short
+ * range scans, which in the B-tree read neighbouring slots of a few arrays. Each run is repeated
+ * after a warmup so that the timings are not dominated by the JIT compiler.
+ * 
+ * @author Michael Goldstein
+ * @see BTree
+ * @see AVL
+ */
+public class BTreeBenchmark {
+
+  /**
+   * Looks up the given keys in the given tree and returns the elapsed time in nanoseconds
+   * 
+   * @param tree    the tree to be searched
+   * @param lookups the keys to be looked up, all of which are in the tree
+   * @return the time in nanoseconds the lookups took
+   * @throws Exception if the tree throws an exception, which should not happen
+   */
+  private static long timeLookups(SearchTreeADT<Integer, Integer> tree, Integer[] lookups)
+      throws Exception {
+    long start = System.nanoTime();
+    long sum = 0;
+    for (Integer key : lookups) {
+      sum += tree.get(key);
+    }
+    long time = System.nanoTime() - start;
+    if (sum == 42) { // uses the sum so that the JIT compiler cannot skip the lookups
+      System.out.print("");
+    }
+    return time;
+  }
+
+  /**
+   * Reads the given number of keys from each of the given starting keys in the given tree and
+   * returns the elapsed time in nanoseconds
+   * 
+   * @param tree        the tree to be scanned
+   * @param starts      the key each scan starts from
+   * @param rangeLength the number of keys each scan reads
+   * @return the time in nanoseconds the scans took
+   * @throws Exception if the tree throws an exception, which should not happen
+   */
+  private static long timeScans(SearchTreeADT<Integer, Integer> tree, Integer[] starts,
+      int rangeLength) throws Exception {
+    long start = System.nanoTime();
+    long sum = 0;
+    for (Integer from : starts) {
+      Iterator<Integer> iterator = tree.rangeIterator(from, from + rangeLength - 1);
+      while (iterator.hasNext()) {
+        sum += iterator.next();
+      }
+    }
+    long time = System.nanoTime() - start;
+    if (sum == 42) { // uses the sum so that the JIT compiler cannot skip the scans
+      System.out.print("");
+    }
+    return time;
+  }
+
+  /**
+   * Times lookups and range scans on the given tree over the given number of runs after one warmup
+   * run, and prints the best throughput of each
+   * 
+   * @param name        the name of the tree
+   * @param tree        the tree to be timed
+   * @param lookups     the keys to be looked up
+   * @param rangeLength the number of keys each range scan reads
+   * @param runs        the number of timed runs
+   * @throws Exception if the tree throws an exception, which should not happen
+   */
+  private static void report(String name, SearchTreeADT<Integer, Integer> tree, Integer[] lookups,
+      int rangeLength, int runs) throws Exception {
+    timeLookups(tree, lookups); // warms up the JIT compiler before any timed runs
+    timeScans(tree, lookups, rangeLength);
+
+    // keeps the best time, as slower runs are slowed down by outside noise (such as GC)
+    long bestLookups = Long.MAX_VALUE;
+    long bestScans = Long.MAX_VALUE;
+    for (int run = 0; run < runs; run++) {
+      bestLookups = Math.min(bestLookups, timeLookups(tree, lookups));
+      bestScans = Math.min(bestScans, timeScans(tree, lookups, rangeLength));
+    }
+    System.out.println(String.format("%-12s %,14.0f lookups/sec %,14.0f scanned keys/sec", name,
+        lookups.length / (bestLookups / 1e9),
+        (double) lookups.length * rangeLength / (bestScans / 1e9)));
+  }
+
+  /**
+   * Driver method which runs the benchmark
+   * 
+   * @param args optional command line input: the number of keys (default 1000000), the number of
+   *             lookups and range scans (default 1000000), the number of keys each range scan
+   *             reads (default 100), and the number of timed runs (default 3)
+   */
+  public static void main(String[] args) {
+    try {
+      int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+      int numLookups = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+      int rangeLength = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+      int runs = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+      // shuffles the keys with a fixed seed so that every tree is built the same way
+      Random random = new Random(42);
+      Integer[] keys = new Integer[numKeys];
+      for (int index = 0; index < numKeys; index++) {
+        keys[index] = index;
+      }
+      for (int index = numKeys - 1; index > 0; index--) {
+        int swap = random.nextInt(index + 1);
+        Integer temp = keys[index];
+        keys[index] = keys[swap];
+        keys[swap] = temp;
+      }
+      Integer[] lookups = new Integer[numLookups];
+      for (int index = 0; index < numLookups; index++) {
+        lookups[index] = keys[random.nextInt(numKeys)];
+      }
+
+      System.out.println(String.format("%,d keys, %,d lookups and scans of %d keys", numKeys,
+          numLookups, rangeLength));
+      AVL<Integer, Integer> avl = new AVL<Integer, Integer>();
+      for (Integer key : keys) {
+        avl.insert(key, key);
+      }
+      report("AVL", avl, lookups, rangeLength, runs);
+      avl = null; // lets the AVL tree be garbage collected before the B-trees are built
+
+      for (int fanout : new int[] {8, 32, 64, 128}) {
+        BTree<Integer, Integer> bTree = new BTree<Integer, Integer>(fanout);
+        for (Integer key : keys) {
+          bTree.insert(key, key);
+        }
+        report("BTree(" + fanout + ")", bTree, lookups, rangeLength, runs);
+      }
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java BTreeBenchmark [numKeys] [numLookups] [rangeLength] [runs] "
+          + "failed! A(n) " + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,199 @@
+// Title: BTreeTest
+// Files: BTree
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit Testing class to check if BTree functions correctly, using a small fanout so that nodes
+ * split and merge after only a few changes
+ * 
+ * @author Michael Goldstein
+ * @see BTree
+ */
+public class BTreeTest extends DataStructureADTTest {
+
+  BTree<String, String> tree;
+  BTree<Integer, String> tree2;
+
+  /**
+   * Runs before each test. Creates two instances of a BTree with a fanout of 3
+   * 
+   * @throws java.lang.Exception if the trees fail to initialize correctly
+   */
+  @BeforeEach
+  void setUp() throws Exception {
+    dataStructureInstance = tree = createInstance();
+    dataStructureInstance2 = tree2 = createInstance2();
+  }
+
+  /**
+   * Runs after each test. Sets the existing trees to null
+   * 
+   * @throws java.lang.Exception
+   */
+  @AfterEach
+  void tearDown() throws Exception {
+    dataStructureInstance = tree = null;
+    dataStructureInstance2 = tree2 = null;
+  }
+
+  /**
+   * Creates an instance of a BTree with String keys and a fanout of 3
+   * 
+   * @return a BTree with String keys and String Values
+   * @see DataStructureADTTest#createInstance()
+   */
+  @Override
+  protected BTree<String, String> createInstance() {
+    return new BTree<String, String>(3);
+  }
+
+  /**
+   * Creates an instance of a BTree with Integer keys and a fanout of 3
+   * 
+   * @return a BTree with Integer keys and String values
+   * @see DataStructureADTTest#createInstance2()
+   */
+  @Override
+  protected BTree<Integer, String> createInstance2() {
+    return new BTree<Integer, String>(3);
+  }
+
+  /**
+   * Inserts the keys 1 to 9 in order, which splits nodes into a tree of height 3, then removes the
+   * key at the root, which borrows a key from a sibling. Checks the height, the root, and the
+   * traversals, which list the keys of each node together, after each step.
+   * 
+   * @see BTree#insert(Comparable, Object)
+   * @see BTree#remove(Comparable)
+   */
+  @Test
+  void testBTree_001_splits_and_borrows() {
+    try {
+      for (int key = 1; key <= 9; key++) {
+        tree2.insert(key, "" + key);
+      }
+      // root [4], children [2] and [6, 8], leaves [1] [3] [5] [7] [9]
+      if (tree2.getHeight() != 3 || !tree2.getKeyAtRoot().equals(4)) {
+        fail("the tree should have height 3 and root 4 but has height " + tree2.getHeight()
+            + " and root " + tree2.getKeyAtRoot());
+      }
+      assertEquals(Arrays.asList(4, 2, 1, 3, 6, 8, 5, 7, 9), tree2.getPreOrderTraversal());
+      assertEquals(Arrays.asList(1, 3, 2, 5, 7, 9, 6, 8, 4), tree2.getPostOrderTraversal());
+      assertEquals(Arrays.asList(4, 2, 6, 8, 1, 3, 5, 7, 9), tree2.getLevelOrderTraversal());
+
+      // 4 is replaced by 3, [2] merges with its leaves and then borrows 6 through the root
+      tree2.remove(4);
+      assertEquals(Arrays.asList(6), tree2.getKeysAtRoot());
+      assertEquals(Arrays.asList(6, 3, 8, 1, 2, 5, 7, 9), tree2.getLevelOrderTraversal());
+      assertEquals(Arrays.asList(1, 2, 3, 5, 6, 7, 8, 9), tree2.getInOrderTraversal());
+      if (tree2.getHeight() != 3 || tree2.numKeys() != 8) {
+        fail("the tree should have height 3 and 8 keys after the remove");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 001: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Inserts and removes random keys, comparing the keys, ordered queries, and range scans of the
+   * tree with those of a TreeMap, and checks that removing every key empties the tree
+   * 
+   * @see BTree#rangeIterator(Comparable, Comparable)
+   * @see BTree#floor(Comparable)
+   */
+  @Test
+  void testBTree_002_random_changes_match_TreeMap() {
+    try {
+      Random random = new Random(400);
+      TreeMap<Integer, String> map = new TreeMap<Integer, String>();
+      for (int change = 0; change < 3000; change++) {
+        int key = random.nextInt(500);
+        if (map.containsKey(key)) {
+          tree2.remove(key);
+          map.remove(key);
+        } else {
+          tree2.insert(key, "" + key);
+          map.put(key, "" + key);
+        }
+      }
+
+      assertEquals(new ArrayList<Integer>(map.keySet()), tree2.getInOrderTraversal());
+      if (tree2.numKeys() != map.size()) {
+        fail("numKeys() should be " + map.size() + " but was " + tree2.numKeys());
+      }
+      for (int key = -1; key <= 500; key++) {
+        if (tree2.contains(key) != map.containsKey(key)
+            || !Objects.equals(tree2.floor(key), map.floorKey(key))
+            || !Objects.equals(tree2.higher(key), map.higherKey(key))) {
+          fail("contains(), floor(), or higher() did not match TreeMap for key " + key);
+        }
+      }
+      List<Integer> range = new ArrayList<Integer>();
+      Iterator<Integer> iterator = tree2.rangeIterator(100, 200);
+      iterator.forEachRemaining(range::add);
+      assertEquals(new ArrayList<Integer>(map.subMap(100, true, 200, true).keySet()), range);
+
+      for (Integer key : map.keySet()) {
+        tree2.remove(key);
+      }
+      if (tree2.numKeys() != 0 || tree2.getHeight() != 0 || tree2.getKeyAtRoot() != null) {
+        fail("removing every key should leave an empty tree");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 002: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that a fanout less than 3 is rejected and that a larger fanout keeps the tree short
+   * 
+   * @see BTree#BTree(int)
+   */
+  @Test
+  void testBTree_003_fanout() {
+    try {
+      new BTree<Integer, String>(2);
+      fail("a fanout of 2 should throw IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // this is expected
+    }
+
+    try {
+      BTree<Integer, String> wide = new BTree<Integer, String>(64);
+      for (int key = 0; key < 10000; key++) {
+        wide.insert(key, "" + key);
+      }
+      // every node but the root holds at least 31 keys, so height 4 needs 2 * 32^3 - 1 keys
+      if (wide.getFanout() != 64 || wide.getHeight() > 3) {
+        fail("a tree with fanout 64 and 10000 keys should have height at most 3 but has "
+            + wide.getHeight());
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 003: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,314 @@
+// Title: ConcurrentAVL
+// Files: SearchTreeADT, DataStructureADT, PersistentAVL
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.Iterator; // returned by the lazy traversals
+import java.util.List; // required for returning List<K>
+import java.util.Spliterator; // returned by spliterator()
+
+/**
+ * A thread-safe AVL tree which can be read by many threads at once while another thread changes
+ * it, without an outside lock.
+ * 
+ * The tree holds its current version as a PersistentAVL, which never changes. insert() and remove()
+ * build a new version, which copies only the nodes on the path to the changed node and shares every
+ * other subtree with the old version, and then publish it with one volatile write. Writers take a
+ * lock so that they do not lose each other's changes, but readers never lock, never wait, and never
+ * write to shared memory: they read the current version once and search it, so reads scale with
+ * the number of cores. Every read sees one complete version of the tree, and iterators and
+ * traversals see the version from when they started however the tree is changed afterwards.
+ * snapshot() returns the current version itself, so a consistent copy of the tree costs O(1).
+ * 
+ * @author Michael Goldstein
+ * 
+ * @param <K> The key type of nodes in the tree
+ * @param <V> The value type of the stored values in the tree
+ * @see AVL
+ * @see PersistentAVL
+ */
+public class ConcurrentAVL<K extends Comparable<K>, V> implements SearchTreeADT<K, V> {
+  private volatile PersistentAVL<K, V> version; // the current version, replaced by every change
+  private final Object writeLock; // held by insert() and remove() while they build a new version
+
+  /**
+   * Constructor for ConcurrentAVL. Creates an empty tree
+   */
+  public ConcurrentAVL() {
+    version = new PersistentAVL<K, V>();
+    writeLock = new Object();
+  }
+
+  /**
+   * Returns the current version of the tree, which is never changed by later inserts and removes.
+   * Takes O(1) time and copies nothing, as the version is shared with the tree until it is
+   * replaced.
+   * 
+   * @return the current version of the tree
+   */
+  public PersistentAVL<K, V> snapshot() {
+    return version;
+  }
+
+  /**
+   * Inserts the given key and value into the tree. Builds a new version of the tree with the key
+   * and then publishes it, so readers see either the old version or the new one. Waits for any
+   * other insert() or remove() to finish first.
+   * 
+   * @param key   the key of the node to be added to the tree
+   * @param value the value of the node to be added to the tree
+   * @throws IllegalNullKeyException if key is null
+   * @throws DuplicateKeyException   if another node with the given key exists in the tree
+   */
+  @Override
+  public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+    synchronized (writeLock) {
+      version = version.insert(key, value);
+    }
+  }
+
+  /**
+   * Removes the node with the given key from the tree. Builds a new version of the tree without the
+   * key and then publishes it, so readers see either the old version or the new one. Waits for any
+   * other insert() or remove() to finish first.
+   * 
+   * @param key the key of the node to be deleted
+   * @return true, as the node is always removed if no exception is thrown
+   * @throws IllegalNullKeyException if given key is null
+   * @throws KeyNotFoundException    if node with given key is not found in tree
+   */
+  @Override
+  public boolean remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    synchronized (writeLock) {
+      version = version.remove(key);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the value of the node with the given key. Never locks.
+   * 
+   * @param key the key of the node whose value is to be returned
+   * @return the value of the node with the matching key
+   * @throws IllegalNullKeyException if key is null
+   * @throws KeyNotFoundException    if a node with the given key does not exist in the tree
+   */
+  @Override
+  public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    return version.get(key);
+  }
+
+  /**
+   * Returns true if a node with the given key is in the tree, false if not. Never locks.
+   * 
+   * @param key the key of the node to be searched for
+   * @return true if a node with the given key is found in the tree, false if not found
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public boolean contains(K key) throws IllegalNullKeyException {
+    return version.contains(key);
+  }
+
+  /**
+   * Returns the number of keys in the tree
+   * 
+   * @return the number of keys in the tree
+   */
+  @Override
+  public int numKeys() {
+    return version.numKeys();
+  }
+
+  /**
+   * Returns the height of the tree
+   * 
+   * @return the number of levels that contain keys in the tree
+   */
+  public int getHeight() {
+    return version.getHeight();
+  }
+
+  /**
+   * Returns a List containing the in order traversal of the current version of the tree
+   * 
+   * @return a List containing the in order traversal of the tree
+   */
+  @Override
+  public List<K> getInOrderTraversal() {
+    return version.getInOrderTraversal();
+  }
+
+  /**
+   * Returns a List containing the preorder traversal of the current version of the tree
+   * 
+   * @return a List containing the preorder traversal of the tree
+   */
+  @Override
+  public List<K> getPreOrderTraversal() {
+    return version.getPreOrderTraversal();
+  }
+
+  /**
+   * Returns a List containing the postorder traversal of the current version of the tree
+   * 
+   * @return a List containing the postorder traversal of the tree
+   */
+  @Override
+  public List<K> getPostOrderTraversal() {
+    return version.getPostOrderTraversal();
+  }
+
+  /**
+   * Returns a List containing the level order traversal of the current version of the tree
+   * 
+   * @return a List containing the level order traversal of the tree
+   */
+  @Override
+  public List<K> getLevelOrderTraversal() {
+    return version.getLevelOrderTraversal();
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of the current version of the tree in sorted order. The
+   * iterator keeps returning the keys of that version however the tree is changed afterwards.
+   * 
+   * @return an iterator over the keys of the tree in order
+   */
+  @Override
+  public Iterator<K> inOrderIterator() {
+    return version.inOrderIterator();
+  }
+
+  /**
+   * Returns a lazy iterator over the keys from fromKey to toKey, both inclusive, of the current
+   * version of the tree in sorted order. Reading k keys takes O(log n + k) time.
+   * 
+   * @param fromKey the least key that may be returned
+   * @param toKey   the greatest key that may be returned
+   * @return an iterator over the keys in the range in order
+   * @throws IllegalNullKeyException if fromKey or toKey is null
+   */
+  @Override
+  public Iterator<K> rangeIterator(K fromKey, K toKey) throws IllegalNullKeyException {
+    return version.rangeIterator(fromKey, toKey);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys after fromKey of the current version of the tree in
+   * sorted order, starting with fromKey itself if inclusive is true and it is present
+   * 
+   * @param fromKey   the key the iterator starts from
+   * @param inclusive whether fromKey itself may be returned
+   * @return an iterator over the keys after fromKey in order
+   * @throws IllegalNullKeyException if fromKey is null
+   */
+  @Override
+  public Iterator<K> tailIterator(K fromKey, boolean inclusive) throws IllegalNullKeyException {
+    return version.tailIterator(fromKey, inclusive);
+  }
+
+  /**
+   * Returns a spliterator over the keys of the current version of the tree in sorted order. Its
+   * size is the size of that version, so it stays exact however the tree is changed afterwards.
+   * 
+   * @return a spliterator over the keys of the tree in order
+   */
+  @Override
+  public Spliterator<K> spliterator() {
+    return version.spliterator();
+  }
+
+  /**
+   * Returns the greatest key less than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key <= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K floor(K key) throws IllegalNullKeyException {
+    return version.floor(key);
+  }
+
+  /**
+   * Returns the greatest key strictly less than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key < key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K lower(K key) throws IllegalNullKeyException {
+    return version.lower(key);
+  }
+
+  /**
+   * Returns the least key greater than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key >= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K ceiling(K key) throws IllegalNullKeyException {
+    return version.ceiling(key);
+  }
+
+  /**
+   * Returns the least key strictly greater than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key > key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public K higher(K key) throws IllegalNullKeyException {
+    return version.higher(key);
+  }
+
+  /**
+   * Returns the number of keys strictly less than the given key, in O(log n) time
+   * 
+   * @param key the key to be ranked
+   * @return the number of keys < key
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public int rank(K key) throws IllegalNullKeyException {
+    return version.rank(key);
+  }
+
+  /**
+   * Returns the key at the given index of the keys in sorted order, in O(log n) time
+   * 
+   * @param index the index of the key in sorted order
+   * @return the key at the index
+   * @throws IndexOutOfBoundsException if index is negative or not less than numKeys()
+   */
+  @Override
+  public K select(int index) {
+    return version.select(index);
+  }
+
+  /**
+   * Returns the key at the given percentile of the keys in sorted order, using the nearest-rank
+   * method. Reads the number of keys and the key from the same version of the tree.
+   * 
+   * @param percent the percentile, from 0 to 100
+   * @return the key at the percentile, or null if there are no keys
+   * @throws IllegalArgumentException if percent is not from 0 to 100
+   */
+  @Override
+  public K percentile(double percent) {
+    return version.percentile(percent);
+  }
+}
@@ -0,0 +1,126 @@
+// Title: ConcurrentAVLProfiler
+// Files: ConcurrentAVL, SearchTreeADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.Random; // used to pick the keys each reader looks up
+import java.util.concurrent.atomic.AtomicBoolean; // tells the writer thread to stop
+
+/**
+ * Measures the lookup throughput of ConcurrentAVL when the same number of lookups is split between
+ * 1, 2, 4, ... reader threads, up to the number of available cores (or a given maximum), while one
+ * writer thread keeps inserting and removing keys. Shows how reads scale with cores while the tree
+ * is being changed.
+ * 
+ * @author Michael Goldstein
+ * @see ConcurrentAVL
+ */
+public class ConcurrentAVLProfiler {
+
+  /**
+   * Looks up the given number of random keys of the tree, split evenly between the given number of
+   * reader threads, while a writer thread inserts and removes keys the readers never look up
+   * 
+   * @param tree       the tree to be read, holding the keys 0 to numKeys - 1
+   * @param numKeys    the number of keys the readers choose from
+   * @param numLookups the total number of lookups
+   * @param numThreads the number of reader threads to split the lookups between
+   * @return the time in nanoseconds all readers took to finish
+   * @throws Exception if a thread throws an exception, which should not happen
+   */
+  private static long timeRun(ConcurrentAVL<Integer, Integer> tree, int numKeys, int numLookups,
+      int numThreads) throws Exception {
+    Thread[] readers = new Thread[numThreads];
+    Exception[] failures = new Exception[numThreads + 1]; // the last is the writer's
+    AtomicBoolean stopWriter = new AtomicBoolean(false);
+
+    // the writer changes keys from numKeys on, so that every reader's lookup still succeeds
+    Thread writer = new Thread(() -> {
+      try {
+        for (int key = numKeys; !stopWriter.get(); key++) {
+          tree.insert(key, key);
+          tree.remove(key);
+        }
+      } catch (Exception e) {
+        failures[numThreads] = e;
+      }
+    });
+    writer.start();
+
+    long start = System.nanoTime();
+    for (int thread = 0; thread < numThreads; thread++) {
+      final int id = thread;
+      readers[thread] = new Thread(() -> {
+        try {
+          Random random = new Random(id);
+          for (int lookup = 0; lookup < numLookups / numThreads; lookup++) {
+            tree.get(random.nextInt(numKeys));
+          }
+        } catch (Exception e) {
+          failures[id] = e;
+        }
+      });
+      readers[thread].start();
+    }
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    long time = System.nanoTime() - start;
+
+    stopWriter.set(true);
+    writer.join();
+    for (Exception failure : failures) {
+      if (failure != null) {
+        throw failure;
+      }
+    }
+    return time;
+  }
+
+  /**
+   * Driver method which profiles ConcurrentAVL with 1, 2, 4, ... reader threads
+   * 
+   * @param args input from command line: the number of keys in the tree, the number of lookups,
+   *             and optionally the maximum number of reader threads (default is the number of
+   *             available cores)
+   */
+  public static void main(String[] args) {
+    try {
+      int numKeys = Integer.parseInt(args[0]); // gets values from command line
+      int numLookups = Integer.parseInt(args[1]);
+      int maxThreads = args.length > 2 ? Integer.parseInt(args[2])
+          : Runtime.getRuntime().availableProcessors();
+
+      ConcurrentAVL<Integer, Integer> tree = new ConcurrentAVL<Integer, Integer>();
+      for (int key = 0; key < numKeys; key++) {
+        tree.insert(key, key);
+      }
+
+      timeRun(tree, numKeys, numLookups, maxThreads); // warms up the JIT compiler
+
+      double singleThreadRate = 0;
+      for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+        long time = timeRun(tree, numKeys, numLookups, numThreads);
+        double rate = numLookups / (time / 1e9);
+        if (numThreads == 1) {
+          singleThreadRate = rate;
+        }
+        System.out.println(String.format("%2d reader(s): %,.0f lookups/sec (%.2fx of 1 reader)",
+            numThreads, rate, rate / singleThreadRate));
+      }
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java ConcurrentAVLProfiler <num_keys> <num_lookups> "
+          + "[max_threads] failed! A(n) " + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,293 @@
+// Title: ConcurrentAVLTest
+// Files: ConcurrentAVL, PersistentAVL
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit Testing class to check if ConcurrentAVL functions correctly, both from a single thread and
+ * when read by several threads while another changes it
+ * 
+ * @author Michael Goldstein
+ * @see ConcurrentAVL
+ */
+public class ConcurrentAVLTest extends DataStructureADTTest {
+
+  ConcurrentAVL<String, String> tree;
+  ConcurrentAVL<Integer, String> tree2;
+
+  /**
+   * Runs before each test. Creates two instances of a ConcurrentAVL
+   * 
+   * @throws java.lang.Exception if the trees fail to initialize correctly
+   */
+  @BeforeEach
+  void setUp() throws Exception {
+    dataStructureInstance = tree = createInstance();
+    dataStructureInstance2 = tree2 = createInstance2();
+  }
+
+  /**
+   * Runs after each test. Sets the existing trees to null
+   * 
+   * @throws java.lang.Exception
+   */
+  @AfterEach
+  void tearDown() throws Exception {
+    dataStructureInstance = tree = null;
+    dataStructureInstance2 = tree2 = null;
+  }
+
+  /**
+   * Creates an instance of a ConcurrentAVL with String keys
+   * 
+   * @return a ConcurrentAVL with String keys and String Values
+   * @see DataStructureADTTest#createInstance()
+   */
+  @Override
+  protected ConcurrentAVL<String, String> createInstance() {
+    return new ConcurrentAVL<String, String>();
+  }
+
+  /**
+   * Creates an instance of a ConcurrentAVL with Integer keys
+   * 
+   * @return a ConcurrentAVL with Integer keys and String values
+   * @see DataStructureADTTest#createInstance2()
+   */
+  @Override
+  protected ConcurrentAVL<Integer, String> createInstance2() {
+    return new ConcurrentAVL<Integer, String>();
+  }
+
+  /**
+   * Inserts keys in sorted order and removes some, then checks that the tree stayed balanced and
+   * that its traversals match those of AVL, which balances with the same rotations
+   * 
+   * @see ConcurrentAVL#insert(Comparable, Object)
+   * @see ConcurrentAVL#remove(Comparable)
+   */
+  @Test
+  void testConcurrentAVL_001_balances_like_AVL() {
+    try {
+      AVL<Integer, String> avl = new AVL<Integer, String>();
+      for (int key = 0; key < 100; key++) {
+        tree2.insert(key, "" + key);
+        avl.insert(key, "" + key);
+      }
+      for (int key = 0; key < 100; key += 3) {
+        tree2.remove(key);
+        avl.remove(key);
+      }
+
+      if (tree2.getHeight() != avl.getHeight() || tree2.numKeys() != avl.numKeys()) {
+        fail("the tree should have height " + avl.getHeight() + " but has " + tree2.getHeight());
+      }
+      assertEquals(avl.getInOrderTraversal(), tree2.getInOrderTraversal());
+      assertEquals(avl.getPreOrderTraversal(), tree2.getPreOrderTraversal());
+      assertEquals(avl.getPostOrderTraversal(), tree2.getPostOrderTraversal());
+      assertEquals(avl.getLevelOrderTraversal(), tree2.getLevelOrderTraversal());
+      if (!tree2.select(10).equals(avl.select(10)) || tree2.rank(50) != avl.rank(50)
+          || !tree2.floor(51).equals(avl.floor(51))) {
+        fail("select(), rank(), or floor() did not match AVL");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 001: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that an iterator keeps returning the keys of the version of the tree it started on,
+   * instead of failing, when the tree is changed while it is in use
+   * 
+   * @see ConcurrentAVL#inOrderIterator()
+   */
+  @Test
+  void testConcurrentAVL_002_iterators_see_one_version() {
+    try {
+      for (int key = 0; key < 10; key++) {
+        tree2.insert(key, "" + key);
+      }
+      Iterator<Integer> iterator = tree2.inOrderIterator();
+      iterator.next();
+      tree2.remove(5);
+      tree2.insert(100, "100");
+
+      List<Integer> rest = new ArrayList<Integer>();
+      iterator.forEachRemaining(rest::add);
+      List<Integer> expected = new ArrayList<Integer>();
+      for (int key = 1; key < 10; key++) {
+        expected.add(key);
+      }
+      assertEquals(expected, rest);
+      if (tree2.contains(5) || !tree2.contains(100)) {
+        fail("the changes should be seen by reads which start after them");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 002: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Runs several reader threads while two writer threads insert and remove odd keys. Every reader
+   * must always find every even key, which is never changed, and always see keys in sorted order.
+   * Then checks that no writer lost another's changes.
+   * 
+   * @see ConcurrentAVL#get(Comparable)
+   * @see ConcurrentAVL#insert(Comparable, Object)
+   */
+  @Test
+  void testConcurrentAVL_003_readers_during_writes() {
+    try {
+      for (int key = 0; key < 2000; key += 2) {
+        tree2.insert(key, "" + key);
+      }
+
+      Throwable[] failures = new Throwable[6];
+      Thread[] writers = new Thread[2];
+      for (int thread = 0; thread < writers.length; thread++) {
+        final int id = thread;
+        // writer 0 changes keys 1, 5, 9, ... and writer 1 changes keys 3, 7, 11, ...
+        writers[thread] = new Thread(() -> {
+          try {
+            for (int round = 0; round < 20; round++) {
+              for (int key = 1 + 2 * id; key < 2000; key += 4) {
+                tree2.insert(key, "" + key);
+              }
+              for (int key = 1 + 2 * id; key < 2000; key += 4) {
+                tree2.remove(key);
+              }
+            }
+            for (int key = 1 + 2 * id; key < 2000; key += 4) {
+              tree2.insert(key, "" + key);
+            }
+          } catch (Throwable e) {
+            failures[id] = e;
+          }
+        });
+      }
+      Thread[] readers = new Thread[4];
+      for (int thread = 0; thread < readers.length; thread++) {
+        final int id = thread + writers.length;
+        readers[thread] = new Thread(() -> {
+          try {
+            while (writers[0].isAlive() || writers[1].isAlive()) {
+              for (int key = 0; key < 2000; key += 2) {
+                if (!tree2.get(key).equals("" + key)) {
+                  fail("get() returned the wrong value for key " + key);
+                }
+              }
+              List<Integer> keys = tree2.getInOrderTraversal();
+              for (int index = 1; index < keys.size(); index++) {
+                if (keys.get(index - 1) >= keys.get(index)) {
+                  fail("the keys of a version are not in sorted order");
+                }
+              }
+            }
+          } catch (Throwable e) {
+            failures[id] = e;
+          }
+        });
+      }
+      for (Thread writer : writers) {
+        writer.start();
+      }
+      for (Thread reader : readers) {
+        reader.start();
+      }
+      for (Thread writer : writers) {
+        writer.join();
+      }
+      for (Thread reader : readers) {
+        reader.join();
+      }
+
+      for (Throwable failure : failures) {
+        if (failure != null) {
+          fail("a thread failed: " + failure);
+        }
+      }
+      if (tree2.numKeys() != 2000) {
+        fail("numKeys() should be 2000 after all threads finish but was " + tree2.numKeys());
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 003: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Takes a snapshot, changes the tree, and checks that the snapshot still has the keys from when
+   * it was taken while the tree has the new ones
+   * 
+   * @see ConcurrentAVL#snapshot()
+   */
+  @Test
+  void testConcurrentAVL_004_snapshot_unchanged_by_writes() {
+    try {
+      for (int key = 0; key < 10; key++) {
+        tree2.insert(key, "" + key);
+      }
+      PersistentAVL<Integer, String> snapshot = tree2.snapshot();
+      tree2.remove(5);
+      tree2.insert(100, "100");
+
+      if (snapshot.numKeys() != 10 || !snapshot.contains(5) || snapshot.contains(100)) {
+        fail("the snapshot should still have the keys 0 to 9");
+      }
+      if (tree2.numKeys() != 10 || tree2.contains(5) || !tree2.contains(100)) {
+        fail("the tree should have the changes made after the snapshot");
+      }
+      if (tree2.snapshot() == snapshot) {
+        fail("a snapshot taken after the changes should be a new version");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 004: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that percentile() finds the nearest rank where computing percent / 100 first would
+   * round up to the next key: the 28th percentile of 25 keys and the 14th percentile of 50 keys
+   * 
+   * @see ConcurrentAVL#percentile(double)
+   */
+  @Test
+  void testConcurrentAVL_005_percentile_nearest_rank() {
+    try {
+      for (int key = 0; key < 25; key++) {
+        tree2.insert(key, "" + key);
+      }
+      if (tree2.percentile(28) != 6) {
+        fail("the 28th percentile of 25 keys is the 7th key, not " + tree2.percentile(28));
+      }
+      for (int key = 25; key < 50; key++) {
+        tree2.insert(key, "" + key);
+      }
+      if (tree2.percentile(14) != 6) {
+        fail("the 14th percentile of 50 keys is the 7th key, not " + tree2.percentile(14));
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 005: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,783 @@
+// Title: LongAVL
+// Files: BSTADT, SearchTreeADT, DataStructureADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.ArrayList; // allowed for creating traversal lists
+import java.util.Arrays; // used to grow the node arrays
+import java.util.ConcurrentModificationException; // thrown by iterators when the tree changes
+import java.util.Iterator; // returned by the lazy traversals
+import java.util.List; // required for returning List<Long>
+import java.util.NoSuchElementException; // thrown by iterators with no keys left
+import java.util.PrimitiveIterator; // returned by longIterator()
+import java.util.Spliterator; // used to build the stream of keys
+import java.util.Spliterators; // used to build the spliterator from an iterator
+import java.util.stream.LongStream; // returned by longStream()
+import java.util.stream.StreamSupport; // used to build the stream from the spliterator
+
+/**
+ * An AVL tree with primitive long keys. It balances with the same rotations as AVL, but instead of
+ * one BSTNode object per key it keeps the fields of every node in parallel arrays: the node with
+ * index i has key keys[i], value values[i], children left[i] and right[i], and height heights[i].
+ * 
+ * Keys are never boxed and are compared with ==, <, and >, so the primitive methods (such as
+ * insert(long, Object) and get(long)) allocate nothing except when the arrays grow, and a search
+ * reads keys from one array instead of following a pointer to a Long from each node. The indexes
+ * of removed nodes are reused by later inserts. The methods of BSTADT take and return Long keys and
+ * call the primitive methods, so the tree can also be used anywhere a BSTADT<Long, V> is expected.
+ * 
+ * @author Michael Goldstein
+ * 
+ * @param <V> The value type of the stored values in the tree
+ * @see AVL
+ */
+public class LongAVL<V> implements BSTADT<Long, V> {
+  private static final int NIL = 0; // the index of no node, whose height is always 0
+  private static final int MAX_HEIGHT = 64; // greater than the height of any AVL tree in memory
+
+  private long[] keys; // the key of each node
+  private Object[] values; // the value of each node
+  private int[] left; // the index of the left child of each node, or the next free index
+  private int[] right; // the index of the right child of each node
+  private int[] heights; // the height of the subtree with each node as root
+  private int nextIndex; // the least index which has never held a node
+  private int freeIndex; // the index of the most recently removed node, NIL if none is free
+  private int root; // the index of the root, NIL if the tree is empty
+  private int numKeys; // the number of keys in the tree
+  private int modCount; // number of changes to the tree, used by iterators to detect changes
+  private final int[] path; // the nodes from the root to the node being changed
+
+  /**
+   * Constructor for LongAVL. Creates an empty tree with room for 16 keys before its arrays grow
+   */
+  public LongAVL() {
+    this(16);
+  }
+
+  /**
+   * Constructor for LongAVL. Creates an empty tree with room for the given number of keys before
+   * its arrays grow
+   * 
+   * @param initialCapacity the number of keys the tree can hold before its arrays grow
+   * @throws IllegalArgumentException if initialCapacity is negative
+   */
+  public LongAVL(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative: " + initialCapacity);
+    }
+    keys = new long[initialCapacity + 1]; // index 0 is NIL
+    values = new Object[initialCapacity + 1];
+    left = new int[initialCapacity + 1];
+    right = new int[initialCapacity + 1];
+    heights = new int[initialCapacity + 1];
+    nextIndex = 1;
+    freeIndex = NIL;
+    root = NIL;
+    numKeys = 0;
+    modCount = 0;
+    path = new int[MAX_HEIGHT];
+  }
+
+  /**
+   * Returns the index of a node holding the given key and value, reusing the index of a removed
+   * node if there is one and otherwise doubling the arrays if they are full
+   * 
+   * @param key   the key of the new node
+   * @param value the value of the new node
+   * @return the index of the new node
+   */
+  private int newNode(long key, V value) {
+    int n;
+    if (freeIndex != NIL) { // the free indexes are chained through left
+      n = freeIndex;
+      freeIndex = left[n];
+    } else {
+      if (nextIndex == keys.length) {
+        int capacity = Math.max(2, 2 * keys.length);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+      }
+      n = nextIndex++;
+    }
+    keys[n] = key;
+    values[n] = value;
+    left[n] = NIL;
+    right[n] = NIL;
+    heights[n] = 1;
+    return n;
+  }
+
+  /**
+   * Frees the index of a removed node so that a later insert can reuse it
+   * 
+   * @param n the index of the removed node
+   */
+  private void freeNode(int n) {
+    values[n] = null; // lets the value be garbage collected
+    left[n] = freeIndex;
+    freeIndex = n;
+  }
+
+  /**
+   * Returns the value stored at the given index
+   * 
+   * @param n the index of the node
+   * @return the value of the node
+   */
+  @SuppressWarnings("unchecked")
+  private V value(int n) {
+    return (V) values[n];
+  }
+
+  /**
+   * Recomputes the stored height of the given node from its children
+   * 
+   * @param n the index of the node, not NIL
+   */
+  private void update(int n) {
+    heights[n] = 1 + Math.max(heights[left[n]], heights[right[n]]);
+  }
+
+  /**
+   * Performs a right rotation on the given node
+   * 
+   * @param n the index of the node which is rotated
+   * @return the index of the new root of the subtree
+   */
+  private int rotateRight(int n) {
+    int newRoot = left[n];
+    left[n] = right[newRoot];
+    right[newRoot] = n;
+    update(n);
+    update(newRoot);
+    return newRoot;
+  }
+
+  /**
+   * Performs a left rotation on the given node
+   * 
+   * @param n the index of the node which is rotated
+   * @return the index of the new root of the subtree
+   */
+  private int rotateLeft(int n) {
+    int newRoot = right[n];
+    right[n] = left[newRoot];
+    left[newRoot] = n;
+    update(n);
+    update(newRoot);
+    return newRoot;
+  }
+
+  /**
+   * Updates the height of the given node and rotates it if its children differ in height by more
+   * than one, in the same way as AVL
+   * 
+   * @param n the index of the node to be balanced
+   * @return the index of the root of the balanced subtree
+   */
+  private int rebalance(int n) {
+    update(n);
+    int balanceFactor = heights[left[n]] - heights[right[n]];
+    if (balanceFactor > 1) {
+      if (heights[left[left[n]]] < heights[right[left[n]]]) { // left-right case
+        left[n] = rotateLeft(left[n]);
+      }
+      return rotateRight(n);
+    } else if (balanceFactor < -1) {
+      if (heights[right[right[n]]] < heights[left[right[n]]]) { // right-left case
+        right[n] = rotateRight(right[n]);
+      }
+      return rotateLeft(n);
+    }
+    return n;
+  }
+
+  /**
+   * Rebalances the first depth nodes of the path, deepest first, and links each new subtree root
+   * to its parent. Stops early once a subtree keeps its old height, as nothing above it changes.
+   * 
+   * @param depth the number of nodes on the path
+   */
+  private void rebalancePath(int depth) {
+    for (int index = depth - 1; index >= 0; index--) {
+      int n = path[index];
+      int oldHeight = heights[n];
+      int newRoot = rebalance(n);
+      if (newRoot != n) {
+        replaceChild(index == 0 ? NIL : path[index - 1], n, newRoot);
+      }
+      if (heights[newRoot] == oldHeight) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Replaces the given child of the given parent with another node
+   * 
+   * @param parent   the index of the parent, or NIL if the child is the root
+   * @param child    the index of the child to be replaced
+   * @param newChild the index of the node which takes its place
+   */
+  private void replaceChild(int parent, int child, int newChild) {
+    if (parent == NIL) {
+      root = newChild;
+    } else if (left[parent] == child) {
+      left[parent] = newChild;
+    } else {
+      right[parent] = newChild;
+    }
+  }
+
+  /**
+   * Returns the index of the node with the given key, or NIL if there is none
+   * 
+   * @param key the key to be searched for
+   * @return the index of the node with the key, or NIL
+   */
+  private int findNode(long key) {
+    int n = root;
+    while (n != NIL && keys[n] != key) {
+      n = key < keys[n] ? left[n] : right[n];
+    }
+    return n;
+  }
+
+  /**
+   * Inserts the given key and value into the tree, and rebalances the path to the new node. Does
+   * not allocate unless the arrays are full.
+   * 
+   * @param key   the key of the node to be added to the tree
+   * @param value the value of the node to be added to the tree
+   * @throws DuplicateKeyException if another node with the given key exists in the tree
+   */
+  public void insert(long key, V value) throws DuplicateKeyException {
+    int depth = 0;
+    int n = root;
+    while (n != NIL) {
+      if (keys[n] == key) {
+        throw new DuplicateKeyException();
+      }
+      path[depth++] = n;
+      n = key < keys[n] ? left[n] : right[n];
+    }
+
+    n = newNode(key, value);
+    if (depth == 0) {
+      root = n;
+    } else if (key < keys[path[depth - 1]]) {
+      left[path[depth - 1]] = n;
+    } else {
+      right[path[depth - 1]] = n;
+    }
+    rebalancePath(depth);
+    numKeys++;
+    modCount++;
+  }
+
+  /**
+   * Inserts the given key and value into the tree
+   * 
+   * @param key   the key of the node to be added to the tree
+   * @param value the value of the node to be added to the tree
+   * @throws IllegalNullKeyException if key is null
+   * @throws DuplicateKeyException   if another node with the given key exists in the tree
+   * @see LongAVL#insert(long, Object)
+   */
+  @Override
+  public void insert(Long key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    insert(key.longValue(), value);
+  }
+
+  /**
+   * Removes the node with the given key from the tree, and rebalances the path to the removed
+   * node. A node with two children takes the key and value of its in order predecessor, whose node
+   * is removed instead, as in BST.
+   * 
+   * @param key the key of the node to be deleted
+   * @return true, as the node is always removed if no exception is thrown
+   * @throws KeyNotFoundException if node with given key is not found in tree
+   */
+  public boolean remove(long key) throws KeyNotFoundException {
+    int depth = 0;
+    int n = root;
+    while (n != NIL && keys[n] != key) {
+      path[depth++] = n;
+      n = key < keys[n] ? left[n] : right[n];
+    }
+    if (n == NIL) {
+      throw new KeyNotFoundException();
+    }
+
+    if (left[n] != NIL && right[n] != NIL) {
+      path[depth++] = n;
+      int predecessor = left[n];
+      while (right[predecessor] != NIL) {
+        path[depth++] = predecessor;
+        predecessor = right[predecessor];
+      }
+      keys[n] = keys[predecessor];
+      values[n] = values[predecessor];
+      n = predecessor; // has no right child, so it is removed below
+    }
+    replaceChild(depth == 0 ? NIL : path[depth - 1], n, left[n] != NIL ? left[n] : right[n]);
+    freeNode(n);
+    rebalancePath(depth);
+    numKeys--;
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Removes the node with the given key from the tree
+   * 
+   * @param key the key of the node to be deleted
+   * @return true, as the node is always removed if no exception is thrown
+   * @throws IllegalNullKeyException if given key is null
+   * @throws KeyNotFoundException    if node with given key is not found in tree
+   * @see LongAVL#remove(long)
+   */
+  @Override
+  public boolean remove(Long key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return remove(key.longValue());
+  }
+
+  /**
+   * Returns the value of the node with the given key
+   * 
+   * @param key the key of the node whose value is to be returned
+   * @return the value of the node with the matching key
+   * @throws KeyNotFoundException if a node with the given key does not exist in the tree
+   */
+  public V get(long key) throws KeyNotFoundException {
+    int n = findNode(key);
+    if (n == NIL) {
+      throw new KeyNotFoundException();
+    }
+    return value(n);
+  }
+
+  /**
+   * Returns the value of the node with the given key
+   * 
+   * @param key the key of the node whose value is to be returned
+   * @return the value of the node with the matching key
+   * @throws IllegalNullKeyException if key is null
+   * @throws KeyNotFoundException    if a node with the given key does not exist in the tree
+   * @see LongAVL#get(long)
+   */
+  @Override
+  public V get(Long key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return get(key.longValue());
+  }
+
+  /**
+   * Returns true if a node with the given key is in the tree, false if not
+   * 
+   * @param key the key of the node to be searched for
+   * @return true if a node with the given key is found in the tree, false if not found
+   */
+  public boolean contains(long key) {
+    return findNode(key) != NIL;
+  }
+
+  /**
+   * Returns true if a node with the given key is in the tree, false if not
+   * 
+   * @param key the key of the node to be searched for
+   * @return true if a node with the given key is found in the tree, false if not found
+   * @throws IllegalNullKeyException if key is null
+   * @see LongAVL#contains(long)
+   */
+  @Override
+  public boolean contains(Long key) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return contains(key.longValue());
+  }
+
+  /**
+   * Returns the number of keys in the tree
+   * 
+   * @return the number of keys in the tree
+   */
+  @Override
+  public int numKeys() {
+    return numKeys;
+  }
+
+  /**
+   * Returns the key at the root of the tree
+   * 
+   * @return the key at the root of the tree, or null if the tree is empty
+   */
+  @Override
+  public Long getKeyAtRoot() {
+    return root == NIL ? null : keys[root];
+  }
+
+  /**
+   * Returns the key of the left child of the node with the given key
+   * 
+   * @param key A key to search for
+   * @return The key that is in the left child of the found key, or null if it has no left child
+   * @throws IllegalNullKeyException if key argument is null
+   * @throws KeyNotFoundException    if key is not found in this tree
+   */
+  @Override
+  public Long getKeyOfLeftChildOf(Long key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    int n = findNode(key);
+    if (n == NIL) {
+      throw new KeyNotFoundException();
+    }
+    return left[n] == NIL ? null : keys[left[n]];
+  }
+
+  /**
+   * Returns the key of the right child of the node with the given key
+   * 
+   * @param key A key to search for
+   * @return The key that is in the right child of the found key, or null if it has no right child
+   * @throws IllegalNullKeyException if key is null
+   * @throws KeyNotFoundException    if key is not found in this tree
+   */
+  @Override
+  public Long getKeyOfRightChildOf(Long key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    int n = findNode(key);
+    if (n == NIL) {
+      throw new KeyNotFoundException();
+    }
+    return right[n] == NIL ? null : keys[right[n]];
+  }
+
+  /**
+   * Returns the height of the tree, which is the stored height of the root
+   * 
+   * @return the number of levels that contain keys in the tree
+   */
+  @Override
+  public int getHeight() {
+    return heights[root];
+  }
+
+  /**
+   * Returns the keys of the tree in sorted order, without boxing them
+   * 
+   * @return an array of the keys of the tree in sorted order
+   */
+  public long[] toArray() {
+    long[] array = new long[numKeys];
+    PrimitiveIterator.OfLong iterator = longIterator();
+    for (int index = 0; index < array.length; index++) {
+      array[index] = iterator.nextLong();
+    }
+    return array;
+  }
+
+  /**
+   * Returns a List containing the in order traversal of the tree
+   * 
+   * @return a List containing the in order traversal of the tree
+   */
+  @Override
+  public List<Long> getInOrderTraversal() {
+    List<Long> list = new ArrayList<Long>(numKeys);
+    longIterator().forEachRemaining((long key) -> list.add(key));
+    return list;
+  }
+
+  /**
+   * Returns a List containing the preorder traversal of the tree
+   * 
+   * @return a List containing the preorder traversal of the tree
+   */
+  @Override
+  public List<Long> getPreOrderTraversal() {
+    List<Long> list = new ArrayList<Long>(numKeys);
+    preOrderTraversalHelper(root, list);
+    return list;
+  }
+
+  /**
+   * Recursive helper for getPreOrderTraversal. The recursion is only as deep as the tree is tall.
+   * 
+   * @param n    the index of the current node the helper is called on
+   * @param list the list the keys of the node and its children should be added to
+   */
+  private void preOrderTraversalHelper(int n, List<Long> list) {
+    if (n != NIL) {
+      list.add(keys[n]);
+      preOrderTraversalHelper(left[n], list);
+      preOrderTraversalHelper(right[n], list);
+    }
+  }
+
+  /**
+   * Returns a List containing the postorder traversal of the tree
+   * 
+   * @return a List containing the postorder traversal of the tree
+   */
+  @Override
+  public List<Long> getPostOrderTraversal() {
+    List<Long> list = new ArrayList<Long>(numKeys);
+    postOrderTraversalHelper(root, list);
+    return list;
+  }
+
+  /**
+   * Recursive helper for getPostOrderTraversal. The recursion is only as deep as the tree is tall.
+   * 
+   * @param n    the index of the current node the helper is called on
+   * @param list the list the keys of the node and its children should be added to
+   */
+  private void postOrderTraversalHelper(int n, List<Long> list) {
+    if (n != NIL) {
+      postOrderTraversalHelper(left[n], list);
+      postOrderTraversalHelper(right[n], list);
+      list.add(keys[n]);
+    }
+  }
+
+  /**
+   * Returns a List containing the level order traversal of the tree
+   * 
+   * @return a List containing the level order traversal of the tree
+   */
+  @Override
+  public List<Long> getLevelOrderTraversal() {
+    List<Long> list = new ArrayList<Long>(numKeys);
+    int[] queue = new int[numKeys]; // each node is added to the queue once
+    int head = 0;
+    int tail = 0;
+    if (root != NIL) {
+      queue[tail++] = root;
+    }
+    while (head < tail) {
+      int n = queue[head++];
+      list.add(keys[n]);
+      if (left[n] != NIL) {
+        queue[tail++] = left[n];
+      }
+      if (right[n] != NIL) {
+        queue[tail++] = right[n];
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of the tree in sorted order which returns each key as a
+   * long, without boxing it. The iterator throws a ConcurrentModificationException if the tree is
+   * changed while it is in use.
+   * 
+   * @return an iterator over the keys of the tree in order
+   */
+  public PrimitiveIterator.OfLong longIterator() {
+    return new InOrderIterator();
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of the tree in sorted order
+   * 
+   * @return an iterator over the keys of the tree in order
+   */
+  @Override
+  public Iterator<Long> inOrderIterator() {
+    return longIterator();
+  }
+
+  /**
+   * Returns a sequential stream over the keys of the tree in sorted order, without boxing them
+   * 
+   * @return a stream over the keys of the tree in order
+   */
+  public LongStream longStream() {
+    return StreamSupport.longStream(Spliterators.spliterator(longIterator(), numKeys,
+        Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL),
+        false);
+  }
+
+  /**
+   * Lazy in order iterator over the keys of the tree. The stack holds the indexes of the nodes on
+   * the path to the next node whose keys are still to come, so it never holds more nodes than the
+   * tree is tall.
+   */
+  private class InOrderIterator implements PrimitiveIterator.OfLong {
+    private final int[] nodes = new int[MAX_HEIGHT]; // indexes of nodes whose keys are to come
+    private int depth = 0; // the number of nodes on the stack
+    private final int expectedModCount = modCount; // modCount when the iterator was created
+
+    /**
+     * Creates an iterator at the first key of the tree
+     */
+    InOrderIterator() {
+      pushLeftPath(root);
+    }
+
+    /**
+     * Pushes the given node and each of its left descendants
+     * 
+     * @param n the index of the first node to be pushed, or NIL
+     */
+    private void pushLeftPath(int n) {
+      for (; n != NIL; n = left[n]) {
+        nodes[depth++] = n;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return depth > 0;
+    }
+
+    @Override
+    public long nextLong() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int n = nodes[--depth];
+      pushLeftPath(right[n]); // the node after n is the leftmost node of its right subtree
+      return keys[n];
+    }
+  }
+
+  /**
+   * Returns the greatest key less than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key <= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public Long floor(Long key) throws IllegalNullKeyException {
+    return lowerKey(key, true);
+  }
+
+  /**
+   * Returns the greatest key strictly less than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key < key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public Long lower(Long key) throws IllegalNullKeyException {
+    return lowerKey(key, false);
+  }
+
+  /**
+   * Returns the least key greater than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key >= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public Long ceiling(Long key) throws IllegalNullKeyException {
+    return higherKey(key, true);
+  }
+
+  /**
+   * Returns the least key strictly greater than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key > key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  @Override
+  public Long higher(Long key) throws IllegalNullKeyException {
+    return higherKey(key, false);
+  }
+
+  /**
+   * Helper for floor() and lower(). Walks down the tree, remembering the last node passed whose key
+   * is less than the given key (or equal to it, if inclusive).
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the greatest key less than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private Long lowerKey(Long key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    long target = key;
+    int lower = NIL;
+    int n = root;
+    while (n != NIL) {
+      if (keys[n] == target && inclusive) {
+        return keys[n];
+      } else if (keys[n] < target) {
+        lower = n;
+        n = right[n];
+      } else {
+        n = left[n];
+      }
+    }
+    return lower == NIL ? null : keys[lower];
+  }
+
+  /**
+   * Helper for ceiling() and higher(). Walks down the tree, remembering the last node passed whose
+   * key is greater than the given key (or equal to it, if inclusive).
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the least key greater than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private Long higherKey(Long key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    long target = key;
+    int higher = NIL;
+    int n = root;
+    while (n != NIL) {
+      if (keys[n] == target && inclusive) {
+        return keys[n];
+      } else if (keys[n] > target) {
+        higher = n;
+        n = left[n];
+      } else {
+        n = right[n];
+      }
+    }
+    return higher == NIL ? null : keys[higher];
+  }
+}
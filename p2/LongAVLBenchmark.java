@@ -0,0 +1,198 @@
+// Title: LongAVLBenchmark
+// Files: LongAVL, AVL
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.lang.management.ManagementFactory; // used to get the thread's allocation counter
+import java.util.Random; // used to generate the keys
+
+/**
+ * Class which compares AVL<Long, V> with LongAVL, inserting the same long keys into each and then
+ * looking them all up, and then replacing each key with a later one (a remove and an insert),
+ * as a tree of recent timestamps does. Prints the time and the number of bytes allocated per
+ * operation, which shows the Long and BSTNode objects AVL allocates for every key. LongAVL only
+ * allocates when its arrays grow, and reuses the slots of removed keys. Each run is repeated after
+ * a warmup so that the timings are not dominated by the JIT compiler.
+ * 
+ * @author Michael Goldstein
+ * @see LongAVL
+ * @see AVL
+ */
+public class LongAVLBenchmark {
+
+  private static final Object VALUE = new Object(); // the value of every key, so none is allocated
+  private static final long LATER = 1L << 40; // added to each key to replace it with a later key
+
+  /**
+   * Returns the number of bytes the current thread has allocated so far
+   * 
+   * @return the number of bytes allocated by the current thread
+   */
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Inserts the given keys into a new AVL, looks each of them up, and then replaces each of them
+   * with a later key, and returns the time in nanoseconds and the bytes allocated by each
+   * 
+   * @param keys the keys to be inserted and looked up
+   * @return the time and bytes of the inserts, of the lookups, and of the replacements
+   * @throws Exception if the AVL tree throws an exception, which should not happen
+   */
+  private static long[] runAVL(long[] keys) throws Exception {
+    long[] result = new long[6];
+    long bytes = allocatedBytes();
+    long start = System.nanoTime();
+    AVL<Long, Object> avl = new AVL<Long, Object>();
+    for (long key : keys) {
+      avl.insert(key, VALUE);
+    }
+    result[0] = System.nanoTime() - start;
+    result[1] = allocatedBytes() - bytes;
+
+    bytes = allocatedBytes();
+    start = System.nanoTime();
+    int found = 0;
+    for (long key : keys) {
+      found += avl.get(key) == VALUE ? 1 : 0;
+    }
+    result[2] = System.nanoTime() - start;
+    result[3] = allocatedBytes() - bytes;
+    if (found != keys.length) {
+      throw new IllegalStateException("a key was not found");
+    }
+
+    // replaces every key with a later one, which keeps the size of the tree the same
+    bytes = allocatedBytes();
+    start = System.nanoTime();
+    for (long key : keys) {
+      avl.remove(key);
+      avl.insert(key + LATER, VALUE);
+    }
+    result[4] = System.nanoTime() - start;
+    result[5] = allocatedBytes() - bytes;
+    return result;
+  }
+
+  /**
+   * Inserts the given keys into a new LongAVL, looks each of them up, and then replaces each of
+   * them with a later key, and returns the time in nanoseconds and the bytes allocated by each
+   * 
+   * @param keys the keys to be inserted and looked up
+   * @return the time and bytes of the inserts, of the lookups, and of the replacements
+   * @throws Exception if the LongAVL tree throws an exception, which should not happen
+   */
+  private static long[] runLongAVL(long[] keys) throws Exception {
+    long[] result = new long[6];
+    long bytes = allocatedBytes();
+    long start = System.nanoTime();
+    LongAVL<Object> longAVL = new LongAVL<Object>();
+    for (long key : keys) {
+      longAVL.insert(key, VALUE);
+    }
+    result[0] = System.nanoTime() - start;
+    result[1] = allocatedBytes() - bytes;
+
+    bytes = allocatedBytes();
+    start = System.nanoTime();
+    int found = 0;
+    for (long key : keys) {
+      found += longAVL.get(key) == VALUE ? 1 : 0;
+    }
+    result[2] = System.nanoTime() - start;
+    result[3] = allocatedBytes() - bytes;
+    if (found != keys.length) {
+      throw new IllegalStateException("a key was not found");
+    }
+
+    // replaces every key with a later one, which keeps the size of the tree the same
+    bytes = allocatedBytes();
+    start = System.nanoTime();
+    for (long key : keys) {
+      longAVL.remove(key);
+      longAVL.insert(key + LATER, VALUE);
+    }
+    result[4] = System.nanoTime() - start;
+    result[5] = allocatedBytes() - bytes;
+    return result;
+  }
+
+  /**
+   * Prints the best of the given results, per operation
+   * 
+   * @param name    the name of the tree
+   * @param results the results of each timed run
+   * @param numKeys the number of keys inserted and looked up in each run
+   */
+  private static void report(String name, long[][] results, int numKeys) {
+    // keeps the best time, as slower runs are slowed down by outside noise (such as GC)
+    long[] best = results[0].clone();
+    for (long[] result : results) {
+      for (int index = 0; index < best.length; index++) {
+        best[index] = Math.min(best[index], result[index]);
+      }
+    }
+    StringBuilder line = new StringBuilder(String.format("%-8s", name));
+    String[] phases = {"insert", "get", "replace"};
+    for (int phase = 0; phase < phases.length; phase++) {
+      line.append(String.format("  %s: %6.1f ns/op %5.1f B/op", phases[phase],
+          (double) best[2 * phase] / numKeys, (double) best[2 * phase + 1] / numKeys));
+    }
+    System.out.println(line);
+  }
+
+  /**
+   * Driver method which runs the benchmark
+   * 
+   * @param args optional command line input: the number of keys (default 1000000) and the number
+   *             of timed runs (default 5)
+   */
+  public static void main(String[] args) {
+    try {
+      int numKeys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+      int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+      // millisecond timestamps over about a year, generated with a fixed seed
+      Random random = new Random(42);
+      long[] keys = new long[numKeys];
+      long time = 1546300800000L;
+      for (int index = 0; index < numKeys; index++) {
+        time += 1 + random.nextInt(60000);
+        keys[index] = time;
+      }
+      for (int index = numKeys - 1; index > 0; index--) { // inserts them in random order
+        int swap = random.nextInt(index + 1);
+        long temp = keys[index];
+        keys[index] = keys[swap];
+        keys[swap] = temp;
+      }
+
+      runAVL(keys); // warms up the JIT compiler before any timed runs
+      runLongAVL(keys);
+      long[][] avlResults = new long[runs][];
+      long[][] longAVLResults = new long[runs][];
+      for (int run = 0; run < runs; run++) {
+        avlResults[run] = runAVL(keys);
+        longAVLResults[run] = runLongAVL(keys);
+      }
+      System.out.println(String.format("%,d keys, best of %d runs", numKeys, runs));
+      report("AVL", avlResults, numKeys);
+      report("LongAVL", longAVLResults, numKeys);
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java LongAVLBenchmark [numKeys] [runs] failed! A(n) "
+          + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
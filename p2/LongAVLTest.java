@@ -0,0 +1,174 @@
+// Title: LongAVLTest
+// Files: LongAVL, AVL
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ConcurrentModificationException;
+import java.util.PrimitiveIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit Testing class to check if LongAVL functions correctly, through both its primitive methods
+ * and the methods of BSTADT
+ * 
+ * @author Michael Goldstein
+ * @see LongAVL
+ */
+public class LongAVLTest {
+
+  LongAVL<String> tree; // the tree used for testing, which starts with room for only 1 key
+
+  /**
+   * Runs before each test. Creates an empty LongAVL whose arrays grow on its second insert
+   * 
+   * @throws java.lang.Exception if the tree fails to initialize correctly
+   */
+  @BeforeEach
+  void setUp() throws Exception {
+    tree = new LongAVL<String>(1);
+  }
+
+  /**
+   * Runs after each test. Sets the existing tree to null
+   * 
+   * @throws java.lang.Exception
+   */
+  @AfterEach
+  void tearDown() throws Exception {
+    tree = null;
+  }
+
+  /**
+   * Checks that null keys, duplicate keys, and missing keys throw the same exceptions as AVL,
+   * whether the primitive or the Long methods are called
+   * 
+   * @see LongAVL#insert(long, Object)
+   * @see LongAVL#insert(Long, Object)
+   */
+  @Test
+  void testLongAVL_001_exceptions() {
+    try {
+      tree.insert(1L, "1");
+      try {
+        tree.insert((Long) null, "null");
+        fail("inserting a null key should throw IllegalNullKeyException");
+      } catch (IllegalNullKeyException e) {
+        // this is expected
+      }
+      try {
+        tree.insert(Long.valueOf(1), "one");
+        fail("inserting a duplicate key should throw DuplicateKeyException");
+      } catch (DuplicateKeyException e) {
+        // this is expected
+      }
+      try {
+        tree.remove(2L);
+        fail("removing a missing key should throw KeyNotFoundException");
+      } catch (KeyNotFoundException e) {
+        // this is expected
+      }
+      try {
+        tree.get(Long.valueOf(2));
+        fail("getting a missing key should throw KeyNotFoundException");
+      } catch (KeyNotFoundException e) {
+        // this is expected
+      }
+      if (tree.numKeys() != 1 || !tree.get(1L).equals("1") || !tree.contains(Long.valueOf(1))) {
+        fail("a failed change should not change the tree");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 001: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Inserts keys in sorted order and removes some, then checks that the tree has the same shape as
+   * an AVL with the same keys, as it balances with the same rotations
+   * 
+   * @see LongAVL#remove(long)
+   * @see LongAVL#getPreOrderTraversal()
+   */
+  @Test
+  void testLongAVL_002_balances_like_AVL() {
+    try {
+      AVL<Long, String> avl = new AVL<Long, String>();
+      for (long key = 0; key < 100; key++) {
+        tree.insert(key, "" + key);
+        avl.insert(key, "" + key);
+      }
+      for (long key = 0; key < 100; key += 3) {
+        tree.remove(key);
+        avl.remove(key);
+      }
+
+      if (tree.getHeight() != avl.getHeight() || tree.numKeys() != avl.numKeys()
+          || !tree.getKeyAtRoot().equals(avl.getKeyAtRoot())) {
+        fail("the tree should have height " + avl.getHeight() + " but has " + tree.getHeight());
+      }
+      assertEquals(avl.getInOrderTraversal(), tree.getInOrderTraversal());
+      assertEquals(avl.getPreOrderTraversal(), tree.getPreOrderTraversal());
+      assertEquals(avl.getPostOrderTraversal(), tree.getPostOrderTraversal());
+      assertEquals(avl.getLevelOrderTraversal(), tree.getLevelOrderTraversal());
+      Long root = tree.getKeyAtRoot();
+      assertEquals(avl.getKeyOfLeftChildOf(root), tree.getKeyOfLeftChildOf(root));
+      assertEquals(avl.getKeyOfRightChildOf(root), tree.getKeyOfRightChildOf(root));
+      if (!tree.floor(51L).equals(avl.floor(51L)) || !tree.higher(51L).equals(avl.higher(51L))) {
+        fail("floor() or higher() did not match AVL");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 002: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that the least and greatest longs are ordered correctly, that keys inserted after
+   * removes are found in the reused slots, and that the primitive iterator fails if the tree is
+   * changed while it is in use
+   * 
+   * @see LongAVL#longIterator()
+   * @see LongAVL#toArray()
+   */
+  @Test
+  void testLongAVL_003_primitive_keys_and_iterator() {
+    try {
+      tree.insert(Long.MAX_VALUE, "max");
+      tree.insert(Long.MIN_VALUE, "min");
+      tree.insert(0L, "zero");
+      tree.remove(0L);
+      tree.insert(-1L, "-1"); // reuses the slot of 0
+      tree.insert(1L, "1");
+      assertArrayEquals(new long[] {Long.MIN_VALUE, -1, 1, Long.MAX_VALUE}, tree.toArray());
+      if (!tree.get(-1L).equals("-1") || tree.contains(0L) || tree.longStream().count() != 4) {
+        fail("the tree should have the keys MIN_VALUE, -1, 1, and MAX_VALUE");
+      }
+
+      PrimitiveIterator.OfLong iterator = tree.longIterator();
+      if (iterator.nextLong() != Long.MIN_VALUE) {
+        fail("the iterator should start at the least key");
+      }
+      tree.remove(1L);
+      try {
+        iterator.nextLong();
+        fail("the iterator should throw ConcurrentModificationException after a remove");
+      } catch (ConcurrentModificationException e) {
+        // this is expected
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 003: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,738 @@
+// Title: PersistentAVL
+// Files: IllegalNullKeyException, DuplicateKeyException, KeyNotFoundException
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import java.util.ArrayDeque; // used as the stack of the in order iterators
+import java.util.ArrayList; // allowed for creating traversal lists
+import java.util.Iterator; // returned by the lazy traversals
+import java.util.List; // required for returning List<K>
+import java.util.NoSuchElementException; // thrown by iterators with no keys left
+import java.util.Spliterator; // returned by spliterator()
+import java.util.Spliterators; // used to build the spliterator from an iterator
+import java.util.stream.Stream; // returned by stream()
+import java.util.stream.StreamSupport; // used to build the stream from the spliterator
+
+/**
+ * An immutable AVL tree. insert() and remove() do not change the tree they are called on but return
+ * a new version of it, so every version stays readable for as long as it is referenced.
+ * 
+ * A new version copies only the nodes on the path from the root to the changed node (and the few
+ * nodes moved by rotations), and shares every other subtree with the version it was made from, so
+ * each change allocates O(log n) nodes. Keeping a reference to a version is a snapshot of it, which
+ * takes O(1) time and no copying. As no node ever changes, a version can be read by any number of
+ * threads at once, and its iterators never fail because of changes made to later versions.
+ * 
+ * @author Michael Goldstein
+ * 
+ * @param <K> The key type of nodes in the tree
+ * @param <V> The value type of the stored values in the tree
+ * @see ConcurrentAVL
+ */
+public final class PersistentAVL<K extends Comparable<K>, V> implements Iterable<K> {
+  /**
+   * An inner class which acts as a node of the tree. No field ever changes once a node is created,
+   * so a node can be shared by any number of versions and read by any number of threads. The height
+   * and size of the node's subtree are computed from its children when it is created.
+   * 
+   * @author Michael Goldstein
+   * 
+   * @param <K> The key type of the node
+   * @param <V> The value type of the node
+   */
+  private static final class Node<K, V> {
+    private final K key; // the key of the Node
+    private final V value; // the value of the Node
+    private final Node<K, V> left; // the left child of the Node
+    private final Node<K, V> right; // the right child of the Node
+    private final int height; // the height of the subtree with this Node as root
+    private final int size; // the number of Nodes in the subtree with this Node as root
+
+    /**
+     * Constructor for Node. Initializes all fields, computing height and size from the children
+     * 
+     * @param key   the key of the Node
+     * @param value the value the Node is storing
+     * @param left  the left child of the Node
+     * @param right the right child of the Node
+     */
+    Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      this.size = 1 + size(left) + size(right);
+    }
+  }
+
+  private final Node<K, V> root; // the root of this version, null if it is empty
+
+  /**
+   * Constructor for PersistentAVL. Creates an empty tree
+   */
+  public PersistentAVL() {
+    this(null);
+  }
+
+  /**
+   * Creates a version of the tree with the given root
+   * 
+   * @param root the root of the version, null if it is empty
+   */
+  private PersistentAVL(Node<K, V> root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns the height of the subtree with the given node as root, 0 if the node is null
+   * 
+   * @param n the root of the subtree
+   * @return the height of the subtree
+   */
+  private static int height(Node<?, ?> n) {
+    return n == null ? 0 : n.height;
+  }
+
+  /**
+   * Returns the number of keys in the subtree with the given node as root, 0 if the node is null
+   * 
+   * @param n the root of the subtree
+   * @return the number of keys in the subtree
+   */
+  private static int size(Node<?, ?> n) {
+    return n == null ? 0 : n.size;
+  }
+
+  /**
+   * Returns a new version of the tree which also has the given key and value. This version is not
+   * changed. The new version shares all but O(log n) of its nodes with this one.
+   * 
+   * @param key   the key of the node to be added to the tree
+   * @param value the value of the node to be added to the tree
+   * @return the new version of the tree
+   * @throws IllegalNullKeyException if key is null
+   * @throws DuplicateKeyException   if another node with the given key exists in the tree
+   */
+  public PersistentAVL<K, V> insert(K key, V value)
+      throws IllegalNullKeyException, DuplicateKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return new PersistentAVL<K, V>(insertHelper(root, key, value));
+  }
+
+  /**
+   * Recursive helper for insert(). Returns a balanced copy of the subtree with n as root which also
+   * has the given key and value. Only the nodes on the path to the new node are copied. The
+   * recursion is only as deep as the tree is tall, which is O(log n).
+   * 
+   * @param n     the root of the subtree
+   * @param key   the key of the node to be inserted
+   * @param value the value of the node to be inserted
+   * @return the root of the new subtree
+   * @throws DuplicateKeyException if a node with the given key already exists in the subtree
+   */
+  private Node<K, V> insertHelper(Node<K, V> n, K key, V value) throws DuplicateKeyException {
+    if (n == null) { // reached the null child the new node takes the place of
+      return new Node<K, V>(key, value, null, null);
+    }
+
+    int comparison = key.compareTo(n.key);
+    if (comparison == 0) {
+      throw new DuplicateKeyException();
+    } else if (comparison < 0) {
+      return balance(n.key, n.value, insertHelper(n.left, key, value), n.right);
+    } else {
+      return balance(n.key, n.value, n.left, insertHelper(n.right, key, value));
+    }
+  }
+
+  /**
+   * Returns a new version of the tree without the node with the given key. This version is not
+   * changed. The new version shares all but O(log n) of its nodes with this one.
+   * 
+   * @param key the key of the node to be deleted
+   * @return the new version of the tree
+   * @throws IllegalNullKeyException if given key is null
+   * @throws KeyNotFoundException    if node with given key is not found in tree
+   */
+  public PersistentAVL<K, V> remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return new PersistentAVL<K, V>(removeHelper(root, key));
+  }
+
+  /**
+   * Recursive helper for remove(). Returns a balanced copy of the subtree with n as root without
+   * the node with the given key. A node with two children is replaced by a copy of its in order
+   * predecessor, as in BST.
+   * 
+   * @param n   the root of the subtree
+   * @param key the key of the node to be removed
+   * @return the root of the new subtree
+   * @throws KeyNotFoundException if there is no node with the given key in the subtree
+   */
+  private Node<K, V> removeHelper(Node<K, V> n, K key) throws KeyNotFoundException {
+    if (n == null) { // the node with the given key would be here but is not in the tree
+      throw new KeyNotFoundException();
+    }
+
+    int comparison = key.compareTo(n.key);
+    if (comparison < 0) {
+      return balance(n.key, n.value, removeHelper(n.left, key), n.right);
+    } else if (comparison > 0) {
+      return balance(n.key, n.value, n.left, removeHelper(n.right, key));
+    } else if (n.left == null) {
+      return n.right; // replaces n with its right child if it has no left child
+    } else if (n.right == null) {
+      return n.left; // replaces n with its left child if it has no right child
+    } else {
+      Node<K, V> inOrderPredecessor = n.left;
+      while (inOrderPredecessor.right != null) {
+        inOrderPredecessor = inOrderPredecessor.right;
+      }
+      return balance(inOrderPredecessor.key, inOrderPredecessor.value,
+          removeMaxHelper(n.left), n.right);
+    }
+  }
+
+  /**
+   * Recursive helper for removeHelper(). Returns a balanced copy of the subtree with n as root
+   * without its node with the greatest key.
+   * 
+   * @param n the root of the subtree, not null
+   * @return the root of the new subtree
+   */
+  private Node<K, V> removeMaxHelper(Node<K, V> n) {
+    if (n.right == null) {
+      return n.left;
+    }
+    return balance(n.key, n.value, n.left, removeMaxHelper(n.right));
+  }
+
+  /**
+   * Creates a node with the given key, value, and children, rotating it with its children if their
+   * heights differ by more than one. The children must be balanced and differ in height by at most
+   * two, which is always true after one insert or remove below the node.
+   * 
+   * @param key   the key of the node
+   * @param value the value of the node
+   * @param left  the left child of the node
+   * @param right the right child of the node
+   * @return the root of the balanced subtree
+   */
+  private Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+    int balanceFactor = height(left) - height(right);
+    if (balanceFactor > 1) {
+      if (height(left.left) >= height(left.right)) { // right rotation
+        return new Node<K, V>(left.key, left.value, left.left,
+            new Node<K, V>(key, value, left.right, right));
+      } else { // left-right rotation
+        Node<K, V> k = left.right;
+        return new Node<K, V>(k.key, k.value,
+            new Node<K, V>(left.key, left.value, left.left, k.left),
+            new Node<K, V>(key, value, k.right, right));
+      }
+    } else if (balanceFactor < -1) {
+      if (height(right.right) >= height(right.left)) { // left rotation
+        return new Node<K, V>(right.key, right.value, new Node<K, V>(key, value, left, right.left),
+            right.right);
+      } else { // right-left rotation
+        Node<K, V> k = right.left;
+        return new Node<K, V>(k.key, k.value, new Node<K, V>(key, value, left, k.left),
+            new Node<K, V>(right.key, right.value, k.right, right.right));
+      }
+    }
+    return new Node<K, V>(key, value, left, right);
+  }
+
+  /**
+   * Returns the node with the given key in this version of the tree, or null if there is no such
+   * node
+   * 
+   * @param key the key to be searched for
+   * @return the node with the given key, or null
+   */
+  private Node<K, V> findNode(K key) {
+    Node<K, V> n = root;
+    while (n != null) {
+      int comparison = key.compareTo(n.key);
+      if (comparison == 0) {
+        return n;
+      }
+      n = comparison < 0 ? n.left : n.right;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the value of the node with the given key.
+   * 
+   * @param key the key of the node whose value is to be returned
+   * @return the value of the node with the matching key
+   * @throws IllegalNullKeyException if key is null
+   * @throws KeyNotFoundException    if a node with the given key does not exist in the tree
+   */
+  public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    Node<K, V> n = findNode(key);
+    if (n == null) {
+      throw new KeyNotFoundException();
+    }
+    return n.value;
+  }
+
+  /**
+   * Returns true if a node with the given key is in the tree, false if not.
+   * 
+   * @param key the key of the node to be searched for
+   * @return true if a node with the given key is found in the tree, false if not found
+   * @throws IllegalNullKeyException if key is null
+   */
+  public boolean contains(K key) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return findNode(key) != null;
+  }
+
+  /**
+   * Returns the number of keys in the tree, which is the stored size of the root
+   * 
+   * @return the number of keys in the tree
+   */
+  public int numKeys() {
+    return size(root);
+  }
+
+  /**
+   * Returns the height of the tree, which is the stored height of the root
+   * 
+   * @return the number of levels that contain keys in the tree
+   */
+  public int getHeight() {
+    return height(root);
+  }
+
+  /**
+   * Returns the key at the root of the tree
+   * 
+   * @return the key at the root of the tree, or null if the tree is empty
+   */
+  public K getKeyAtRoot() {
+    return root == null ? null : root.key;
+  }
+
+  /**
+   * Returns a List containing the in order traversal of this version of the tree
+   * 
+   * @return a List containing the in order traversal of the tree
+   */
+  public List<K> getInOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    inOrderIterator().forEachRemaining(list::add);
+    return list;
+  }
+
+  /**
+   * Returns a List containing the preorder traversal of this version of the tree
+   * 
+   * @return a List containing the preorder traversal of the tree
+   */
+  public List<K> getPreOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    preOrderTraversalHelper(root, list);
+    return list;
+  }
+
+  /**
+   * Recursive helper for getPreOrderTraversal. The recursion is only as deep as the tree is tall.
+   * 
+   * @param n    the current node the helper is called on
+   * @param list the list the keys of the node and its children should be added to
+   */
+  private void preOrderTraversalHelper(Node<K, V> n, List<K> list) {
+    if (n != null) {
+      list.add(n.key);
+      preOrderTraversalHelper(n.left, list);
+      preOrderTraversalHelper(n.right, list);
+    }
+  }
+
+  /**
+   * Returns a List containing the postorder traversal of this version of the tree
+   * 
+   * @return a List containing the postorder traversal of the tree
+   */
+  public List<K> getPostOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    postOrderTraversalHelper(root, list);
+    return list;
+  }
+
+  /**
+   * Recursive helper for getPostOrderTraversal. The recursion is only as deep as the tree is tall.
+   * 
+   * @param n    the current node the helper is called on
+   * @param list the list the keys of the node and its children should be added to
+   */
+  private void postOrderTraversalHelper(Node<K, V> n, List<K> list) {
+    if (n != null) {
+      postOrderTraversalHelper(n.left, list);
+      postOrderTraversalHelper(n.right, list);
+      list.add(n.key);
+    }
+  }
+
+  /**
+   * Returns a List containing the level order traversal of this version of the tree
+   * 
+   * @return a List containing the level order traversal of the tree
+   */
+  public List<K> getLevelOrderTraversal() {
+    List<K> list = new ArrayList<K>();
+    ArrayDeque<Node<K, V>> queue = new ArrayDeque<Node<K, V>>();
+    Node<K, V> n = root;
+    if (n != null) {
+      queue.add(n);
+    }
+    while (!queue.isEmpty()) {
+      n = queue.remove();
+      list.add(n.key);
+      if (n.left != null) {
+        queue.add(n.left);
+      }
+      if (n.right != null) {
+        queue.add(n.right);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of this version of the tree in sorted order
+   * 
+   * @return an iterator over the keys of the tree in order
+   */
+  public Iterator<K> inOrderIterator() {
+    return new InOrderIterator(root, root == null ? null : leftmost(root), true, null);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys of this version of the tree in sorted order, so that a
+   * version can be used in a for-each loop
+   * 
+   * @return an iterator over the keys of the tree in order
+   */
+  @Override
+  public Iterator<K> iterator() {
+    return inOrderIterator();
+  }
+
+  /**
+   * Returns a lazy iterator over the keys from fromKey to toKey, both inclusive, of this version
+   * of the tree in sorted order. Reading k keys takes O(log n + k) time.
+   * 
+   * @param fromKey the least key that may be returned
+   * @param toKey   the greatest key that may be returned
+   * @return an iterator over the keys in the range in order
+   * @throws IllegalNullKeyException if fromKey or toKey is null
+   */
+  public Iterator<K> rangeIterator(K fromKey, K toKey) throws IllegalNullKeyException {
+    if (fromKey == null || toKey == null) { // checks if keys are null, throws exception if so
+      throw new IllegalNullKeyException();
+    }
+    return new InOrderIterator(root, fromKey, true, toKey);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys after fromKey of this version of the tree in
+   * sorted order, starting with fromKey itself if inclusive is true and it is present
+   * 
+   * @param fromKey   the key the iterator starts from
+   * @param inclusive whether fromKey itself may be returned
+   * @return an iterator over the keys after fromKey in order
+   * @throws IllegalNullKeyException if fromKey is null
+   */
+  public Iterator<K> tailIterator(K fromKey, boolean inclusive) throws IllegalNullKeyException {
+    if (fromKey == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+    return new InOrderIterator(root, fromKey, inclusive, null);
+  }
+
+  /**
+   * Returns a spliterator over the keys of this version of the tree in sorted order
+   * 
+   * @return a spliterator over the keys of the tree in order
+   */
+  @Override
+  public Spliterator<K> spliterator() {
+    return Spliterators.spliterator(inOrderIterator(), size(root), Spliterator.ORDERED
+        | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+  }
+
+  /**
+   * Returns a sequential stream over the keys of this version of the tree in sorted order
+   * 
+   * @return a stream over the keys of the tree in order
+   */
+  public Stream<K> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Returns the key of the leftmost node of the subtree with the given node as root, which is its
+   * smallest key
+   * 
+   * @param n the root of the subtree, not null
+   * @return the smallest key of the subtree
+   */
+  private K leftmost(Node<K, V> n) {
+    while (n.left != null) {
+      n = n.left;
+    }
+    return n.key;
+  }
+
+  /**
+   * Lazy in order iterator over the keys of one version of the tree, from a starting key up to an
+   * optional last key. The stack holds the nodes still to come on the path to the next node. No
+   * node of a version ever changes, so the iterator needs no check for changes.
+   */
+  private class InOrderIterator implements Iterator<K> {
+    private final ArrayDeque<Node<K, V>> nodes; // nodes whose keys are still to come
+    private final K toKey; // greatest key that may be returned, or null if there is none
+
+    /**
+     * Creates an iterator at the first key after fromKey in the version with the given root
+     * 
+     * @param version   the root of the version to be iterated over
+     * @param fromKey   the key the iterator starts from, or null if the version is empty
+     * @param inclusive whether fromKey itself may be returned
+     * @param toKey     the greatest key that may be returned, or null if there is none
+     */
+    InOrderIterator(Node<K, V> version, K fromKey, boolean inclusive, K toKey) {
+      this.nodes = new ArrayDeque<Node<K, V>>();
+      this.toKey = toKey;
+      Node<K, V> n = version;
+      while (n != null) {
+        int comparison = n.key.compareTo(fromKey);
+        if (comparison > 0 || (inclusive && comparison == 0)) {
+          nodes.push(n);
+          n = n.left;
+        } else {
+          n = n.right;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !nodes.isEmpty() && (toKey == null || nodes.peek().key.compareTo(toKey) <= 0);
+    }
+
+    @Override
+    public K next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Node<K, V> n = nodes.pop();
+      // the node after n is the leftmost node of its right subtree
+      for (Node<K, V> child = n.right; child != null; child = child.left) {
+        nodes.push(child);
+      }
+      return n.key;
+    }
+  }
+
+  /**
+   * Returns the greatest key less than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key <= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  public K floor(K key) throws IllegalNullKeyException {
+    return lowerKey(key, true);
+  }
+
+  /**
+   * Returns the greatest key strictly less than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key < key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  public K lower(K key) throws IllegalNullKeyException {
+    return lowerKey(key, false);
+  }
+
+  /**
+   * Returns the least key greater than or equal to the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key >= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  public K ceiling(K key) throws IllegalNullKeyException {
+    return higherKey(key, true);
+  }
+
+  /**
+   * Returns the least key strictly greater than the given key, or null if there is none
+   * 
+   * @param key the key to be compared to
+   * @return the least key > key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  public K higher(K key) throws IllegalNullKeyException {
+    return higherKey(key, false);
+  }
+
+  /**
+   * Helper for floor() and lower(). Walks down this version, remembering the last key
+   * passed that is less than the given key (or equal to it, if inclusive).
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the greatest key less than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private K lowerKey(K key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    K lowerKey = null;
+    Node<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison == 0 && inclusive) {
+        return n.key;
+      } else if (comparison < 0) {
+        lowerKey = n.key;
+        n = n.right;
+      } else {
+        n = n.left;
+      }
+    }
+    return lowerKey;
+  }
+
+  /**
+   * Helper for ceiling() and higher(). Walks down this version, remembering the last key
+   * passed that is greater than the given key (or equal to it, if inclusive).
+   * 
+   * @param key       the key to be compared to
+   * @param inclusive whether a key equal to the given key may be returned
+   * @return the least key greater than (or equal to) key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  private K higherKey(K key, boolean inclusive) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    K higherKey = null;
+    Node<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison == 0 && inclusive) {
+        return n.key;
+      } else if (comparison > 0) {
+        higherKey = n.key;
+        n = n.left;
+      } else {
+        n = n.right;
+      }
+    }
+    return higherKey;
+  }
+
+  /**
+   * Returns the number of keys strictly less than the given key, in O(log n) time using the stored
+   * subtree sizes
+   * 
+   * @param key the key to be ranked
+   * @return the number of keys < key
+   * @throws IllegalNullKeyException if key is null
+   */
+  public int rank(K key) throws IllegalNullKeyException {
+    if (key == null) { // checks if key is null, throws IllegalNullKeyException if it is
+      throw new IllegalNullKeyException();
+    }
+
+    int rank = 0;
+    Node<K, V> n = root;
+    while (n != null) {
+      int comparison = n.key.compareTo(key);
+      if (comparison < 0) { // n and its left subtree are all less than key
+        rank += size(n.left) + 1;
+        n = n.right;
+      } else if (comparison > 0) {
+        n = n.left;
+      } else { // only n's left subtree is less than key
+        return rank + size(n.left);
+      }
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the key at the given index of the keys in sorted order, in O(log n) time using the
+   * stored subtree sizes
+   * 
+   * @param index the index of the key in sorted order
+   * @return the key at the index
+   * @throws IndexOutOfBoundsException if index is negative or not less than numKeys()
+   */
+  public K select(int index) {
+    if (index < 0 || index >= size(root)) {
+      throw new IndexOutOfBoundsException("index " + index + " with " + size(root) + " keys");
+    }
+
+    Node<K, V> n = root;
+    while (true) {
+      int leftSize = size(n.left);
+      if (index < leftSize) { // the key is in the left subtree
+        n = n.left;
+      } else if (index == leftSize) {
+        return n.key;
+      } else { // the key is in the right subtree, after n and its left subtree
+        index -= leftSize + 1;
+        n = n.right;
+      }
+    }
+  }
+
+  /**
+   * Returns the key at the given percentile of the keys in sorted order, using the nearest-rank
+   * method, with the same rank as every SearchTreeADT
+   * 
+   * @param percent the percentile, from 0 to 100
+   * @return the key at the percentile, or null if there are no keys
+   * @throws IllegalArgumentException if percent is not from 0 to 100
+   * @see SearchTreeADT#percentileIndex(double, int)
+   */
+  public K percentile(double percent) {
+    int index = SearchTreeADT.percentileIndex(percent, numKeys());
+    if (root == null) {
+      return null;
+    }
+    return select(index);
+  }
+}
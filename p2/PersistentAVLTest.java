@@ -0,0 +1,211 @@
+// Title: PersistentAVLTest
+// Files: PersistentAVL, AVL
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 2/21/19
+
+// Outside Sources
+// Persons: None
+// Online Sources: None
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit Testing class to check if PersistentAVL functions correctly, and that changing it never
+ * changes an older version
+ * 
+ * @author Michael Goldstein
+ * @see PersistentAVL
+ */
+public class PersistentAVLTest {
+
+  PersistentAVL<Integer, String> empty; // the empty version every test starts from
+
+  /**
+   * Runs before each test. Creates an empty PersistentAVL
+   * 
+   * @throws java.lang.Exception if the tree fails to initialize correctly
+   */
+  @BeforeEach
+  void setUp() throws Exception {
+    empty = new PersistentAVL<Integer, String>();
+  }
+
+  /**
+   * Runs after each test. Sets the existing tree to null
+   * 
+   * @throws java.lang.Exception
+   */
+  @AfterEach
+  void tearDown() throws Exception {
+    empty = null;
+  }
+
+  /**
+   * Checks that null keys, duplicate keys, and missing keys throw the same exceptions as AVL, and
+   * that a failed change leaves the version it was called on as it was
+   * 
+   * @see PersistentAVL#insert(Comparable, Object)
+   * @see PersistentAVL#remove(Comparable)
+   */
+  @Test
+  void testPersistentAVL_001_exceptions() {
+    try {
+      PersistentAVL<Integer, String> tree = empty.insert(1, "1").insert(2, "2");
+      try {
+        tree.insert(null, "null");
+        fail("inserting a null key should throw IllegalNullKeyException");
+      } catch (IllegalNullKeyException e) {
+        // this is expected
+      }
+      try {
+        tree.insert(2, "two");
+        fail("inserting a duplicate key should throw DuplicateKeyException");
+      } catch (DuplicateKeyException e) {
+        // this is expected
+      }
+      try {
+        tree.remove(3);
+        fail("removing a missing key should throw KeyNotFoundException");
+      } catch (KeyNotFoundException e) {
+        // this is expected
+      }
+      try {
+        tree.get(3);
+        fail("getting a missing key should throw KeyNotFoundException");
+      } catch (KeyNotFoundException e) {
+        // this is expected
+      }
+      if (tree.numKeys() != 2 || !tree.get(2).equals("2")) {
+        fail("a failed change should not change the version it was called on");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 001: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Inserts keys in sorted order and removes some, keeping every version, then checks that each
+   * version still has exactly the keys it had when it was made
+   * 
+   * @see PersistentAVL#insert(Comparable, Object)
+   * @see PersistentAVL#remove(Comparable)
+   */
+  @Test
+  void testPersistentAVL_002_old_versions_unchanged() {
+    try {
+      List<PersistentAVL<Integer, String>> versions =
+          new ArrayList<PersistentAVL<Integer, String>>();
+      versions.add(empty);
+      for (int key = 0; key < 50; key++) {
+        versions.add(versions.get(versions.size() - 1).insert(key, "" + key));
+      }
+      for (int key = 0; key < 50; key += 2) {
+        versions.add(versions.get(versions.size() - 1).remove(key));
+      }
+
+      for (int index = 0; index <= 50; index++) { // the version made by inserting keys 0 to index-1
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int key = 0; key < index; key++) {
+          expected.add(key);
+        }
+        assertEquals(expected, versions.get(index).getInOrderTraversal());
+      }
+      for (int index = 1; index <= 25; index++) { // the version made by removing index even keys
+        PersistentAVL<Integer, String> version = versions.get(50 + index);
+        if (version.numKeys() != 50 - index || version.contains(2 * index - 2)
+            || (index < 25 && !version.contains(2 * index))) {
+          fail("the version after removing " + index + " keys does not have the right keys");
+        }
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 002: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that each version is balanced with the same rotations as AVL, so that it has the same
+   * shape, and that its ordered queries match those of AVL
+   * 
+   * @see PersistentAVL#getHeight()
+   * @see PersistentAVL#select(int)
+   */
+  @Test
+  void testPersistentAVL_003_balances_like_AVL() {
+    try {
+      AVL<Integer, String> avl = new AVL<Integer, String>();
+      PersistentAVL<Integer, String> tree = empty;
+      for (int key = 0; key < 100; key++) {
+        tree = tree.insert(key, "" + key);
+        avl.insert(key, "" + key);
+      }
+      for (int key = 0; key < 100; key += 3) {
+        tree = tree.remove(key);
+        avl.remove(key);
+      }
+
+      if (tree.getHeight() != avl.getHeight() || tree.numKeys() != avl.numKeys()
+          || !tree.getKeyAtRoot().equals(avl.getKeyAtRoot())) {
+        fail("the tree should have height " + avl.getHeight() + " but has " + tree.getHeight());
+      }
+      assertEquals(avl.getPreOrderTraversal(), tree.getPreOrderTraversal());
+      assertEquals(avl.getLevelOrderTraversal(), tree.getLevelOrderTraversal());
+      List<Integer> range = new ArrayList<Integer>();
+      tree.rangeIterator(20, 40).forEachRemaining(range::add);
+      assertEquals(avl.getRange(20, 40), range);
+      if (!tree.select(10).equals(avl.select(10)) || tree.rank(50) != avl.rank(50)
+          || !tree.floor(51).equals(avl.floor(51))
+          || !tree.percentile(50).equals(avl.percentile(50))) {
+        fail("select(), rank(), floor(), or percentile() did not match AVL");
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 003: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks percentile() against the nearest rank computed with integers, for every whole percent
+   * and up to 200 keys, rather than against AVL, so that a rank shared by both cannot hide an error
+   * 
+   * @see PersistentAVL#percentile(double)
+   */
+  @Test
+  void testPersistentAVL_004_percentile_nearest_rank() {
+    try {
+      PersistentAVL<Integer, String> tree = empty;
+      if (tree.percentile(50) != null) {
+        fail("an empty tree has no percentiles");
+      }
+      for (int numKeys = 1; numKeys <= 200; numKeys++) {
+        tree = tree.insert(numKeys - 1, "" + (numKeys - 1)); // the key at each index is the index
+        for (int percent = 0; percent <= 100; percent++) {
+          int expected = Math.max(0, (percent * numKeys + 99) / 100 - 1);
+          if (tree.percentile(percent) != expected) {
+            fail("percentile(" + percent + ") of " + numKeys + " keys should be key " + expected
+                + " but was " + tree.percentile(percent));
+          }
+        }
+      }
+      try {
+        tree.percentile(100.5);
+        fail("a percentile above 100 should throw an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        // expected, as the percentile is out of range
+      }
+    } catch (Exception e) { // catches unexpected exception that should not occur
+      e.printStackTrace();
+      fail("Unexpected exception 004: " + e.getMessage());
+    }
+  }
+}
@@ -1,9 +1,16 @@
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // An intermediate type that extends a basic DataStructureADT
 // and adds traversal operations as used in search trees.
 
-public interface SearchTreeADT<K extends Comparable<K>, V> extends DataStructureADT<K, V> {
+public interface SearchTreeADT<K extends Comparable<K>, V>
+    extends DataStructureADT<K, V>, Iterable<K> {
 
   /**
    * Returns the keys of the data structure in sorted order. In the case of binary search trees, the
@@ -46,4 +53,262 @@ public interface SearchTreeADT<K extends Comparable<K>, V> extends DataStructure
    */
   List<K> getLevelOrderTraversal();
 
+  /**
+   * Returns an iterator over the keys of the data structure in sorted order, the same order as
+   * getInOrderTraversal(). Implementations should visit keys lazily, so that a caller which stops
+   * early does not pay for the keys it never reads. This default builds the full list first.
+   * 
+   * The data structure must not be changed while the iterator is in use.
+   * 
+   * @return Iterator over Keys in-order
+   */
+  default Iterator<K> inOrderIterator() {
+    return getInOrderTraversal().iterator();
+  }
+
+  /**
+   * Returns an iterator over the keys of the data structure in pre-order traversal order, the same
+   * order as getPreOrderTraversal(). This default builds the full list first.
+   * 
+   * @return Iterator over Keys in pre-order
+   */
+  default Iterator<K> preOrderIterator() {
+    return getPreOrderTraversal().iterator();
+  }
+
+  /**
+   * Returns an iterator over the keys of the data structure in post-order traversal order, the
+   * same order as getPostOrderTraversal(). This default builds the full list first.
+   * 
+   * @return Iterator over Keys in post-order
+   */
+  default Iterator<K> postOrderIterator() {
+    return getPostOrderTraversal().iterator();
+  }
+
+  /**
+   * Returns an iterator over the keys of the data structure in level-order traversal order, the
+   * same order as getLevelOrderTraversal(). This default builds the full list first.
+   * 
+   * @return Iterator over Keys in level-order
+   */
+  default Iterator<K> levelOrderIterator() {
+    return getLevelOrderTraversal().iterator();
+  }
+
+  /**
+   * Returns an iterator over the keys of the data structure in sorted order, so that a SearchTree
+   * can be used in a for-each loop.
+   * 
+   * @return Iterator over Keys in-order
+   */
+  @Override
+  default Iterator<K> iterator() {
+    return inOrderIterator();
+  }
+
+  /**
+   * Returns a spliterator over the keys of the data structure in sorted order. It reports the
+   * number of keys as its size and that its keys are sorted, distinct, and not null.
+   * 
+   * @return Spliterator over Keys in-order
+   */
+  @Override
+  default Spliterator<K> spliterator() {
+    return Spliterators.spliterator(iterator(), numKeys(), Spliterator.ORDERED
+        | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+  }
+
+  /**
+   * Returns a sequential stream of the keys of the data structure in sorted order. The keys are
+   * read from the data structure only as the stream needs them.
+   * 
+   * @return Stream of Keys in-order
+   */
+  default Stream<K> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Returns the greatest key less than or equal to the given key, or null if there is no such key.
+   * This default scans the keys in order; implementations should override it to search instead.
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key <= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  default K floor(K key) throws IllegalNullKeyException {
+    if (key == null) {
+      throw new IllegalNullKeyException();
+    }
+    return stream().takeWhile(k -> k.compareTo(key) <= 0).reduce((a, b) -> b).orElse(null);
+  }
+
+  /**
+   * Returns the least key greater than or equal to the given key, or null if there is no such key.
+   * This default scans the keys in order; implementations should override it to search instead.
+   * 
+   * @param key the key to be compared to
+   * @return the least key >= key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  default K ceiling(K key) throws IllegalNullKeyException {
+    if (key == null) {
+      throw new IllegalNullKeyException();
+    }
+    return stream().filter(k -> k.compareTo(key) >= 0).findFirst().orElse(null);
+  }
+
+  /**
+   * Returns the greatest key strictly less than the given key, or null if there is no such key.
+   * This default scans the keys in order; implementations should override it to search instead.
+   * 
+   * @param key the key to be compared to
+   * @return the greatest key < key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  default K lower(K key) throws IllegalNullKeyException {
+    if (key == null) {
+      throw new IllegalNullKeyException();
+    }
+    return stream().takeWhile(k -> k.compareTo(key) < 0).reduce((a, b) -> b).orElse(null);
+  }
+
+  /**
+   * Returns the least key strictly greater than the given key, or null if there is no such key.
+   * This default scans the keys in order; implementations should override it to search instead.
+   * 
+   * @param key the key to be compared to
+   * @return the least key > key, or null
+   * @throws IllegalNullKeyException if key is null
+   */
+  default K higher(K key) throws IllegalNullKeyException {
+    if (key == null) {
+      throw new IllegalNullKeyException();
+    }
+    return stream().filter(k -> k.compareTo(key) > 0).findFirst().orElse(null);
+  }
+
+  /**
+   * Returns a lazy iterator over the keys from fromKey to toKey, both inclusive, in sorted order.
+   * If fromKey is greater than toKey, the iterator has no keys. This default skips the keys before
+   * fromKey one by one; implementations should override it to search for the first key instead.
+   * 
+   * The data structure must not be changed while the iterator is in use.
+   * 
+   * @param fromKey the least key that may be returned
+   * @param toKey   the greatest key that may be returned
+   * @return Iterator over the Keys in the range in-order
+   * @throws IllegalNullKeyException if fromKey or toKey is null
+   */
+  default Iterator<K> rangeIterator(K fromKey, K toKey) throws IllegalNullKeyException {
+    if (fromKey == null || toKey == null) {
+      throw new IllegalNullKeyException();
+    }
+    return stream().dropWhile(k -> k.compareTo(fromKey) < 0)
+        .takeWhile(k -> k.compareTo(toKey) <= 0).iterator();
+  }
+
+  /**
+   * Returns a lazy iterator over the keys after the given key in sorted order, starting with the
+   * key itself if inclusive is true and it is present. Reading the first k keys of the iterator
+   * returns the first k keys after fromKey.
+   * 
+   * The data structure must not be changed while the iterator is in use.
+   * 
+   * @param fromKey   the key the iterator starts from
+   * @param inclusive whether fromKey itself may be returned
+   * @return Iterator over the Keys after fromKey in-order
+   * @throws IllegalNullKeyException if fromKey is null
+   */
+  default Iterator<K> tailIterator(K fromKey, boolean inclusive) throws IllegalNullKeyException {
+    if (fromKey == null) {
+      throw new IllegalNullKeyException();
+    }
+    return stream().dropWhile(k -> k.compareTo(fromKey) < 0 || (!inclusive && k.equals(fromKey)))
+        .iterator();
+  }
+
+  /**
+   * Returns the keys from fromKey to toKey, both inclusive, in sorted order. If fromKey is greater
+   * than toKey, an empty list is returned.
+   * 
+   * @param fromKey the least key that may be returned
+   * @param toKey   the greatest key that may be returned
+   * @return List of the Keys in the range in-order
+   * @throws IllegalNullKeyException if fromKey or toKey is null
+   */
+  default List<K> getRange(K fromKey, K toKey) throws IllegalNullKeyException {
+    List<K> range = new ArrayList<K>();
+    rangeIterator(fromKey, toKey).forEachRemaining(range::add);
+    return range;
+  }
+
+  /**
+   * Returns the number of keys strictly less than the given key, which is the index the key has
+   * (or would have) in getInOrderTraversal(). The key does not need to be present.
+   * 
+   * @param key the key to be ranked
+   * @return the number of keys < key
+   * @throws IllegalNullKeyException if key is null
+   */
+  default int rank(K key) throws IllegalNullKeyException {
+    if (key == null) {
+      throw new IllegalNullKeyException();
+    }
+    return (int) stream().takeWhile(k -> k.compareTo(key) < 0).count();
+  }
+
+  /**
+   * Returns the key at the given index of the keys in sorted order, so that select(0) is the
+   * smallest key and select(numKeys() - 1) the largest.
+   * 
+   * @param index the index of the key in sorted order
+   * @return the key at the index
+   * @throws IndexOutOfBoundsException if index is negative or not less than numKeys()
+   */
+  default K select(int index) {
+    if (index < 0 || index >= numKeys()) {
+      throw new IndexOutOfBoundsException("index " + index + " with " + numKeys() + " keys");
+    }
+    return stream().skip(index).findFirst().get();
+  }
+
+  /**
+   * Returns the key at the given percentile of the keys in sorted order, using the nearest-rank
+   * method: the smallest key such that at least percent percent of the keys are less than or equal
+   * to it. percentile(0) is the smallest key, percentile(50) the median, and percentile(100) the
+   * largest. Takes the time of one select().
+   * 
+   * @param percent the percentile, from 0 to 100
+   * @return the key at the percentile, or null if there are no keys
+   * @throws IllegalArgumentException if percent is not from 0 to 100
+   */
+  default K percentile(double percent) {
+    int index = percentileIndex(percent, numKeys());
+    if (numKeys() == 0) {
+      return null;
+    }
+    return select(index);
+  }
+
+  /**
+   * Returns the index, in sorted order, of the key at the given percentile of the given number of
+   * keys, using the nearest-rank method: the smallest index such that at least percent percent of
+   * the keys are at or before it. Shared by every tree's percentile(), so that they all agree
+   * 
+   * @param percent the percentile, from 0 to 100
+   * @param numKeys the number of keys
+   * @return the index of the key at the percentile, which is 0 if there are no keys
+   * @throws IllegalArgumentException if percent is not from 0 to 100
+   */
+  static int percentileIndex(double percent, int numKeys) {
+    if (!(percent >= 0 && percent <= 100)) { // also rejects NaN
+      throw new IllegalArgumentException("percentile must be from 0 to 100: " + percent);
+    }
+    // multiplies before dividing, so that a whole percent of the keys is exact. Dividing first
+    // rounds percent / 100 (0.14 is not exact), which can push the rank up by one
+    return Math.max(0, (int) Math.ceil(percent * numKeys / 100) - 1);
+  }
+
 }
@@ -0,0 +1,512 @@
+// Title: ConcurrentHashTable
+// Files: HashTableADT, DataStructureADT, AtomicReferenceArray, AtomicReference, AtomicInteger,
+// LongAdder
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe hash table which can be shared by many threads without an outside lock.
+ * 
+ * get() never locks: it only follows volatile references. insert() and remove() lock only the
+ * bucket they change, using the first node of the bucket as the lock, and fill an empty bucket with
+ * a compare-and-set instead of a lock. When the table is resized, every thread which runs into a
+ * bucket that has already been moved helps move the remaining buckets, a chunk at a time, instead
+ * of waiting for one thread to copy the whole table.
+ * 
+ * @author Michael Goldstein
+ * 
+ * @param <K> The key type of the hash table class
+ * @param <V> The value the has table stores
+ * @see HashTable
+ */
+
+// The hash function used is the bit-mixed hashCode of the key modulo table size
+// The hash function uses chains of linked nodes as buckets in a hashTable array to handle
+// collisions
+
+public class ConcurrentHashTable<K extends Comparable<K>, V> implements HashTableADT<K, V> {
+  /**
+   * An inner class which acts as a node in a chain. The key, value, and hash never change once a
+   * node is created, and next is volatile so that readers always see a complete chain.
+   * 
+   * @author Michael Goldstein
+   * 
+   * @param <K> The key type of the node
+   * @param <V> The value type of the node
+   */
+  private static class Node<K, V> {
+    private final int hash; // the mixed hash code of the key, or MOVED for a ForwardingNode
+    private final K key; // the key of the Node
+    private final V value; // the value of the Node
+    private volatile Node<K, V> next; // the next Node in the same bucket, null if last
+
+    /**
+     * Constructor for Node. Initializes all fields with the given values
+     * 
+     * @param hash  the mixed hash code of the key
+     * @param key   the key of the Node
+     * @param value the value of the Node
+     * @param next  the Node which follows this one in its bucket
+     */
+    Node(int hash, K key, V value, Node<K, V> next) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  /**
+   * A node placed in a bucket of the old table once that bucket has been moved during a resize.
+   * Threads which find it continue their operation in the new table.
+   * 
+   * @author Michael Goldstein
+   * 
+   * @param <K> The key type of the table
+   * @param <V> The value type of the table
+   */
+  private static class ForwardingNode<K, V> extends Node<K, V> {
+    private final AtomicReferenceArray<Node<K, V>> nextTable; // the table buckets were moved to
+
+    /**
+     * Constructor for ForwardingNode
+     * 
+     * @param nextTable the table the bucket was moved to
+     */
+    ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+      super(MOVED, null, null, null);
+      this.nextTable = nextTable;
+    }
+  }
+
+  /**
+   * The state of a resize in progress, published in one step so that helping threads always see a
+   * matching old table, new table, and progress counters.
+   * 
+   * @author Michael Goldstein
+   * 
+   * @param <K> The key type of the table
+   * @param <V> The value type of the table
+   */
+  private static class Resize<K, V> {
+    private final AtomicReferenceArray<Node<K, V>> oldTable; // the table being moved from
+    private final AtomicReferenceArray<Node<K, V>> newTable; // the table being moved to
+    private final ForwardingNode<K, V> forward; // the node placed in every moved bucket
+    private final AtomicInteger transferIndex; // buckets below this index are not yet claimed
+    private final AtomicInteger bucketsMoved; // the number of buckets which have been moved
+
+    /**
+     * Constructor for Resize. Creates the new table with a capacity of 2 * capacity + 1
+     * 
+     * @param oldTable the table being moved from
+     */
+    Resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+      this.oldTable = oldTable;
+      this.newTable = new AtomicReferenceArray<Node<K, V>>(oldTable.length() * 2 + 1);
+      this.forward = new ForwardingNode<K, V>(newTable);
+      this.transferIndex = new AtomicInteger(oldTable.length());
+      this.bucketsMoved = new AtomicInteger(0);
+    }
+  }
+
+  // the hash stored in a ForwardingNode. Real hashes are never negative
+  private static final int MOVED = -1;
+  // the number of buckets a thread claims at a time when helping with a resize
+  private static final int TRANSFER_STRIDE = 16;
+
+  // instance variables for ConcurrentHashTable
+  private final LongAdder currentNumberOfPairsInTable; // the number of key value pairs in the table
+  private final double loadFactorThreshold; // the load factor at which the hash table will expand
+  private volatile AtomicReferenceArray<Node<K, V>> hashTable; // the table of chains
+  private final AtomicReference<Resize<K, V>> resize; // the resize in progress, null if none
+
+  /**
+   * The default constructor. Initializes instance variables by calling constructor with parameters.
+   * Uses an initial capacity of 50 and a load factor threshold of 0.75
+   * 
+   * @see ConcurrentHashTable#ConcurrentHashTable(int, double)
+   */
+  public ConcurrentHashTable() {
+    // calls other constructor with initial capacity of 50 and load factor threshold of 0.75
+    this(50, 0.75);
+  }
+
+  /**
+   * Constructor which has initial capacity and load factor threshold as parameters. It initializes
+   * all instance variables and is called by the default constructor
+   * 
+   * @param initialCapacity     the initial maximum capacity of the hash table
+   * @param loadFactorThreshold the the load factor at which the hash table will expand (resize and
+   *                            rehash)
+   */
+  public ConcurrentHashTable(int initialCapacity, double loadFactorThreshold) {
+    hashTable = new AtomicReferenceArray<Node<K, V>>(initialCapacity);
+    currentNumberOfPairsInTable = new LongAdder();
+    this.loadFactorThreshold = loadFactorThreshold;
+    resize = new AtomicReference<Resize<K, V>>(null);
+  }
+
+  /**
+   * Mixes the high bits of a key's hash code into the low bits and clears the sign bit, so that the
+   * result is never negative (unlike Math.abs of Integer.MIN_VALUE) and never equals MOVED
+   * 
+   * @param key the key whose hash code is mixed
+   * @return the mixed, non-negative hash of the key
+   */
+  private static int spread(Object key) {
+    int hash = key.hashCode();
+    return (hash ^ (hash >>> 16)) & 0x7FFFFFFF;
+  }
+
+  /**
+   * Inserts a new key, value pair in the hash table, starts a resize of the table if necessary,
+   * throws an IllegalNullKey exception if the given key is null, throws a DuplicateKeyException if
+   * a duplicate key exists in the hash table
+   * 
+   * @param key   the key of the new element to be inserted into the hash table
+   * @param value the value of the new element to be inserted into the hash table
+   * @throws IllegalNullKeyException if given key is null
+   * @throws DuplicateKeyException   if given key is already in hash table
+   */
+  @Override
+  public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+
+    int hash = spread(key);
+    AtomicReferenceArray<Node<K, V>> table = hashTable;
+    while (true) {
+      int hashIndex = hash % table.length();
+      Node<K, V> head = table.get(hashIndex);
+
+      if (head == null) {
+        // fills an empty bucket without locking. Retries if another thread filled it first
+        if (table.compareAndSet(hashIndex, null, new Node<K, V>(hash, key, value, null))) {
+          break;
+        }
+      } else if (head.hash == MOVED) {
+        // the bucket has been moved by a resize, so helps finish it and continues in the new table
+        table = helpResize(table, (ForwardingNode<K, V>) head);
+      } else {
+        synchronized (head) {
+          // retries if the bucket changed between reading its head and locking it
+          if (table.get(hashIndex) != head) {
+            continue;
+          }
+
+          // checks for a duplicate key, then adds the new node at the end of the chain
+          Node<K, V> current = head;
+          while (true) {
+            if (current.hash == hash && current.key.equals(key)) {
+              throw new DuplicateKeyException();
+            }
+            if (current.next == null) {
+              current.next = new Node<K, V>(hash, key, value, null);
+              break;
+            }
+            current = current.next;
+          }
+        }
+        break;
+      }
+    }
+
+    currentNumberOfPairsInTable.increment();
+
+    // starts a resize if the load factor threshold has been reached and none is in progress
+    AtomicReferenceArray<Node<K, V>> current = hashTable;
+    if (currentNumberOfPairsInTable.sum() >= loadFactorThreshold * current.length()
+        && resize.get() == null) {
+      Resize<K, V> newResize = new Resize<K, V>(current);
+      if (resize.compareAndSet(null, newResize)) {
+        if (hashTable == current) {
+          transfer(newResize);
+        } else {
+          // another resize started and finished after current was read, so this one is stale
+          resize.compareAndSet(newResize, null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes a key value pair from the hash table with the given key. Returns true if a pair with
+   * the given key is removed, false if the key is not in the hash table and therefore cannot be
+   * removed.
+   * 
+   * @param key the key to be removed from the hash table
+   * @return true if the key exists in the hash table and is removed successfully, false if not
+   * @throws IllegalNullKeyException if the given key is null
+   */
+  @Override
+  public boolean remove(K key) throws IllegalNullKeyException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+
+    int hash = spread(key);
+    AtomicReferenceArray<Node<K, V>> table = hashTable;
+    while (true) {
+      int hashIndex = hash % table.length();
+      Node<K, V> head = table.get(hashIndex);
+
+      if (head == null) {
+        return false; // an empty bucket cannot hold the key
+      } else if (head.hash == MOVED) {
+        table = helpResize(table, (ForwardingNode<K, V>) head);
+      } else {
+        synchronized (head) {
+          if (table.get(hashIndex) != head) {
+            continue;
+          }
+
+          // unlinks the node with the given key, keeping track of the previous node
+          Node<K, V> previous = null;
+          for (Node<K, V> current = head; current != null; current = current.next) {
+            if (current.hash == hash && current.key.equals(key)) {
+              if (previous == null) {
+                table.set(hashIndex, current.next);
+              } else {
+                previous.next = current.next;
+              }
+              currentNumberOfPairsInTable.decrement();
+              return true;
+            }
+            previous = current;
+          }
+          return false; // returns false if none of the nodes in the chain have the given key
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the value for the given key in the hash table without taking any lock. Throws an
+   * IllegalNullKeyException if the given key is null. Throws KeyNotFoundException if key is not in
+   * the hash table
+   * 
+   * @param key the key whose value in the hash table is returned
+   * @return the value for the given key in the hash table
+   * @throws IllegalNullKeyException if the given key is null
+   * @throws KeyNotFoundException    if the given key is not in the hash table
+   */
+  @Override
+  public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+
+    int hash = spread(key);
+    AtomicReferenceArray<Node<K, V>> table = hashTable;
+    Node<K, V> current = table.get(hash % table.length());
+
+    // follows forwarding nodes into newer tables until a real bucket is found
+    while (current != null && current.hash == MOVED) {
+      table = ((ForwardingNode<K, V>) current).nextTable;
+      current = table.get(hash % table.length());
+    }
+
+    for (; current != null; current = current.next) {
+      if (current.hash == hash && current.key.equals(key)) {
+        return current.value;
+      }
+    }
+
+    // throws KeyNotFoundException if node with given key was not in chain
+    throw new KeyNotFoundException();
+  }
+
+  /**
+   * Called by a thread which found a moved bucket. Helps with the resize if it is still in progress
+   * and returns the table the operation should continue in.
+   * 
+   * @param table   the table in which the moved bucket was found
+   * @param forward the forwarding node found in the bucket
+   * @return the table the bucket was moved to
+   */
+  private AtomicReferenceArray<Node<K, V>> helpResize(AtomicReferenceArray<Node<K, V>> table,
+      ForwardingNode<K, V> forward) {
+    // only helps with the resize of the table currently in use, never with a stale one
+    Resize<K, V> current = resize.get();
+    if (current != null && current.oldTable == table && hashTable == table) {
+      transfer(current);
+    }
+    return forward.nextTable;
+  }
+
+  /**
+   * Moves buckets of the old table into the new table, claiming TRANSFER_STRIDE buckets at a time
+   * until none are left to claim. Any number of threads may run this at once. The thread which
+   * moves the last bucket publishes the new table and ends the resize.
+   * 
+   * @param state the resize being worked on
+   */
+  private void transfer(Resize<K, V> state) {
+    while (true) {
+      // claims the next chunk of buckets, counting down from the end of the old table
+      int end = state.transferIndex.get();
+      if (end <= 0) {
+        return; // every bucket has been claimed by some thread
+      }
+      int start = Math.max(0, end - TRANSFER_STRIDE);
+      if (!state.transferIndex.compareAndSet(end, start)) {
+        continue; // another thread claimed this chunk first
+      }
+
+      for (int index = start; index < end; index++) {
+        moveBucket(state, index);
+      }
+
+      // publishes the new table once every bucket of the old table has been moved
+      if (state.bucketsMoved.addAndGet(end - start) == state.oldTable.length()) {
+        hashTable = state.newTable;
+        resize.set(null);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Copies every node of a bucket of the old table into the new table, then replaces the bucket
+   * with the forwarding node. The old chain is left intact so that readers still walking it are
+   * not affected.
+   * 
+   * @param state the resize being worked on
+   * @param index the index of the bucket in the old table
+   */
+  private void moveBucket(Resize<K, V> state, int index) {
+    while (true) {
+      Node<K, V> head = state.oldTable.get(index);
+      if (head != null && head.hash == MOVED) {
+        return; // already moved
+      } else if (head == null) {
+        // an empty bucket only needs the forwarding node. Retries if an insert filled it first
+        if (state.oldTable.compareAndSet(index, null, state.forward)) {
+          return;
+        }
+      } else {
+        synchronized (head) {
+          if (state.oldTable.get(index) != head) {
+            continue;
+          }
+          for (Node<K, V> current = head; current != null; current = current.next) {
+            addToNewTable(state.newTable, current);
+          }
+          state.oldTable.set(index, state.forward);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds a copy of the given node to the new table during a resize. Does not check for duplicates
+   * as that was done on insertion. Buckets of the new table can be filled from several old buckets
+   * and by new inserts at the same time, so they are locked the same way as in insert.
+   * 
+   * @param newTable the table the node is copied into
+   * @param node     the node to be copied
+   */
+  private void addToNewTable(AtomicReferenceArray<Node<K, V>> newTable, Node<K, V> node) {
+    int hashIndex = node.hash % newTable.length();
+    while (true) {
+      Node<K, V> head = newTable.get(hashIndex);
+      if (head == null) {
+        if (newTable.compareAndSet(hashIndex, null,
+            new Node<K, V>(node.hash, node.key, node.value, null))) {
+          return;
+        }
+      } else {
+        synchronized (head) {
+          if (newTable.get(hashIndex) != head) {
+            continue;
+          }
+          Node<K, V> last = head;
+          while (last.next != null) {
+            last = last.next;
+          }
+          last.next = new Node<K, V>(node.hash, node.key, node.value, null);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of keys (key value pairs in this case) stored in the hash table. While other
+   * threads are inserting or removing, this is a snapshot which may already be out of date
+   * 
+   * @return the number of keys (key value pairs in this case) stored in the hash table
+   */
+  @Override
+  public int numKeys() {
+    return (int) currentNumberOfPairsInTable.sum();
+  }
+
+  /**
+   * Returns the load factor threshold of the hash table
+   * 
+   * @return the load factor threshold of the hash table
+   */
+  @Override
+  public double getLoadFactorThreshold() {
+    return loadFactorThreshold;
+  }
+
+  /**
+   * Returns the current load factor of the hash table (the number of pairs in the table divided by
+   * the size of the table)
+   * 
+   * @return the current load factor of the hash table
+   */
+  @Override
+  public double getLoadFactor() {
+    return ((double) currentNumberOfPairsInTable.sum()) / ((double) hashTable.length());
+  }
+
+  /**
+   * Returns the capacity of the hash table (the hash table's size). During a resize, this is the
+   * capacity of the old table until every bucket has been moved
+   * 
+   * @return the capacity of the hash table
+   */
+  @Override
+  public int getCapacity() {
+    return hashTable.length();
+  }
+
+  /**
+   * Returns the fraction of the old table's buckets which have been moved into the new table by the
+   * resize in progress, or 1.0 if no resize is in progress
+   * 
+   * @return the progress of the current resize, between 0.0 and 1.0
+   */
+  @Override
+  public double getRehashProgress() {
+    Resize<K, V> current = resize.get();
+    if (current == null) {
+      return 1.0;
+    }
+    return ((double) current.bucketsMoved.get()) / ((double) current.oldTable.length());
+  }
+
+  /**
+   * Method which returns an integer code corresponding to the collision resolution method used.
+   * 
+   * @return 5 because this implementation of a hash table uses an array of linked nodes
+   */
+  @Override
+  public int getCollisionResolution() {
+    return 5;
+  }
+}
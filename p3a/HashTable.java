@@ -7,6 +7,11 @@
 // Lecturer's Name: Deb Deppeler
 // Due Date: 3/14/19
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * The author's implementation of a hash table data structure
  * 
@@ -16,10 +21,19 @@
  * @param <V> The value the has table stores
  */
 
-import java.util.LinkedList;
-
 // The hash function used is the hashCode of the key modulo table size
-// The hash function uses LinkedList buckets in a hashTable array to handle collisions
+// If constructed with power of two capacity, the hashCode is instead scrambled by a bit mixing
+// finalizer and masked down to the table size, and the table doubles in size on each rehash. This
+// avoids the division of the modulo, but breaks HashTableADT's 2 * capacity + 1 growth rule, so it
+// is off by default
+// The hash function uses chains of linked nodes as buckets in a hashTable array to handle
+// collisions. If constructed with collision resolution 6, a chain which grows longer than
+// TREEIFY_THRESHOLD is converted into an AVL tree ordered by compareTo, so that keys with colliding
+// hash codes cost O(log n) per lookup instead of O(n)
+// Metrics (probe counts, rehash times, load factor history, chain lengths) are only recorded
+// after enableMetrics is called. Until then, each operation only checks that metrics is null
+// If constructed with incremental rehashing, a resize keeps the old and new arrays side by side
+// and each operation migrates at most MIGRATION_STEP buckets of the old array into the new one
 
 public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V> {
   /**
@@ -31,17 +45,20 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
   private class HashTableNode {
     private K key; // the key of the HashTableNode
     private V value; // the value of the HashTableNode
+    private HashTableNode next; // the next HashTableNode in the same bucket, null if last
 
     /**
-     * Constructor for HashTableNode. Initializes key and value variables with the key and value
-     * given by parameters.
+     * Constructor for HashTableNode. Initializes key, value, and next variables with the key,
+     * value, and next node given by parameters.
      * 
      * @param key   The key of the HashTableNode
      * @param value The value of the HashTableNode
+     * @param next  The HashTableNode which follows this one in its bucket
      */
-    public HashTableNode(K key, V value) {
+    public HashTableNode(K key, V value, HashTableNode next) {
       this.key = key;
       this.value = value;
+      this.next = next;
     }
 
     /**
@@ -63,10 +80,69 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
     }
   }
 
+  /**
+   * An inner class which acts as a node in a bucket which has been converted into an AVL tree.
+   * Tree nodes are ordered by the compareTo of their keys, and the next field is not used.
+   * 
+   * @author Michael Goldstein
+   *
+   */
+  private class TreeNode extends HashTableNode {
+    private TreeNode left; // the left child of the TreeNode
+    private TreeNode right; // the right child of the TreeNode
+    private int height; // the number of levels in the subtree with this TreeNode as root
+
+    /**
+     * Constructor for TreeNode. Creates a leaf node with the given key and value
+     * 
+     * @param key   The key of the TreeNode
+     * @param value The value of the TreeNode
+     */
+    public TreeNode(K key, V value) {
+      super(key, value, null);
+      height = 1;
+    }
+  }
+
+  /**
+   * An inner class which is stored in place of the first node of a chain when that bucket has been
+   * converted into an AVL tree. It has no key or value of its own.
+   * 
+   * @author Michael Goldstein
+   *
+   */
+  private class TreeBucket extends HashTableNode {
+    private TreeNode root; // the root of the AVL tree holding the bucket's key value pairs
+    private int size; // the number of key value pairs in the bucket
+
+    /**
+     * Constructor for TreeBucket. Creates an empty tree bucket
+     */
+    public TreeBucket() {
+      super(null, null, null);
+      root = null;
+      size = 0;
+    }
+  }
+
+  // a chain longer than this is converted into a tree when tree buckets are in use
+  private static final int TREEIFY_THRESHOLD = 8;
+  // a tree bucket with this many or fewer pairs is converted back into a chain
+  private static final int UNTREEIFY_THRESHOLD = 6;
+  // the number of old buckets migrated by each operation during an incremental rehash
+  private static final int MIGRATION_STEP = 4;
+
   // instance variables for HashTable
   private int currentNumberOfPairsInTable; // the current number of key value pairs in the table
   private double loadFactorThreshold; // the load factor at which the hash table will expand
-  private LinkedList<HashTableNode>[] hashTable; // the hash table which stores key value pairs
+  private HashTableNode[] hashTable; // the hash table which stores chains of key value pairs
+  private int collisionResolution; // 5 for chains only, 6 to convert long chains into trees
+  private boolean incrementalRehash; // whether resizes are spread out over later operations
+  private HashTableNode[] oldHashTable; // the table being migrated from, null if not rehashing
+  private int migrationIndex; // the index of the next bucket of oldHashTable to be migrated
+  private boolean powerOfTwoCapacity; // whether capacity is a power of two, indexed with a mask
+  private HashTableMetrics metrics; // records how the table performs, null unless enabled
+  private int treeProbes; // the number of nodes visited by the last call of treeFind
 
   /**
    * The default constructor. Initializes instance variables by calling constructor with parameters.
@@ -89,57 +165,484 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
    *                            rehash)
    */
   public HashTable(int initialCapacity, double loadFactorThreshold) {
-    // initializes a hash table with a given size. Has casting from LinkedList to
-    // LinkedList<HashTableNode> because constructor thrown when initializing an array of
-    // HashtableNode
-    hashTable = (LinkedList<HashTableNode>[]) new LinkedList[initialCapacity];
+    // calls other constructor with chained buckets of linked nodes
+    this(initialCapacity, loadFactorThreshold, 5);
+  }
+
+  /**
+   * Constructor which has initial capacity, load factor threshold, and collision resolution scheme
+   * as parameters. It initializes all instance variables and is called by the other constructors
+   * 
+   * @param initialCapacity     the initial maximum capacity of the hash table
+   * @param loadFactorThreshold the the load factor at which the hash table will expand (resize and
+   *                            rehash)
+   * @param collisionResolution 5 to keep every bucket as a chain of linked nodes, or 6 to convert
+   *                            any chain longer than TREEIFY_THRESHOLD into a search tree
+   * @throws IllegalArgumentException if collisionResolution is not 5 or 6
+   */
+  public HashTable(int initialCapacity, double loadFactorThreshold, int collisionResolution) {
+    // calls other constructor with rehashes done in a single pass
+    this(initialCapacity, loadFactorThreshold, collisionResolution, false);
+  }
+
+  /**
+   * Constructor which has initial capacity, load factor threshold, collision resolution scheme,
+   * and rehashing mode as parameters. It initializes all instance variables and is called by the
+   * other constructors
+   * 
+   * @param initialCapacity     the initial maximum capacity of the hash table
+   * @param loadFactorThreshold the the load factor at which the hash table will expand (resize and
+   *                            rehash)
+   * @param collisionResolution 5 to keep every bucket as a chain of linked nodes, or 6 to convert
+   *                            any chain longer than TREEIFY_THRESHOLD into a search tree
+   * @param incrementalRehash   true to migrate the old table into the new one a few buckets per
+   *                            operation after a resize, false to migrate it all at once
+   * @throws IllegalArgumentException if collisionResolution is not 5 or 6
+   */
+  public HashTable(int initialCapacity, double loadFactorThreshold, int collisionResolution,
+      boolean incrementalRehash) {
+    // calls other constructor with the capacity growth required by HashTableADT
+    this(initialCapacity, loadFactorThreshold, collisionResolution, incrementalRehash, false);
+  }
+
+  /**
+   * Constructor which has initial capacity, load factor threshold, collision resolution scheme,
+   * rehashing mode, and capacity mode as parameters. It initializes all instance variables and is
+   * called by the other constructors
+   * 
+   * @param initialCapacity     the initial maximum capacity of the hash table, rounded up to a
+   *                            power of two if powerOfTwoCapacity is true
+   * @param loadFactorThreshold the the load factor at which the hash table will expand (resize and
+   *                            rehash)
+   * @param collisionResolution 5 to keep every bucket as a chain of linked nodes, or 6 to convert
+   *                            any chain longer than TREEIFY_THRESHOLD into a search tree
+   * @param incrementalRehash   true to migrate the old table into the new one a few buckets per
+   *                            operation after a resize, false to migrate it all at once
+   * @param powerOfTwoCapacity  true to keep the capacity a power of two which doubles on each
+   *                            rehash, false for the 2 * capacity + 1 growth of HashTableADT
+   * @throws IllegalArgumentException if collisionResolution is not 5 or 6
+   */
+  public HashTable(int initialCapacity, double loadFactorThreshold, int collisionResolution,
+      boolean incrementalRehash, boolean powerOfTwoCapacity) {
+    if (collisionResolution != 5 && collisionResolution != 6) {
+      throw new IllegalArgumentException();
+    }
+
+    // rounds the initial capacity up to a power of two if needed
+    if (powerOfTwoCapacity) {
+      int capacity = 1;
+      while (capacity < initialCapacity) {
+        capacity *= 2;
+      }
+      initialCapacity = capacity;
+    }
+
+    // initializes a hash table with a given size. Has casting from HashTable.HashTableNode to
+    // HashTableNode because a generic array cannot be created directly
+    hashTable = (HashTableNode[]) new HashTable.HashTableNode[initialCapacity];
 
     // initializes current size (the number of pairs in table) and the load factor threshold
     currentNumberOfPairsInTable = 0;
     this.loadFactorThreshold = loadFactorThreshold;
+    this.collisionResolution = collisionResolution;
+    this.incrementalRehash = incrementalRehash;
+    this.powerOfTwoCapacity = powerOfTwoCapacity;
+    metrics = null;
+    oldHashTable = null;
+    migrationIndex = 0;
   }
 
   /**
-   * Method which transforms a key's hash code into an integer which is the index in the hash table
-   * where the key, value pair for the key will be stored.
+   * Method which transforms a key's hash code into an integer which is the index in a table of the
+   * given length where the key, value pair for the key will be stored. With power of two capacity,
+   * the mixed hash code is masked to the length instead of taking it modulo the length.
    * 
-   * @param the key of the node to be inserted
+   * @param key    the key of the node to be placed
+   * @param length the length of the table the index is for
    * @return the hash index for the given key
    */
-  private int hashFunction(K key) {
-    return Math.abs(key.hashCode()) % hashTable.length;
+  private int hashFunction(K key, int length) {
+    if (powerOfTwoCapacity) {
+      return mix(key.hashCode()) & (length - 1); // same as modulo when length is a power of two
+    }
+    // takes the remainder before the absolute value, as Math.abs(Integer.MIN_VALUE) is negative
+    return Math.abs(key.hashCode() % length);
+  }
+
+  /**
+   * Scrambles the bits of a hash code (the finalizer of MurmurHash3) so that every bit of the
+   * hash code affects the low bits used by a mask. Without it, sequential keys would fill
+   * neighbouring buckets and keys differing only in their high bits would all collide.
+   * 
+   * @param hash the hash code to be mixed
+   * @return the mixed hash code
+   */
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+    return hash;
   }
 
   /**
    * Method which expands the size of the hash table when the load factor reaches the load factor
    * threshold
+   * 
+   * @see HashTable#resize(int)
    */
   private void rehash() {
-    // creates reference for current hash table so it is not lost on resizing
-    LinkedList<HashTableNode>[] currentHashTable = hashTable;
-
-    // makes hashTable refer to a new array with double the capacity. Does so so hashFunction will
-    // work correctly (table size is correct) during rehashing
-    hashTable = (LinkedList<HashTableNode>[]) new LinkedList[currentHashTable.length * 2 + 1];
-
-    // loops through all buckets of the current hash table
-    for (int index = 0; index < currentHashTable.length; index++) {
-      if (currentHashTable[index] != null) { // makes sure that bucket is not null
-        for (int index2 = 0; index2 < currentHashTable[index].size(); index2++) {
-          // initializes linked list bucket where element will be rehashed to if it is not already
-          // initialized
-          if (hashTable[hashFunction(currentHashTable[index].get(index2).getKey())] == null) {
-            hashTable[hashFunction(currentHashTable[index].get(index2).getKey())] =
-                new LinkedList<HashTableNode>();
-          }
-
-          // rehashes element from current hash table to new hash table. Does not check
-          // for duplicates as that was done on insertion
-          hashTable[hashFunction(currentHashTable[index].get(index2).getKey())]
-              .push(currentHashTable[index].get(index2));
-        }
+    resize(nextCapacity(hashTable.length));
+  }
+
+  /**
+   * Returns the capacity the hash table grows to from the given capacity: double the capacity,
+   * plus one unless the capacity is kept a power of two
+   * 
+   * @param capacity the current capacity
+   * @return the capacity after the next rehash
+   */
+  private int nextCapacity(int capacity) {
+    return powerOfTwoCapacity ? capacity * 2 : capacity * 2 + 1;
+  }
+
+  /**
+   * Moves the hash table into a new array with the given capacity. Nodes are relinked into the new
+   * table rather than copied, and the hash index of each node is computed only once. With
+   * incremental rehashing, only the new array is created here and the buckets of the old array are
+   * migrated by later operations.
+   * 
+   * @param newCapacity the capacity of the new array
+   * @see HashTable#migrate(int)
+   */
+  private void resize(int newCapacity) {
+    long start = metrics == null ? 0 : System.nanoTime();
+
+    // finishes any incremental rehash still in progress so that only two arrays exist at once
+    if (oldHashTable != null) {
+      migrate(oldHashTable.length);
+    }
+
+    // keeps reference to current hash table so its buckets can be migrated
+    oldHashTable = hashTable;
+    migrationIndex = 0;
+
+    // makes hashTable refer to a new array with the new capacity
+    hashTable = (HashTableNode[]) new HashTable.HashTableNode[newCapacity];
+
+    if (!incrementalRehash) {
+      migrate(oldHashTable.length); // moves every bucket right away
+    }
+
+    if (metrics != null) {
+      metrics.recordRehash(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Migrates up to the given number of buckets of the old table into the new table, walking each
+   * chain once. Once every bucket has been migrated, the old table is released.
+   * 
+   * @param numBuckets the maximum number of old buckets to be migrated
+   */
+  private void migrate(int numBuckets) {
+    if (oldHashTable == null) {
+      return; // no rehash is in progress
+    }
+
+    int end = Math.min(oldHashTable.length, migrationIndex + numBuckets);
+    for (; migrationIndex < end; migrationIndex++) {
+      HashTableNode current = oldHashTable[migrationIndex];
+      oldHashTable[migrationIndex] = null; // the old bucket no longer holds these nodes
+      if (current instanceof HashTable.TreeBucket) {
+        relinkTree(((TreeBucket) current).root); // tree buckets are split up into chains
+        continue;
+      }
+      while (current != null) {
+        HashTableNode next = current.next; // saved since relinking overwrites current.next
+        relink(current);
+        current = next;
+      }
+    }
+
+    // releases the old table once every bucket has been migrated
+    if (migrationIndex == oldHashTable.length) {
+      oldHashTable = null;
+      migrationIndex = 0;
+    }
+  }
+
+  /**
+   * Returns the table whose bucket holds the given key. While an incremental rehash is in
+   * progress, keys whose old bucket has not been migrated yet are still in the old table.
+   * 
+   * @param key the key whose table is returned
+   * @return oldHashTable if the key's bucket has not been migrated yet, hashTable otherwise
+   */
+  private HashTableNode[] tableFor(K key) {
+    if (oldHashTable != null && hashFunction(key, oldHashTable.length) >= migrationIndex) {
+      return oldHashTable;
+    }
+    return hashTable;
+  }
+
+  /**
+   * Moves the given node into its bucket in the (new) hash table. Does not check for duplicates as
+   * that was done on insertion. If the bucket has become too long, it is converted into a tree.
+   * 
+   * @param node the node to be placed in the hash table
+   */
+  private void relink(HashTableNode node) {
+    int hashIndex = hashFunction(node.getKey(), hashTable.length);
+    if (hashTable[hashIndex] instanceof HashTable.TreeBucket) {
+      // a bucket of the new table may already have been converted into a tree
+      TreeBucket bucket = (TreeBucket) hashTable[hashIndex];
+      try {
+        bucket.root = treeInsert(bucket.root, node.getKey(), node.getValue());
+        bucket.size++;
+      } catch (DuplicateKeyException e) {
+        // impossible as keys were checked for duplicates on insertion
+      }
+      return;
+    }
+
+    node.next = hashTable[hashIndex];
+    hashTable[hashIndex] = node;
+    if (collisionResolution == 6 && chainLength(node) > TREEIFY_THRESHOLD) {
+      treeify(hashTable, hashIndex);
+    }
+  }
+
+  /**
+   * Recursive helper for rehash which relinks every node of a tree bucket into the chains of the
+   * new hash table. Child references are cleared so that the nodes act as plain chain nodes.
+   * 
+   * @param n the root of the subtree whose nodes are to be relinked
+   */
+  private void relinkTree(TreeNode n) {
+    if (n != null) {
+      TreeNode left = n.left;
+      TreeNode right = n.right;
+      n.left = null;
+      n.right = null;
+      relinkTree(left);
+      relink(n);
+      relinkTree(right);
+    }
+  }
+
+  /**
+   * Counts the nodes in a chain, stopping once the count passes TREEIFY_THRESHOLD since the exact
+   * length of a longer chain is not needed
+   * 
+   * @param head the first node of the chain
+   * @return the length of the chain, or TREEIFY_THRESHOLD + 1 if it is longer than the threshold
+   */
+  private int chainLength(HashTableNode head) {
+    int length = 0;
+    for (HashTableNode current = head; current != null && length <= TREEIFY_THRESHOLD;
+        current = current.next) {
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Converts the chain in the given bucket into a tree bucket
+   * 
+   * @param table     the table the bucket is in
+   * @param hashIndex the index of the bucket to be converted
+   */
+  private void treeify(HashTableNode[] table, int hashIndex) {
+    TreeBucket bucket = new TreeBucket();
+    for (HashTableNode current = table[hashIndex]; current != null; current = current.next) {
+      try {
+        bucket.root = treeInsert(bucket.root, current.getKey(), current.getValue());
+        bucket.size++;
+      } catch (DuplicateKeyException e) {
+        // impossible as keys in a chain were checked for duplicates on insertion
+      }
+    }
+    table[hashIndex] = bucket;
+  }
+
+  /**
+   * Converts the tree bucket at the given index back into a chain of linked nodes
+   * 
+   * @param table     the table the bucket is in
+   * @param hashIndex the index of the bucket to be converted
+   */
+  private void untreeify(HashTableNode[] table, int hashIndex) {
+    TreeBucket bucket = (TreeBucket) table[hashIndex];
+    table[hashIndex] = null;
+    untreeifyHelper(bucket.root, table, hashIndex);
+  }
+
+  /**
+   * Recursive helper for untreeify which adds a new chain node for every node in a subtree
+   * 
+   * @param n         the root of the subtree to be added to the chain
+   * @param table     the table the bucket is in
+   * @param hashIndex the index of the bucket the chain is in
+   */
+  private void untreeifyHelper(TreeNode n, HashTableNode[] table, int hashIndex) {
+    if (n != null) {
+      untreeifyHelper(n.left, table, hashIndex);
+      table[hashIndex] = new HashTableNode(n.getKey(), n.getValue(), table[hashIndex]);
+      untreeifyHelper(n.right, table, hashIndex);
+    }
+  }
+
+  /**
+   * Returns the height of a subtree in a tree bucket, 0 if the subtree is empty
+   * 
+   * @param n the root of the subtree
+   * @return the height of the subtree
+   */
+  private int height(TreeNode n) {
+    return n == null ? 0 : n.height;
+  }
+
+  /**
+   * Recomputes the height of the given node from the heights of its children
+   * 
+   * @param n the node whose height is updated
+   */
+  private void updateHeight(TreeNode n) {
+    n.height = 1 + Math.max(height(n.left), height(n.right));
+  }
+
+  /**
+   * Performs a right rotation on the given node and its left child
+   * 
+   * @param n the node which is too heavy on its left side
+   * @return the node that takes the place of the given node (its former left child)
+   */
+  private TreeNode rightRotate(TreeNode n) {
+    TreeNode p = n.left;
+    n.left = p.right;
+    p.right = n;
+    updateHeight(n);
+    updateHeight(p);
+    return p;
+  }
+
+  /**
+   * Performs a left rotation on the given node and its right child
+   * 
+   * @param n the node which is too heavy on its right side
+   * @return the node that takes the place of the given node (its former right child)
+   */
+  private TreeNode leftRotate(TreeNode n) {
+    TreeNode p = n.right;
+    n.right = p.left;
+    p.left = n;
+    updateHeight(n);
+    updateHeight(p);
+    return p;
+  }
+
+  /**
+   * Updates the height of the given node and performs whichever of the four AVL rotations is needed
+   * to bring its balance factor back between -1 and 1
+   * 
+   * @param n the root of the subtree to be rebalanced
+   * @return the root of the subtree after rebalancing
+   */
+  private TreeNode rebalance(TreeNode n) {
+    updateHeight(n);
+    int balanceFactor = height(n.left) - height(n.right);
+    if (balanceFactor > 1) {
+      if (height(n.left.left) < height(n.left.right)) { // left-right case
+        n.left = leftRotate(n.left);
+      }
+      return rightRotate(n);
+    } else if (balanceFactor < -1) {
+      if (height(n.right.right) < height(n.right.left)) { // right-left case
+        n.right = rightRotate(n.right);
+      }
+      return leftRotate(n);
+    }
+    return n;
+  }
+
+  /**
+   * Recursive helper which inserts a key value pair into a tree bucket
+   * 
+   * @param n     the root of the current subtree
+   * @param key   the key to be inserted
+   * @param value the value to be inserted
+   * @return the root of the subtree after insertion and rebalancing
+   * @throws DuplicateKeyException if the key is already in the tree
+   */
+  private TreeNode treeInsert(TreeNode n, K key, V value) throws DuplicateKeyException {
+    if (n == null) {
+      return new TreeNode(key, value);
+    }
+
+    int comparison = key.compareTo(n.getKey());
+    if (comparison == 0) {
+      throw new DuplicateKeyException();
+    } else if (comparison < 0) {
+      n.left = treeInsert(n.left, key, value);
+    } else {
+      n.right = treeInsert(n.right, key, value);
+    }
+    return rebalance(n);
+  }
+
+  /**
+   * Recursive helper which removes the node with the given key from a tree bucket. The key must be
+   * in the tree.
+   * 
+   * @param n   the root of the current subtree
+   * @param key the key to be removed
+   * @return the root of the subtree after removal and rebalancing
+   */
+  private TreeNode treeRemove(TreeNode n, K key) {
+    int comparison = key.compareTo(n.getKey());
+    if (comparison < 0) {
+      n.left = treeRemove(n.left, key);
+    } else if (comparison > 0) {
+      n.right = treeRemove(n.right, key);
+    } else {
+      if (n.left == null) {
+        return n.right;
+      } else if (n.right == null) {
+        return n.left;
       }
+
+      // replaces node with two children by its in order successor
+      TreeNode successor = n.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = treeRemove(n.right, successor.getKey());
+      successor.left = n.left;
+      n = successor;
     }
+    return rebalance(n);
+  }
+
+  /**
+   * Searches a tree bucket for the node with the given key
+   * 
+   * @param n   the root of the tree
+   * @param key the key to be searched for
+   * @return the node with the given key, or null if it is not in the tree
+   */
+  private TreeNode treeFind(TreeNode n, K key) {
+    treeProbes = 0;
+    while (n != null) {
+      treeProbes++;
+      int comparison = key.compareTo(n.getKey());
+      if (comparison == 0) {
+        return n;
+      }
+      n = comparison < 0 ? n.left : n.right;
+    }
+    return null;
   }
 
   /**
@@ -152,7 +655,7 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
    * @throws IllegalNullKeyException if given key is null
    * @throws DuplicateKeyException   if given key is already in hash table
    * @see HashTable#rehash()
-   * @see HashTable#hashFunction(Comparable)
+   * @see HashTable#hashFunction(Comparable, int)
    */
   @Override
   public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
@@ -160,6 +663,9 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
       throw new IllegalNullKeyException();
     }
 
+    // migrates part of the old table if an incremental rehash is in progress
+    migrate(MIGRATION_STEP);
+
     // checks if adding one more element to the hash table would reach the load factor threshold
     // if doing so does, the hash table is rehashed before inserting another element to save
     // operation time
@@ -168,23 +674,118 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
       rehash();
     }
 
-    // initializes bucket if it is not already initialized
-    int hashIndex = hashFunction(key);
-    if (hashTable[hashIndex] == null) {
-      hashTable[hashIndex] = new LinkedList<HashTableNode>();
+    insertIntoBucket(tableFor(key), key, value);
+  }
+
+  /**
+   * Inserts a new key, value pair into its bucket of the given table, without checking the load
+   * factor. Throws a DuplicateKeyException if a duplicate key exists in the bucket
+   * 
+   * @param table the table (hashTable, or oldHashTable during a rehash) whose bucket holds the key
+   * @param key   the key of the new element to be inserted into the hash table
+   * @param value the value of the new element to be inserted into the hash table
+   * @throws DuplicateKeyException if given key is already in the bucket
+   */
+  private void insertIntoBucket(HashTableNode[] table, K key, V value)
+      throws DuplicateKeyException {
+    // inserts into the tree if the bucket has been converted into one
+    int hashIndex = hashFunction(key, table.length);
+    if (table[hashIndex] instanceof HashTable.TreeBucket) {
+      TreeBucket bucket = (TreeBucket) table[hashIndex];
+      if (metrics != null) { // an insert compares about as many keys as the tree is high
+        metrics.recordOperation(HashTableMetrics.INSERT, height(bucket.root));
+      }
+      bucket.root = treeInsert(bucket.root, key, value);
+      bucket.size++;
+      currentNumberOfPairsInTable++;
+      return;
     }
 
-    // checks if the linked list the new element is going into already has an element with the same
-    // key
-    for (int index = 0; index < hashTable[hashIndex].size(); index++) {
-      if (hashTable[hashIndex].get(index).getKey().equals(key)) {
+    // checks if the chain the new element is going into already has an element with the same key
+    int chainLength = 0;
+    for (HashTableNode current = table[hashIndex]; current != null; current = current.next) {
+      if (current.getKey().equals(key)) {
+        if (metrics != null) {
+          metrics.recordOperation(HashTableMetrics.INSERT, chainLength + 1);
+        }
         throw new DuplicateKeyException();
       }
+      chainLength++;
+    }
+    if (metrics != null) {
+      metrics.recordOperation(HashTableMetrics.INSERT, chainLength);
     }
 
-    // inserts new element (key, value pair) at start of the list
-    hashTable[hashIndex].push(new HashTableNode(key, value));
+    // inserts new element (key, value pair) at start of the chain
+    table[hashIndex] = new HashTableNode(key, value, table[hashIndex]);
     currentNumberOfPairsInTable++;
+
+    // converts the chain into a tree if it has become too long
+    if (collisionResolution == 6 && chainLength + 1 > TREEIFY_THRESHOLD) {
+      treeify(table, hashIndex);
+    }
+  }
+
+  /**
+   * Inserts every given key, value pair into the hash table. The table is resized at most once, to
+   * the capacity repeated inserts would have grown it to, and the pairs are then placed into their
+   * buckets in one pass without any further load factor checks. A pair whose key is already in the
+   * table, or appears earlier in the given entries, is skipped rather than throwing a
+   * DuplicateKeyException, and its key is returned with the other skipped keys.
+   * 
+   * @param entries the key, value pairs to be inserted
+   * @return the keys of the pairs that were skipped as duplicates, in the order they were given
+   * @throws IllegalNullKeyException if any given key is null, in which case nothing is inserted
+   * @see HashTable#insert(Comparable, Object)
+   */
+  public List<K> putAll(Collection<? extends Map.Entry<? extends K, ? extends V>> entries)
+      throws IllegalNullKeyException {
+    for (Map.Entry<? extends K, ? extends V> entry : entries) {
+      if (entry.getKey() == null) { // checks every key first so a null key inserts nothing
+        throw new IllegalNullKeyException();
+      }
+    }
+
+    // grows the table once to the capacity that inserting every pair would have reached, and
+    // finishes any incremental rehash so that every bucket is in hashTable
+    int capacity = hashTable.length;
+    while (((double) currentNumberOfPairsInTable + entries.size())
+        / ((double) capacity) >= loadFactorThreshold) {
+      capacity = nextCapacity(capacity);
+    }
+    if (capacity > hashTable.length) {
+      resize(capacity);
+    }
+    migrate(oldHashTable == null ? 0 : oldHashTable.length);
+
+    List<K> duplicates = new ArrayList<K>();
+    for (Map.Entry<? extends K, ? extends V> entry : entries) {
+      try {
+        insertIntoBucket(hashTable, entry.getKey(), entry.getValue());
+      } catch (DuplicateKeyException e) {
+        duplicates.add(entry.getKey()); // reported together once every pair has been inserted
+      }
+    }
+    return duplicates;
+  }
+
+  /**
+   * Creates a hash table with the default load factor threshold holding the given key, value
+   * pairs, sized once for all of them. If a key appears more than once, its first pair is kept.
+   * 
+   * @param <K>     The key type of the hash table
+   * @param <V>     The value the hash table stores
+   * @param entries the key, value pairs to be inserted
+   * @return a new hash table holding the given pairs
+   * @throws IllegalNullKeyException if any given key is null
+   * @see HashTable#putAll(Collection)
+   */
+  public static <K extends Comparable<K>, V> HashTable<K, V> fromEntries(
+      Collection<? extends Map.Entry<? extends K, ? extends V>> entries)
+      throws IllegalNullKeyException {
+    HashTable<K, V> table = new HashTable<K, V>();
+    table.putAll(entries);
+    return table;
   }
 
   /**
@@ -195,7 +796,7 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
    * @param key the key to be removed from the hash table
    * @return true if the key exists in the hash table and is removed successfully, false if not
    * @throws IllegalNullKeyException if the given key is null
-   * @see HashTable#hashFunction(Comparable)
+   * @see HashTable#tableFor(Comparable)
    */
   @Override
   public boolean remove(K key) throws IllegalNullKeyException {
@@ -203,22 +804,57 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
       throw new IllegalNullKeyException();
     }
 
-    // checks if the bucket where the key should be is initialized. If not, key is not in hash table
-    int hashIndex = hashFunction(key);
-    if (hashTable[hashIndex] == null) {
-      return false; //
+    // migrates part of the old table if an incremental rehash is in progress
+    migrate(MIGRATION_STEP);
+
+    // removes from the tree if the bucket has been converted into one
+    HashTableNode[] table = tableFor(key);
+    int hashIndex = hashFunction(key, table.length);
+    if (table[hashIndex] instanceof HashTable.TreeBucket) {
+      TreeBucket bucket = (TreeBucket) table[hashIndex];
+      TreeNode node = treeFind(bucket.root, key);
+      if (metrics != null) {
+        metrics.recordOperation(HashTableMetrics.REMOVE, treeProbes);
+      }
+      if (node == null) {
+        return false;
+      }
+      bucket.root = treeRemove(bucket.root, key);
+      bucket.size--;
+      currentNumberOfPairsInTable--;
+
+      // converts the tree back into a chain once it is small enough
+      if (bucket.size <= UNTREEIFY_THRESHOLD) {
+        untreeify(table, hashIndex);
+      }
+      return true;
     }
 
-    // searches through the list where the node with the given key should be based on the hash
-    // function
-    for (int index = 0; index < hashTable[hashIndex].size(); index++) {
-      if (hashTable[hashIndex].get(index).getKey().equals(key)) {
-        hashTable[hashIndex].remove(index); // removes the node with the given key from the list
+    // searches through the chain where the node with the given key should be based on the hash
+    // function, keeping track of the previous node so the node can be unlinked
+    HashTableNode previous = null;
+    int probes = 0;
+    for (HashTableNode current = table[hashIndex]; current != null; current = current.next) {
+      probes++;
+      if (current.getKey().equals(key)) {
+        if (metrics != null) {
+          metrics.recordOperation(HashTableMetrics.REMOVE, probes);
+        }
+        // removes the node with the given key from the chain
+        if (previous == null) {
+          table[hashIndex] = current.next;
+        } else {
+          previous.next = current.next;
+        }
         currentNumberOfPairsInTable--;
         return true;
       }
+      previous = current;
     }
-    return false; // returns false if none of the nodes in the list have the given key
+    if (metrics != null) {
+      metrics.recordOperation(HashTableMetrics.REMOVE, probes);
+    }
+    return false; // returns false if none of the nodes in the chain have the given key
   }
 
   /**
@@ -229,7 +865,7 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
    * @return the value for the given key in the hash table
    * @throws IllegalNullKeyException if the given key is null
    * @throws KeyNotFoundException    if the given key is not in the hash table
-   * @see HashTable#hashFunction(Comparable)
+   * @see HashTable#tableFor(Comparable)
    */
   @Override
   public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
@@ -237,25 +873,118 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
       throw new IllegalNullKeyException();
     }
 
-    // checks if the bucket where the key should be is initialized. If not, key is not in hash table
-    int hashIndex = hashFunction(key);
-    if (hashTable[hashIndex] == null) {
-      // throws exception since key is not in hash table if bucket is not initialized
-      throw new KeyNotFoundException();
+    // migrates part of the old table if an incremental rehash is in progress
+    migrate(MIGRATION_STEP);
+
+    // searches the tree if the bucket has been converted into one
+    HashTableNode[] table = tableFor(key);
+    int hashIndex = hashFunction(key, table.length);
+    if (table[hashIndex] instanceof HashTable.TreeBucket) {
+      TreeNode node = treeFind(((TreeBucket) table[hashIndex]).root, key);
+      if (metrics != null) {
+        metrics.recordOperation(HashTableMetrics.GET, treeProbes);
+      }
+      if (node == null) {
+        throw new KeyNotFoundException();
+      }
+      return node.getValue();
     }
 
-    // searches through the list where the node with the given key should be based on the hash
-    // function
-    for (int index = 0; index < hashTable[hashIndex].size(); index++) {
-      if (hashTable[hashIndex].get(index).getKey().equals(key)) {
-        return hashTable[hashIndex].get(index).getValue();
+    // searches through the chain where the node with the given key should be based on the hash
+    // function. An empty bucket is a null chain, so the loop does not run
+    int probes = 0;
+    for (HashTableNode current = table[hashIndex]; current != null; current = current.next) {
+      probes++;
+      if (current.getKey().equals(key)) {
+        if (metrics != null) {
+          metrics.recordOperation(HashTableMetrics.GET, probes);
+        }
+        return current.getValue();
       }
     }
+    if (metrics != null) {
+      metrics.recordOperation(HashTableMetrics.GET, probes);
+    }
 
-    // throws KeyNotFoundException if node with given key was not in list
+    // throws KeyNotFoundException if node with given key was not in chain
     throw new KeyNotFoundException();
   }
 
+  /**
+   * Starts recording metrics about this hash table, if they are not already being recorded, and
+   * returns them. The metrics are updated by every later operation.
+   * 
+   * @return the metrics of this hash table
+   * @see HashTableMetrics
+   */
+  public HashTableMetrics enableMetrics() {
+    if (metrics == null) {
+      metrics = new HashTableMetrics(this);
+    }
+    return metrics;
+  }
+
+  /**
+   * Returns the metrics of this hash table, or null if enableMetrics has not been called
+   * 
+   * @return the metrics of this hash table, or null if they are not being recorded
+   */
+  public HashTableMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Counts the buckets of the hash table by the number of keys they hold. While an incremental
+   * rehash is in progress, the buckets of the old table not yet migrated are counted as well.
+   * 
+   * This is called by HashTableMetrics, which may be read over JMX from another thread while the
+   * table is being changed, so the counts are only best-effort: a bucket changed during the count
+   * may be counted before or after the change. Each table, index, and bucket is read once into a
+   * local, so a rehash or a bucket becoming a tree in the meantime cannot cause an exception, and
+   * a chain is only followed up to maxLength keys, so the count always ends
+   * 
+   * @param maxLength the length from which buckets are counted together
+   * @return an array whose entry i is the number of buckets holding i keys, and whose last entry
+   *         (maxLength) is the number of buckets holding maxLength or more keys
+   */
+  long[] chainLengthHistogram(int maxLength) {
+    long[] histogram = new long[maxLength + 1];
+    HashTableNode[] table = hashTable;
+    HashTableNode[] oldTable = oldHashTable; // read once, as a migration may finish at any time
+    int oldStart = migrationIndex;
+    countChainLengths(table, 0, histogram);
+    if (oldTable != null) {
+      countChainLengths(oldTable, oldStart, histogram);
+    }
+    return histogram;
+  }
+
+  /**
+   * Helper for chainLengthHistogram which adds the lengths of the buckets of the given table,
+   * from the given index on, to the histogram. Chains of the last histogram entry's length or
+   * longer are not followed any further
+   * 
+   * @param table     the table whose buckets are counted
+   * @param start     the index of the first bucket to be counted
+   * @param histogram the histogram the buckets are added to
+   */
+  private void countChainLengths(HashTableNode[] table, int start, long[] histogram) {
+    int maxLength = histogram.length - 1;
+    for (int index = start; index < table.length; index++) {
+      HashTableNode bucket = table[index]; // read once, as the bucket may be replaced at any time
+      int length = 0;
+      if (bucket instanceof HashTable.TreeBucket) {
+        length = ((TreeBucket) bucket).size;
+      } else {
+        for (HashTableNode current = bucket; current != null && length < maxLength;
+            current = current.next) {
+          length++;
+        }
+      }
+      histogram[Math.min(length, maxLength)]++;
+    }
+  }
+
   /**
    * Returns the number of keys (key value pairs in this case) stored in the hash table
    * 
@@ -288,6 +1017,20 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
     return ((double) currentNumberOfPairsInTable) / ((double) hashTable.length);
   }
 
+  /**
+   * Returns the fraction of the old table's buckets which have been migrated into the new table by
+   * an incremental rehash, or 1.0 if no rehash is in progress
+   * 
+   * @return the progress of the current incremental rehash, between 0.0 and 1.0
+   */
+  @Override
+  public double getRehashProgress() {
+    if (oldHashTable == null) {
+      return 1.0;
+    }
+    return ((double) migrationIndex) / ((double) oldHashTable.length);
+  }
+
   /**
    * Returns the capacity of the hash table (the hash table's size)
    * 
@@ -301,10 +1044,11 @@ public class HashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>
   /**
    * Method which returns an integer code corresponding to the collision resolution method used.
    * 
-   * @return 5 because this implementation of a hash table uses an array of linked lists
+   * @return 5 if this hash table uses an array of linked nodes, or 6 if it converts long chains
+   *         into search trees
    */
   @Override
   public int getCollisionResolution() {
-    return 5;
+    return collisionResolution;
   }
 }
@@ -0,0 +1,252 @@
+// Title: HashTableMetrics
+// Files: HashTable, HashTableMetricsMBean, AtomicLongArray
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing how a HashTable performs: how many keys each get, insert, and remove
+ * compares (probes), how often and for how long the table rehashes, how its load factor changes
+ * over time, and how long its chains are. A HashTable only records metrics after
+ * HashTable.enableMetrics is called, so a table without metrics pays one null check per operation.
+ * 
+ * Metrics are only recorded by the thread using the table, but may be read over JMX from any
+ * thread. Every counter is an AtomicLongArray entry or a volatile field, so a reader never sees a
+ * torn or stale long, but values read together may come from slightly different moments, and
+ * operations recorded while reset() runs on another thread may be kept.
+ * 
+ * @author Michael Goldstein
+ * @see HashTable#enableMetrics()
+ */
+public class HashTableMetrics implements HashTableMetricsMBean {
+  // indexes of the operations in the per operation arrays
+  static final int GET = 0;
+  static final int INSERT = 1;
+  static final int REMOVE = 2;
+
+  static final int SAMPLE_INTERVAL = 1024; // operations between load factor samples
+  private static final int HISTORY_SIZE = 256; // the number of load factor samples kept
+  private static final int MAX_CHAIN_LENGTH = 16; // longer chains share the last histogram entry
+
+  // instance variables for HashTableMetrics
+  private HashTable<?, ?> table; // the table whose metrics are recorded
+  private final AtomicLongArray counts; // the number of each operation
+  private final AtomicLongArray probes; // the total number of keys compared by each operation
+  private final AtomicLongArray maxProbes; // the most keys compared by one call of each operation
+  private long operations; // the number of operations since the last load factor sample
+  private volatile long rehashCount; // the number of rehashes
+  private volatile long totalRehashNanos; // the total duration of every rehash
+  private volatile long lastRehashNanos; // the duration of the last rehash
+  private volatile long maxRehashNanos; // the duration of the longest rehash
+  private final double[] loadFactorHistory; // the sampled load factors, used as a ring buffer
+  private volatile int numSamples; // the number of samples taken, the last HISTORY_SIZE are kept
+
+  /**
+   * Constructor for HashTableMetrics. Only called by HashTable.enableMetrics
+   * 
+   * @param table the table whose metrics are recorded
+   */
+  HashTableMetrics(HashTable<?, ?> table) {
+    this.table = table;
+    counts = new AtomicLongArray(3);
+    probes = new AtomicLongArray(3);
+    maxProbes = new AtomicLongArray(3);
+    loadFactorHistory = new double[HISTORY_SIZE];
+    reset();
+  }
+
+  /**
+   * Records one call of an operation. Only the thread using the table records operations, so each
+   * counter is updated with lazySet instead of an atomic add, which keeps the cost of recording low
+   * 
+   * @param operation  GET, INSERT, or REMOVE
+   * @param keysProbed the number of keys the operation compared
+   */
+  void recordOperation(int operation, int keysProbed) {
+    counts.lazySet(operation, counts.get(operation) + 1);
+    probes.lazySet(operation, probes.get(operation) + keysProbed);
+    if (keysProbed > maxProbes.get(operation)) {
+      maxProbes.lazySet(operation, keysProbed);
+    }
+    if (++operations == SAMPLE_INTERVAL) {
+      operations = 0;
+      sampleLoadFactor();
+    }
+  }
+
+  /**
+   * Records one rehash
+   * 
+   * @param nanos the duration of the rehash in nanoseconds
+   */
+  void recordRehash(long nanos) {
+    rehashCount++;
+    totalRehashNanos += nanos;
+    lastRehashNanos = nanos;
+    maxRehashNanos = Math.max(maxRehashNanos, nanos);
+    sampleLoadFactor();
+  }
+
+  /**
+   * Adds the current load factor of the table to the load factor history
+   */
+  private void sampleLoadFactor() {
+    // writes the sample before numSamples, so that a reader which sees the new count sees it too
+    loadFactorHistory[numSamples % HISTORY_SIZE] = table.getLoadFactor();
+    numSamples = numSamples + 1;
+  }
+
+  /**
+   * Registers these metrics with the platform MBean server, so they can be read over JMX under
+   * the name "HashTable:type=HashTableMetrics,name=" followed by the given name
+   * 
+   * @param name the name which identifies the table
+   * @throws JMException if the name is invalid or already registered
+   */
+  public void registerMBean(String name) throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+        new ObjectName("HashTable:type=HashTableMetrics,name=" + name));
+  }
+
+  /**
+   * Returns the average of a total over a count, or 0 if the count is 0
+   * 
+   * @param total the total
+   * @param count the count
+   * @return the average
+   */
+  private static double average(long total, long count) {
+    return count == 0 ? 0 : ((double) total) / ((double) count);
+  }
+
+  @Override
+  public long getGetCount() {
+    return counts.get(GET);
+  }
+
+  @Override
+  public double getAverageGetProbes() {
+    return average(probes.get(GET), counts.get(GET));
+  }
+
+  @Override
+  public long getMaxGetProbes() {
+    return maxProbes.get(GET);
+  }
+
+  @Override
+  public long getInsertCount() {
+    return counts.get(INSERT);
+  }
+
+  @Override
+  public double getAverageInsertProbes() {
+    return average(probes.get(INSERT), counts.get(INSERT));
+  }
+
+  @Override
+  public long getMaxInsertProbes() {
+    return maxProbes.get(INSERT);
+  }
+
+  @Override
+  public long getRemoveCount() {
+    return counts.get(REMOVE);
+  }
+
+  @Override
+  public double getAverageRemoveProbes() {
+    return average(probes.get(REMOVE), counts.get(REMOVE));
+  }
+
+  @Override
+  public long getMaxRemoveProbes() {
+    return maxProbes.get(REMOVE);
+  }
+
+  @Override
+  public long getRehashCount() {
+    return rehashCount;
+  }
+
+  @Override
+  public double getTotalRehashMillis() {
+    return totalRehashNanos / 1e6;
+  }
+
+  @Override
+  public double getLastRehashMillis() {
+    return lastRehashNanos / 1e6;
+  }
+
+  @Override
+  public double getMaxRehashMillis() {
+    return maxRehashNanos / 1e6;
+  }
+
+  @Override
+  public double getLoadFactor() {
+    return table.getLoadFactor();
+  }
+
+  @Override
+  public double[] getLoadFactorHistory() {
+    int samples = numSamples; // read once, as a sample may be taken at any time
+    int kept = Math.min(samples, HISTORY_SIZE);
+    double[] history = new double[kept];
+    for (int index = 0; index < kept; index++) {
+      history[index] = loadFactorHistory[(samples - kept + index) % HISTORY_SIZE];
+    }
+    return history;
+  }
+
+  @Override
+  public long[] getChainLengthHistogram() {
+    return table.chainLengthHistogram(MAX_CHAIN_LENGTH);
+  }
+
+  @Override
+  public void reset() {
+    for (int operation = GET; operation <= REMOVE; operation++) {
+      counts.set(operation, 0);
+      probes.set(operation, 0);
+      maxProbes.set(operation, 0);
+    }
+    operations = 0;
+    rehashCount = 0;
+    totalRehashNanos = 0;
+    lastRehashNanos = 0;
+    maxRehashNanos = 0;
+    Arrays.fill(loadFactorHistory, 0);
+    numSamples = 0;
+  }
+
+  /**
+   * Returns a summary of the metrics, one per line
+   * 
+   * @return a summary of the metrics
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "get:    %d calls, %.2f keys compared on average, %d at most%n"
+            + "insert: %d calls, %.2f keys compared on average, %d at most%n"
+            + "remove: %d calls, %.2f keys compared on average, %d at most%n"
+            + "rehash: %d rehashes, %.1f ms in total, %.1f ms at most%n"
+            + "load factor: %.3f now%n" + "chain lengths (0, 1, 2, ...): %s",
+        getGetCount(), getAverageGetProbes(), getMaxGetProbes(), getInsertCount(),
+        getAverageInsertProbes(), getMaxInsertProbes(), getRemoveCount(),
+        getAverageRemoveProbes(), getMaxRemoveProbes(), getRehashCount(), getTotalRehashMillis(),
+        getMaxRehashMillis(), getLoadFactor(),
+        Arrays.toString(getChainLengthHistogram()));
+  }
+}
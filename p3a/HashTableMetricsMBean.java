@@ -0,0 +1,61 @@
+// Title: HashTableMetricsMBean
+// Files: HashTableMetrics
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+/**
+ * The attributes of HashTableMetrics which can be read over JMX, for example with jconsole or Java
+ * Mission Control. JMX requires this interface to be named after the class with MBean appended.
+ * 
+ * @author Michael Goldstein
+ * @see HashTableMetrics
+ */
+public interface HashTableMetricsMBean {
+
+  // the number of calls to get, and the average and largest number of keys compared by one
+  public long getGetCount();
+
+  public double getAverageGetProbes();
+
+  public long getMaxGetProbes();
+
+  // the number of calls to insert, and the average and largest number of keys compared by one
+  public long getInsertCount();
+
+  public double getAverageInsertProbes();
+
+  public long getMaxInsertProbes();
+
+  // the number of calls to remove, and the average and largest number of keys compared by one
+  public long getRemoveCount();
+
+  public double getAverageRemoveProbes();
+
+  public long getMaxRemoveProbes();
+
+  // the number of rehashes, and their total, last, and longest duration in milliseconds
+  public long getRehashCount();
+
+  public double getTotalRehashMillis();
+
+  public double getLastRehashMillis();
+
+  public double getMaxRehashMillis();
+
+  // the current load factor, and the load factor sampled every SAMPLE_INTERVAL operations and
+  // after every rehash, oldest first
+  public double getLoadFactor();
+
+  public double[] getLoadFactorHistory();
+
+  // the number of buckets holding 0, 1, 2, ... keys. The last entry counts every longer bucket.
+  // Buckets are counted while the table may still be changing, so this is only best-effort
+  public long[] getChainLengthHistogram();
+
+  // sets every count back to zero and clears the load factor history
+  public void reset();
+}
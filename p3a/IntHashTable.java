@@ -0,0 +1,345 @@
+// Title: IntHashTable
+// Files: HashTableADT, DataStructureADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+/**
+ * A hash table specialized for int keys and int values. Keys and values are stored unboxed in
+ * parallel primitive arrays, so no node, bucket, or wrapper object is allocated per entry. Which
+ * slots hold a pair is kept in a bitmap of one bit per slot, packed 64 slots to a long, so each
+ * slot takes 8 bytes for its key and value plus one bit.
+ * 
+ * @author Michael Goldstein
+ * @see HashTable
+ */
+
+// The hash function mixes the bits of the key and takes it modulo table size
+// Collisions are handled with open addressing (linear probing). Removal uses backward shift
+// deletion, so no tombstones are left in the table
+
+public class IntHashTable implements HashTableADT<Integer, Integer> {
+  // instance variables for IntHashTable
+  private int currentNumberOfPairsInTable; // the current number of key value pairs in the table
+  private double loadFactorThreshold; // the load factor at which the hash table will expand
+  private int[] keys; // the keys stored in the table, indexed by slot
+  private int[] values; // the values stored in the table, parallel to keys
+  private long[] occupied; // bitmap with bit (slot % 64) of long (slot / 64) set if slot is in use
+
+  /**
+   * The default constructor. Initializes instance variables by calling constructor with parameters.
+   * Uses an initial capacity of 50 and a load factor threshold of 0.75
+   * 
+   * @see IntHashTable#IntHashTable(int, double)
+   */
+  public IntHashTable() {
+    // calls other constructor with initial capacity of 50 and load factor threshold of 0.75
+    this(50, 0.75);
+  }
+
+  /**
+   * Constructor which has initial capacity and load factor threshold as parameters. It initializes
+   * all instance variables and is called by the default constructor
+   * 
+   * @param initialCapacity     the initial maximum capacity of the hash table
+   * @param loadFactorThreshold the the load factor at which the hash table will expand (resize and
+   *                            rehash)
+   */
+  public IntHashTable(int initialCapacity, double loadFactorThreshold) {
+    keys = new int[initialCapacity];
+    values = new int[initialCapacity];
+    occupied = new long[(initialCapacity + 63) >>> 6];
+
+    // initializes current size (the number of pairs in table) and the load factor threshold
+    currentNumberOfPairsInTable = 0;
+    this.loadFactorThreshold = loadFactorThreshold;
+  }
+
+  /**
+   * Method which transforms a key into the index of the slot where probing for that key starts. The
+   * bits of the key are mixed first so that sequential keys do not fill one contiguous run of slots
+   * 
+   * @param key the key whose home slot is computed
+   * @param length the length of the table the index is for
+   * @return the home slot index for the given key
+   */
+  private static int hashFunction(int key, int length) {
+    int hash = key * 0x9E3779B9; // multiplicative (Fibonacci) hashing
+    hash ^= hash >>> 16;
+    // masks off the sign bit rather than using Math.abs, which is negative for Integer.MIN_VALUE
+    return (hash & 0x7FFFFFFF) % length;
+  }
+
+  /**
+   * Returns whether the given slot holds a key value pair
+   * 
+   * @param slot the index of the slot
+   * @return true if the slot is in use, false if it is empty
+   */
+  private boolean isOccupied(int slot) {
+    return (occupied[slot >>> 6] & (1L << slot)) != 0; // shifts of a long only use the low 6 bits
+  }
+
+  /**
+   * Marks the given slot as holding a key value pair
+   * 
+   * @param slot the index of the slot
+   */
+  private void setOccupied(int slot) {
+    occupied[slot >>> 6] |= 1L << slot;
+  }
+
+  /**
+   * Marks the given slot as empty
+   * 
+   * @param slot the index of the slot
+   */
+  private void clearOccupied(int slot) {
+    occupied[slot >>> 6] &= ~(1L << slot);
+  }
+
+  /**
+   * Returns the slot holding the given key, or the empty slot where probing for the key stopped if
+   * the key is not in the table. There is always at least one empty slot, so probing terminates.
+   * 
+   * @param key the key to be searched for
+   * @return the index of the slot holding the key, or of the first empty slot in its probe sequence
+   */
+  private int findSlot(int key) {
+    int slot = hashFunction(key, keys.length);
+    while (isOccupied(slot) && keys[slot] != key) {
+      slot++;
+      if (slot == keys.length) { // wraps around to the start of the table
+        slot = 0;
+      }
+    }
+    return slot;
+  }
+
+  /**
+   * Method which expands the size of the hash table when the load factor reaches the load factor
+   * threshold
+   */
+  private void rehash() {
+    // creates references for the current arrays so they are not lost on resizing
+    int[] currentKeys = keys;
+    int[] currentValues = values;
+    long[] currentOccupied = occupied;
+
+    // makes the arrays refer to new arrays with double the capacity, as required by HashTableADT
+    int newCapacity = currentKeys.length * 2 + 1;
+    keys = new int[newCapacity];
+    values = new int[newCapacity];
+    occupied = new long[(newCapacity + 63) >>> 6];
+
+    // moves every pair into the new arrays. Does not check for duplicates as that was done on
+    // insertion
+    for (int index = 0; index < currentKeys.length; index++) {
+      if ((currentOccupied[index >>> 6] & (1L << index)) != 0) {
+        int slot = findSlot(currentKeys[index]);
+        keys[slot] = currentKeys[index];
+        values[slot] = currentValues[index];
+        setOccupied(slot);
+      }
+    }
+  }
+
+  /**
+   * Inserts a new key, value pair in the hash table, calls for a rehash of the table if necessary,
+   * throws an IllegalNullKey exception if the given key is null, throws a DuplicateKeyException if
+   * a duplicate key exists in the hash table
+   * 
+   * @param key   the key of the new element to be inserted into the hash table
+   * @param value the value of the new element to be inserted into the hash table
+   * @throws IllegalNullKeyException if given key or value is null, as neither can be stored
+   *                                 unboxed
+   * @throws DuplicateKeyException   if given key is already in hash table
+   * @see IntHashTable#insert(int, int)
+   */
+  @Override
+  public void insert(Integer key, Integer value)
+      throws IllegalNullKeyException, DuplicateKeyException {
+    if (key == null || value == null) { // null has no primitive representation
+      throw new IllegalNullKeyException();
+    }
+    insert(key.intValue(), value.intValue());
+  }
+
+  /**
+   * Inserts a new key, value pair in the hash table without boxing either of them. Calls for a
+   * rehash of the table if necessary and throws a DuplicateKeyException if a duplicate key exists
+   * in the hash table
+   * 
+   * @param key   the key of the new element to be inserted into the hash table
+   * @param value the value of the new element to be inserted into the hash table
+   * @throws DuplicateKeyException if given key is already in hash table
+   * @see IntHashTable#rehash()
+   */
+  public void insert(int key, int value) throws DuplicateKeyException {
+    // checks if adding one more element to the hash table would reach the load factor threshold.
+    // Also rehashes if the table would otherwise become full, since linear probing needs at least
+    // one empty slot to terminate
+    if (((double) currentNumberOfPairsInTable + 1)
+        / ((double) keys.length) >= loadFactorThreshold
+        || currentNumberOfPairsInTable + 1 >= keys.length) {
+      rehash();
+    }
+
+    int slot = findSlot(key);
+    if (isOccupied(slot)) { // the probe stopped on the key itself, so it is already in the table
+      throw new DuplicateKeyException();
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    setOccupied(slot);
+    currentNumberOfPairsInTable++;
+  }
+
+  /**
+   * Removes a key value pair from the hash table with the given key. Returns true if a pair with
+   * the given key is removed, false if the key is not in the hash table and therefore cannot be
+   * removed.
+   * 
+   * @param key the key to be removed from the hash table
+   * @return true if the key exists in the hash table and is removed successfully, false if not
+   * @throws IllegalNullKeyException if the given key is null
+   * @see IntHashTable#remove(int)
+   */
+  @Override
+  public boolean remove(Integer key) throws IllegalNullKeyException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+    return remove(key.intValue());
+  }
+
+  /**
+   * Removes the key value pair with the given key without boxing the key. Entries later in the
+   * same probe run are shifted back into the freed slot so that lookups never stop early.
+   * 
+   * @param key the key to be removed from the hash table
+   * @return true if the key exists in the hash table and is removed successfully, false if not
+   */
+  public boolean remove(int key) {
+    int slot = findSlot(key);
+    if (!isOccupied(slot)) {
+      return false; // probing reached an empty slot, so key is not in the table
+    }
+
+    // backward shift deletion: walks the run after the freed slot and moves back any entry whose
+    // home slot is not cyclically between the freed slot and its current slot
+    int freeSlot = slot;
+    int current = slot;
+    while (true) {
+      current++;
+      if (current == keys.length) {
+        current = 0;
+      }
+      if (!isOccupied(current)) {
+        break; // end of the run, nothing further can depend on the freed slot
+      }
+
+      int home = hashFunction(keys[current], keys.length);
+      boolean homeInRange = (freeSlot <= current) ? (freeSlot < home && home <= current)
+          : (freeSlot < home || home <= current);
+      if (!homeInRange) {
+        keys[freeSlot] = keys[current];
+        values[freeSlot] = values[current];
+        freeSlot = current;
+      }
+    }
+    clearOccupied(freeSlot);
+    currentNumberOfPairsInTable--;
+    return true;
+  }
+
+  /**
+   * Returns the value for the given key in the hash table. Throws an IllegalNullKeyException if the
+   * given key is null. Throws KeyNotFoundException if key is not in the hash table
+   * 
+   * @param key the key whose value in the hash table is returned
+   * @return the value for the given key in the hash table
+   * @throws IllegalNullKeyException if the given key is null
+   * @throws KeyNotFoundException    if the given key is not in the hash table
+   * @see IntHashTable#get(int)
+   */
+  @Override
+  public Integer get(Integer key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+    return get(key.intValue());
+  }
+
+  /**
+   * Returns the value for the given key without boxing the key or the value. Throws
+   * KeyNotFoundException if key is not in the hash table
+   * 
+   * @param key the key whose value in the hash table is returned
+   * @return the value for the given key in the hash table
+   * @throws KeyNotFoundException if the given key is not in the hash table
+   */
+  public int get(int key) throws KeyNotFoundException {
+    int slot = findSlot(key);
+    if (!isOccupied(slot)) {
+      throw new KeyNotFoundException();
+    }
+    return values[slot];
+  }
+
+  /**
+   * Returns the number of keys (key value pairs in this case) stored in the hash table
+   * 
+   * @return the number of keys (key value pairs in this case) stored in the hash table
+   */
+  @Override
+  public int numKeys() {
+    return currentNumberOfPairsInTable;
+  }
+
+  /**
+   * Returns the load factor threshold of the hash table
+   * 
+   * @return the load factor threshold of the hash table
+   */
+  @Override
+  public double getLoadFactorThreshold() {
+    return loadFactorThreshold;
+  }
+
+  /**
+   * Returns the current load factor of the hash table (the number of pairs in the table divided by
+   * the size of the table)
+   * 
+   * @return the current load factor of the hash table
+   */
+  @Override
+  public double getLoadFactor() {
+    // casts division to doubles as otherwise an integer result, 0 or 1, would be returned
+    return ((double) currentNumberOfPairsInTable) / ((double) keys.length);
+  }
+
+  /**
+   * Returns the capacity of the hash table (the hash table's size)
+   * 
+   * @return the capacity of the hash table
+   */
+  @Override
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  /**
+   * Method which returns an integer code corresponding to the collision resolution method used.
+   * 
+   * @return 1 because this implementation of a hash table uses open addressing with a linear probe
+   */
+  @Override
+  public int getCollisionResolution() {
+    return 1;
+  }
+}
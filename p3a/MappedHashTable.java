@@ -0,0 +1,545 @@
+// Title: MappedHashTable
+// Files: HashTableADT, DataStructureADT, Serializer
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A hash table stored in a memory mapped file instead of on the Java heap. Keys and values are
+ * serialized into fixed width slots of the file, so the table can hold more pairs than fit in the
+ * heap, adds no objects per pair for the garbage collector to trace, and can be closed and reopened
+ * from its file without reloading.
+ * 
+ * @author Michael Goldstein
+ * @see HashTable
+ * @see Serializer
+ * 
+ * @param <K> The key type of the hash table
+ * @param <V> The value the hash table stores
+ */
+
+// The hash function mixes the serialized bytes of the key and takes it modulo table size, so a
+// key hashes the same in every JVM which reopens the file
+// Collisions are handled with open addressing (linear probing). Removal uses backward shift
+// deletion, so no tombstones are left in the table
+//
+// File layout: a HEADER_SIZE byte header, then capacity slots. Each slot is one status byte
+// followed by the key's bytes and the value's bytes. A MappedByteBuffer can hold at most 2GB, so
+// the slots are mapped as several segments of at most MAX_SEGMENT_SIZE bytes
+
+public class MappedHashTable<K extends Comparable<K>, V> implements HashTableADT<K, V>, Closeable {
+  private static final int MAGIC = 0x4854424C; // identifies a file written by MappedHashTable
+  private static final int HEADER_SIZE = 32; // the number of bytes before the first slot
+  // offsets of the fields of the header
+  private static final int MAGIC_OFFSET = 0;
+  private static final int KEY_WIDTH_OFFSET = 4;
+  private static final int VALUE_WIDTH_OFFSET = 8;
+  private static final int CAPACITY_OFFSET = 12;
+  private static final int NUM_KEYS_OFFSET = 16;
+  private static final int LOAD_FACTOR_THRESHOLD_OFFSET = 24;
+
+  private static final int MAX_SEGMENT_SIZE = 1 << 30; // the most bytes mapped by one buffer
+  private static final byte EMPTY = 0; // status byte of a slot holding no pair
+  private static final byte FULL = 1; // status byte of a slot holding a pair
+
+  // instance variables for MappedHashTable
+  private Path file; // the file the table is stored in
+  private Serializer<K> keySerializer; // converts keys to and from bytes
+  private Serializer<V> valueSerializer; // converts values to and from bytes
+  private int keyWidth; // the number of bytes of a serialized key
+  private int slotWidth; // the number of bytes of a slot: status, key, and value
+  private FileChannel channel; // the open file
+  private MappedByteBuffer header; // the mapped header of the file
+  private MappedByteBuffer[] segments; // the mapped slots of the file
+  private int slotsPerSegment; // the number of slots in each segment
+  private int capacity; // the number of slots
+  private int currentNumberOfPairsInTable; // the current number of key value pairs in the table
+  private double loadFactorThreshold; // the load factor at which the hash table will expand
+  private ByteBuffer keyBuffer; // holds the serialized form of the key being looked up
+
+  /**
+   * Constructor which opens the table stored in the given file, or creates a new table with an
+   * initial capacity of 50 and a load factor threshold of 0.75 if the file is empty or missing
+   * 
+   * @param file            the file the table is stored in
+   * @param keySerializer   converts keys to and from bytes
+   * @param valueSerializer converts values to and from bytes
+   * @throws IOException if the file cannot be opened or mapped, or holds something other than a
+   *                     table with keys and values of the serializers' widths
+   * @see MappedHashTable#MappedHashTable(Path, Serializer, Serializer, int, double)
+   */
+  public MappedHashTable(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer)
+      throws IOException {
+    // calls other constructor with initial capacity of 50 and load factor threshold of 0.75
+    this(file, keySerializer, valueSerializer, 50, 0.75);
+  }
+
+  /**
+   * Constructor which opens the table stored in the given file, or creates a new table with the
+   * given initial capacity and load factor threshold if the file is empty or missing. A reopened
+   * table keeps the capacity and load factor threshold stored in its file.
+   * 
+   * @param file                the file the table is stored in
+   * @param keySerializer       converts keys to and from bytes
+   * @param valueSerializer     converts values to and from bytes
+   * @param initialCapacity     the initial maximum capacity of a new hash table
+   * @param loadFactorThreshold the the load factor at which a new hash table will expand (resize
+   *                            and rehash)
+   * @throws IOException if the file cannot be opened or mapped, or holds something other than a
+   *                     table with keys and values of the serializers' widths
+   */
+  public MappedHashTable(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+      int initialCapacity, double loadFactorThreshold) throws IOException {
+    this.file = file;
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+    keyWidth = keySerializer.width();
+    slotWidth = 1 + keyWidth + valueSerializer.width();
+    keyBuffer = ByteBuffer.allocate(keyWidth);
+
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    boolean exists = channel.size() > 0;
+    header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+    if (exists) {
+      // reopens the table, checking that the file was written with the same slot layout
+      if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(KEY_WIDTH_OFFSET) != keyWidth
+          || header.getInt(VALUE_WIDTH_OFFSET) != valueSerializer.width()) {
+        channel.close();
+        throw new IOException(file + " does not hold a table with this key and value width");
+      }
+      capacity = header.getInt(CAPACITY_OFFSET);
+      currentNumberOfPairsInTable = header.getInt(NUM_KEYS_OFFSET);
+      this.loadFactorThreshold = header.getDouble(LOAD_FACTOR_THRESHOLD_OFFSET);
+    } else {
+      capacity = initialCapacity;
+      currentNumberOfPairsInTable = 0;
+      this.loadFactorThreshold = loadFactorThreshold;
+      writeHeader(header, capacity);
+    }
+    segments = mapSlots(channel, capacity);
+  }
+
+  /**
+   * Writes every field of the header of a table with the given capacity to the given buffer
+   * 
+   * @param buffer   the mapped header
+   * @param capacity the capacity of the table
+   */
+  private void writeHeader(MappedByteBuffer buffer, int capacity) {
+    buffer.putInt(MAGIC_OFFSET, MAGIC);
+    buffer.putInt(KEY_WIDTH_OFFSET, keyWidth);
+    buffer.putInt(VALUE_WIDTH_OFFSET, valueSerializer.width());
+    buffer.putInt(CAPACITY_OFFSET, capacity);
+    buffer.putInt(NUM_KEYS_OFFSET, currentNumberOfPairsInTable);
+    buffer.putDouble(LOAD_FACTOR_THRESHOLD_OFFSET, loadFactorThreshold);
+  }
+
+  /**
+   * Maps the slots of a table with the given capacity, extending the file if it is too short.
+   * Slots in the extended part of the file are zero, so they are empty.
+   * 
+   * @param fileChannel the open file
+   * @param numSlots    the capacity of the table
+   * @return the mapped segments, each holding slotsPerSegment slots (the last may hold fewer)
+   * @throws IOException if the file cannot be mapped
+   */
+  private MappedByteBuffer[] mapSlots(FileChannel fileChannel, int numSlots) throws IOException {
+    slotsPerSegment = MAX_SEGMENT_SIZE / slotWidth;
+    MappedByteBuffer[] mapped = new MappedByteBuffer[(numSlots - 1) / slotsPerSegment + 1];
+    for (int index = 0; index < mapped.length; index++) {
+      long start = HEADER_SIZE + (long) index * slotsPerSegment * slotWidth;
+      int slots = Math.min(slotsPerSegment, numSlots - index * slotsPerSegment);
+      long size = (long) slots * slotWidth;
+      mapped[index] = fileChannel.map(FileChannel.MapMode.READ_WRITE, start, size);
+    }
+    return mapped;
+  }
+
+  /**
+   * Method which mixes the given bytes into a hash code (FNV-1a, followed by the finalizer of
+   * MurmurHash3 to spread the bits) and transforms it into the index of the slot where probing for
+   * the key starts
+   * 
+   * @param buffer the buffer holding the serialized key
+   * @param offset the index of the first byte of the key in the buffer
+   * @param length the length of the table the index is for
+   * @return the home slot index for the key
+   */
+  private int hashFunction(ByteBuffer buffer, int offset, int length) {
+    int hash = 0x811C9DC5;
+    for (int index = 0; index < keyWidth; index++) {
+      hash = (hash ^ buffer.get(offset + index)) * 0x01000193;
+    }
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+    // masks off the sign bit rather than using Math.abs, which is negative for Integer.MIN_VALUE
+    return (hash & 0x7FFFFFFF) % length;
+  }
+
+  /**
+   * Returns the segment holding the given slot
+   * 
+   * @param slot the index of the slot
+   * @return the segment holding the slot
+   */
+  private MappedByteBuffer segmentOf(int slot) {
+    return segments[slot / slotsPerSegment];
+  }
+
+  /**
+   * Returns the offset of the given slot within its segment
+   * 
+   * @param slot the index of the slot
+   * @return the offset of the first (status) byte of the slot in its segment
+   */
+  private int offsetOf(int slot) {
+    return (slot % slotsPerSegment) * slotWidth;
+  }
+
+  /**
+   * Serializes the given key into keyBuffer
+   * 
+   * @param key the key to be serialized
+   */
+  private void serializeKey(K key) {
+    keyBuffer.clear();
+    keySerializer.write(key, keyBuffer);
+  }
+
+  /**
+   * Returns the slot holding the key serialized in keyBuffer, or the empty slot where probing for
+   * the key stopped if the key is not in the table. There is always at least one empty slot, so
+   * probing terminates.
+   * 
+   * @return the index of the slot holding the key, or of the first empty slot in its probe sequence
+   */
+  private int findSlot() {
+    int slot = hashFunction(keyBuffer, 0, capacity);
+    while (true) {
+      MappedByteBuffer segment = segmentOf(slot);
+      int offset = offsetOf(slot);
+      if (segment.get(offset) == EMPTY || keyMatches(segment, offset + 1)) {
+        return slot;
+      }
+      slot++;
+      if (slot == capacity) { // wraps around to the start of the table
+        slot = 0;
+      }
+    }
+  }
+
+  /**
+   * Returns whether the key stored at the given offset has the same bytes as keyBuffer
+   * 
+   * @param segment the segment holding the key
+   * @param offset  the index of the first byte of the key in the segment
+   * @return true if the keys are equal, false if not
+   */
+  private boolean keyMatches(MappedByteBuffer segment, int offset) {
+    int index = 0;
+    // compares eight bytes at a time while possible
+    for (; index + Long.BYTES <= keyWidth; index += Long.BYTES) {
+      if (segment.getLong(offset + index) != keyBuffer.getLong(index)) {
+        return false;
+      }
+    }
+    for (; index < keyWidth; index++) {
+      if (segment.get(offset + index) != keyBuffer.get(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copies the given slot of one table into the given slot of another (or the same) table
+   * 
+   * @param from       the segment holding the slot to be copied
+   * @param fromOffset the offset of the slot to be copied
+   * @param to         the segment the slot is copied to
+   * @param toOffset   the offset the slot is copied to
+   */
+  private void copySlot(MappedByteBuffer from, int fromOffset, MappedByteBuffer to,
+      int toOffset) {
+    ByteBuffer source = from.duplicate();
+    source.limit(fromOffset + slotWidth).position(fromOffset);
+    ByteBuffer destination = to.duplicate();
+    destination.position(toOffset);
+    destination.put(source);
+  }
+
+  /**
+   * Method which expands the size of the hash table when the load factor reaches the load factor
+   * threshold. The slots are rehashed into a new file next to the table's file, which then
+   * replaces it. The new file is filled and written to disk before the table switches to it, so if
+   * the rehash fails the new file is deleted and the table keeps using its old file unchanged.
+   * 
+   * @throws UncheckedIOException if the new file cannot be created, mapped, or moved in place of
+   *                              the table's file
+   */
+  private void rehash() {
+    int newCapacity = capacity * 2 + 1; // as required by HashTableADT
+    Path newFile = file.resolveSibling(file.getFileName() + ".rehash");
+    FileChannel newChannel = null;
+    try {
+      newChannel = FileChannel.open(newFile, StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      MappedByteBuffer newHeader = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+      MappedByteBuffer[] newSegments = mapSlots(newChannel, newCapacity);
+
+      // moves every pair into the new file. Does not check for duplicates as that was done on
+      // insertion
+      for (int oldSlot = 0; oldSlot < capacity; oldSlot++) {
+        MappedByteBuffer oldSegment = segmentOf(oldSlot);
+        int oldOffset = offsetOf(oldSlot);
+        if (oldSegment.get(oldOffset) == FULL) {
+          int slot = hashFunction(oldSegment, oldOffset + 1, newCapacity);
+          while (newSegments[slot / slotsPerSegment].get(offsetOf(slot)) == FULL) {
+            slot = (slot + 1) % newCapacity;
+          }
+          copySlot(oldSegment, oldOffset, newSegments[slot / slotsPerSegment], offsetOf(slot));
+        }
+      }
+      writeHeader(newHeader, newCapacity);
+      for (MappedByteBuffer segment : newSegments) {
+        segment.force();
+      }
+      newHeader.force();
+
+      // replaces the old file with the new one, and only then switches the table to it
+      Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING);
+      FileChannel oldChannel = channel;
+      segments = newSegments;
+      capacity = newCapacity;
+      channel = newChannel;
+      header = newHeader;
+      oldChannel.close();
+    } catch (IOException e) {
+      // leaves the table on its old file, which has not been changed
+      if (newChannel != null && newChannel != channel) {
+        try {
+          newChannel.close();
+          Files.deleteIfExists(newFile);
+        } catch (IOException closeException) {
+          e.addSuppressed(closeException);
+        }
+      }
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Inserts a new key, value pair in the hash table, calls for a rehash of the table if necessary,
+   * throws an IllegalNullKey exception if the given key is null, throws a DuplicateKeyException if
+   * a duplicate key exists in the hash table
+   * 
+   * @param key   the key of the new element to be inserted into the hash table
+   * @param value the value of the new element to be inserted into the hash table
+   * @throws IllegalNullKeyException if given key or value is null, as neither can be serialized
+   * @throws DuplicateKeyException   if given key is already in hash table
+   * @throws UncheckedIOException    if the table's file cannot be expanded
+   * @see MappedHashTable#rehash()
+   */
+  @Override
+  public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+    if (key == null || value == null) { // if key or value is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+
+    // checks if adding one more element to the hash table would reach the load factor threshold.
+    // Also rehashes if the table would otherwise become full, since linear probing needs at least
+    // one empty slot to terminate
+    if (((double) currentNumberOfPairsInTable + 1) / ((double) capacity) >= loadFactorThreshold
+        || currentNumberOfPairsInTable + 1 >= capacity) {
+      rehash();
+    }
+
+    serializeKey(key);
+    int slot = findSlot();
+    MappedByteBuffer segment = segmentOf(slot);
+    int offset = offsetOf(slot);
+    if (segment.get(offset) == FULL) { // the probe stopped on the key itself
+      throw new DuplicateKeyException();
+    }
+
+    // writes the slot: its key, its value, and then its status, which marks it as holding a pair
+    keyBuffer.flip();
+    segment.position(offset + 1);
+    segment.put(keyBuffer);
+    valueSerializer.write(value, segment);
+    segment.put(offset, FULL);
+    currentNumberOfPairsInTable++;
+    header.putInt(NUM_KEYS_OFFSET, currentNumberOfPairsInTable);
+  }
+
+  /**
+   * Removes a key value pair from the hash table with the given key. Returns true if a pair with
+   * the given key is removed, false if the key is not in the hash table and therefore cannot be
+   * removed. Pairs later in the same probe run are shifted back into the freed slot so that
+   * lookups never stop early.
+   * 
+   * @param key the key to be removed from the hash table
+   * @return true if the key exists in the hash table and is removed successfully, false if not
+   * @throws IllegalNullKeyException if the given key is null
+   */
+  @Override
+  public boolean remove(K key) throws IllegalNullKeyException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+
+    serializeKey(key);
+    int slot = findSlot();
+    if (segmentOf(slot).get(offsetOf(slot)) == EMPTY) {
+      return false; // probing reached an empty slot, so key is not in the table
+    }
+
+    // backward shift deletion: walks the run after the freed slot and moves back any pair whose
+    // home slot is not cyclically between the freed slot and its current slot
+    int freeSlot = slot;
+    int current = slot;
+    while (true) {
+      current++;
+      if (current == capacity) {
+        current = 0;
+      }
+      MappedByteBuffer segment = segmentOf(current);
+      int offset = offsetOf(current);
+      if (segment.get(offset) == EMPTY) {
+        break; // end of the run, nothing further can depend on the freed slot
+      }
+
+      int home = hashFunction(segment, offset + 1, capacity);
+      boolean homeInRange = (freeSlot <= current) ? (freeSlot < home && home <= current)
+          : (freeSlot < home || home <= current);
+      if (!homeInRange) {
+        copySlot(segment, offset, segmentOf(freeSlot), offsetOf(freeSlot));
+        freeSlot = current;
+      }
+    }
+    segmentOf(freeSlot).put(offsetOf(freeSlot), EMPTY);
+    currentNumberOfPairsInTable--;
+    header.putInt(NUM_KEYS_OFFSET, currentNumberOfPairsInTable);
+    return true;
+  }
+
+  /**
+   * Returns the value for the given key in the hash table. Throws an IllegalNullKeyException if the
+   * given key is null. Throws KeyNotFoundException if key is not in the hash table
+   * 
+   * @param key the key whose value in the hash table is returned
+   * @return the value for the given key in the hash table
+   * @throws IllegalNullKeyException if the given key is null
+   * @throws KeyNotFoundException    if the given key is not in the hash table
+   */
+  @Override
+  public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+    if (key == null) { // if key is null, throws exception
+      throw new IllegalNullKeyException();
+    }
+
+    serializeKey(key);
+    int slot = findSlot();
+    MappedByteBuffer segment = segmentOf(slot);
+    int offset = offsetOf(slot);
+    if (segment.get(offset) == EMPTY) {
+      throw new KeyNotFoundException();
+    }
+    segment.position(offset + 1 + keyWidth);
+    return valueSerializer.read(segment);
+  }
+
+  /**
+   * Writes every change to the table to its file on disk
+   */
+  public void flush() {
+    header.force();
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Writes every change to the table to disk and closes its file. The table cannot be used after
+   * it is closed, but can be reopened from its file.
+   * 
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    flush();
+    channel.close();
+  }
+
+  /**
+   * Returns the number of keys (key value pairs in this case) stored in the hash table
+   * 
+   * @return the number of keys (key value pairs in this case) stored in the hash table
+   */
+  @Override
+  public int numKeys() {
+    return currentNumberOfPairsInTable;
+  }
+
+  /**
+   * Returns the load factor threshold of the hash table
+   * 
+   * @return the load factor threshold of the hash table
+   */
+  @Override
+  public double getLoadFactorThreshold() {
+    return loadFactorThreshold;
+  }
+
+  /**
+   * Returns the current load factor of the hash table (the number of pairs in the table divided by
+   * the size of the table)
+   * 
+   * @return the current load factor of the hash table
+   */
+  @Override
+  public double getLoadFactor() {
+    // casts division to doubles as otherwise an integer result, 0 or 1, would be returned
+    return ((double) currentNumberOfPairsInTable) / ((double) capacity);
+  }
+
+  /**
+   * Returns the capacity of the hash table (the hash table's size)
+   * 
+   * @return the capacity of the hash table
+   */
+  @Override
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Method which returns an integer code corresponding to the collision resolution method used.
+   * 
+   * @return 1 because this implementation of a hash table uses open addressing with a linear probe
+   */
+  @Override
+  public int getCollisionResolution() {
+    return 1;
+  }
+}
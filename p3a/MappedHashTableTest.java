@@ -0,0 +1,325 @@
+// Title: MappedHashTableTest
+// Files: MappedHashTable, Serializer, HashTableADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+import static org.junit.jupiter.api.Assertions.*; // org.junit.Assert.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit testing class which tests if the MappedHashTable implementation works correctly
+ * 
+ * @author Michael Goldstein
+ * @see MappedHashTable
+ * @see HashTableADT
+ * 
+ */
+public class MappedHashTableTest {
+
+  Path file; // the temporary file the hash table used for testing is stored in
+  MappedHashTable<Integer, Long> htMapped; // hash table used for testing (capacity: 50, LFT: 0.75)
+
+  /**
+   * Runs before any tests are run. Initializes a hash table with Integer keys and Long values in a
+   * new temporary file
+   * 
+   * @throws Exception if code in method throws an exception
+   */
+  @Before
+  public void setUp() throws Exception {
+    file = Files.createTempFile("MappedHashTableTest", ".table");
+    htMapped = new MappedHashTable<Integer, Long>(file, Serializer.INTEGER, Serializer.LONG);
+  }
+
+  /**
+   * Runs after each test is run. Closes the hash table used for testing and deletes its file
+   * 
+   * @throws Exception if code in method throws an exception
+   */
+  @After
+  public void tearDown() throws Exception {
+    htMapped.close();
+    htMapped = null;
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Tests that a MappedHashTable reports linear probing as its collision resolution strategy
+   */
+  @Test
+  public void test000_collision_scheme() {
+    if (htMapped.getCollisionResolution() != 1) {
+      fail("MappedHashTable uses linear probing, so collision resolution should be 1 but was "
+          + htMapped.getCollisionResolution());
+    }
+  }
+
+  /**
+   * Tests that insert, remove, and get throw IllegalNullKeyException for a null key, and that
+   * insert throws it for a null value
+   */
+  @Test
+  public void test001_IllegalNullKey() {
+    try {
+      htMapped.insert(null, 1L);
+      fail("should not be able to insert null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("insert null key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htMapped.insert(1, null);
+      fail("should not be able to insert null value");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("insert null value should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htMapped.remove(null);
+      fail("should not be able to remove with a null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("remove null key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htMapped.get(null);
+      fail("should not be able to get with a null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("get null key should not throw exception " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that inserting a key twice throws DuplicateKeyException and that get of a missing key
+   * throws KeyNotFoundException
+   */
+  @Test
+  public void test002_duplicate_and_missing_keys() {
+    try {
+      htMapped.insert(5, 50L);
+      htMapped.insert(5, 51L);
+      fail("should not be able to insert a duplicate key");
+    } catch (DuplicateKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("insert duplicate key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htMapped.get(6);
+      fail("get of a missing key should throw KeyNotFoundException");
+    } catch (KeyNotFoundException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("get missing key should not throw exception " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that many pairs can be inserted, retrieved, and removed, and that the table grows to
+   * 2 * capacity + 1 as required by HashTableADT
+   */
+  @Test
+  public void test003_insert_get_remove_many() {
+    try {
+      for (int index = -500; index < 500; index++) {
+        htMapped.insert(index, index * 10L);
+      }
+      if (htMapped.numKeys() != 1000) {
+        fail("numKeys should be 1000 but was " + htMapped.numKeys());
+      }
+      // 50 -> 101 -> 203 -> 407 -> 815 -> 1631
+      if (htMapped.getCapacity() != 1631) {
+        fail("capacity should be 1631 but was " + htMapped.getCapacity());
+      }
+
+      // removes every other key, which shifts back many pairs within probe runs
+      for (int index = -500; index < 500; index += 2) {
+        if (!htMapped.remove(index)) {
+          fail("remove() should return true for key " + index);
+        }
+      }
+      for (int index = -500; index < 500; index++) {
+        boolean removed = (index + 500) % 2 == 0;
+        try {
+          if (htMapped.get(index) != index * 10L || removed) {
+            fail("get() returned the wrong value for key " + index);
+          }
+        } catch (KeyNotFoundException e) {
+          if (!removed) {
+            fail("key " + index + " should still be in the table");
+          }
+        }
+      }
+      if (htMapped.numKeys() != 500 || htMapped.remove(-500)) {
+        fail("remove() should have removed exactly 500 keys once each");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that a closed table can be reopened from its file with every pair, its capacity, and its
+   * load factor threshold, and that a file cannot be opened with serializers of other widths
+   */
+  @Test
+  public void test004_reopen_from_file() {
+    try {
+      for (int index = 0; index < 100; index++) {
+        htMapped.insert(index, index * 2L);
+      }
+      htMapped.remove(7);
+      htMapped.close();
+
+      htMapped = new MappedHashTable<Integer, Long>(file, Serializer.INTEGER, Serializer.LONG);
+      if (htMapped.numKeys() != 99 || htMapped.getCapacity() != 203
+          || htMapped.getLoadFactorThreshold() != 0.75) {
+        fail("the reopened table should have 99 keys, capacity 203, and threshold 0.75");
+      }
+      for (int index = 0; index < 100; index++) {
+        if (index != 7 && htMapped.get(index) != index * 2L) {
+          fail("the reopened table returned the wrong value for key " + index);
+        }
+      }
+      htMapped.insert(7, 14L); // the reopened table can be changed
+      if (htMapped.get(7) != 14L) {
+        fail("a pair inserted into the reopened table was not found");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+
+    try {
+      new MappedHashTable<Integer, Integer>(file, Serializer.INTEGER, Serializer.INTEGER);
+      fail("a file should not open with serializers of different widths");
+    } catch (IOException e) {
+      // this is expected
+    }
+  }
+
+  /**
+   * Tests that string keys of different lengths are stored and found by their fixed width bytes,
+   * and that a string serializer cannot be wider than its two byte length allows
+   */
+  @Test
+  public void test005_string_keys() {
+    Path stringFile = null;
+    try {
+      stringFile = Files.createTempFile("MappedHashTableTest", ".table");
+      try (MappedHashTable<String, Integer> htString = new MappedHashTable<String, Integer>(
+          stringFile, Serializer.string(16), Serializer.INTEGER)) {
+        htString.insert("a", 1);
+        htString.insert("ab", 2);
+        htString.insert("", 0);
+        htString.insert("\u00e9t\u00e9", 3); // multi byte characters
+        if (htString.get("a") != 1 || htString.get("ab") != 2 || htString.get("") != 0
+            || htString.get("\u00e9t\u00e9") != 3) {
+          fail("get() returned the wrong value for a string key");
+        }
+        try {
+          htString.insert("a string longer than sixteen bytes", 4);
+          fail("a key longer than its serializer's width should not be inserted");
+        } catch (IllegalArgumentException e) {
+          // this is expected
+        }
+      }
+
+      // the length of a string is stored in two bytes, so no longer width can be serialized
+      try {
+        Serializer.string(65536);
+        fail("a string serializer wider than 65535 bytes should not be created");
+      } catch (IllegalArgumentException e) {
+        // this is expected
+      }
+      try {
+        Serializer.string(-1);
+        fail("a string serializer with a negative width should not be created");
+      } catch (IllegalArgumentException e) {
+        // this is expected
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    } finally {
+      try {
+        if (stringFile != null) {
+          Files.deleteIfExists(stringFile);
+        }
+      } catch (IOException e) {
+        // the temporary file is left behind
+      }
+    }
+  }
+
+  /**
+   * Tests that a rehash which cannot replace the table's file leaves the table unchanged on its old
+   * file, and deletes the new file it was filling
+   */
+  @Test
+  public void test006_failed_rehash_keeps_old_file() {
+    Path rehashFile = file.resolveSibling(file.getFileName() + ".rehash");
+    Path blocker = file.resolve("blocker");
+    try {
+      for (int index = 0; index < 37; index++) {
+        htMapped.insert(index, index * 2L);
+      }
+
+      // replaces the table's file with a directory which is not empty, which the rehashed file
+      // cannot be moved over. The table's mapping of the old file stays valid
+      Files.delete(file);
+      Files.createDirectory(file);
+      Files.createFile(blocker);
+      try {
+        htMapped.insert(37, 74L); // reaches the load factor threshold, so rehashes
+        fail("the rehash should fail as its file cannot replace the table's file");
+      } catch (UncheckedIOException e) {
+        // this is expected
+      }
+
+      if (htMapped.getCapacity() != 50 || htMapped.numKeys() != 37) {
+        fail("a failed rehash should leave capacity 50 and 37 keys, but left capacity "
+            + htMapped.getCapacity() + " and " + htMapped.numKeys() + " keys");
+      }
+      if (Files.exists(rehashFile)) {
+        fail("a failed rehash should delete the file it was rehashing into");
+      }
+      for (int index = 0; index < 37; index++) {
+        if (htMapped.get(index) != index * 2L) {
+          fail("get() returned the wrong value for key " + index + " after a failed rehash");
+        }
+      }
+      htMapped.remove(0); // the table can still be changed
+      htMapped.insert(100, 200L);
+      if (htMapped.get(100) != 200L || htMapped.numKeys() != 37) {
+        fail("the table should still be usable after a failed rehash");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    } finally {
+      try {
+        Files.deleteIfExists(blocker);
+        Files.deleteIfExists(rehashFile);
+      } catch (IOException e) {
+        // the temporary files are left behind
+      }
+    }
+  }
+}
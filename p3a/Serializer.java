@@ -0,0 +1,129 @@
+// Title: Serializer
+// Files: MappedHashTable
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/14/19
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts values of one type to and from a fixed number of bytes, so that they can be stored in
+ * the fixed width slots of a MappedHashTable. Equal values must always be written as the same
+ * bytes, as MappedHashTable hashes and compares keys by their bytes.
+ * 
+ * @author Michael Goldstein
+ * @see MappedHashTable
+ * 
+ * @param <T> the type of the values which are serialized
+ */
+public interface Serializer<T> {
+
+  /**
+   * Returns the number of bytes every value is written as
+   * 
+   * @return the number of bytes every value is written as
+   */
+  int width();
+
+  /**
+   * Writes the given value as exactly width() bytes at the position of the buffer, advancing the
+   * position past them
+   * 
+   * @param value  the value to be written
+   * @param buffer the buffer to be written to
+   * @throws IllegalArgumentException if the value cannot be written in width() bytes
+   */
+  void write(T value, ByteBuffer buffer);
+
+  /**
+   * Reads a value written by write from the position of the buffer, advancing the position past
+   * its width() bytes
+   * 
+   * @param buffer the buffer to be read from
+   * @return the value which was read
+   */
+  T read(ByteBuffer buffer);
+
+  // serializes an Integer as 4 bytes
+  Serializer<Integer> INTEGER = new Serializer<Integer>() {
+    @Override
+    public int width() {
+      return Integer.BYTES;
+    }
+
+    @Override
+    public void write(Integer value, ByteBuffer buffer) {
+      buffer.putInt(value);
+    }
+
+    @Override
+    public Integer read(ByteBuffer buffer) {
+      return buffer.getInt();
+    }
+  };
+
+  // serializes a Long as 8 bytes
+  Serializer<Long> LONG = new Serializer<Long>() {
+    @Override
+    public int width() {
+      return Long.BYTES;
+    }
+
+    @Override
+    public void write(Long value, ByteBuffer buffer) {
+      buffer.putLong(value);
+    }
+
+    @Override
+    public Long read(ByteBuffer buffer) {
+      return buffer.getLong();
+    }
+  };
+
+  /**
+   * Returns a serializer for strings of at most the given number of bytes when encoded in UTF-8.
+   * Strings are written as their length followed by their bytes, padded with zeros to a fixed width
+   * 
+   * @param maxBytes the maximum number of bytes of a string encoded in UTF-8, at most 65535
+   * @return a serializer for strings of at most maxBytes bytes
+   * @throws IllegalArgumentException if maxBytes is negative or greater than 65535, as the length
+   *                                  of a string is stored as an unsigned short
+   */
+  static Serializer<String> string(int maxBytes) {
+    if (maxBytes < 0 || maxBytes > 0xFFFF) {
+      throw new IllegalArgumentException("maxBytes must be from 0 to 65535: " + maxBytes);
+    }
+    return new Serializer<String>() {
+      @Override
+      public int width() {
+        return Short.BYTES + maxBytes; // the length is stored as an unsigned short
+      }
+
+      @Override
+      public void write(String value, ByteBuffer buffer) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+          throw new IllegalArgumentException("string longer than " + maxBytes + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+        // pads with zeros so that equal strings are always written as the same bytes
+        for (int index = bytes.length; index < maxBytes; index++) {
+          buffer.put((byte) 0);
+        }
+      }
+
+      @Override
+      public String read(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        buffer.position(buffer.position() + maxBytes - bytes.length); // skips the padding
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+}
@@ -0,0 +1,94 @@
+// Title: BulkLoadBenchmark
+// Files: HashTable, HashTableADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class which times loading a data set into a new HashTable with one insert per pair, against
+ * loading it with HashTable.fromEntries, which sizes the table once before filling it. Each load is
+ * repeated after a warmup so that the timings are not dominated by the JIT compiler.
+ * 
+ * @author Michael Goldstein
+ * @see HashTable#putAll(java.util.Collection)
+ */
+public class BulkLoadBenchmark {
+
+  /**
+   * Loads the given pairs into a new hash table one insert at a time and returns the elapsed time
+   * in nanoseconds
+   * 
+   * @param entries the key, value pairs to be loaded
+   * @return the time in nanoseconds the load took
+   * @throws Exception if the hash table throws an exception, which should not happen
+   */
+  private static long timeInserts(List<Map.Entry<Integer, Integer>> entries) throws Exception {
+    long start = System.nanoTime();
+    HashTableADT<Integer, Integer> hashtable = new HashTable<Integer, Integer>();
+    for (Map.Entry<Integer, Integer> entry : entries) {
+      hashtable.insert(entry.getKey(), entry.getValue());
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Loads the given pairs into a new hash table with fromEntries and returns the elapsed time in
+   * nanoseconds
+   * 
+   * @param entries the key, value pairs to be loaded
+   * @return the time in nanoseconds the load took
+   * @throws Exception if the hash table throws an exception, which should not happen
+   */
+  private static long timeBulkLoad(List<Map.Entry<Integer, Integer>> entries) throws Exception {
+    long start = System.nanoTime();
+    HashTable.fromEntries(entries);
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Driver method which runs the benchmark
+   * 
+   * @param args optional command line input: the number of pairs (default 2000000) and the number
+   *             of timed runs (default 3)
+   */
+  public static void main(String[] args) {
+    try {
+      int numElements = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+      int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+      List<Map.Entry<Integer, Integer>> entries = new ArrayList<Map.Entry<Integer, Integer>>();
+      for (int index = 0; index < numElements; index++) {
+        entries.add(new AbstractMap.SimpleEntry<Integer, Integer>(index, index));
+      }
+
+      // warms up the JIT compiler before any timed runs
+      timeInserts(entries);
+      timeBulkLoad(entries);
+
+      // keeps the best time, as slower runs are slowed down by outside noise (such as GC)
+      long bestInserts = Long.MAX_VALUE;
+      long bestBulkLoad = Long.MAX_VALUE;
+      for (int run = 0; run < runs; run++) {
+        bestInserts = Math.min(bestInserts, timeInserts(entries));
+        bestBulkLoad = Math.min(bestBulkLoad, timeBulkLoad(entries));
+      }
+
+      System.out.println(String.format(
+          "%d pairs: insert one by one took %.1f ms, fromEntries took %.1f ms (best of %d)",
+          numElements, bestInserts / 1e6, bestBulkLoad / 1e6, runs));
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java BulkLoadBenchmark [numPairs] [runs] failed! A(n) "
+          + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
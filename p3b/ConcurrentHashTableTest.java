@@ -0,0 +1,192 @@
+// Title: ConcurrentHashTableTest
+// Files: ConcurrentHashTable, HashTableADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+import static org.junit.jupiter.api.Assertions.*; // org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit testing class which tests if the ConcurrentHashTable implementation works correctly, both
+ * from a single thread and when shared by several threads
+ * 
+ * @author Michael Goldstein
+ * @see ConcurrentHashTable
+ * @see HashTableADT
+ *
+ */
+public class ConcurrentHashTableTest {
+
+  ConcurrentHashTable<Integer, String> htConcurrent; // hash table used for testing
+
+  /**
+   * Runs before any tests are run. Initializes a hash table with Integer keys and String values
+   * 
+   * @throws Exception if code in method throws an exception
+   */
+  @Before
+  public void setUp() throws Exception {
+    htConcurrent = new ConcurrentHashTable<Integer, String>();
+  }
+
+  /**
+   * Runs after each test is run. Resets the hash table used for testing by setting its reference to
+   * null.
+   * 
+   * @throws Exception if code in method throws an exception
+   */
+  @After
+  public void tearDown() throws Exception {
+    htConcurrent = null;
+  }
+
+  /**
+   * Tests that insert, remove, and get throw IllegalNullKeyException for a null key
+   */
+  @Test
+  public void test000_IllegalNullKey() {
+    try {
+      htConcurrent.insert(null, "null");
+      fail("should not be able to insert null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("insert null key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htConcurrent.remove(null);
+      fail("should not be able to remove with a null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("remove null key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htConcurrent.get(null);
+      fail("should not be able to get with a null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("get null key should not throw exception " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests single threaded insert, get, remove, duplicate keys, and growth of the table
+   */
+  @Test
+  public void test001_single_thread_operations() {
+    try {
+      for (int index = 0; index < 1000; index++) {
+        htConcurrent.insert(index, "test" + index);
+      }
+
+      try {
+        htConcurrent.insert(500, "duplicate");
+        fail("should not be able to insert a key value pair with a duplicate key");
+      } catch (DuplicateKeyException e) {
+        // this is expected
+      }
+
+      for (int index = 0; index < 1000; index++) {
+        if (!htConcurrent.get(index).equals("test" + index)) {
+          fail("get failed to return the correct value for key " + index);
+        }
+      }
+      for (int index = 0; index < 1000; index += 2) {
+        if (!htConcurrent.remove(index)) {
+          fail("remove returned false on a key which is in the table");
+        }
+      }
+      if (htConcurrent.remove(0)) {
+        fail("remove should return false for a key which was already removed");
+      }
+      if (htConcurrent.numKeys() != 500) {
+        fail("numKeys should be 500 but was " + htConcurrent.numKeys());
+      }
+
+      // the table must have grown past its initial capacity of 50 with 2 * capacity + 1 steps
+      if (htConcurrent.getCapacity() != 1631) {
+        fail("capacity after growing to 1000 keys should be 1631 but was "
+            + htConcurrent.getCapacity());
+      }
+      if (htConcurrent.getRehashProgress() != 1.0) {
+        fail("no resize should be in progress once all inserts have returned");
+      }
+    } catch (Exception e) {
+      fail("no exception should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that many threads can insert, get, and remove their own keys at the same time, starting
+   * from a tiny table so that many resizes happen while the threads are running
+   */
+  @Test
+  public void test002_many_threads() {
+    ConcurrentHashTable<Integer, Integer> shared =
+        new ConcurrentHashTable<Integer, Integer>(1, 0.75);
+    int numThreads = 8;
+    int keysPerThread = 20000;
+    Thread[] threads = new Thread[numThreads];
+    Exception[] failures = new Exception[numThreads];
+
+    // each thread inserts its own range of keys, reading each back and removing every third one
+    for (int thread = 0; thread < numThreads; thread++) {
+      final int id = thread;
+      threads[thread] = new Thread(() -> {
+        try {
+          for (int index = 0; index < keysPerThread; index++) {
+            int key = id * keysPerThread + index;
+            shared.insert(key, key);
+            if (shared.get(key) != key) {
+              throw new IllegalStateException("read back the wrong value for key " + key);
+            }
+            if (index % 3 == 0 && !shared.remove(key)) {
+              throw new IllegalStateException("could not remove key " + key);
+            }
+          }
+        } catch (Exception e) {
+          failures[id] = e;
+        }
+      });
+      threads[thread].start();
+    }
+
+    try {
+      for (int thread = 0; thread < numThreads; thread++) {
+        threads[thread].join();
+        if (failures[thread] != null) {
+          fail("thread " + thread + " failed with " + failures[thread]);
+        }
+      }
+
+      // checks that exactly the keys which were not removed are left
+      int expected = numThreads * (keysPerThread - (keysPerThread + 2) / 3);
+      if (shared.numKeys() != expected) {
+        fail("numKeys should be " + expected + " but was " + shared.numKeys());
+      }
+      for (int key = 0; key < numThreads * keysPerThread; key++) {
+        try {
+          if (shared.get(key) != key || key % keysPerThread % 3 == 0) {
+            fail("key " + key + " has the wrong value or should have been removed");
+          }
+        } catch (KeyNotFoundException e) {
+          if (key % keysPerThread % 3 != 0) {
+            fail("key " + key + " was inserted by a thread but cannot be found");
+          }
+        }
+      }
+    } catch (Exception e) {
+      fail("no exception should be thrown here " + e.getClass().getName());
+    }
+  }
+}
@@ -54,4 +54,12 @@ public interface HashTableADT<K extends Comparable<K>, V> extends DataStructureA
       // 9 CHAINED BUCKET: linked nodes of search trees
      public int getCollisionResolution() ;
 
+     // Returns how far an incremental rehash has progressed, as the
+     // fraction of the old table's buckets which have been moved into
+     // the new table. Returns 1.0 when no rehash is in progress.
+     // Tables which always rehash in a single pass need not override this.
+     public default double getRehashProgress() {
+       return 1.0;
+     }
+
 }
@@ -0,0 +1,123 @@
+// Title: HashTableBenchmark
+// Files: HashTable, HashTableADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+/**
+ * Class which times HashTable insert, get, and remove under a bad hash workload, where many keys
+ * share the same hash code and so end up in the same bucket. Each run is repeated after a warmup so
+ * that the timings are not dominated by the JIT compiler.
+ * 
+ * @author Michael Goldstein
+ * @see HashTable
+ */
+public class HashTableBenchmark {
+
+  /**
+   * A key whose hash code only takes a small number of distinct values, so that many keys collide
+   * no matter how large the table is.
+   * 
+   * @author Michael Goldstein
+   * 
+   */
+  private static class CollidingKey implements Comparable<CollidingKey> {
+    private int id; // the value which identifies this key
+    private int distinctHashes; // the number of distinct hash codes keys are spread over
+
+    /**
+     * Constructor for CollidingKey
+     * 
+     * @param id             the value which identifies this key
+     * @param distinctHashes the number of distinct hash codes keys are spread over
+     */
+    CollidingKey(int id, int distinctHashes) {
+      this.id = id;
+      this.distinctHashes = distinctHashes;
+    }
+
+    @Override
+    public int hashCode() {
+      return id % distinctHashes;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof CollidingKey && ((CollidingKey) other).id == id;
+    }
+
+    @Override
+    public int compareTo(CollidingKey other) {
+      return Integer.compare(id, other.id);
+    }
+  }
+
+  /**
+   * Inserts, gets, and removes every key once and returns the elapsed time in nanoseconds
+   * 
+   * @param keys                the keys to be used
+   * @param collisionResolution the collision resolution scheme of the hash table, 5 or 6
+   * @return the time in nanoseconds the operations took
+   * @throws Exception if the hash table throws an exception, which should not happen
+   */
+  private static long timeRun(CollidingKey[] keys, int collisionResolution) throws Exception {
+    HashTableADT<CollidingKey, Integer> hashtable =
+        new HashTable<CollidingKey, Integer>(50, 0.75, collisionResolution);
+    long start = System.nanoTime();
+    for (int index = 0; index < keys.length; index++) {
+      hashtable.insert(keys[index], index);
+    }
+    for (int index = 0; index < keys.length; index++) {
+      hashtable.get(keys[index]);
+    }
+    for (int index = 0; index < keys.length; index++) {
+      hashtable.remove(keys[index]);
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Driver method which runs the benchmark
+   * 
+   * @param args optional command line input: the number of keys (default 5000), the number of
+   *             distinct hash codes (default 16), the number of timed runs (default 5), and the
+   *             collision resolution scheme of the hash table (default 5)
+   */
+  public static void main(String[] args) {
+    try {
+      int numElements = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+      int distinctHashes = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+      int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+      int collisionResolution = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+      CollidingKey[] keys = new CollidingKey[numElements];
+      for (int index = 0; index < numElements; index++) {
+        keys[index] = new CollidingKey(index, distinctHashes);
+      }
+
+      // warms up the JIT compiler before any timed runs
+      for (int run = 0; run < 3; run++) {
+        timeRun(keys, collisionResolution);
+      }
+
+      // keeps the best time, as slower runs are slowed down by outside noise
+      long best = Long.MAX_VALUE;
+      for (int run = 0; run < runs; run++) {
+        best = Math.min(best, timeRun(keys, collisionResolution));
+      }
+
+      System.out.println(String.format(
+          "%d keys over %d hash codes, collision resolution %d: insert+get+remove of every key "
+              + "took %.1f ms (best of %d)",
+          numElements, distinctHashes, collisionResolution, best / 1e6, runs));
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java HashTableBenchmark [numKeys] [distinctHashes] [runs]"
+          + " [collisionResolution] failed! A(n) " + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
@@ -8,6 +8,13 @@
 // Due Date: 3/14/19
 
 import static org.junit.jupiter.api.Assertions.*; // org.junit.Assert.*;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.management.ObjectName;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,6 +29,40 @@ import org.junit.Test;
  */
 public class HashTableTest {
 
+  /**
+   * A key whose hash code is the same for every instance, so that all keys collide
+   * 
+   * @author Michael Goldstein
+   *
+   */
+  private static class CollidingKey implements Comparable<CollidingKey> {
+    private int id; // the value which identifies this key
+
+    /**
+     * Constructor for CollidingKey
+     * 
+     * @param id the value which identifies this key
+     */
+    CollidingKey(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof CollidingKey && ((CollidingKey) other).id == id;
+    }
+
+    @Override
+    public int compareTo(CollidingKey other) {
+      return Integer.compare(id, other.id);
+    }
+  }
+
   HashTable<Integer, String> htIntegerKey; // hash table used for testing (capacity: 50, LFT: 0.75)
 
   /**
@@ -483,4 +524,398 @@ public class HashTableTest {
       fail("no exceptions should be thrown here");
     }
   }
+
+  /**
+   * Tests removing keys from the head, middle, and tail of a single chain, and that the remaining
+   * keys in that chain are still found afterwards and after a rehash.
+   */
+  @Test
+  public void test016_remove_within_chain() {
+    try {
+      // adds 5 keys who all have the same hash index of 0
+      for (int index = 0; index < 5; index++) {
+        htIntegerKey.insert(index * 50, "test" + index);
+      }
+
+      // new keys are inserted at the head of the chain, so 200 is first and 0 is last
+      if (!htIntegerKey.remove(200) || !htIntegerKey.remove(100) || !htIntegerKey.remove(0)) {
+        fail("remove returned false for a key in the head, middle, or tail of a chain");
+      }
+
+      // forces a rehash so the remaining chain is relinked into a new table
+      for (int index = 1; index < 40; index++) {
+        htIntegerKey.insert(index, "filler" + index);
+      }
+
+      if (!htIntegerKey.get(50).equals("test1") || !htIntegerKey.get(150).equals("test3")) {
+        fail("get() failed to return the correct value for a key left in a chain after removals");
+      }
+      if (htIntegerKey.numKeys() != 41) {
+        fail("numKeys should be 41 after removals and inserts but was " + htIntegerKey.numKeys());
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that a hash table using collision resolution 6 (tree buckets) reports it, and that any
+   * other scheme is rejected by the constructor
+   */
+  @Test
+  public void test017_tree_bucket_scheme() {
+    HashTable<Integer, String> treeTable = new HashTable<Integer, String>(50, 0.75, 6);
+    if (treeTable.getCollisionResolution() != 6) {
+      fail("a hash table constructed with tree buckets should return 6 but returned "
+          + treeTable.getCollisionResolution());
+    }
+
+    try {
+      new HashTable<Integer, String>(50, 0.75, 1);
+      fail("constructing a HashTable with an unsupported collision resolution should throw");
+    } catch (IllegalArgumentException e) {
+      // this is expected
+    }
+  }
+
+  /**
+   * Tests that inserting, getting, and removing many keys which all share one hash code works when
+   * the bucket is converted into a tree, including after rehashes and after the bucket shrinks back
+   * into a chain
+   */
+  @Test
+  public void test018_tree_bucket_colliding_keys() {
+    HashTable<CollidingKey, Integer> treeTable = new HashTable<CollidingKey, Integer>(10, 0.75, 6);
+    try {
+      // inserts 500 keys into the same bucket, causing several rehashes along the way
+      for (int index = 0; index < 500; index++) {
+        treeTable.insert(new CollidingKey(index), index);
+      }
+
+      // inserting a duplicate into a tree bucket should still throw
+      try {
+        treeTable.insert(new CollidingKey(250), -1);
+        fail("should not be able to insert a duplicate key into a tree bucket");
+      } catch (DuplicateKeyException e) {
+        // this is expected
+      }
+
+      for (int index = 0; index < 500; index++) {
+        if (treeTable.get(new CollidingKey(index)) != index) {
+          fail("get() returned the wrong value for a key in a tree bucket");
+        }
+      }
+
+      // removes all but 3 keys, which converts the tree back into a chain
+      for (int index = 3; index < 500; index++) {
+        if (!treeTable.remove(new CollidingKey(index))) {
+          fail("remove returned false for key " + index + " which is in a tree bucket");
+        }
+      }
+      if (treeTable.remove(new CollidingKey(3))) {
+        fail("remove returned true for a key which was already removed");
+      }
+      if (treeTable.numKeys() != 3) {
+        fail("numKeys should be 3 after removals but was " + treeTable.numKeys());
+      }
+      for (int index = 0; index < 3; index++) {
+        if (treeTable.get(new CollidingKey(index)) != index) {
+          fail("get() returned the wrong value after the tree bucket became a chain again");
+        }
+      }
+
+      try {
+        treeTable.get(new CollidingKey(400));
+        fail("get() should throw a KeyNotFoundException for a removed key");
+      } catch (KeyNotFoundException e) {
+        // this is expected
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that with incremental rehashing, a resize grows the capacity right away but migrates the
+   * old table over later operations, while every key stays reachable during the migration
+   */
+  @Test
+  public void test019_incremental_rehash() {
+    HashTable<Integer, String> incTable = new HashTable<Integer, String>(50, 0.75, 5, true);
+    try {
+      if (incTable.getRehashProgress() != 1.0) {
+        fail("rehash progress should be 1.0 when no rehash is in progress");
+      }
+
+      // the 38th insert reaches the load factor threshold and starts a rehash
+      for (int index = 0; index < 38; index++) {
+        incTable.insert(index, "test" + index);
+      }
+      if (incTable.getCapacity() != 101) {
+        fail("Capacity should be 101 as soon as a rehash starts, but is " + incTable.getCapacity());
+      }
+      if (incTable.getRehashProgress() >= 1.0) {
+        fail("the old table should not be fully migrated right after the rehash starts");
+      }
+
+      // every key must be found while buckets are split between the old and new tables
+      for (int index = 0; index < 38; index++) {
+        if (!incTable.get(index).equals("test" + index)) {
+          fail("get() returned the wrong value for key " + index + " during a rehash");
+        }
+      }
+      if (!incTable.remove(0) || incTable.remove(0)) {
+        fail("remove() did not remove a key exactly once during a rehash");
+      }
+
+      // enough further operations finish the migration
+      for (int index = 1; index < 38; index++) {
+        incTable.get(index);
+      }
+      if (incTable.getRehashProgress() != 1.0) {
+        fail("rehash progress should be 1.0 once every bucket has been migrated but is "
+            + incTable.getRehashProgress());
+      }
+      if (incTable.numKeys() != 37) {
+        fail("numKeys should be 37 but was " + incTable.numKeys());
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that a table constructed with power of two capacity rounds its initial capacity up to a
+   * power of two, doubles it on each rehash, and stores negative and extreme keys correctly
+   */
+  @Test
+  public void test020_power_of_two_capacity() {
+    HashTable<Integer, String> powTable = new HashTable<Integer, String>(50, 0.75, 5, false, true);
+    try {
+      if (powTable.getCapacity() != 64) {
+        fail("initial capacity 50 should be rounded up to 64 but was " + powTable.getCapacity());
+      }
+
+      // the 48th insert reaches the load factor threshold of 64 buckets
+      for (int index = 0; index < 48; index++) {
+        powTable.insert(index, "test" + index);
+      }
+      if (powTable.getCapacity() != 128) {
+        fail("capacity should double to 128 but was " + powTable.getCapacity());
+      }
+
+      powTable.insert(-1, "minus one");
+      powTable.insert(Integer.MIN_VALUE, "min");
+      powTable.insert(Integer.MAX_VALUE, "max");
+      for (int index = 0; index < 48; index++) {
+        if (!powTable.get(index).equals("test" + index)) {
+          fail("get() returned the wrong value for key " + index);
+        }
+      }
+      if (!powTable.get(-1).equals("minus one") || !powTable.get(Integer.MIN_VALUE).equals("min")
+          || !powTable.get(Integer.MAX_VALUE).equals("max")) {
+        fail("get() returned the wrong value for a negative or extreme key");
+      }
+      if (!powTable.remove(Integer.MIN_VALUE) || powTable.numKeys() != 50) {
+        fail("remove() did not remove Integer.MIN_VALUE");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that a key whose hash code is Integer.MIN_VALUE can be stored in the default table, as
+   * Math.abs(Integer.MIN_VALUE) is negative
+   */
+  @Test
+  public void test021_min_value_hash_code() {
+    try {
+      htIntegerKey.insert(Integer.MIN_VALUE, "min");
+      if (!htIntegerKey.get(Integer.MIN_VALUE).equals("min")) {
+        fail("get() returned the wrong value for Integer.MIN_VALUE");
+      }
+      if (!htIntegerKey.remove(Integer.MIN_VALUE)) {
+        fail("remove() did not remove Integer.MIN_VALUE");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that putAll inserts every pair, grows the table once to the capacity repeated inserts
+   * would have reached, and reports every duplicate key instead of throwing on the first
+   */
+  @Test
+  public void test022_put_all() {
+    List<Map.Entry<Integer, String>> entries = new ArrayList<Map.Entry<Integer, String>>();
+    for (int index = 0; index < 1000; index++) {
+      entries.add(new AbstractMap.SimpleEntry<Integer, String>(index, "test" + index));
+    }
+    entries.add(new AbstractMap.SimpleEntry<Integer, String>(7, "duplicate"));
+    entries.add(new AbstractMap.SimpleEntry<Integer, String>(5000, "new"));
+    entries.add(new AbstractMap.SimpleEntry<Integer, String>(-3, "already in table"));
+
+    try {
+      htIntegerKey.insert(-3, "original");
+      List<Integer> duplicates = htIntegerKey.putAll(entries);
+      if (duplicates.size() != 2 || duplicates.get(0) != 7 || duplicates.get(1) != -3) {
+        fail("putAll should report the duplicates [7, -3] but reported " + duplicates);
+      }
+      if (htIntegerKey.numKeys() != 1002) {
+        fail("numKeys should be 1002 but was " + htIntegerKey.numKeys());
+      }
+      // 50 -> 101 -> 203 -> 407 -> 815 -> 1631, as if every pair were inserted one by one
+      if (htIntegerKey.getCapacity() != 1631) {
+        fail("capacity should be 1631 but was " + htIntegerKey.getCapacity());
+      }
+      if (!htIntegerKey.get(7).equals("test7") || !htIntegerKey.get(-3).equals("original")
+          || !htIntegerKey.get(5000).equals("new")) {
+        fail("putAll should keep the first value of a duplicate key");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that fromEntries builds a table holding every pair, and that a null key inserts nothing
+   */
+  @Test
+  public void test023_from_entries() {
+    List<Map.Entry<Integer, String>> entries = new ArrayList<Map.Entry<Integer, String>>();
+    for (int index = 0; index < 100; index++) {
+      entries.add(new AbstractMap.SimpleEntry<Integer, String>(index, "test" + index));
+    }
+
+    try {
+      HashTable<Integer, String> table = HashTable.fromEntries(entries);
+      if (table.numKeys() != 100 || table.getLoadFactorThreshold() != 0.75) {
+        fail("fromEntries should build a table of 100 keys with load factor threshold 0.75");
+      }
+      for (int index = 0; index < 100; index++) {
+        if (!table.get(index).equals("test" + index)) {
+          fail("get() returned the wrong value for key " + index);
+        }
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+
+    entries.add(new AbstractMap.SimpleEntry<Integer, String>(null, "null"));
+    try {
+      htIntegerKey.putAll(entries);
+      fail("putAll should throw IllegalNullKeyException for a null key");
+    } catch (IllegalNullKeyException e) {
+      if (htIntegerKey.numKeys() != 0) {
+        fail("putAll should not insert anything if a key is null");
+      }
+    } catch (Exception e) {
+      fail("IllegalNullKeyException should be thrown, not " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that metrics are off by default, and once enabled count operations, probes, and
+   * rehashes, sample the load factor, count chain lengths, and can be read over JMX
+   */
+  @Test
+  public void test024_metrics() {
+    if (htIntegerKey.getMetrics() != null) {
+      fail("metrics should not be recorded unless enabled");
+    }
+    HashTableMetrics metrics = htIntegerKey.enableMetrics();
+    try {
+      // the 38th and 76th inserts reach the load factor threshold
+      for (int index = 0; index < 100; index++) {
+        htIntegerKey.insert(index, "test" + index);
+      }
+      for (int index = 0; index < 100; index++) {
+        htIntegerKey.get(index);
+      }
+      htIntegerKey.remove(1000); // not in the table
+
+      if (metrics.getInsertCount() != 100 || metrics.getGetCount() != 100
+          || metrics.getRemoveCount() != 1) {
+        fail("metrics should count 100 inserts, 100 gets, and 1 remove");
+      }
+      // every get finds its key, so compares at least that one key
+      if (metrics.getAverageGetProbes() < 1.0 || metrics.getMaxGetProbes() < 1) {
+        fail("every get should compare at least one key");
+      }
+      if (metrics.getRehashCount() != 2 || metrics.getLoadFactorHistory().length != 2) {
+        fail("metrics should record 2 rehashes, each with a load factor sample");
+      }
+
+      long[] histogram = metrics.getChainLengthHistogram();
+      long buckets = 0;
+      long keys = 0;
+      for (int length = 0; length < histogram.length; length++) {
+        buckets += histogram[length];
+        keys += length * histogram[length];
+      }
+      if (buckets != htIntegerKey.getCapacity() || keys != 100) {
+        fail("the chain length histogram should count 203 buckets holding 100 keys");
+      }
+
+      // reads the same count over JMX
+      metrics.registerMBean("test024");
+      ObjectName name = new ObjectName("HashTable:type=HashTableMetrics,name=test024");
+      Object jmxCount = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "GetCount");
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+      if (!jmxCount.equals(100L)) {
+        fail("JMX should report 100 gets but reported " + jmxCount);
+      }
+
+      metrics.reset();
+      if (metrics.getGetCount() != 0 || metrics.getLoadFactorHistory().length != 0) {
+        fail("reset() should clear every count and the load factor history");
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that the chain length histogram can be read from another thread, as JMX does, while the
+   * table rehashes incrementally and its bucket becomes a tree and a chain again
+   */
+  @Test
+  public void test025_chain_length_histogram_from_another_thread() {
+    HashTable<CollidingKey, Integer> table =
+        new HashTable<CollidingKey, Integer>(10, 0.75, 6, true);
+    HashTableMetrics metrics = table.enableMetrics();
+    Throwable[] readerError = new Throwable[1]; // the exception thrown by the reader, if any
+    AtomicBoolean done = new AtomicBoolean(false); // set once the table stops changing
+    Thread reader = new Thread(() -> {
+      try {
+        while (!done.get()) {
+          metrics.getChainLengthHistogram();
+          metrics.getLoadFactorHistory();
+        }
+      } catch (Throwable e) {
+        readerError[0] = e;
+      }
+    });
+    try {
+      reader.start();
+      for (int round = 0; round < 50; round++) {
+        for (int id = 0; id < 100; id++) {
+          table.insert(new CollidingKey(id), id);
+        }
+        for (int id = 0; id < 100; id++) {
+          table.remove(new CollidingKey(id));
+        }
+      }
+      done.set(true);
+      reader.join();
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+    if (readerError[0] != null) {
+      fail("reading the histogram from another thread threw "
+          + readerError[0].getClass().getName());
+    }
+  }
 }
@@ -0,0 +1,278 @@
+// Title: IntHashTableTest
+// Files: IntHashTable, HashTableADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+import static org.junit.jupiter.api.Assertions.*; // org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit testing class which tests if the IntHashTable implementation works correctly
+ * 
+ * @author Michael Goldstein
+ * @see IntHashTable
+ * @see HashTableADT
+ * 
+ */
+public class IntHashTableTest {
+
+  IntHashTable htInt; // hash table used for testing (capacity: 50, LFT: 0.75)
+
+  /**
+   * Runs before any tests are run. Initializes a hash table with int keys and int values
+   * 
+   * @throws Exception if code in method throws an exception
+   */
+  @Before
+  public void setUp() throws Exception {
+    htInt = new IntHashTable();
+  }
+
+  /**
+   * Runs after each test is run. Resets the hash table used for testing by setting its reference to
+   * null.
+   * 
+   * @throws Exception if code in method throws an exception
+   */
+  @After
+  public void tearDown() throws Exception {
+    htInt = null;
+  }
+
+  /**
+   * Tests that an IntHashTable reports linear probing as its collision resolution strategy
+   */
+  @Test
+  public void test000_collision_scheme() {
+    if (htInt.getCollisionResolution() != 1) {
+      fail("IntHashTable uses linear probing, so collision resolution should be 1 but was "
+          + htInt.getCollisionResolution());
+    }
+  }
+
+  /**
+   * Tests that the boxed insert, remove, and get throw IllegalNullKeyException for a null key
+   */
+  @Test
+  public void test001_IllegalNullKey() {
+    try {
+      htInt.insert(null, 1);
+      fail("should not be able to insert null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("insert null key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htInt.remove(null);
+      fail("should not be able to remove with a null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("remove null key should not throw exception " + e.getClass().getName());
+    }
+
+    try {
+      htInt.get(null);
+      fail("should not be able to get with a null key");
+    } catch (IllegalNullKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("get null key should not throw exception " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests inserting a key value pair with a duplicate key correctly throws a DuplicateKeyException
+   */
+  @Test
+  public void test002_Insert_Same_Key() {
+    try {
+      htInt.insert(25, 1);
+      htInt.insert(25, 2);
+      fail("should not be able to insert a key value pair with a duplicate key");
+    } catch (DuplicateKeyException e) {
+      // this is expected
+    } catch (Exception e) {
+      fail("inserting a duplicate key should not throw exception " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that get returns the correct value for many keys, including negative and extreme keys
+   */
+  @Test
+  public void test003_get() {
+    try {
+      for (int index = -500; index < 500; index++) {
+        htInt.insert(index, index * 3);
+      }
+      htInt.insert(Integer.MIN_VALUE, 7);
+      htInt.insert(Integer.MAX_VALUE, 8);
+
+      if (htInt.numKeys() != 1002) {
+        fail("1002 keys were added but numKeys returned " + htInt.numKeys());
+      }
+      for (int index = -500; index < 500; index++) {
+        if (htInt.get(index) != index * 3) {
+          fail("get failed to return the correct value for key " + index);
+        }
+      }
+      if (htInt.get(Integer.MIN_VALUE) != 7 || htInt.get(Integer.MAX_VALUE) != 8) {
+        fail("get failed to return the correct value for Integer.MIN_VALUE or MAX_VALUE");
+      }
+    } catch (Exception e) {
+      fail("no exception should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that getting the value for a key not in the hash table throws a key not found exception
+   */
+  @Test
+  public void test004_get_not_in_table() {
+    try {
+      for (int index = 0; index < 50; index++) {
+        htInt.insert(index, index);
+      }
+      htInt.get(51);
+      fail("get should throw a KeyNotFoundException");
+    } catch (KeyNotFoundException e) {
+      // should throw exception
+    } catch (Exception e) {
+      fail("getting the value for a key not in table should not throw exception "
+          + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that removing keys keeps every remaining key reachable, which exercises the backward
+   * shift of entries in the same probe run
+   */
+  @Test
+  public void test005_remove_keeps_probe_runs_intact() {
+    try {
+      // a small table with a high threshold forces long probe runs that wrap around the table
+      IntHashTable table = new IntHashTable(7, 0.99);
+      for (int index = 0; index < 200; index++) {
+        table.insert(index, index);
+      }
+
+      // removes every other key
+      for (int index = 0; index < 200; index += 2) {
+        if (!table.remove(index)) {
+          fail("remove returned false on a key which is in the table");
+        }
+      }
+      if (table.remove(0)) {
+        fail("remove should return false for a key that was already removed");
+      }
+      if (table.numKeys() != 100) {
+        fail("remove did not decrease size correctly");
+      }
+
+      // odd keys must still be found and even keys must not
+      for (int index = 0; index < 200; index++) {
+        try {
+          if (table.get(index) != index || index % 2 == 0) {
+            fail("get returned a value for key " + index + " which is wrong or was removed");
+          }
+        } catch (KeyNotFoundException e) {
+          if (index % 2 == 1) {
+            fail("key " + index + " was not removed but can no longer be found");
+          }
+        }
+      }
+    } catch (Exception e) {
+      fail("no exception should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that the table expands to 2 * capacity + 1 once the load factor threshold is reached
+   */
+  @Test
+  public void test006_test_rehashing() {
+    try {
+      for (int index = 0; index < 37; index++) {
+        htInt.insert(index, index);
+      }
+      if (htInt.getCapacity() != 50) {
+        fail("Capacity was changed despite not enough keys being added to cause a rehash");
+      }
+
+      htInt.insert(37, 37); // reaches load factor of 0.76, which should cause a rehash
+      if (htInt.getCapacity() != 101) {
+        fail("Capacity was not changed to the correct value, 101, upon rehash. Instead, it is "
+            + htInt.getCapacity());
+      }
+      if (htInt.getLoadFactor() != (38.0 / 101.0)) {
+        fail("Load factor after rehash should be 38/101 but was " + htInt.getLoadFactor());
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here");
+    }
+  }
+
+  /**
+   * Tests that a table never fills up completely even if the load factor threshold is above 1
+   */
+  @Test
+  public void test007_threshold_above_one() {
+    try {
+      IntHashTable table = new IntHashTable(1, 2.0);
+      for (int index = 0; index < 100; index++) {
+        table.insert(index, index);
+      }
+      if (table.numKeys() != 100 || table.getCapacity() <= 100) {
+        fail("table with a threshold above 1 did not grow to keep an empty slot");
+      }
+      table.get(99);
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+
+  /**
+   * Tests that inserting and removing many keys keeps every slot's occupied bit correct, across
+   * the boundaries between the longs of the bitmap and across rehashes
+   */
+  @Test
+  public void test008_occupancy_bitmap_many_keys() {
+    try {
+      IntHashTable table = new IntHashTable(1, 0.75);
+      for (int key = -1000; key < 1000; key++) {
+        table.insert(key, 2 * key);
+      }
+      for (int key = -1000; key < 1000; key += 3) { // removes every third key
+        if (!table.remove(key)) {
+          fail("key " + key + " should have been removed");
+        }
+      }
+      for (int key = -1000; key < 1000; key++) {
+        boolean removed = (key + 1000) % 3 == 0;
+        try {
+          if (table.get(key) != 2 * key || removed) {
+            fail("get(" + key + ") returned a value after the key was removed or a wrong value");
+          }
+        } catch (KeyNotFoundException e) {
+          if (!removed) {
+            fail("key " + key + " should still be in the table");
+          }
+        }
+      }
+      if (table.numKeys() != 1333) {
+        fail("table should hold 1333 keys but holds " + table.numKeys());
+      }
+    } catch (Exception e) {
+      fail("no exceptions should be thrown here " + e.getClass().getName());
+    }
+  }
+}
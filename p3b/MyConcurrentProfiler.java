@@ -0,0 +1,113 @@
+// Title: MyConcurrentProfiler
+// Files: ConcurrentHashTable, HashTableADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 3/28/19
+
+/**
+ * Multi-threaded variant of MyProfiler. Measures the throughput of ConcurrentHashTable when the
+ * same number of inserts and retrieves is split between 1, 2, 4, ... threads, up to the number of
+ * available cores (or a given maximum), to show how throughput scales with cores.
+ * 
+ * @author Michael Goldstein
+ * @see ConcurrentHashTable
+ * @see MyProfiler
+ */
+public class MyConcurrentProfiler {
+
+  /**
+   * Inserts and then retrieves the given number of keys, split evenly between the given number of
+   * threads, each working on its own range of keys in one shared hash table
+   * 
+   * @param numElements the total number of keys to be inserted and retrieved
+   * @param numThreads  the number of threads to split the work between
+   * @return the time in nanoseconds all threads took to finish
+   * @throws Exception if a thread throws an exception, which should not happen
+   */
+  private static long timeRun(int numElements, int numThreads) throws Exception {
+    HashTableADT<Integer, Integer> hashtable = new ConcurrentHashTable<Integer, Integer>();
+    Thread[] threads = new Thread[numThreads];
+    Exception[] failures = new Exception[numThreads];
+
+    long start = System.nanoTime();
+    for (int thread = 0; thread < numThreads; thread++) {
+      final int id = thread;
+      // each thread works on keys id, id + numThreads, id + 2 * numThreads, ...
+      threads[thread] = new Thread(() -> {
+        try {
+          for (int key = id; key < numElements; key += numThreads) {
+            hashtable.insert(key, key);
+          }
+          for (int key = id; key < numElements; key += numThreads) {
+            hashtable.get(key);
+          }
+        } catch (Exception e) {
+          failures[id] = e;
+        }
+      });
+      threads[thread].start();
+    }
+    for (int thread = 0; thread < numThreads; thread++) {
+      threads[thread].join();
+      if (failures[thread] != null) {
+        throw failures[thread];
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Returns the number of threads of the run after a run with the given number of threads, which
+   * is double that number but never skips past maxThreads
+   * 
+   * @param numThreads the number of threads of the last run
+   * @param maxThreads the greatest number of threads to profile
+   * @return the number of threads of the next run, which is more than maxThreads after the run
+   *         with maxThreads threads
+   */
+  private static int nextNumThreads(int numThreads, int maxThreads) {
+    if (numThreads < maxThreads && 2 * numThreads > maxThreads) {
+      return maxThreads; // runs maxThreads itself when doubling would skip over it
+    }
+    return 2 * numThreads;
+  }
+
+  /**
+   * Driver method which profiles ConcurrentHashTable with 1, 2, 4, ... threads, and then with the
+   * maximum number of threads if it is not a power of two
+   * 
+   * @param args input from command line: the number of keys to insert and retrieve, and optionally
+   *             the maximum number of threads (default is the number of available cores)
+   */
+  public static void main(String[] args) {
+    try {
+      int numElements = Integer.parseInt(args[0]); // gets value from command line
+      int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+          : Runtime.getRuntime().availableProcessors();
+
+      timeRun(numElements, maxThreads); // warms up the JIT compiler before any timed runs
+
+      // doubles the number of threads each run, ending with exactly maxThreads even if it is not a
+      // power of two (such as 6 cores), so that the scaling at maxThreads is always measured
+      double singleThreadRate = 0;
+      for (int numThreads = 1; numThreads <= maxThreads;
+          numThreads = nextNumThreads(numThreads, maxThreads)) {
+        long time = timeRun(numElements, numThreads);
+        double rate = 2.0 * numElements / (time / 1e9); // inserts plus retrieves per second
+        if (numThreads == 1) {
+          singleThreadRate = rate;
+        }
+        System.out.println(String.format("%2d thread(s): %,.0f operations/sec (%.2fx of 1 thread)",
+            numThreads, rate, rate / singleThreadRate));
+      }
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java MyConcurrentProfiler <num_elements> [max_threads] failed! "
+          + "A(n) " + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
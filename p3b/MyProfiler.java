@@ -1,5 +1,5 @@
 // Title: MyProfiler
-// Files: HashTable, TreeMap
+// Files: HashTable, HashTableMetrics, IntHashTable, MappedHashTable, TreeMap
 // Course: CS400 Spring 2019
 //
 // Author: Michael Goldstein
@@ -7,6 +7,8 @@
 // Lecturer's Name: Deb Deppeler
 // Due Date: 3/28/19
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.TreeMap;
 
 /**
@@ -29,7 +31,16 @@ public class MyProfiler<K extends Comparable<K>, V> {
    * Constructor which initializes hash table and tree map for testing
    */
   public MyProfiler() {
-    hashtable = new HashTable<K, V>();
+    this(new HashTable<K, V>());
+  }
+
+  /**
+   * Constructor which profiles the given hash table implementation against a new tree map
+   * 
+   * @param hashtable the hash table to be used in testing
+   */
+  public MyProfiler(HashTableADT<K, V> hashtable) {
+    this.hashtable = hashtable;
     treemap = new TreeMap<K, V>();
   }
 
@@ -73,14 +84,35 @@ public class MyProfiler<K extends Comparable<K>, V> {
    * Driver method which inserts and removes the given number of elements to test runtime
    * performance of hash table and tree map
    * 
-   * @param args input from command line which determines number of inserts and removes
+   * @param args input from command line which determines number of inserts and removes. If a
+   *             second argument of "int" is given, IntHashTable is profiled instead of HashTable,
+   *             and if it is "mapped", MappedHashTable (stored in a temporary file) is profiled.
+   *             If it is "metrics", HashTable is profiled with its metrics enabled, which are
+   *             readable over JMX while the profiler runs and are printed once it finishes
    */
   public static void main(String[] args) {
     try {
       int numElements = Integer.parseInt(args[0]); // gets value from command line
 
-      // creates instance of profiler which will add and get elements
-      MyProfiler<Integer, Integer> profiler = new MyProfiler<Integer, Integer>();
+      // creates instance of profiler which will add and get elements, using the primitive int
+      // hash table or the memory mapped hash table if requested on the command line
+      MyProfiler<Integer, Integer> profiler;
+      HashTableMetrics metrics = null;
+      if (args.length > 1 && args[1].equals("int")) {
+        profiler = new MyProfiler<Integer, Integer>(new IntHashTable());
+      } else if (args.length > 1 && args[1].equals("mapped")) {
+        Path file = Files.createTempFile("MyProfiler", ".table");
+        file.toFile().deleteOnExit();
+        profiler = new MyProfiler<Integer, Integer>(
+            new MappedHashTable<Integer, Integer>(file, Serializer.INTEGER, Serializer.INTEGER));
+      } else if (args.length > 1 && args[1].equals("metrics")) {
+        HashTable<Integer, Integer> hashtable = new HashTable<Integer, Integer>();
+        metrics = hashtable.enableMetrics();
+        metrics.registerMBean("MyProfiler");
+        profiler = new MyProfiler<Integer, Integer>(hashtable);
+      } else {
+        profiler = new MyProfiler<Integer, Integer>();
+      }
 
       // adds the given number of items
       for (int index = 0; index < numElements; index++) {
@@ -95,6 +127,9 @@ public class MyProfiler<K extends Comparable<K>, V> {
       // prints out message on completion
       String msg = String.format("Inserted and retreived %d (key,value) pairs", numElements);
       System.out.println(msg);
+      if (metrics != null) {
+        System.out.println(metrics);
+      }
     } catch (Exception e) {
       // prints out message in case any exception is thrown as none should be thrown
       System.out
@@ -0,0 +1,345 @@
+// Title: CSRGraph
+// Files: Set, List, Arrays, AbstractSet, AbstractList, Iterator, NoSuchElementException, GraphADT
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 4/16/19
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A frozen, read-only copy of a graph in compressed sparse row (CSR) form. Each vertex is given an
+ * int id from 0 to order() - 1, in the order the copied graph's set of vertices lists them. The
+ * edges of every vertex are stored next to each other in one int array of ids, with a second array
+ * giving where each vertex's edges start, and the same is done for the reversed edges, so that the
+ * vertices which depend on a vertex can be found as quickly as the vertices it depends on. A vertex
+ * name is found by hashing it into an int array of ids, so the graph takes a few ints per vertex
+ * and per edge instead of a hash set entry for every edge
+ * 
+ * @author Michael Goldstein
+ * @see GraphADT
+ * @see Graph
+ * 
+ */
+public class CSRGraph implements GraphADT {
+  private String[] vertices; // the vertex with each id
+  private int[] idTable; // open addressing hash table of (id + 1) of each vertex, 0 if empty
+  private int idShift; // 32 minus the number of bits in an index of idTable
+  private int[] offsets; // the edges of vertex id are at indexes offsets[id] to offsets[id + 1]
+  private int[] targets; // the id of the vertex each edge goes to
+  private int[] reverseOffsets; // the same as offsets, for the reversed edges
+  private int[] reverseTargets; // the id of the vertex each edge comes from
+
+  /**
+   * Constructor which copies the given graph. Changes made to the given graph afterwards do not
+   * change this graph
+   * 
+   * @param graph the graph to be copied
+   * @throws IllegalArgumentException if the given graph has an edge to a vertex which is not in its
+   *                                  set of all vertices
+   */
+  public CSRGraph(GraphADT graph) {
+    // gives each vertex an id, in the order the graph's set of vertices lists them
+    Set<String> allVertices = graph.getAllVertices();
+    vertices = allVertices.toArray(new String[allVertices.size()]);
+    int tableSize = 2;
+    while (tableSize < 2 * vertices.length) { // keeps the table at most half full
+      tableSize *= 2;
+    }
+    idTable = new int[tableSize];
+    idShift = 32 - Integer.numberOfTrailingZeros(tableSize);
+    for (int id = 0; id < vertices.length; id++) {
+      idTable[slotOf(vertices[id])] = id + 1;
+    }
+
+    // copies the edges of each vertex into targets, growing it if size() was too small
+    offsets = new int[vertices.length + 1];
+    targets = new int[Math.max(graph.size(), 0)];
+    int numEdges = 0;
+    for (int id = 0; id < vertices.length; id++) {
+      for (String adjVertex : graph.getAdjacentVerticesOf(vertices[id])) {
+        int target = getId(adjVertex);
+        if (target < 0) {
+          throw new IllegalArgumentException(
+              "The graph has an edge to " + adjVertex + ", which is not in its set of vertices");
+        }
+        if (numEdges == targets.length) {
+          targets = Arrays.copyOf(targets, Math.max(16, 2 * numEdges));
+        }
+        targets[numEdges++] = target;
+      }
+      offsets[id + 1] = numEdges;
+    }
+    if (numEdges < targets.length) {
+      targets = Arrays.copyOf(targets, numEdges);
+    }
+
+    // counts the edges going to each vertex, then places each edge after the ones before it, which
+    // lists the vertices with an edge to a vertex in order of their ids
+    reverseOffsets = new int[vertices.length + 1];
+    for (int edge = 0; edge < numEdges; edge++) {
+      reverseOffsets[targets[edge] + 1]++;
+    }
+    for (int id = 0; id < vertices.length; id++) {
+      reverseOffsets[id + 1] += reverseOffsets[id];
+    }
+    reverseTargets = new int[numEdges];
+    int[] nextIndex = Arrays.copyOf(reverseOffsets, vertices.length);
+    for (int id = 0; id < vertices.length; id++) {
+      for (int edge = offsets[id]; edge < offsets[id + 1]; edge++) {
+        reverseTargets[nextIndex[targets[edge]]++] = id;
+      }
+    }
+  }
+
+  /**
+   * Helper method which finds the slot of idTable that holds the given vertex's id, or the empty
+   * slot where it would be placed if it is not in the graph
+   * 
+   * @param vertex the non-null vertex to be found
+   * @return the index of the slot of idTable for the given vertex
+   */
+  private int slotOf(String vertex) {
+    int mask = idTable.length - 1;
+    // multiplies by the golden ratio to spread out the hash codes of similar names, such as
+    // "package1" and "package2", which would otherwise fill neighbouring slots
+    int slot = (vertex.hashCode() * 0x9E3779B9) >>> idShift;
+    while (idTable[slot] != 0 && !vertices[idTable[slot] - 1].equals(vertex)) {
+      slot = (slot + 1) & mask; // linear probing
+    }
+    return slot;
+  }
+
+  /**
+   * Returns the id of the given vertex
+   * 
+   * @param vertex the vertex whose id is to be returned
+   * @return the id of the vertex, or -1 if the vertex is null or not in the graph
+   */
+  public int getId(String vertex) {
+    if (vertex == null) {
+      return -1;
+    }
+    return idTable[slotOf(vertex)] - 1;
+  }
+
+  /**
+   * Returns the vertex with the given id
+   * 
+   * @param id the id of the vertex, from 0 to order() - 1
+   * @return the vertex with the given id
+   * @throws IndexOutOfBoundsException if the id is not the id of a vertex
+   */
+  public String getVertex(int id) {
+    return vertices[id];
+  }
+
+  /**
+   * Returns the number of edges going from the vertex with the given id
+   * 
+   * @param id the id of the vertex
+   * @return the number of vertices adjacent to the vertex
+   */
+  public int outDegreeOf(int id) {
+    return offsets[id + 1] - offsets[id];
+  }
+
+  /**
+   * Returns the id of a vertex adjacent to the vertex with the given id, in the order
+   * getAdjacentVerticesOf lists them
+   * 
+   * @param id    the id of the vertex
+   * @param index the index of the adjacent vertex, from 0 to outDegreeOf(id) - 1
+   * @return the id of the adjacent vertex at the given index
+   */
+  public int getAdjacentIdOf(int id, int index) {
+    return targets[offsets[id] + index];
+  }
+
+  /**
+   * Returns the number of edges going to the vertex with the given id
+   * 
+   * @param id the id of the vertex
+   * @return the number of vertices the vertex is adjacent to
+   */
+  public int inDegreeOf(int id) {
+    return reverseOffsets[id + 1] - reverseOffsets[id];
+  }
+
+  /**
+   * Returns the id of a vertex which has an edge to the vertex with the given id, in order of their
+   * ids
+   * 
+   * @param id    the id of the vertex
+   * @param index the index of the vertex with an edge to it, from 0 to inDegreeOf(id) - 1
+   * @return the id of the vertex with an edge to the given vertex at the given index
+   */
+  public int getReverseAdjacentIdOf(int id, int index) {
+    return reverseTargets[reverseOffsets[id] + index];
+  }
+
+  /**
+   * Not supported, as this graph cannot be changed
+   * 
+   * @param vertex the vertex which would be added
+   * @throws UnsupportedOperationException always
+   */
+  public void addVertex(String vertex) {
+    throw new UnsupportedOperationException("A CSRGraph cannot be changed");
+  }
+
+  /**
+   * Not supported, as this graph cannot be changed
+   * 
+   * @param vertex the vertex which would be removed
+   * @throws UnsupportedOperationException always
+   */
+  public void removeVertex(String vertex) {
+    throw new UnsupportedOperationException("A CSRGraph cannot be changed");
+  }
+
+  /**
+   * Not supported, as this graph cannot be changed
+   * 
+   * @param vertex1 the vertex the edge would go from
+   * @param vertex2 the vertex the edge would go to
+   * @throws UnsupportedOperationException always
+   */
+  public void addEdge(String vertex1, String vertex2) {
+    throw new UnsupportedOperationException("A CSRGraph cannot be changed");
+  }
+
+  /**
+   * Not supported, as this graph cannot be changed
+   * 
+   * @param vertex1 the vertex the edge would go from
+   * @param vertex2 the vertex the edge would go to
+   * @throws UnsupportedOperationException always
+   */
+  public void removeEdge(String vertex1, String vertex2) {
+    throw new UnsupportedOperationException("A CSRGraph cannot be changed");
+  }
+
+  /**
+   * Returns a Set that contains all the vertices, in order of their ids. The set cannot be changed
+   * 
+   * @return a Set of all vertices in the graph
+   */
+  public Set<String> getAllVertices() {
+    return new AbstractSet<String>() {
+      @Override
+      public boolean contains(Object vertex) {
+        return vertex instanceof String && getId((String) vertex) >= 0;
+      }
+
+      @Override
+      public Iterator<String> iterator() {
+        return new Iterator<String>() {
+          private int nextId = 0; // the id of the next vertex to be returned
+
+          @Override
+          public boolean hasNext() {
+            return nextId < vertices.length;
+          }
+
+          @Override
+          public String next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            return vertices[nextId++];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return vertices.length;
+      }
+    };
+  }
+
+  /**
+   * Helper method which returns a list of the vertices with the ids stored in the given part of
+   * the given array. The list reads the array directly instead of copying it, and cannot be changed
+   * 
+   * @param ids   the array of ids
+   * @param start the index of the first id in the list
+   * @param end   the index after the last id in the list
+   * @return a List<String> of the vertices with the given ids
+   */
+  private List<String> listOf(int[] ids, int start, int end) {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        if (index < 0 || index >= end - start) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (end - start));
+        }
+        return vertices[ids[start + index]];
+      }
+
+      @Override
+      public int size() {
+        return end - start;
+      }
+    };
+  }
+
+  /**
+   * Returns all the neighbor (adjacent) vertices of a vertex, in the same order as the copied graph
+   * listed them. The list cannot be changed
+   * 
+   * @param vertex the specified vertex whose adjacent vertices are to be returned
+   * @return a List<String> of all the adjacent vertices for specified vertex, or null if the
+   *         vertex is null or not in the graph
+   */
+  public List<String> getAdjacentVerticesOf(String vertex) {
+    int id = getId(vertex);
+    if (id < 0) {
+      return null; // returns null if the given vertex is null or not in graph
+    }
+    return listOf(targets, offsets[id], offsets[id + 1]);
+  }
+
+  /**
+   * Returns all the vertices which have an edge to a vertex, in order of their ids. The list cannot
+   * be changed
+   * 
+   * @param vertex the specified vertex whose reverse adjacent vertices are to be returned
+   * @return a List<String> of all the vertices with an edge to the specified vertex, or null if the
+   *         vertex is null or not in the graph
+   */
+  public List<String> getReverseAdjacentVerticesOf(String vertex) {
+    int id = getId(vertex);
+    if (id < 0) {
+      return null; // returns null if the given vertex is null or not in graph
+    }
+    return listOf(reverseTargets, reverseOffsets[id], reverseOffsets[id + 1]);
+  }
+
+  /**
+   * Returns the number of edges in this graph.
+   * 
+   * @return the number of edges in this graph (size)
+   */
+  public int size() {
+    return targets.length;
+  }
+
+  /**
+   * Returns the number of vertices in this graph.
+   * 
+   * @return the number of vertices in this graph (order)
+   */
+  public int order() {
+    return vertices.length;
+  }
+}
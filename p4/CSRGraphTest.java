@@ -0,0 +1,199 @@
+// Title: CSRGraphTest
+// Files: CSRGraph, Graph, PackageManager, JUnit
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 4/16/19
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit testing class which tests that a CSRGraph is a correct, unchangeable copy of a Graph, and
+ * that a PackageManager gives the same answers once its graph is frozen into a CSRGraph
+ * 
+ * @author Michael Goldstein
+ * @see CSRGraph
+ * 
+ */
+public class CSRGraphTest {
+  Graph graph; // graph which is copied into a CSRGraph in each test
+
+  /**
+   * Method which runs before each test, creating a graph in which vertex0 has edges to vertex3,
+   * vertex1, and vertex2 (in that order), vertex1 has an edge to vertex2, and vertex4 has no edges
+   */
+  @BeforeEach
+  public void beforeEach() {
+    graph = new Graph();
+    graph.addEdge("vertex0", "vertex3");
+    graph.addEdge("vertex0", "vertex1");
+    graph.addEdge("vertex0", "vertex2");
+    graph.addEdge("vertex1", "vertex2");
+    graph.addVertex("vertex4");
+  }
+
+  /**
+   * Method which runs after each test, setting the testing graph's reference to null
+   */
+  @AfterEach
+  public void afterEach() {
+    graph = null;
+  }
+
+  /**
+   * Checks that a CSRGraph has the same vertices and edges as the graph it copied, with the edges
+   * of each vertex in the same order, and that changing the copied graph afterwards does not
+   * change it
+   * 
+   * @see CSRGraph#CSRGraph(GraphADT)
+   * @see CSRGraph#getAdjacentVerticesOf(String)
+   */
+  @Test
+  public void test000_copiesGraph() {
+    CSRGraph csrGraph = new CSRGraph(graph);
+
+    // checks that the vertices are listed in the same order as the copied graph lists them
+    if (csrGraph.order() != 5 || csrGraph.size() != 4) {
+      fail("The CSRGraph should have 5 vertices and 4 edges, but had " + csrGraph.order()
+          + " vertices and " + csrGraph.size() + " edges");
+    }
+    assertEquals(new ArrayList<String>(graph.getAllVertices()),
+        new ArrayList<String>(csrGraph.getAllVertices()));
+    for (String vertex : graph.getAllVertices()) {
+      assertEquals(graph.getAdjacentVerticesOf(vertex), csrGraph.getAdjacentVerticesOf(vertex));
+    }
+    assertEquals(Arrays.asList("vertex3", "vertex1", "vertex2"),
+        csrGraph.getAdjacentVerticesOf("vertex0"));
+
+    // checks that the reversed edges are found
+    List<String> reverseAdjList = csrGraph.getReverseAdjacentVerticesOf("vertex2");
+    if (reverseAdjList.size() != 2 || !reverseAdjList.contains("vertex0")
+        || !reverseAdjList.contains("vertex1")) {
+      fail("vertex0 and vertex1 have edges to vertex2, but the CSRGraph found " + reverseAdjList);
+    }
+
+    // checks that changing the copied graph does not change the CSRGraph
+    graph.removeVertex("vertex1");
+    graph.addEdge("vertex4", "vertex5");
+    if (csrGraph.order() != 5 || !csrGraph.getAllVertices().contains("vertex1")
+        || csrGraph.getAllVertices().contains("vertex5")
+        || !csrGraph.getAdjacentVerticesOf("vertex4").isEmpty()) {
+      fail("Changing the copied graph should not change the CSRGraph");
+    }
+  }
+
+  /**
+   * Checks that the ids of the vertices can be used to find each vertex and its edges, that
+   * vertices not in the graph are not found, and that the graph cannot be changed
+   * 
+   * @see CSRGraph#getId(String)
+   * @see CSRGraph#getAdjacentIdOf(int, int)
+   * @see CSRGraph#getReverseAdjacentIdOf(int, int)
+   */
+  @Test
+  public void test001_idsAndUnsupportedChanges() {
+    CSRGraph csrGraph = new CSRGraph(graph);
+
+    // checks that each id finds its vertex and the same edges as the vertex's name
+    for (int id = 0; id < csrGraph.order(); id++) {
+      String vertex = csrGraph.getVertex(id);
+      if (csrGraph.getId(vertex) != id) {
+        fail(vertex + " has id " + id + ", but getId() returned " + csrGraph.getId(vertex));
+      }
+      List<String> adjList = csrGraph.getAdjacentVerticesOf(vertex);
+      if (csrGraph.outDegreeOf(id) != adjList.size()) {
+        fail(vertex + " should have " + adjList.size() + " edges going from it");
+      }
+      for (int index = 0; index < adjList.size(); index++) {
+        assertEquals(adjList.get(index), csrGraph.getVertex(csrGraph.getAdjacentIdOf(id, index)));
+      }
+      List<String> reverseAdjList = csrGraph.getReverseAdjacentVerticesOf(vertex);
+      if (csrGraph.inDegreeOf(id) != reverseAdjList.size()) {
+        fail(vertex + " should have " + reverseAdjList.size() + " edges going to it");
+      }
+      for (int index = 0; index < reverseAdjList.size(); index++) {
+        assertEquals(reverseAdjList.get(index),
+            csrGraph.getVertex(csrGraph.getReverseAdjacentIdOf(id, index)));
+      }
+    }
+
+    // checks that null and missing vertices are not found
+    if (csrGraph.getId(null) != -1 || csrGraph.getId("vertex5") != -1
+        || csrGraph.getAdjacentVerticesOf("vertex5") != null
+        || csrGraph.getAllVertices().contains("vertex5")) {
+      fail("vertex5 is not in the graph, but was found in the CSRGraph");
+    }
+
+    // checks that the graph cannot be changed
+    try {
+      csrGraph.addEdge("vertex4", "vertex0");
+      fail("Adding an edge to a CSRGraph should throw an UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      // this should occur as a CSRGraph cannot be changed
+    }
+    try {
+      csrGraph.getAdjacentVerticesOf("vertex0").remove(0);
+      fail("Changing an adjacency list should throw an UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      // this should occur as a CSRGraph cannot be changed
+    }
+  }
+
+  /**
+   * Checks that a PackageManager whose graph is frozen into a CSRGraph gives the same installation
+   * orders, still finds cycles, and cannot construct another graph
+   * 
+   * @see PackageManager#freezeGraph()
+   */
+  @Test
+  public void test002_frozenPackageManager() {
+    try {
+      PackageManager packageManager = new PackageManager();
+      PackageManager frozenPackageManager = new PackageManager();
+      packageManager.constructGraph("testJSON005.json");
+      frozenPackageManager.constructGraph("testJSON005.json");
+      frozenPackageManager.freezeGraph();
+
+      // checks that the frozen package manager gives the same answers
+      assertEquals(packageManager.getAllPackages(), frozenPackageManager.getAllPackages());
+      for (String pkg : packageManager.getAllPackages()) {
+        assertEquals(packageManager.getInstallationOrder(pkg),
+            frozenPackageManager.getInstallationOrder(pkg));
+      }
+      assertEquals(packageManager.toInstall("G", "Z"), frozenPackageManager.toInstall("G", "Z"));
+      assertEquals(packageManager.getInstallationOrderForAllPackages(),
+          frozenPackageManager.getInstallationOrderForAllPackages());
+
+      // checks that the frozen graph cannot be changed by constructing another graph
+      try {
+        frozenPackageManager.constructGraph("testJSON001.json");
+        fail("constructGraph() should throw an UnsupportedOperationException once the graph is "
+            + "frozen");
+      } catch (UnsupportedOperationException e) {
+        // this should occur as a CSRGraph cannot be changed
+      }
+
+      // checks that a cycle is still found
+      PackageManager cyclicPackageManager = new PackageManager();
+      cyclicPackageManager.constructGraph("testJSON003.json");
+      cyclicPackageManager.freezeGraph();
+      try {
+        cyclicPackageManager.getInstallationOrder("A");
+        fail("A CycleException should be thrown as the install order for A has a cycle");
+      } catch (CycleException e) {
+        // there is a cycle in the install order for "A"
+      }
+    } catch (Exception e) {
+      fail("No exception should be thrown when using a frozen graph, but a " + e.getClass()
+          + " was thrown");
+    }
+  }
+}
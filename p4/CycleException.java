@@ -1,5 +1,53 @@
+// Title: CycleException
+// Files: List, Set, ArrayList
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 4/16/19
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exception thrown when packages depend on each other in a cycle, so that none of them can be
+ * installed before the others. It holds the sets of packages which form the cycles that were found
+ *
+ * @author Michael Goldstein
+ * @see PackageManager
+ *
+ */
 @SuppressWarnings("serial")
 public class CycleException extends Exception {
+  private List<Set<String>> cycles; // the sets of packages which depend on each other in a cycle
+
+  /**
+   * Constructor for a CycleException which does not say which packages are in the cycle
+   */
+  public CycleException() {
+    cycles = new ArrayList<Set<String>>();
+  }
+
+  /**
+   * Constructor for a CycleException which holds the given sets of packages which form cycles
+   *
+   * @param cycles the sets of packages which depend on each other in a cycle
+   */
+  public CycleException(List<Set<String>> cycles) {
+    super("Packages depend on each other in a cycle: " + cycles);
+    this.cycles = cycles;
+  }
 
+  /**
+   * Returns the sets of packages which form the cycles that were found. Every package in a set
+   * depends, directly or through other packages, on every other package in the set
+   *
+   * @return a List of the sets of packages which depend on each other in a cycle, which is empty if
+   *         the packages are not known
+   */
+  public List<Set<String>> getCycles() {
+    return cycles;
+  }
 }
@@ -0,0 +1,279 @@
+// Title: DependencyClosureCache
+// Files: CSRGraph, GraphADT, CycleException, List, Set, ArrayList, Arrays, LinkedHashSet, BitSet
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 4/16/19
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A cache of the transitive dependencies (the dependencies, the dependencies of those, and so on)
+ * of the packages of one version of a dependency graph. The graph is copied into a CSRGraph, so
+ * every package is an int id, and each installation order, set of dependencies, and the number of
+ * dependencies of every package is only found the first time it is asked for. A cache must be
+ * replaced once the graph it copied is changed.
+ * 
+ * The arrays and sets returned are shared by every caller, so they must not be changed.
+ * 
+ * @author Michael Goldstein
+ * @see PackageManager
+ * @see CSRGraph
+ * 
+ */
+public class DependencyClosureCache {
+  private CSRGraph graph; // the copy of the graph, with an edge from a package to each dependency
+  private int[][] installationOrders; // the installation order of each package, if found
+  private BitSet[] closures; // the packages in the installation order of each package, if found
+  private int[] dependencyCounts; // the number of dependencies of every package, once found
+
+  // arrays reused by every search, so that a search only takes time for the packages it reaches
+  private int[] searchStamps; // the number of the last search that reached each package
+  private int searchNumber; // the number of the current search
+  private boolean[] inStack; // whether each package is in the stack of the current search
+  private int[] DFSStack; // the packages whose dependencies are being searched
+  private int[] nextDependency; // the index of the next dependency to search of each package
+  private int[] orderBuffer; // the packages listed by the current search
+
+  /**
+   * Constructor which copies the given dependency graph, or uses it directly if it is a CSRGraph,
+   * as a CSRGraph cannot be changed
+   * 
+   * @param graph the dependency graph of the packages
+   */
+  public DependencyClosureCache(GraphADT graph) {
+    this.graph = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+    int numPackages = this.graph.order();
+    installationOrders = new int[numPackages][];
+    closures = new BitSet[numPackages];
+    searchStamps = new int[numPackages];
+    searchNumber = 0;
+    inStack = new boolean[numPackages];
+    DFSStack = new int[numPackages];
+    nextDependency = new int[numPackages];
+    orderBuffer = new int[numPackages];
+  }
+
+  /**
+   * Returns the id of the given package
+   * 
+   * @param pkg the package whose id is to be returned
+   * @return the id of the package, or -1 if the package is null or not in the graph
+   */
+  public int getId(String pkg) {
+    return graph.getId(pkg);
+  }
+
+  /**
+   * Returns the package with the given id
+   * 
+   * @param id the id of the package
+   * @return the package with the given id
+   */
+  public String getPackage(int id) {
+    return graph.getVertex(id);
+  }
+
+  /**
+   * Returns the number of packages in the graph
+   * 
+   * @return the number of packages in the graph
+   */
+  public int getNumPackages() {
+    return graph.order();
+  }
+
+  /**
+   * Helper method which runs a depth first search from the given package, listing each package it
+   * reaches once all of that package's dependencies have been listed, and skipping any package
+   * reached by an earlier call in the same search
+   * 
+   * @param id    the id of the package the search starts from
+   * @param order the array the packages are listed in
+   * @param size  the number of packages already in the array
+   * @return the number of packages in the array once those reached have been listed
+   * @throws CycleException if a package reached depends on itself, directly or through other
+   *                        packages, which holds the packages of that cycle
+   */
+  private int listDependencies(int id, int[] order, int size) throws CycleException {
+    if (searchStamps[id] == searchNumber) {
+      return size; // the package was already reached
+    }
+    int stackSize = 0;
+    DFSStack[stackSize++] = id;
+    searchStamps[id] = searchNumber;
+    inStack[id] = true;
+    nextDependency[id] = 0;
+
+    // loop which runs DFS as long as stack is not empty
+    while (stackSize > 0) {
+      int currentPackage = DFSStack[stackSize - 1]; // "current" package in search
+      if (nextDependency[currentPackage] < graph.outDegreeOf(currentPackage)) {
+        // searches the next dependency of the current package if it has not been reached yet
+        int dependency = graph.getAdjacentIdOf(currentPackage, nextDependency[currentPackage]++);
+        if (inStack[dependency]) {
+          // the packages in the stack from the dependency to the current package form a cycle
+          Set<String> cycle = new LinkedHashSet<String>();
+          int index = stackSize - 1;
+          while (DFSStack[index] != dependency) {
+            index--;
+          }
+          for (; index < stackSize; index++) {
+            cycle.add(graph.getVertex(DFSStack[index]));
+          }
+          for (index = 0; index < stackSize; index++) { // resets the stack for the next search
+            inStack[DFSStack[index]] = false;
+          }
+          List<Set<String>> cycles = new ArrayList<Set<String>>();
+          cycles.add(cycle);
+          throw new CycleException(cycles);
+        }
+        if (searchStamps[dependency] != searchNumber) {
+          DFSStack[stackSize++] = dependency;
+          searchStamps[dependency] = searchNumber;
+          inStack[dependency] = true;
+          nextDependency[dependency] = 0;
+        }
+      } else {
+        // lists the current package once all of its dependencies have been listed
+        stackSize--;
+        inStack[currentPackage] = false;
+        order[size++] = currentPackage;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Helper method which starts a new search, so that no package counts as reached
+   */
+  private void startSearch() {
+    searchNumber++;
+    if (searchNumber == 0) { // the numbers have wrapped around, so old stamps could be reused
+      Arrays.fill(searchStamps, 0);
+      searchNumber = 1;
+    }
+  }
+
+  /**
+   * Returns the installation order of the package with the given id, in which each package is
+   * listed after all of its dependencies, ending with the package itself. It is found with a depth
+   * first search which searches the dependencies of each package in the order the graph lists them,
+   * and only the first time it is asked for
+   * 
+   * @param id the id of the package
+   * @return the ids of the packages in the installation order, which must not be changed
+   * @throws CycleException if the installation order of the package has a cycle
+   */
+  public int[] getInstallationOrder(int id) throws CycleException {
+    if (installationOrders[id] == null) {
+      startSearch();
+      int size = listDependencies(id, orderBuffer, 0);
+      installationOrders[id] = Arrays.copyOf(orderBuffer, size);
+    }
+    return installationOrders[id];
+  }
+
+  /**
+   * Returns the set of ids of the packages in the installation order of the package with the given
+   * id, which is the package and all of its transitive dependencies
+   * 
+   * @param id the id of the package
+   * @return the ids of the package and its dependencies, which must not be changed
+   * @throws CycleException if the installation order of the package has a cycle
+   */
+  public BitSet getClosure(int id) throws CycleException {
+    if (closures[id] == null) {
+      BitSet closure = new BitSet(graph.order());
+      for (int dependency : getInstallationOrder(id)) {
+        closure.set(dependency);
+      }
+      closures[id] = closure;
+    }
+    return closures[id];
+  }
+
+  /**
+   * Returns the number of transitive dependencies of every package, not counting the package
+   * itself. Rather than searching from every package, the counts are found 64 packages at a time:
+   * each package is given one bit of a long, and the bits are passed from each package to its
+   * dependencies, in an order where every package comes before its dependencies, so that each
+   * package ends up with the bits of all 64 packages that depend on it. The bits reaching each
+   * package are then added to 64 counters at once, which are stored one binary digit per long. This
+   * takes time proportional to the number of packages and dependencies for every 64 packages, and
+   * memory proportional to the number of packages, and is only done the first time it is asked for
+   * 
+   * @return the number of dependencies of the package with each id, which must not be changed
+   * @throws CycleException if the graph has a cycle, which holds the packages of one cycle
+   */
+  public int[] getDependencyCounts() throws CycleException {
+    if (dependencyCounts != null) {
+      return dependencyCounts;
+    }
+    int numPackages = graph.order();
+
+    // lists every package after its dependencies, then reverses the list so that every package
+    // comes before its dependencies
+    startSearch();
+    int[] order = orderBuffer;
+    int size = 0;
+    for (int id = 0; id < numPackages; id++) {
+      size = listDependencies(id, order, size);
+    }
+    for (int index = 0; index < numPackages / 2; index++) {
+      int temp = order[index];
+      order[index] = order[numPackages - 1 - index];
+      order[numPackages - 1 - index] = temp;
+    }
+
+    int[] counts = new int[numPackages];
+    long[] bits = new long[numPackages]; // the bits reaching each package, by id
+    long[] counters = new long[32]; // binary digit d of the 64 counters, with counter i in bit i
+    for (int first = 0; first < numPackages; first += 64) {
+      // gives each of the next 64 packages in the order its own bit, and passes the bits on to
+      // their dependencies. Packages before them in the order cannot be reached from them
+      int last = Math.min(first + 64, numPackages);
+      for (int index = first; index < numPackages; index++) {
+        int id = order[index];
+        long reachingBits = bits[id];
+        bits[id] = 0; // resets the bits for the next 64 packages
+        if (index < last) {
+          reachingBits |= 1L << (index - first);
+        }
+        if (reachingBits == 0) {
+          continue; // no package in this group depends on this package
+        }
+
+        // adds one to each counter whose package reaches this package, carrying as in addition
+        long carry = reachingBits;
+        for (int digit = 0; carry != 0; digit++) {
+          long nextCarry = counters[digit] & carry;
+          counters[digit] ^= carry;
+          carry = nextCarry;
+        }
+        for (int edge = 0; edge < graph.outDegreeOf(id); edge++) {
+          bits[graph.getAdjacentIdOf(id, edge)] |= reachingBits;
+        }
+      }
+
+      // reads each package's counter, which counted the package itself, and resets the counters
+      for (int index = first; index < last; index++) {
+        int count = 0;
+        for (int digit = 0; digit < counters.length; digit++) {
+          count |= (int) ((counters[digit] >>> (index - first)) & 1) << digit;
+        }
+        counts[order[index]] = count - 1;
+      }
+      Arrays.fill(counters, 0);
+    }
+    dependencyCounts = counts;
+    return dependencyCounts;
+  }
+}
@@ -1,5 +1,5 @@
 // Title: Graph
-// Files: Set, List, LinkedList, HashSet, Iterator, GraphADT, VertexAndAdjList
+// Files: Set, List, ArrayList, HashMap, HashSet, LinkedHashSet, GraphADT, VertexAndAdjList
 // Course: CS400 Spring 2019
 //
 // Author: Michael Goldstein
@@ -7,55 +7,61 @@
 // Lecturer's Name: Deb Deppeler
 // Due Date: 4/16/19
 
-import java.util.List;
-import java.util.LinkedList;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
- * The author's implementation of an unweighted, directed graph data structure
+ * The author's implementation of an unweighted, directed graph data structure. Each vertex is
+ * looked up by name in a hash map, and its edges are kept in hash sets, so adding or removing a
+ * vertex or an edge takes constant time on average (apart from the edges a removed vertex had)
+ * instead of a search through every vertex in the graph
  * 
  * @author Michael Goldstein
  * @see GraphADT
  * @see VertexAndAdjList
- *
+ * 
  */
 public class Graph implements GraphADT {
   /**
-   * A holder class which contains a vertex from a graph and its adjacency list
+   * A holder class which contains the adjacency list of a vertex from a graph, as well as the
+   * vertices which have that vertex in their adjacency lists, so that the edges pointing to a
+   * vertex can be removed without searching every vertex in the graph
    * 
    * @author Michael Goldstein
-   *
+   * 
    */
   private class VertexAndAdjList {
-    // instance variables are not private to allow for access without setters and getters
-    private String vertex; // the vertex of this holder for a vertex and its adjacency list
-    private LinkedList<String> adjList; // the adjacency of this holder for a vertex and its
-                                        // adjacency list
+    // the vertices this vertex has an edge to, in the order the edges were added
+    private LinkedHashSet<String> adjList;
+    // the vertices which have an edge to this vertex
+    private HashSet<String> reverseAdjList;
 
     /**
-     * Constructor for VertexAndAdjList
-     * 
-     * @param vertex  the given vertex to be stored in this holder class
-     * @param adjList that given vertex's given adjacency list to be stored in this holder class
+     * Constructor for VertexAndAdjList. Creates a holder for a vertex without any edges
      */
-    VertexAndAdjList(String vertex, LinkedList<String> adjList) {
-      this.vertex = vertex;
-      this.adjList = adjList;
+    VertexAndAdjList() {
+      adjList = new LinkedHashSet<String>();
+      reverseAdjList = new HashSet<String>();
     }
   }
 
-  // array of vertexes and their adjacency lists, combined in a holder class called VertexAndAdjList
-  private LinkedList<VertexAndAdjList> vertexList; // works as an adjacency list
+  // map from each vertex to the holder of its adjacency lists, which works as an adjacency list
+  private HashMap<String, VertexAndAdjList> vertexMap;
   private int size; // the number of edges in the graph
+  private int modCount; // the number of times the graph has been changed
 
   /*
    * Default no-argument constructor. Initializes instance variables
    */
   public Graph() {
-    vertexList = new LinkedList<VertexAndAdjList>();
+    vertexMap = new HashMap<String, VertexAndAdjList>();
     size = 0;
+    modCount = 0;
   }
 
   /**
@@ -71,19 +77,11 @@ public class Graph implements GraphADT {
       return; // method ends without adding vertex or throwing an exception if given vertex is null
     }
 
-    // checks that given vertex is not in the graph already by iterating through vertexList and
-    // checking if given vertex is the same a the vertex of a node in vertexList
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator = vertexList.iterator();
-    while (vertexListIterator.hasNext()) {
-      String vertexInList = vertexListIterator.next().vertex;
-      if (vertexInList.equals(vertex)) {
-        return; // method ends without inserting if given vertex is already in graph
-      }
+    // adds the vertex only if it is not in the graph already, as that would remove its edges
+    if (!vertexMap.containsKey(vertex)) {
+      vertexMap.put(vertex, new VertexAndAdjList());
+      modCount++;
     }
-
-    // if given vertex is not null or a duplicate, is added to vertex list
-    vertexList.add(new VertexAndAdjList(vertex, new LinkedList<String>()));
   }
 
 
@@ -100,30 +98,26 @@ public class Graph implements GraphADT {
       return; // method ends without remove vertex or throwing an exception if given vertex is null
     }
 
-    // removes vertex by removing the VertexAndAdjList which has the given vertex
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator = vertexList.iterator();
-    int index = 0; // keeps track of which index the iterator is on
-    boolean removed = false; // checks if the vertex has existed and been removed
-    while (vertexListIterator.hasNext()) {
-      String vertexInList = vertexListIterator.next().vertex; // gets vertex at that point in list
-      if (vertexInList.equals(vertex)) { // checks if current vertex is the one to be removed
-        vertexList.remove(index); // removes the VertexAndAdjList which has the given vertex
-        removed = true; // sets removed to true so next loop can remove other edges of vertex
-        break; // stops the loop from running unnecessarily
-      } else {
-        index++; // increments index if current VertexAndAdjList does not have the given vertex
+    // removes the vertex, ending the method if it was not in the graph
+    VertexAndAdjList removed = vertexMap.remove(vertex);
+    if (removed == null) {
+      return;
+    }
+    modCount++;
+
+    // removes the edges going from the vertex, which are no longer pointed to by the vertex
+    for (String adjVertex : removed.adjList) {
+      if (!adjVertex.equals(vertex)) { // an edge from the vertex to itself is not in the map
+        vertexMap.get(adjVertex).reverseAdjList.remove(vertex);
       }
+      size--;
     }
 
-    // removes all other edges the vertex to be removed was associated with that were not removed by
-    // the previous loop. Uses Iterator for runtime efficiency as for loop with get() will result in
-    // 0(n^2) Also checks that vertex existed so loop does not run unnecessarily
-    if (removed) {
-      Iterator<VertexAndAdjList> vertexListIterator2 = vertexList.iterator();
-      while (vertexListIterator2.hasNext()) {
-        LinkedList<String> adjList = vertexListIterator2.next().adjList;
-        adjList.remove(vertex);
+    // removes the edges going to the vertex from the adjacency lists of the vertices they start at
+    for (String adjVertex : removed.reverseAdjList) {
+      if (!adjVertex.equals(vertex)) { // an edge from the vertex to itself was already removed
+        vertexMap.get(adjVertex).adjList.remove(vertex);
+        size--;
       }
     }
   }
@@ -146,58 +140,16 @@ public class Graph implements GraphADT {
       return;
     }
 
-    // checks that vertex1 is in the graph.
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator = vertexList.iterator();
-    boolean vertex1Found = false; // keeps track whether or not vertex1 was found
-    while (vertexListIterator.hasNext()) {
-      String vertex = vertexListIterator.next().vertex;
-      if (vertex.equals(vertex1)) {
-        vertex1Found = true; // sets found status to true if found
-        break; // ends loop early once found to not waste time
-      }
-    }
-
-    // adds vertex1 if it is not found
-    if (!vertex1Found) {
-      addVertex(vertex1);
-    }
-
-    // checks that vertex2 is in the graph.
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator2 = vertexList.iterator();
-    boolean vertex2Found = false; // keeps track whether or not vertex2 was found
-    while (vertexListIterator2.hasNext()) {
-      String vertex = vertexListIterator2.next().vertex;
-      if (vertex.equals(vertex2)) {
-        vertex2Found = true; // sets found status to true if found
-        break; // ends loop early once found to not waste time
-      }
-    }
-
-    // adds vertex2 if it is not found
-    if (!vertex2Found) {
-      addVertex(vertex2);
-    }
-
-    // inserts edge starting at vertex1 going to vertex2 , also checking if vertex1 is in graph
-    // by iterating over vertexList and checking if any VertexAndAdjList is the one with vertex1 as
-    // its vertex and inserting vertex2, representing an edge, into its adjacency list
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator3 = vertexList.iterator();
-    while (vertexListIterator3.hasNext()) {
-      VertexAndAdjList current = vertexListIterator3.next();
-      String vertex = current.vertex; // current vertex
-      LinkedList<String> adjList = current.adjList; // current adjacency list
+    // adds either vertex if it is not already in the graph
+    addVertex(vertex1);
+    addVertex(vertex2);
 
-      // checks if the current vertex is vertex1 (essentially checking if vertex 1 is in graph)
-      if (vertex.equals(vertex1)) {
-        if (!adjList.contains(vertex2)) {
-          adjList.add(vertex2); // adds vertex2 into vertex's adjacency matrix if vertex is vertex1
-        }
-        size++; // increments size
-        return; // ends loop once inserted
-      }
+    // inserts edge starting at vertex1 going to vertex2, only incrementing size if the edge was
+    // not already in the graph
+    if (vertexMap.get(vertex1).adjList.add(vertex2)) {
+      vertexMap.get(vertex2).reverseAdjList.add(vertex1);
+      size++;
+      modCount++;
     }
   }
 
@@ -219,83 +171,65 @@ public class Graph implements GraphADT {
       return;
     }
 
-    // checks that vertex2 is in the graph. vertex2 is checked first as vertex1 will be checked when
-    // trying to find the correct VertexAndAdjList to insert into
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator = vertexList.iterator();
-    boolean vertex2Found = false; // keeps track whether or not vertex2 was found
-    while (vertexListIterator.hasNext()) {
-      String vertex = vertexListIterator.next().vertex;
-      if (vertex.equals(vertex2)) {
-        vertex2Found = true; // sets found status to true if found
-        break; // ends loop early once found to not waste time
-      }
-    }
-
-    if (!vertex2Found) {
-      return; // method ends if vertex2 was not found
+    // checks that vertex1 is in the graph, method ends if it is not
+    VertexAndAdjList vertexAndAdjList1 = vertexMap.get(vertex1);
+    if (vertexAndAdjList1 == null) {
+      return;
     }
 
-    // removes edge starting at vertex1 going to vertex2 , also checking if vertex1 is in graph
-    // by iterating over vertexList and checking if any VertexAndAdjList is the one with vertex1 as
-    // its vertex and removing vertex2, representing an edge, from its adjacency list
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator2 = vertexList.iterator();
-    while (vertexListIterator2.hasNext()) {
-      VertexAndAdjList current = vertexListIterator2.next();
-      String vertex = current.vertex; // current vertex
-      LinkedList<String> adjList = current.adjList; // current adjacency list
-
-      // checks if the current vertex is vertex1 (essentially checking if vertex 1 is in graph)
-      if (vertex.equals(vertex1)) {
-        // removes vertex2 from vertex's adjacency matrix if vertex is vertex1
-        adjList.remove(vertex2);
-        size--; // decrements size
-      }
+    // removes edge starting at vertex1 going to vertex2, only decrementing size if the edge was in
+    // the graph (which also means vertex2 is in the graph)
+    if (vertexAndAdjList1.adjList.remove(vertex2)) {
+      vertexMap.get(vertex2).reverseAdjList.remove(vertex1);
+      size--;
+      modCount++;
     }
   }
 
   /**
-   * Returns a Set that contains all the vertices
+   * Returns a Set that contains all the vertices. The set cannot be changed, and reflects any
+   * vertices added to or removed from the graph afterwards
    * 
    * @return a Set of all vertices in the graph
    * 
    */
   public Set<String> getAllVertices() {
-    // iterates over vertexList, adding each vertex from each VertexAndAdjList
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator = vertexList.iterator();
-    HashSet<String> set = new HashSet<String>(); // set to be filled will all vertexes and returned
-    while (vertexListIterator.hasNext()) {
-      set.add(vertexListIterator.next().vertex); // adds vertex from VertexAndAdjList
-    }
-    return set; // returns the set once all vertices has been added
+    return Collections.unmodifiableSet(vertexMap.keySet());
   }
 
 
   /**
-   * Returns all the neighbor (adjacent) vertices of a vertex
+   * Returns all the neighbor (adjacent) vertices of a vertex, in the order their edges were added
    * 
    * @param vertex the specified vertex whose adjacent vertices are to be returned
-   * @return a List<String> of all the adjacent vertices for specified vertex
-   *
+   * @return a List<String> of all the adjacent vertices for specified vertex, or null if the
+   *         vertex is null or not in the graph
+   * 
    */
   public List<String> getAdjacentVerticesOf(String vertex) {
-    // iterates over vertexList to find and return the adjList for the given vertex
-    // uses Iterator for runtime efficiency as for loop with get() will result in 0(n^2)
-    Iterator<VertexAndAdjList> vertexListIterator = vertexList.iterator();
-    while (vertexListIterator.hasNext()) {
-      VertexAndAdjList current = vertexListIterator.next();
-      String currVertex = current.vertex; // current vertex
-      LinkedList<String> adjList = current.adjList; // current adjacency list
+    // checks if given vertex is null, as a HashMap would find a null key
+    if (vertex == null) {
+      return null;
+    }
 
-      // checks if the current vertex is the given vertex
-      if (currVertex.equals(vertex)) {
-        return adjList; // returns the vertex's adjacency list
-      }
+    // finds the vertex's adjacency list, returning null if the vertex is not in the graph
+    VertexAndAdjList vertexAndAdjList = vertexMap.get(vertex);
+    if (vertexAndAdjList == null) {
+      return null;
     }
 
-    return null; // returns null if the given vertex is null or not in graph
+    // returns a copy of the adjacency list, so that the graph cannot be changed through it
+    return new ArrayList<String>(vertexAndAdjList.adjList);
+  }
+
+  /**
+   * Returns the number of times a vertex or an edge has been added to or removed from this graph,
+   * so that anything computed from the graph can tell whether the graph has changed since
+   * 
+   * @return the number of changes made to this graph
+   */
+  public int getModCount() {
+    return modCount;
   }
 
   /**
@@ -313,6 +247,6 @@ public class Graph implements GraphADT {
    * @return the number of vertices in this graph (order)
    */
   public int order() {
-    return vertexList.size();
+    return vertexMap.size();
   }
 }
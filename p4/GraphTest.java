@@ -799,4 +799,73 @@ public class GraphTest {
       fail("Size after removing 20 edges should be 0 but was: " + testGraph.size());
     }
   }
+
+  /**
+   * Checks that adding an edge which is already in the graph, or removing an edge which is not,
+   * does not change the size, and that removing a vertex also removes the edges going to and from
+   * it (including an edge to itself) from the size
+   * 
+   * @see Graph#addEdge(String, String)
+   * @see Graph#removeEdge(String, String)
+   * @see Graph#removeVertex(String)
+   */
+  @Test
+  public void test027_sizeCountsEachEdgeOnce() {
+    // adds an edge twice, and removes an edge that was never added
+    testGraph.addEdge("vertex1", "vertex2");
+    testGraph.addEdge("vertex1", "vertex2");
+    testGraph.removeEdge("vertex2", "vertex1");
+    if (testGraph.size() != 1 || testGraph.getAdjacentVerticesOf("vertex1").size() != 1) {
+      fail("The graph should have 1 edge after adding the same edge twice and removing an edge "
+          + "not in graph, but had a size of: " + testGraph.size());
+    }
+
+    // adds edges to, from, and around vertex2, then removes vertex2
+    testGraph.addEdge("vertex2", "vertex3");
+    testGraph.addEdge("vertex2", "vertex2");
+    testGraph.addEdge("vertex3", "vertex1");
+    testGraph.removeVertex("vertex2");
+    if (testGraph.size() != 1) {
+      fail("Only the edge from vertex3 to vertex1 should be left after removing vertex2, but the "
+          + "size was: " + testGraph.size());
+    }
+    if (!testGraph.getAdjacentVerticesOf("vertex1").isEmpty()
+        || !testGraph.getAdjacentVerticesOf("vertex3").contains("vertex1")) {
+      fail("Removing vertex2 should only remove the edges going to and from vertex2");
+    }
+  }
+
+  /**
+   * Builds a graph with 100000 vertices and 500000 edges, as a large package registry would have,
+   * and checks that it is built in well under a second, as every vertex is found by its name
+   * instead of by searching the graph
+   * 
+   * @see Graph#addVertex(String)
+   * @see Graph#addEdge(String, String)
+   */
+  @Test
+  public void test028_buildsLargeGraphQuickly() {
+    long start = System.nanoTime();
+    for (int index = 0; index < 100000; index++) {
+      testGraph.addVertex("vertex" + index);
+    }
+    for (int index = 0; index < 100000; index++) {
+      // each vertex has edges to five other vertices, like the dependencies of a package
+      for (int edge = 1; edge <= 5; edge++) {
+        testGraph.addEdge("vertex" + index, "vertex" + (index * 7 + edge) % 100000);
+      }
+    }
+    long milliseconds = (System.nanoTime() - start) / 1000000;
+
+    // checks that the graph has every vertex and edge
+    if (testGraph.order() != 100000 || testGraph.size() != 500000) {
+      fail("The graph should have 100000 vertices and 500000 edges, but had " + testGraph.order()
+          + " vertices and " + testGraph.size() + " edges");
+    }
+
+    // the old graph, which searched every vertex for each edge, took minutes to build this graph
+    if (milliseconds > 5000) {
+      fail("Building a graph with 500000 edges took " + milliseconds + " ms");
+    }
+  }
 }
@@ -1,5 +1,6 @@
 // Title: PackageManager
-// Files: Graph, JSON, FileReader, Set, Stack, LinkedList, HashSet, Queue
+// Files: Graph, GraphADT, CSRGraph, DependencyClosureCache, CycleException, JSON, FileReader, Set,
+// Stack, ArrayList, LinkedList, HashMap, HashSet, LinkedHashSet, Iterator, BitSet
 // Course: CS400 Spring 2019
 //
 // Author: Michael Goldstein
@@ -10,12 +11,16 @@
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Queue;
+import java.util.LinkedHashSet;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -25,12 +30,20 @@ import org.json.simple.parser.ParseException;
  * A class that processes JSON package dependency files and makes that dependency information
  * available to all users. It processes dependency information using a graph data structure
  * 
+ * The transitive dependencies of each package are kept in a DependencyClosureCache, which is
+ * shared by getInstallationOrder, toInstall and getPackageWithMaxDependencies, so that each one is
+ * only searched for once. The cache is replaced whenever the graph has changed since it was made.
+ * 
  * @author Michael Goldstein
  * @see Graph
- *
+ * @see CSRGraph
+ * @see DependencyClosureCache
+ * 
  */
 public class PackageManager {
-  private Graph graph; // the graph used to store dependency information
+  private GraphADT graph; // the graph used to store dependency information
+  private DependencyClosureCache closureCache; // the dependencies found in the graph, if any
+  private int closureCacheModCount; // the graph's modification count when the cache was made
 
   /*
    * Package Manager default no-argument constructor. Initializes graph instance variable
@@ -39,13 +52,60 @@ public class PackageManager {
     graph = new Graph();
   }
 
+  /**
+   * Package Manager constructor which answers queries using the given dependency graph, in which
+   * an edge goes from each package to each package it depends on. If the given graph cannot be
+   * changed, such as a CSRGraph, constructGraph cannot be called
+   * 
+   * @param graph the dependency graph of the packages
+   */
+  public PackageManager(GraphADT graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Replaces the dependency graph with a frozen CSRGraph copy of it, which takes much less memory
+   * and is faster to search. The answers to all queries stay the same, but constructGraph cannot
+   * be called afterwards
+   * 
+   * @see CSRGraph#CSRGraph(GraphADT)
+   */
+  public void freezeGraph() {
+    if (!(graph instanceof CSRGraph)) {
+      graph = new CSRGraph(graph);
+      closureCache = null; // the cache is made again from the frozen graph when it is next needed
+    }
+  }
+
+  /**
+   * Helper method which returns the cache of the dependencies found in the graph, making a new one
+   * if the graph has changed since the cache was made. A CSRGraph cannot change, and a Graph counts
+   * its changes, but any other graph is assumed to have changed every time
+   * 
+   * @return the cache of the dependencies of the current graph
+   * @see Graph#getModCount()
+   */
+  private DependencyClosureCache getClosureCache() {
+    if (closureCache == null || (graph instanceof Graph
+        && ((Graph) graph).getModCount() != closureCacheModCount)
+        || !(graph instanceof Graph || graph instanceof CSRGraph)) {
+      closureCache = new DependencyClosureCache(graph);
+      if (graph instanceof Graph) {
+        closureCacheModCount = ((Graph) graph).getModCount();
+      }
+    }
+    return closureCache;
+  }
+
   /**
    * Takes in a file path for a json file and builds the package dependency graph from it.
    * 
    * @param jsonFilepath the name of json data file with package dependency information
-   * @throws FileNotFoundException if file path is incorrect
-   * @throws IOException           if the give file cannot be read
-   * @throws ParseException        if the given json cannot be parsed
+   * @throws FileNotFoundException         if file path is incorrect
+   * @throws IOException                   if the give file cannot be read
+   * @throws ParseException                if the given json cannot be parsed
+   * @throws UnsupportedOperationException if the graph cannot be changed, such as after
+   *                                       freezeGraph() is called
    * 
    * @see PackageManager#constructPackages(JSONArray)
    */
@@ -121,48 +181,96 @@ public class PackageManager {
   }
 
   /**
-   * Uses DFS search to see if there is a cycle which the given package is a part of
+   * Uses Tarjan's algorithm to find the strongly connected components of the graph: the largest
+   * sets of packages in which every package depends, directly or through other packages, on every
+   * other package. A component of more than one package is a cycle. Every package and dependency is
+   * searched once, in a single depth first search, instead of searching the graph again from every
+   * package.
+   * 
+   * A component is only found once all of the components it depends on have been found, so the
+   * components are returned in a valid installation order.
    * 
-   * @param pkg the given package the method checks is in a cycle
-   * @return true if the given package is in a cycle, false if not
+   * @param startPackages the packages the search starts from, in order, which must include every
+   *                      package which is not reached from the packages before it
+   * @return a List of the strongly connected components of the graph, each of which depends only on
+   *         the components before it
    */
-  private boolean hasCycle(String pkg) {
-    Stack<String> DFSStack = new Stack<String>(); // stack for DFS search
-    Set<String> visitedPackages = new HashSet<String>(); // tracks visited packages
-
-    // adds given package to stack and marks it as visited in order to start search
-    DFSStack.push(pkg);
-    visitedPackages.add(pkg);
-
-    // loop which runs DFS as long as stack is not empty
-    while (!DFSStack.isEmpty()) {
-      boolean hasUnvisitedDependencies = false;
-      String currentPackage = DFSStack.peek(); // "current" package in search
-      List<String> dependencies = graph.getAdjacentVerticesOf(currentPackage); // all dependencies
-
-      // indexes through all dependencies to check if they point pack to start, adds first
-      // unvisited dependency to stack
-      for (int index = 0; index < dependencies.size(); index++) {
-        // checks if there is a cycle at this point in search (current package has the initial
-        // package as a dependency)
-        if (dependencies.get(index).equals(pkg)) {
-          return true;
-        }
-
-        // adds first unvisited dependency to stack and marks it as visited
-        if (!visitedPackages.contains(dependencies.get(index)) && !hasUnvisitedDependencies) {
-          hasUnvisitedDependencies = true;
-          visitedPackages.add(dependencies.get(index));
-          DFSStack.push(dependencies.get(index));
-        }
+  private List<Set<String>> findStronglyConnectedComponents(List<String> startPackages) {
+    // stack used to perform depth first search, and a matching stack of the dependencies of each
+    // package in it which have not been searched yet
+    Stack<String> DFSStack = new Stack<String>();
+    Stack<Iterator<String>> dependencyStack = new Stack<Iterator<String>>();
+    // packages in the order they were reached, and the earliest package each reaches which is still
+    // in componentStack; a package whose earliest reached package is itself starts a component
+    HashMap<String, Integer> searchIndex = new HashMap<String, Integer>();
+    HashMap<String, Integer> lowLink = new HashMap<String, Integer>();
+    // packages which have been reached but whose component has not been found yet
+    Stack<String> componentStack = new Stack<String>();
+    Set<String> packagesInComponentStack = new HashSet<String>();
+    List<Set<String>> components = new ArrayList<Set<String>>();
+
+    for (String startPackage : startPackages) {
+      // skips packages that have already been reached from an earlier starting package
+      if (searchIndex.containsKey(startPackage)) {
+        continue;
       }
 
-      // pops current package from stack if it does not have unvisited dependencies
-      if (!hasUnvisitedDependencies) {
-        DFSStack.pop();
+      // adds the starting package to the stacks in order to start the search
+      searchIndex.put(startPackage, searchIndex.size());
+      lowLink.put(startPackage, searchIndex.get(startPackage));
+      DFSStack.push(startPackage);
+      dependencyStack.push(graph.getAdjacentVerticesOf(startPackage).iterator());
+      componentStack.push(startPackage);
+      packagesInComponentStack.add(startPackage);
+
+      // loop which runs DFS as long as stack is not empty
+      while (!DFSStack.isEmpty()) {
+        String currentPackage = DFSStack.peek(); // "current" package in search
+        Iterator<String> dependencies = dependencyStack.peek(); // its unsearched dependencies
+
+        if (dependencies.hasNext()) {
+          String dependency = dependencies.next();
+          if (!searchIndex.containsKey(dependency)) {
+            // searches the dependency if it has not been reached yet
+            searchIndex.put(dependency, searchIndex.size());
+            lowLink.put(dependency, searchIndex.get(dependency));
+            DFSStack.push(dependency);
+            dependencyStack.push(graph.getAdjacentVerticesOf(dependency).iterator());
+            componentStack.push(dependency);
+            packagesInComponentStack.add(dependency);
+          } else if (packagesInComponentStack.contains(dependency)) {
+            // the dependency also depends on the current package, so they are in one component
+            lowLink.put(currentPackage,
+                Math.min(lowLink.get(currentPackage), searchIndex.get(dependency)));
+          }
+        } else {
+          // finishes the current package once all of its dependencies have been searched
+          DFSStack.pop();
+          dependencyStack.pop();
+          if (!DFSStack.isEmpty()) { // the package that depends on it reaches whatever it reaches
+            String dependentPackage = DFSStack.peek();
+            lowLink.put(dependentPackage,
+                Math.min(lowLink.get(dependentPackage), lowLink.get(currentPackage)));
+          }
+
+          // if the current package reaches no earlier package in componentStack, it and all
+          // packages above it in componentStack form a component
+          if (lowLink.get(currentPackage).equals(searchIndex.get(currentPackage))) {
+            Set<String> component = new LinkedHashSet<String>();
+            String componentPackage;
+            do {
+              componentPackage = componentStack.pop();
+              packagesInComponentStack.remove(componentPackage);
+              component.add(componentPackage);
+            } while (!componentPackage.equals(currentPackage));
+            components.add(component);
+          }
+        }
       }
     }
-    return false; // returns false if cycle is never found
+
+    // returns the components, each of which was found after the components it depends on
+    return components;
   }
 
   /**
@@ -171,65 +279,37 @@ public class PackageManager {
    * Valid installation order means that each package is listed before any packages that depend upon
    * that package.
    * 
+   * The order is found with a single depth first search from the given package, which lists each
+   * package once all of its dependencies have been listed, so it takes time proportional to the
+   * number of packages and dependencies reached. Dependencies are searched in the order they are
+   * listed, so the same graph always gives the same order. A cycle is found in the same search, as
+   * it leads back to a package whose dependencies are still being searched. The order is cached,
+   * so asking for it again before the graph changes does not search the graph again.
+   * 
    * @return List<String>, order in which the packages have to be installed
    * 
    * @throws CycleException           if you encounter a cycle in the graph while finding the
    *                                  installation order for a particular package. Tip: Cycles in
    *                                  some other part of the graph that do not affect the
    *                                  installation order for the specified package, should not throw
-   *                                  this exception.
+   *                                  this exception. It holds the set of packages in the cycle.
    * 
    * @throws PackageNotFoundException if the package passed does not exist in the dependency graph.
-   * @see PackageManager#hasCycle(String)
    */
   public List<String> getInstallationOrder(String pkg)
       throws CycleException, PackageNotFoundException {
     // checks if the given package is in graph
-    if (!getAllPackages().contains(pkg)) {
+    DependencyClosureCache cache = getClosureCache();
+    int id = cache.getId(pkg);
+    if (id < 0) {
       throw new PackageNotFoundException();
     }
 
-    // queue used to perform depth first search, which is used to create installation order
-    Queue<String> BFSQueue = new LinkedList<String>();
-    Set<String> visitedPackages = new HashSet<String>(); // tracks visited packages
-    List<String> installationOrder = new LinkedList<String>(); // tracks installation order
-
-    BFSQueue.add(pkg); // adds package to queue to start BFS loop
-    visitedPackages.add(pkg); // marks initial package as visited
-    installationOrder.add(pkg); // adds initial package as last package in installation order
-
-    // creates an installation order based on how vertices are visited in BFS
-    while (!BFSQueue.isEmpty()) {
-      String tempPackage = BFSQueue.remove(); // "current" package in search
-      List<String> dependencies = graph.getAdjacentVerticesOf(tempPackage); // gets dependencies
-      LinkedList<String> addedDependencies = new LinkedList<String>(); // dependencies to be added
-
-      // adds and marks as visited all unvisited dependencies
-      for (int index = 0; index < dependencies.size(); index++) {
-        // checks if dependency has been visited. If not, marks it as visited an adds it to queue
-        // and list of dependencies to be added.
-        if (!visitedPackages.contains(dependencies.get(index))) {
-          visitedPackages.add(dependencies.get(index));
-          BFSQueue.add(dependencies.get(index));
-          addedDependencies.add(dependencies.get(index));
-        } else if (installationOrder.indexOf(tempPackage) < installationOrder
-            .indexOf(dependencies.get(index))) {
-          // if dependency has already been added and comes before the current package in the
-          // installation order, switches order to make sure a package is not installed before one
-          // of its dependencies
-          installationOrder.remove(tempPackage);
-          installationOrder.add(installationOrder.indexOf(dependencies.get(index)) + 1,
-              tempPackage);
-        }
-      }
-      installationOrder.addAll(0, addedDependencies); // adds dependencies to start of install order
-    }
-
-    // checks that there are no cycles for the given installation order
-    for (int index = 0; index < installationOrder.size(); index++) {
-      if (hasCycle(installationOrder.get(index))) {
-        throw new CycleException();
-      }
+    // copies the cached installation order, so that the caller can change its list
+    int[] orderIds = cache.getInstallationOrder(id);
+    List<String> installationOrder = new ArrayList<String>(orderIds.length);
+    for (int orderId : orderIds) {
+      installationOrder.add(cache.getPackage(orderId));
     }
 
     // returns the installation order
@@ -254,21 +334,31 @@ public class PackageManager {
    * @throws PackageNotFoundException if any of the packages passed do not exist in the dependency
    *                                  graph.
    * @see PackageManager#getInstallationOrder(String)
+   * @see DependencyClosureCache#getClosure(int)
    */
   public List<String> toInstall(String newPkg, String installedPkg)
       throws CycleException, PackageNotFoundException {
-    // gets installation orders for new and already installed packages
-    List<String> installOrderNew = getInstallationOrder(newPkg);
-    List<String> installOrderInstalled = getInstallationOrder(installedPkg);
+    // gets installation order for the new package and the set of packages installed with the
+    // already installed package
+    DependencyClosureCache cache = getClosureCache();
+    int newId = cache.getId(newPkg);
+    if (newId < 0) {
+      throw new PackageNotFoundException();
+    }
+    int[] installOrderNew = cache.getInstallationOrder(newId);
+    int installedId = cache.getId(installedPkg);
+    if (installedId < 0) {
+      throw new PackageNotFoundException();
+    }
+    BitSet installedPackages = cache.getClosure(installedId);
 
     // creates installation order for new package by "removing" all packages installed when
     // installing the already installed package from the list of packages needed to be installed
     LinkedList<String> toInstall = new LinkedList<String>();
-    for (int index = 0; index < installOrderNew.size(); index++) {
-      if (!installOrderInstalled.contains(installOrderNew.get(index))
-          && !installOrderNew.get(index).equals(installedPkg)) {
+    for (int id : installOrderNew) {
+      if (!installedPackages.get(id)) {
         // adds package to list if is is not already installed
-        toInstall.add(installOrderNew.get(index));
+        toInstall.add(cache.getPackage(id));
       }
     }
 
@@ -283,66 +373,51 @@ public class PackageManager {
    * 
    * returns a valid installation order that will not violate any dependencies
    * 
+   * The order and any cycles are found in a single search of the graph, which takes time
+   * proportional to the number of packages and dependencies.
+   * 
    * @return List<String>, order in which all the packages have to be installed
-   * @throws CycleException if you encounter a cycle in the graph
+   * @throws CycleException if you encounter a cycle in the graph, which holds the set of packages
+   *                        in every cycle in the graph
+   * @see PackageManager#findStronglyConnectedComponents(List)
    */
   public List<String> getInstallationOrderForAllPackages() throws CycleException {
-    Object[] allPackages = getAllPackages().toArray(); // list of all packages
-
-    // checks that there are no cycles in graph
-    for (int index = 0; index < allPackages.length; index++) {
-      if (hasCycle((String) allPackages[index])) {
-        throw new CycleException();
-      }
-    }
-
-    Stack<String> orderingStack = new Stack<String>(); // stack to be used for topological order
+    Set<String> allPackages = getAllPackages(); // set of all packages
     Set<String> isADependency = new HashSet<String>(); // tracks all packages that are dependencies
 
     // finds all packages that are dependencies
-    for (int index = 0; index < allPackages.length; index++) {
-      List<String> dependencies = graph.getAdjacentVerticesOf((String) allPackages[index]);
-      isADependency.addAll(dependencies);
+    for (String pkg : allPackages) {
+      isADependency.addAll(graph.getAdjacentVerticesOf(pkg));
     }
 
-    // finds all packages that are not dependencies of any other package (to find topological order)
-    for (int index = 0; index < allPackages.length; index++) {
-      if (!isADependency.contains((String) allPackages[index])) {
-        orderingStack.push((String) allPackages[index]);
+    // starts the search from the packages that are not dependencies of any other package, the last
+    // of them first, and then from every package, so that packages in cycles are reached too
+    LinkedList<String> startPackages = new LinkedList<String>();
+    for (String pkg : allPackages) {
+      if (!isADependency.contains(pkg)) {
+        startPackages.addFirst(pkg);
       }
     }
-
-    // runs topological order loop (which will find the reverse of the installation)
-    Queue<String> topologicalOrderQueue = new LinkedList<String>(); // tracks topological order
-    Set<String> visitedPackages = new HashSet<String>();
-    while (!orderingStack.isEmpty()) {
-      boolean hasUnvisitedDependencies = false; // tracks if current package has dependencies
-      String currentPackage = orderingStack.peek(); // "current" package in search
-      List<String> dependencies = graph.getAdjacentVerticesOf(currentPackage); // all dependencies
-
-      // adds first unvisited dependency to stack, marks it as visited
-      for (int index = 0; index < dependencies.size(); index++) {
-        // adds first unvisited dependency to stack and marks it as visited
-        if (!visitedPackages.contains(dependencies.get(index)) && !hasUnvisitedDependencies) {
-          hasUnvisitedDependencies = true;
-          visitedPackages.add(dependencies.get(index));
-          orderingStack.push(dependencies.get(index));
-        }
-      }
-
-      // removes package from stack, adds to topological order if it has no unvisited dependencies
-      if (!hasUnvisitedDependencies) {
-        topologicalOrderQueue.add(orderingStack.pop());
+    startPackages.addAll(allPackages);
+
+    // finds the strongly connected components of the graph in a single search, any of which with
+    // more than one package, or with a package which depends on itself, is a cycle
+    List<Set<String>> components = findStronglyConnectedComponents(startPackages);
+    List<Set<String>> cycles = new ArrayList<Set<String>>();
+    List<String> installationOrder = new ArrayList<String>();
+    for (Set<String> component : components) {
+      String pkg = component.iterator().next();
+      if (component.size() > 1 || graph.getAdjacentVerticesOf(pkg).contains(pkg)) {
+        cycles.add(component);
+      } else {
+        installationOrder.add(pkg);
       }
     }
-
-    // creates installation order list (which is the topological order queue in reverse)
-    LinkedList<String> installationOrder = new LinkedList<String>();
-    while (!topologicalOrderQueue.isEmpty()) {
-      installationOrder.add(topologicalOrderQueue.remove());
+    if (!cycles.isEmpty()) {
+      throw new CycleException(cycles);
     }
 
-    // returns installation order
+    // returns installation order, as each package was found after all of its dependencies
     return installationOrder;
   }
 
@@ -356,31 +431,27 @@ public class PackageManager {
    * Example: if A depends on B and C, and B depends on C, and C depends on D. Then, A has 3
    * dependencies - B,C and D.
    * 
-   * @return String, name of the package with most dependencies.
+   * The numbers of dependencies of all packages are found together and cached, instead of finding
+   * the installation order of every package.
+   * 
+   * @return String, name of the package with most dependencies, or an empty String if there are no
+   *         packages.
    * @throws CycleException if you encounter a cycle in the graph
+   * @see DependencyClosureCache#getDependencyCounts()
    */
   public String getPackageWithMaxDependencies() throws CycleException {
-    Object[] allPackages = getAllPackages().toArray(); // list of all packages
-    int maxDependencies; // tracks maximum number of dependencies
+    DependencyClosureCache cache = getClosureCache();
+    int[] dependencyCounts = cache.getDependencyCounts(); // number of dependencies of each package
+    int maxDependencies = -1; // tracks maximum number of dependencies
     String maxPackage = ""; // tracks package with maximum number of dependencies
 
-    try {
-      // starts with baseline of the "first" vertex and its number of dependencies
-      maxDependencies = getInstallationOrder((String) allPackages[0]).size();
-      maxPackage = (String) allPackages[0];
-
-      // checks if any other packages have a higher number of dependencies, updates the maximum
-      // number of dependencies and the vertex with the maximum number of dependences if any other
-      // packages do have a higher number of dependencies
-      for (int index = 1; index < allPackages.length; index++) {
-        int numberOfDependencies = getInstallationOrder((String) allPackages[index]).size();
-        if (numberOfDependencies > maxDependencies) {
-          maxDependencies = numberOfDependencies;
-          maxPackage = (String) allPackages[index];
-        }
+    // checks every package in the order getAllPackages() lists them, keeping the first package
+    // with the highest number of dependencies
+    for (int id = 0; id < dependencyCounts.length; id++) {
+      if (dependencyCounts[id] > maxDependencies) {
+        maxDependencies = dependencyCounts[id];
+        maxPackage = cache.getPackage(id);
       }
-    } catch (PackageNotFoundException e) {
-      // it is impossible for this to be thrown as all packages are in graph
     }
 
     // returns the package with the maximum number of dependencies
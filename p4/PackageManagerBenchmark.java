@@ -0,0 +1,278 @@
+// Title: PackageManagerBenchmark
+// Files: PackageManager, Graph, CSRGraph, Package, File, FileWriter, Random
+// Course: CS400 Spring 2019
+//
+// Author: Michael Goldstein
+// Email: mdgoldstein2@wisc.edu
+// Lecturer's Name: Deb Deppeler
+// Due Date: 4/16/19
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Class which writes a JSON file of a large, randomly generated package registry and times how
+ * long PackageManager takes to build its dependency graph. It also measures how much memory the
+ * graph takes as a Graph and once frozen into a CSRGraph, and times finding the installation order
+ * of the last package, which depends on most of the others, and of all packages with each graph,
+ * and finding the package with the most dependencies the first time and once it is cached.
+ * Every package only depends on packages listed before it, so the registry has no cycles. Each run
+ * is repeated after a warmup so that the timings are not dominated by the JIT compiler.
+ * 
+ * @author Michael Goldstein
+ * @see PackageManager
+ * @see Graph
+ * @see CSRGraph
+ */
+public class PackageManagerBenchmark {
+
+  /**
+   * Returns the number of bytes of memory in use after running the garbage collector, so that only
+   * reachable objects are counted
+   * 
+   * @return the number of bytes of memory in use
+   */
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int run = 0; run < 3; run++) { // runs it more than once, as one run may not free it all
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * Creates packages named "package0" to "package(numPackages - 1)", each of which depends on up
+   * to maxDependencies random packages listed before it
+   * 
+   * @param numPackages     the number of packages in the registry
+   * @param maxDependencies the greatest number of dependencies a package can have
+   * @param random          the random number generator used to pick the dependencies
+   * @return the packages of the registry
+   */
+  private static Package[] createRegistry(int numPackages, int maxDependencies, Random random) {
+    Package[] packages = new Package[numPackages];
+    for (int index = 0; index < numPackages; index++) {
+      int numDependencies = index == 0 ? 0 : random.nextInt(Math.min(index, maxDependencies) + 1);
+      String[] dependencies = new String[numDependencies];
+      for (int dependency = 0; dependency < numDependencies; dependency++) {
+        dependencies[dependency] = "package" + random.nextInt(index);
+      }
+      packages[index] = new Package("package" + index, dependencies);
+    }
+    return packages;
+  }
+
+  /**
+   * Writes the given packages to a JSON file in the format PackageManager reads
+   * 
+   * @param file     the file the JSON is written to
+   * @param packages the packages of the registry
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeRegistry(File file, Package[] packages) throws IOException {
+    FileWriter writer = new FileWriter(file);
+    writer.write("{ \"packages\" : [\n");
+    for (int index = 0; index < packages.length; index++) {
+      writer.write("{ \"name\": \"" + packages[index].getName() + "\", \"dependencies\": [");
+      String[] dependencies = packages[index].getDependencies();
+      for (int dependency = 0; dependency < dependencies.length; dependency++) {
+        writer.write((dependency == 0 ? "" : ", ") + "\"" + dependencies[dependency] + "\"");
+      }
+      writer.write(index == packages.length - 1 ? "] }\n" : "] },\n");
+    }
+    writer.write("] }\n");
+    writer.close();
+  }
+
+  /**
+   * Adds the given packages and their dependencies to a new Graph, in the same order as
+   * constructGraph does, and returns the elapsed time in nanoseconds. Unlike constructGraph, this
+   * does not include the time taken to read and parse the JSON file
+   * 
+   * @param packages the packages of the registry
+   * @return the time in nanoseconds building the graph took
+   */
+  private static long timeGraph(Package[] packages) {
+    long start = System.nanoTime();
+    Graph graph = new Graph();
+    for (Package pkg : packages) {
+      graph.addVertex(pkg.getName());
+    }
+    for (Package pkg : packages) {
+      for (String dependency : pkg.getDependencies()) {
+        graph.addEdge(pkg.getName(), dependency);
+      }
+    }
+    long time = System.nanoTime() - start;
+    if (graph.size() == 42) { // uses the graph so that the JIT compiler cannot skip building it
+      System.out.print("");
+    }
+    return time;
+  }
+
+  /**
+   * Builds a new PackageManager's graph from the given JSON file and returns the elapsed time in
+   * nanoseconds
+   * 
+   * @param jsonFilepath the name of the JSON file of the registry
+   * @return the time in nanoseconds constructGraph took
+   * @throws Exception if the graph cannot be built, which should not happen
+   */
+  private static long timeConstructGraph(String jsonFilepath) throws Exception {
+    long start = System.nanoTime();
+    PackageManager packageManager = new PackageManager();
+    packageManager.constructGraph(jsonFilepath);
+    long time = System.nanoTime() - start;
+    if (packageManager.getAllPackages().isEmpty()) { // uses the graph so the JIT cannot skip it
+      System.out.print("");
+    }
+    return time;
+  }
+
+  /**
+   * Finds the installation order of the given package with the given PackageManager over the given
+   * number of runs after one warmup run, and returns the best time in nanoseconds
+   * 
+   * @param packageManager the package manager whose graph is searched
+   * @param pkg            the package whose installation order is found
+   * @param runs           the number of timed runs
+   * @return the best time in nanoseconds getInstallationOrder took
+   * @throws Exception if the package manager throws an exception, which should not happen
+   */
+  private static long timeInstallationOrder(PackageManager packageManager, String pkg, int runs)
+      throws Exception {
+    packageManager.getInstallationOrder(pkg); // warms up the JIT compiler before any timed runs
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < runs; run++) {
+      long start = System.nanoTime();
+      packageManager.getInstallationOrder(pkg);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  /**
+   * Finds the installation order of all packages with the given PackageManager over the given
+   * number of runs after one warmup run, and returns the best time in nanoseconds
+   * 
+   * @param packageManager the package manager whose graph is searched
+   * @param runs           the number of timed runs
+   * @return the best time in nanoseconds getInstallationOrderForAllPackages took
+   * @throws Exception if the package manager throws an exception, which should not happen
+   */
+  private static long timeInstallationOrderForAllPackages(PackageManager packageManager, int runs)
+      throws Exception {
+    packageManager.getInstallationOrderForAllPackages(); // warms up the JIT compiler
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < runs; run++) {
+      long start = System.nanoTime();
+      packageManager.getInstallationOrderForAllPackages();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  /**
+   * Finds the package with the most dependencies with the given PackageManager and returns the
+   * elapsed time in nanoseconds. The first call finds the number of dependencies of every package,
+   * and later calls use the cached numbers until the graph changes
+   * 
+   * @param packageManager the package manager whose graph is searched
+   * @return the time in nanoseconds getPackageWithMaxDependencies took
+   * @throws Exception if the package manager throws an exception, which should not happen
+   */
+  private static long timePackageWithMaxDependencies(PackageManager packageManager)
+      throws Exception {
+    long start = System.nanoTime();
+    String maxPackage = packageManager.getPackageWithMaxDependencies();
+    long time = System.nanoTime() - start;
+    if (maxPackage.isEmpty()) { // uses the package so that the JIT compiler cannot skip finding it
+      System.out.print("");
+    }
+    return time;
+  }
+
+  /**
+   * Driver method which runs the benchmark
+   * 
+   * @param args optional command line input: the number of packages (default 100000), the greatest
+   *             number of dependencies a package can have (default 10), and the number of timed
+   *             runs (default 3)
+   */
+  public static void main(String[] args) {
+    try {
+      int numPackages = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+      int maxDependencies = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+      int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+      // writes the registry with a fixed seed so that every run reads the same packages
+      Package[] packages = createRegistry(numPackages, maxDependencies, new Random(42));
+      File registry = File.createTempFile("registry", ".json");
+      registry.deleteOnExit();
+      writeRegistry(registry, packages);
+
+      // warms up the JIT compiler before any timed runs
+      timeConstructGraph(registry.getPath());
+      timeGraph(packages);
+
+      // keeps the best time, as slower runs are slowed down by outside noise (such as GC)
+      long bestConstructGraph = Long.MAX_VALUE;
+      long bestGraph = Long.MAX_VALUE;
+      for (int run = 0; run < runs; run++) {
+        bestConstructGraph = Math.min(bestConstructGraph, timeConstructGraph(registry.getPath()));
+        bestGraph = Math.min(bestGraph, timeGraph(packages));
+      }
+      System.out.println(String.format("%,d packages with up to %d dependencies, best of %d runs",
+          numPackages, maxDependencies, runs));
+      System.out.println(String.format("%-32s %,10.1f ms", "constructGraph",
+          bestConstructGraph / 1e6));
+      System.out.println(String.format("%-32s %,10.1f ms", "addVertex and addEdge only",
+          bestGraph / 1e6));
+
+      // measures the memory of the graph, keeping the package names, which both graphs share, in
+      // memory for both measurements
+      long baseMemory = usedMemory();
+      PackageManager packageManager = new PackageManager();
+      packageManager.constructGraph(registry.getPath());
+      long graphMemory = usedMemory() - baseMemory;
+
+      // times the installation order of the last package, which depends on most of the registry
+      String lastPackage = "package" + (numPackages - 1);
+      int orderSize = packageManager.getInstallationOrder(lastPackage).size();
+      long installationOrderTime = timeInstallationOrder(packageManager, lastPackage, runs);
+      long allPackagesTime = timeInstallationOrderForAllPackages(packageManager, runs);
+      long start = System.nanoTime();
+      packageManager.freezeGraph();
+      long freezeTime = System.nanoTime() - start;
+      long csrGraphMemory = usedMemory() - baseMemory;
+      System.out.println(String.format("%-32s %,10.1f ms", "freezeGraph", freezeTime / 1e6));
+      System.out.println(String.format("%-32s %,10.1f MB", "Graph memory", graphMemory / 1e6));
+      System.out.println(
+          String.format("%-32s %,10.1f MB", "CSRGraph memory", csrGraphMemory / 1e6));
+      System.out.println(String.format("%-32s %,10.1f ms (%,d packages)",
+          "getInstallationOrder (Graph)", installationOrderTime / 1e6, orderSize));
+      System.out.println(String.format("%-32s %,10.1f ms", "getInstallationOrder (CSRGraph)",
+          timeInstallationOrder(packageManager, lastPackage, runs) / 1e6));
+      System.out.println(String.format("%-32s %,10.1f ms", "...ForAllPackages (Graph)",
+          allPackagesTime / 1e6));
+      System.out.println(String.format("%-32s %,10.1f ms", "...ForAllPackages (CSRGraph)",
+          timeInstallationOrderForAllPackages(packageManager, runs) / 1e6));
+
+      // times the package with the most dependencies on a new package manager, so that nothing is
+      // cached for its first call
+      PackageManager maxPackageManager = new PackageManager();
+      maxPackageManager.constructGraph(registry.getPath());
+      System.out.println(String.format("%-32s %,10.1f ms", "getPackageWithMaxDependencies",
+          timePackageWithMaxDependencies(maxPackageManager) / 1e6));
+      System.out.println(String.format("%-32s %,10.1f ms", "...MaxDependencies (cached)",
+          timePackageWithMaxDependencies(maxPackageManager) / 1e6));
+    } catch (Exception e) {
+      // prints out message in case any exception is thrown as none should be thrown
+      System.out.println("Usage: java PackageManagerBenchmark [numPackages] [maxDependencies] "
+          + "[runs] failed! A(n) " + e.getClass().getName() + " was thrown");
+      System.exit(1);
+    }
+  }
+}
@@ -15,6 +15,7 @@ import java.io.FileNotFoundException;
 import org.json.simple.parser.ParseException;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -24,7 +25,7 @@ import java.util.Set;
  * 
  * @author Michael Goldstein
  * @see PackageManager
- *
+ * 
  */
 public class PackageManagerTest {
   PackageManager testManager; // package manager on which all tests will be run
@@ -210,9 +211,10 @@ public class PackageManagerTest {
       // listed before Y in G's dependency list
       List<String> installOrderG = testManager.getInstallationOrder("G");
 
-      // expected install order for g
+      // expected install order for g, in which each dependency is listed right after all of its
+      // own dependencies, in the order they are listed in the JSON file
       List<String> expectecdInstallOrderG =
-          new LinkedList<String>(Arrays.asList("E", "W", "X", "Y", "A", "Z", "G"));
+          new LinkedList<String>(Arrays.asList("A", "E", "W", "X", "Y", "Z", "G"));
 
       // checks that the install order for G matches the expected install order for G
       if (!installOrderG.equals(expectecdInstallOrderG)) {
@@ -475,4 +477,163 @@ public class PackageManagerTest {
           + "in a graph with a cycle, but a " + e.getClass() + " was thrown");
     }
   }
+
+  /**
+   * Tests that getInstallationOrder() handles a long chain of dependencies, as it searches
+   * dependencies with its own stack, and that it finds a cycle which is only reached at the end of
+   * the chain
+   * 
+   * @see PackageManager#getInstallationOrder(String)
+   */
+  @Test
+  public void test016_getInstallOrderLongChain() {
+    // each package depends on the package after it, so the last package must be installed first
+    Graph graph = new Graph();
+    for (int index = 0; index < 100000; index++) {
+      graph.addEdge("package" + index, "package" + (index + 1));
+    }
+    testManager = new PackageManager(graph);
+    try {
+      List<String> installOrder = testManager.getInstallationOrder("package0");
+      if (installOrder.size() != 100001 || !installOrder.get(0).equals("package100000")
+          || !installOrder.get(100000).equals("package0")) {
+        fail("The install order for package0 should start with package100000 and end with "
+            + "package0, but has " + installOrder.size() + " packages starting with "
+            + installOrder.get(0));
+      }
+    } catch (Exception e) {
+      fail("No exception should be thrown when finding installation order for valid, acyclic graph "
+          + ", but a " + e.getClass() + " was thrown");
+    }
+
+    // makes the last package depend on the first
+    graph.addEdge("package100000", "package0");
+    try {
+      testManager.getInstallationOrder("package0");
+      fail("A CycleException should be thrown as the install order for package0 has a cycle");
+    } catch (CycleException e) {
+      // there is a cycle through every package in the chain
+    } catch (Exception e) {
+      fail("A CycleException should be thrown when finding installation order for package0 in a "
+          + "cyclic graph, but a " + e.getClass() + " was thrown");
+    }
+  }
+
+  /**
+   * Tests that the CycleExceptions thrown hold the packages of the cycles that were found, all of
+   * them for getInstallationOrderForAllPackages(), including a package which depends on itself
+   * 
+   * @see PackageManager#getInstallationOrder(String)
+   * @see PackageManager#getInstallationOrderForAllPackages()
+   * @see CycleException#getCycles()
+   */
+  @Test
+  public void test017_cycleExceptionHoldsCycles() {
+    try {
+      // A depends on B, which depends on D, which depends on E, which depends on A
+      testManager.constructGraph("testJSON003.json");
+      try {
+        testManager.getInstallationOrder("A");
+        fail("A CycleException should be thrown as the install order for A has a cycle");
+      } catch (CycleException e) {
+        Set<String> expectedCycle = new HashSet<String>(Arrays.asList("A", "B", "D", "E"));
+        if (e.getCycles().size() != 1 || !e.getCycles().get(0).equals(expectedCycle)) {
+          fail("The cycle found for A should have been " + expectedCycle + ", but the cycles "
+              + "found were " + e.getCycles());
+        }
+      }
+    } catch (Exception e) {
+      fail("No exception other than a CycleException should be thrown, but a " + e.getClass()
+          + " was thrown");
+    }
+
+    // checks that every cycle is found once by getInstallationOrderForAllPackages()
+    Graph graph = new Graph();
+    graph.addEdge("A", "B");
+    graph.addEdge("B", "C");
+    graph.addEdge("C", "A");
+    graph.addEdge("C", "D");
+    graph.addEdge("D", "E");
+    graph.addEdge("E", "D");
+    graph.addEdge("F", "F");
+    graph.addEdge("G", "A");
+    testManager = new PackageManager(graph);
+    try {
+      testManager.getInstallationOrderForAllPackages();
+      fail("A CycleException should be thrown as the graph has cycles");
+    } catch (CycleException e) {
+      Set<Set<String>> expectedCycles = new HashSet<Set<String>>();
+      expectedCycles.add(new HashSet<String>(Arrays.asList("A", "B", "C")));
+      expectedCycles.add(new HashSet<String>(Arrays.asList("D", "E")));
+      expectedCycles.add(new HashSet<String>(Arrays.asList("F")));
+      if (e.getCycles().size() != 3 || !new HashSet<Set<String>>(e.getCycles()).equals(
+          expectedCycles)) {
+        fail("The cycles found should have been " + expectedCycles + ", but were "
+            + e.getCycles());
+      }
+    }
+  }
+
+  /**
+   * Tests that the cached dependencies are found again once the graph is changed, so that
+   * getInstallationOrder(), toInstall() and getPackageWithMaxDependencies() answer for the changed
+   * graph instead of the graph they first searched
+   * 
+   * @see PackageManager#getInstallationOrder(String)
+   * @see PackageManager#toInstall(String, String)
+   * @see PackageManager#getPackageWithMaxDependencies()
+   */
+  @Test
+  public void test018_cachedDependenciesFollowGraphChanges() {
+    // A depends on B, which depends on C, and D depends on C
+    Graph graph = new Graph();
+    graph.addEdge("A", "B");
+    graph.addEdge("B", "C");
+    graph.addEdge("D", "C");
+    testManager = new PackageManager(graph);
+    try {
+      assertEquals(Arrays.asList("C", "B", "A"), testManager.getInstallationOrder("A"));
+      assertEquals(Arrays.asList("B", "A"), testManager.toInstall("A", "D"));
+      assertEquals("A", testManager.getPackageWithMaxDependencies());
+
+      // asking again gives the same answers, which can be changed by the caller
+      List<String> installOrder = testManager.getInstallationOrder("A");
+      installOrder.clear();
+      assertEquals(Arrays.asList("C", "B", "A"), testManager.getInstallationOrder("A"));
+
+      // D now depends on A and E, so D has the most dependencies and B is installed with D
+      graph.addEdge("D", "A");
+      graph.addEdge("D", "E");
+      assertEquals(Arrays.asList("C", "B", "A", "E", "D"), testManager.getInstallationOrder("D"));
+      assertEquals(new LinkedList<String>(), testManager.toInstall("B", "D"));
+      assertEquals("D", testManager.getPackageWithMaxDependencies());
+
+      // removing B's dependency on C changes the installation order of A
+      graph.removeEdge("B", "C");
+      assertEquals(Arrays.asList("B", "A"), testManager.getInstallationOrder("A"));
+      assertEquals(Arrays.asList("C"), testManager.toInstall("C", "A"));
+    } catch (Exception e) {
+      fail("No exception should be thrown when the graph is acyclic, but a " + e.getClass()
+          + " was thrown");
+    }
+
+    // removing E and then adding a cycle is found, and a removed package is not
+    graph.removeVertex("E");
+    graph.addEdge("C", "D");
+    try {
+      testManager.getPackageWithMaxDependencies();
+      fail("A CycleException should be thrown as C and D now depend on each other");
+    } catch (CycleException e) {
+      // C depends on D, which depends on C
+    }
+    try {
+      testManager.getInstallationOrder("E");
+      fail("A PackageNotFoundException should be thrown as E was removed from the graph");
+    } catch (PackageNotFoundException e) {
+      // E is no longer in the graph
+    } catch (Exception e) {
+      fail("A PackageNotFoundException should be thrown for a removed package, but a "
+          + e.getClass() + " was thrown");
+    }
+  }
 }